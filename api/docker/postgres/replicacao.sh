@@ -0,0 +1,3 @@
+#!/bin/sh
+# Libera conexões de replicação para a réplica de leitura do docker-compose
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,228 @@
+package com.contatos.api.cache;
+
+import com.contatos.api.config.LeituraReplica;
+import com.contatos.api.event.ContatoAlteradoEvent;
+import com.contatos.api.event.UsuarioAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Node-local cache of each user's contact working set: the first page(s) of the contact list, kept
+ * as the serialized JSON response, and the sorted list of the user's CPFs
+ *
+ * Business Rules:
+ * - Only the first page without search is cached, keyed by (user, sort, page size)
+ * - A page holds the response bytes and the collection ETag, so a hit needs neither the database
+ *   nor Jackson
+ * - Any write to the user's contacts drops the whole working set of the user, once when it happens
+ *   (so the writing transaction reads its own writes) and again after it commits
+ * - Data loaded while a write of the same user was in flight is returned but not stored, so stale
+ *   data can't be cached after the invalidation ran
+ * - Loads read from the primary; in a transaction already reading from a lagging replica the data
+ *   is returned but not stored (see {@link LeituraReplica})
+ * - Writes made on other nodes arrive through {@link InvalidacaoCache}
+ * - The total size is bounded in bytes; least recently used users are evicted first
+ */
+@Component
+public class ContatosUsuarioCache implements InvalidacaoCache {
+
+    /**
+     * A cached first page: the response body and the collection ETag it was read at
+     */
+    public record Pagina(byte[] json, String etag) {
+    }
+
+    private record Chave(String sort, int size) {
+    }
+
+    private record DadosUsuario(Map<Chave, Pagina> paginas, long[] cpfs) {
+
+        static final DadosUsuario VAZIO = new DadosUsuario(Map.of(), null);
+
+        int bytes() {
+            int total = cpfs != null ? cpfs.length * Long.BYTES : 0;
+            for (Pagina pagina : paginas.values()) {
+                total += pagina.json().length;
+            }
+            return total;
+        }
+    }
+
+    private static final int FAIXAS = 1024;
+
+    private final Cache<Long, DadosUsuario> dados;
+    // Geração por faixa de usuários: toda invalidação avança a faixa e descarta as cargas iniciadas antes dela
+    private final AtomicLongArray geracoes = new AtomicLongArray(FAIXAS);
+    private final long maxBytes;
+    private final int tamanhoMaximoPagina;
+
+    public ContatosUsuarioCache(MeterRegistry meterRegistry,
+                                @Value("${contatos.cache.usuario.max-bytes:33554432}") long maxBytes,
+                                @Value("${contatos.cache.usuario.expiracao-minutos:30}") long expiracaoMinutos,
+                                @Value("${contatos.cache.usuario.tamanho-maximo-pagina:100}") int tamanhoMaximoPagina) {
+        this.maxBytes = maxBytes;
+        this.tamanhoMaximoPagina = tamanhoMaximoPagina;
+        this.dados = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long usuarioId, DadosUsuario doUsuario) -> doUsuario.bytes())
+                .expireAfterAccess(Duration.ofMinutes(expiracaoMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, dados, "contatos.usuario");
+    }
+
+    /**
+     * Whether a list request is served by this cache
+     */
+    public boolean aceita(String search, int page, int size) {
+        return page == 0 && size > 0 && size <= tamanhoMaximoPagina && (search == null || search.isBlank());
+    }
+
+    /**
+     * Returns the cached page, or loads it and caches it unless the user was written meanwhile
+     *
+     * @param usuarioId owner of the contacts
+     * @param sort normalized sort of the page
+     * @param size page size
+     * @param carregar reads the page from the database; must read the ETag before the content
+     * @return the page, cached or freshly loaded
+     */
+    public Pagina obter(Long usuarioId, String sort, int size, Supplier<Pagina> carregar) {
+        Chave chave = new Chave(sort, size);
+        DadosUsuario doUsuario = dados.getIfPresent(usuarioId);
+        Pagina pagina = doUsuario != null ? doUsuario.paginas().get(chave) : null;
+        if (pagina != null) {
+            return pagina;
+        }
+
+        int faixa = faixa(usuarioId);
+        long geracao = geracoes.get(faixa);
+        Pagina carregada = LeituraReplica.noPrimario(carregar);
+        if (LeituraReplica.ativa()) {
+            // Lida de uma réplica, que pode estar atrás de uma escrita já invalidada: usada sem guardar
+            return carregada;
+        }
+        armazenar(usuarioId, faixa, geracao, atual -> {
+            Map<Chave, Pagina> paginas = new HashMap<>(atual.paginas());
+            paginas.put(chave, carregada);
+            return new DadosUsuario(Map.copyOf(paginas), atual.cpfs());
+        });
+        return carregada;
+    }
+
+    /**
+     * Whether the page is already cached, without touching its recency
+     */
+    public boolean contem(Long usuarioId, String sort, int size) {
+        DadosUsuario doUsuario = dados.policy().getIfPresentQuietly(usuarioId);
+        return doUsuario != null && doUsuario.paginas().containsKey(new Chave(sort, size));
+    }
+
+    /**
+     * Returns the user's CPFs in ascending order, or null when they aren't cached
+     */
+    public long[] getCpfs(Long usuarioId) {
+        DadosUsuario doUsuario = dados.getIfPresent(usuarioId);
+        return doUsuario != null ? doUsuario.cpfs() : null;
+    }
+
+    /**
+     * Loads the user's CPFs and caches them unless the user was written meanwhile
+     *
+     * @param usuarioId owner of the contacts
+     * @param carregar reads the CPFs in ascending order; may return null to skip caching
+     */
+    public void carregarCpfs(Long usuarioId, Supplier<long[]> carregar) {
+        int faixa = faixa(usuarioId);
+        long geracao = geracoes.get(faixa);
+        long[] cpfs = LeituraReplica.noPrimario(carregar);
+        if (cpfs != null && !LeituraReplica.ativa()) {
+            armazenar(usuarioId, faixa, geracao, atual -> new DadosUsuario(atual.paginas(), cpfs));
+        }
+    }
+
+    /**
+     * Whether the cache is close to its byte budget or the heap is nearly full; new working sets
+     * would only evict others, so prefetching should be skipped
+     */
+    public boolean sobPressao() {
+        long usado = dados.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        if (usado >= maxBytes * 9 / 10) {
+            return true;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsado = runtime.totalMemory() - runtime.freeMemory();
+        return heapUsado >= runtime.maxMemory() * 85 / 100;
+    }
+
+    /**
+     * Drops the whole working set of the user
+     */
+    public void invalidar(Long usuarioId) {
+        geracoes.incrementAndGet(faixa(usuarioId));
+        dados.invalidate(usuarioId);
+    }
+
+    @EventListener
+    public void onContatoAlterado(ContatoAlteradoEvent event) {
+        invalidar(event.usuarioId());
+    }
+
+    @TransactionalEventListener
+    public void onContatoAlteradoConfirmado(ContatoAlteradoEvent event) {
+        invalidar(event.usuarioId());
+    }
+
+    @TransactionalEventListener
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        invalidar(event.usuarioId());
+    }
+
+    @Override
+    public void invalidarContatos(Long usuarioId, Collection<Long> ids) {
+        invalidar(usuarioId);
+    }
+
+    @Override
+    public void invalidarUsuario(Long usuarioId, String email, boolean excluido) {
+        invalidar(usuarioId);
+    }
+
+    @Override
+    public void invalidarTudo() {
+        for (int i = 0; i < FAIXAS; i++) {
+            geracoes.incrementAndGet(i);
+        }
+        dados.invalidateAll();
+    }
+
+    private void armazenar(Long usuarioId, int faixa, long geracao, UnaryOperator<DadosUsuario> atualizar) {
+        // A invalidação avança a geração antes de remover, e a remoção espera este compute terminar
+        dados.asMap().compute(usuarioId, (id, atual) -> {
+            if (geracoes.get(faixa) != geracao) {
+                return atual;
+            }
+            return atualizar.apply(atual != null ? atual : DadosUsuario.VAZIO);
+        });
+    }
+
+    private static int faixa(Long usuarioId) {
+        return Long.hashCode(usuarioId) & (FAIXAS - 1);
+    }
+}
@@ -0,0 +1,60 @@
+package com.contatos.api.cache;
+
+import com.contatos.api.model.Contato;
+import com.contatos.api.model.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Evicts the Hibernate second-level cache entries written by other nodes
+ */
+@Component
+public class HibernateInvalidacaoCache implements InvalidacaoCache {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final Cache cache;
+
+    public HibernateInvalidacaoCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cache = sessionFactory.getCache();
+    }
+
+    @Override
+    public void invalidarContatos(Long usuarioId, Collection<Long> ids) {
+        ids.forEach(id -> cache.evictEntityData(Contato.class, id));
+    }
+
+    @Override
+    public void invalidarUsuario(Long usuarioId, String email, boolean excluido) {
+        cache.evictEntityData(Usuario.class, usuarioId);
+        // O email é imutável: só a exclusão torna obsoleta a resolução email -> id, que pode ser recadastrado
+        if (excluido && email != null) {
+            evictarEmail(email);
+        }
+    }
+
+    @Override
+    public void invalidarTudo() {
+        cache.evictAllRegions();
+    }
+
+    private void evictarEmail(String email) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Usuario.class);
+        NaturalIdDataAccess acesso = persister.getNaturalIdCacheAccessStrategy();
+        if (acesso == null) {
+            return;
+        }
+        // A chave inclui o tenant da sessão; abrir a sessão não toma conexão
+        try (SessionImplementor sessao = sessionFactory.openSession()) {
+            Object naturalId = persister.getNaturalIdMapping().normalizeInput(email);
+            acesso.evict(acesso.generateCacheKey(naturalId, persister, sessao));
+        }
+    }
+}
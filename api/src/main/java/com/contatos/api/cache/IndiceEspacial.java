@@ -0,0 +1,320 @@
+package com.contatos.api.cache;
+
+import com.contatos.api.model.ContatoPonto;
+import com.contatos.api.util.ArvoreKd;
+import com.contatos.api.util.GeoHash;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index of one user's contacts
+ *
+ * - Points are kept ordered by geohash, so every geohash cell is a contiguous run of points
+ * - For the coarse levels (up to {@link #NIVEL_PRECALCULADO} bits per axis) the count and the sum of
+ *   the coordinates of every non-empty cell are kept up to date on each insert, move and delete, so
+ *   clustering a whole country costs one lookup per visible cell
+ * - Finer levels only show a small area, so their cells are aggregated on demand from the points
+ *   of the visible geohash ranges
+ * - Nearest-neighbour queries use a KD-tree built on the first query; points changed after that are
+ *   searched linearly next to it until there are too many of them, then the tree is rebuilt
+ * - Updates carry the contact version and older versions are ignored, so events applied out of
+ *   order can't move a contact back
+ */
+public class IndiceEspacial {
+
+    public static final int NIVEL_PRECALCULADO = 12;
+
+    // Alterações toleradas fora da árvore antes de reconstruí-la: o mínimo ou 1/16 dos pontos
+    private static final int MIN_ALTERACOES_ARVORE = 256;
+
+    /**
+     * A cluster of contacts: the centroid of its points, how many there are and a few of their IDs
+     */
+    public record Cluster(double latitude, double longitude, int total, List<Long> amostra) {
+    }
+
+    private record Ponto(long id, double latitude, double longitude, long geohash, long versao) {
+    }
+
+    private static final class Celula {
+        final long lat;
+        final long lng;
+        int total;
+        double somaLatitude;
+        double somaLongitude;
+
+        Celula(long lat, long lng) {
+            this.lat = lat;
+            this.lng = lng;
+        }
+    }
+
+    private static final Comparator<Ponto> ORDEM = Comparator.comparingLong(Ponto::geohash).thenComparingLong(Ponto::id);
+
+    private final Map<Long, Ponto> pontos = new HashMap<>();
+    private final NavigableSet<Ponto> porGeohash = new TreeSet<>(ORDEM);
+    // niveis[n]: células do nível n indexadas pelo geohash truncado
+    @SuppressWarnings("unchecked")
+    private final Map<Long, Celula>[] niveis = new Map[NIVEL_PRECALCULADO + 1];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private ArvoreKd arvore;
+    // IDs inseridos, movidos ou removidos depois da construção da árvore
+    private final Set<Long> foraDaArvore = new HashSet<>();
+
+    public IndiceEspacial(Collection<ContatoPonto> contatos) {
+        for (int nivel = 1; nivel <= NIVEL_PRECALCULADO; nivel++) {
+            niveis[nivel] = new HashMap<>();
+        }
+        contatos.forEach(c -> adicionar(new Ponto(c.id(), c.latitude(), c.longitude(),
+                GeoHash.encode(c.latitude(), c.longitude()), c.versao())));
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return pontos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or moves a contact; ignored when the index already has this or a newer version
+     */
+    public void atualizar(long id, double latitude, double longitude, long versao) {
+        lock.writeLock().lock();
+        try {
+            Ponto atual = pontos.get(id);
+            if (atual != null) {
+                if (atual.versao() >= versao) {
+                    return;
+                }
+                retirar(atual);
+            }
+            adicionar(new Ponto(id, latitude, longitude, GeoHash.encode(latitude, longitude), versao));
+            if (arvore != null) {
+                foraDaArvore.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                Ponto atual = pontos.get(id);
+                if (atual != null) {
+                    retirar(atual);
+                    if (arvore != null) {
+                        foraDaArvore.add(id);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Groups the contacts of the cells of the given level that intersect the box
+     *
+     * @param nivel bits per axis of the grid; cells are 360/2^nivel degrees wide
+     * @param amostras how many contact IDs to return per cluster
+     * @return clusters in no particular order
+     */
+    public List<Cluster> clusters(double minLat, double minLng, double maxLat, double maxLng, int nivel, int amostras) {
+        lock.readLock().lock();
+        try {
+            return nivel <= NIVEL_PRECALCULADO
+                    ? clustersPrecalculados(minLat, minLng, maxLat, maxLng, nivel, amostras)
+                    : clustersSobDemanda(minLat, minLng, maxLat, maxLng, nivel, amostras);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k contacts nearest to the given coordinates, nearest first
+     *
+     * @return the contacts with their great-circle distance; fewer than k if the index is smaller
+     */
+    public List<ArvoreKd.Vizinho> vizinhos(double latitude, double longitude, int k) {
+        lock.readLock().lock();
+        try {
+            if (!arvoreDesatualizada()) {
+                return buscarVizinhos(latitude, longitude, k);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (arvoreDesatualizada()) {
+                reconstruirArvore();
+            }
+            return buscarVizinhos(latitude, longitude, k);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean arvoreDesatualizada() {
+        return arvore == null || foraDaArvore.size() > Math.max(MIN_ALTERACOES_ARVORE, arvore.tamanho() / 16);
+    }
+
+    private void reconstruirArvore() {
+        long[] ids = new long[pontos.size()];
+        double[] latitudes = new double[ids.length];
+        double[] longitudes = new double[ids.length];
+        int i = 0;
+        for (Ponto ponto : pontos.values()) {
+            ids[i] = ponto.id();
+            latitudes[i] = ponto.latitude();
+            longitudes[i] = ponto.longitude();
+            i++;
+        }
+        arvore = new ArvoreKd(ids, latitudes, longitudes);
+        foraDaArvore.clear();
+    }
+
+    private List<ArvoreKd.Vizinho> buscarVizinhos(double latitude, double longitude, int k) {
+        List<ArvoreKd.Vizinho> vizinhos = arvore.vizinhos(latitude, longitude, k, foraDaArvore::contains);
+        if (foraDaArvore.isEmpty()) {
+            return vizinhos;
+        }
+
+        // Pontos alterados depois da árvore: posição atual, comparada um a um
+        List<ArvoreKd.Vizinho> candidatos = new ArrayList<>(vizinhos);
+        for (Long id : foraDaArvore) {
+            Ponto ponto = pontos.get(id);
+            if (ponto != null) {
+                candidatos.add(new ArvoreKd.Vizinho(id,
+                        GeoHash.distanciaKm(latitude, longitude, ponto.latitude(), ponto.longitude())));
+            }
+        }
+        candidatos.sort(Comparator.comparingDouble(ArvoreKd.Vizinho::distanciaKm)
+                .thenComparingLong(ArvoreKd.Vizinho::id));
+        return candidatos.size() > k ? List.copyOf(candidatos.subList(0, k)) : candidatos;
+    }
+
+    private List<Cluster> clustersPrecalculados(double minLat, double minLng, double maxLat, double maxLng,
+                                                int nivel, int amostras) {
+        int deslocamento = GeoHash.BITS - nivel;
+        long lat0 = GeoHash.indiceLatitude(minLat) >> deslocamento;
+        long lat1 = GeoHash.indiceLatitude(maxLat) >> deslocamento;
+        long lng0 = GeoHash.indiceLongitude(minLng) >> deslocamento;
+        long lng1 = GeoHash.indiceLongitude(maxLng) >> deslocamento;
+        Map<Long, Celula> celulas = niveis[nivel];
+
+        List<Cluster> clusters = new ArrayList<>();
+        if ((lat1 - lat0 + 1) * (lng1 - lng0 + 1) <= celulas.size()) {
+            // Área pequena diante do número de células: consulta célula a célula
+            for (long lng = lng0; lng <= lng1; lng++) {
+                for (long lat = lat0; lat <= lat1; lat++) {
+                    long chave = GeoHash.intercalar(lng, lat);
+                    Celula celula = celulas.get(chave);
+                    if (celula != null) {
+                        clusters.add(cluster(celula, chave, nivel, amostras));
+                    }
+                }
+            }
+        } else {
+            celulas.forEach((chave, celula) -> {
+                if (celula.lat >= lat0 && celula.lat <= lat1 && celula.lng >= lng0 && celula.lng <= lng1) {
+                    clusters.add(cluster(celula, chave, nivel, amostras));
+                }
+            });
+        }
+        return clusters;
+    }
+
+    private List<Cluster> clustersSobDemanda(double minLat, double minLng, double maxLat, double maxLng,
+                                             int nivel, int amostras) {
+        Map<Long, Celula> celulas = new LinkedHashMap<>();
+        Map<Long, List<Long>> ids = new HashMap<>();
+        for (GeoHash.Intervalo intervalo : GeoHash.cobrir(minLat, minLng, maxLat, maxLng)) {
+            for (Ponto ponto : faixa(intervalo)) {
+                if (ponto.latitude() < minLat || ponto.latitude() > maxLat
+                        || ponto.longitude() < minLng || ponto.longitude() > maxLng) {
+                    continue;
+                }
+                long chave = GeoHash.celula(ponto.geohash(), nivel);
+                Celula celula = celulas.computeIfAbsent(chave, c -> new Celula(0, 0));
+                celula.total++;
+                celula.somaLatitude += ponto.latitude();
+                celula.somaLongitude += ponto.longitude();
+                List<Long> amostra = ids.computeIfAbsent(chave, c -> new ArrayList<>(amostras));
+                if (amostra.size() < amostras) {
+                    amostra.add(ponto.id());
+                }
+            }
+        }
+
+        List<Cluster> clusters = new ArrayList<>(celulas.size());
+        celulas.forEach((chave, celula) -> clusters.add(new Cluster(celula.somaLatitude / celula.total,
+                celula.somaLongitude / celula.total, celula.total, ids.get(chave))));
+        return clusters;
+    }
+
+    private Cluster cluster(Celula celula, long chave, int nivel, int amostras) {
+        List<Long> amostra = new ArrayList<>(Math.min(amostras, celula.total));
+        for (Ponto ponto : faixa(GeoHash.intervalo(chave, nivel))) {
+            if (amostra.size() == amostras) {
+                break;
+            }
+            amostra.add(ponto.id());
+        }
+        return new Cluster(celula.somaLatitude / celula.total, celula.somaLongitude / celula.total,
+                celula.total, amostra);
+    }
+
+    private NavigableSet<Ponto> faixa(GeoHash.Intervalo intervalo) {
+        return porGeohash.subSet(new Ponto(Long.MIN_VALUE, 0, 0, intervalo.min(), 0), true,
+                new Ponto(Long.MAX_VALUE, 0, 0, intervalo.max(), 0), true);
+    }
+
+    private void adicionar(Ponto ponto) {
+        pontos.put(ponto.id(), ponto);
+        porGeohash.add(ponto);
+        long lat = GeoHash.indiceLatitude(ponto.latitude());
+        long lng = GeoHash.indiceLongitude(ponto.longitude());
+        for (int nivel = 1; nivel <= NIVEL_PRECALCULADO; nivel++) {
+            int deslocamento = GeoHash.BITS - nivel;
+            Celula celula = niveis[nivel].computeIfAbsent(GeoHash.celula(ponto.geohash(), nivel),
+                    chave -> new Celula(lat >> deslocamento, lng >> deslocamento));
+            celula.total++;
+            celula.somaLatitude += ponto.latitude();
+            celula.somaLongitude += ponto.longitude();
+        }
+    }
+
+    private void retirar(Ponto ponto) {
+        pontos.remove(ponto.id());
+        porGeohash.remove(ponto);
+        for (int nivel = 1; nivel <= NIVEL_PRECALCULADO; nivel++) {
+            long chave = GeoHash.celula(ponto.geohash(), nivel);
+            Celula celula = niveis[nivel].get(chave);
+            if (--celula.total == 0) {
+                niveis[nivel].remove(chave);
+            } else {
+                celula.somaLatitude -= ponto.latitude();
+                celula.somaLongitude -= ponto.longitude();
+            }
+        }
+    }
+}
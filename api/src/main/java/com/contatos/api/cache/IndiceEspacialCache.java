@@ -0,0 +1,132 @@
+package com.contatos.api.cache;
+
+import com.contatos.api.config.LeituraReplica;
+import com.contatos.api.dto.ContatoResponse;
+import com.contatos.api.event.ContatoAlteradoEvent;
+import com.contatos.api.event.UsuarioAlteradoEvent;
+import com.contatos.api.model.ContatoPonto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Node-local spatial indexes of the users' contacts, built on first use
+ *
+ * Business Rules:
+ * - Built lazily from the user's coordinates and evicted by least recent use; the budget is a total
+ *   number of indexed contacts across users
+ * - Committed writes of this node are applied incrementally: creates and moves update the point,
+ *   deletes remove it
+ * - An index loaded while a write of the same user was committed is used once but not kept, since
+ *   the load may have missed that write
+ * - Indexes are loaded from the primary; one read by a transaction already on a replica is used
+ *   once but not kept, since the replica may lag behind a write (see {@link LeituraReplica})
+ * - Writes made on other nodes don't carry coordinates, so they drop the user's index
+ */
+@Component
+public class IndiceEspacialCache implements InvalidacaoCache {
+
+    private static final int FAIXAS = 1024;
+
+    private final Cache<Long, IndiceEspacial> indices;
+    // Geração por faixa de usuários: avança a cada escrita e descarta as cargas iniciadas antes dela
+    private final AtomicLongArray geracoes = new AtomicLongArray(FAIXAS);
+
+    public IndiceEspacialCache(MeterRegistry meterRegistry,
+                               @Value("${contatos.geo.indice.max-pontos:2000000}") long maxPontos,
+                               @Value("${contatos.geo.indice.expiracao-minutos:30}") long expiracaoMinutos) {
+        this.indices = Caffeine.newBuilder()
+                .maximumWeight(maxPontos)
+                .weigher((Long usuarioId, IndiceEspacial indice) -> Math.max(1, indice.tamanho()))
+                .expireAfterAccess(Duration.ofMinutes(expiracaoMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indices, "contatos.indice-espacial");
+    }
+
+    /**
+     * Returns the user's index, building it when absent
+     *
+     * @param carregar reads the coordinates of all of the user's contacts
+     */
+    public IndiceEspacial obter(Long usuarioId, Supplier<List<ContatoPonto>> carregar) {
+        IndiceEspacial indice = indices.getIfPresent(usuarioId);
+        if (indice != null) {
+            return indice;
+        }
+
+        int faixa = faixa(usuarioId);
+        long geracao = geracoes.get(faixa);
+        IndiceEspacial carregado = new IndiceEspacial(LeituraReplica.noPrimario(carregar));
+        if (LeituraReplica.ativa()) {
+            // Lido de uma réplica, que pode estar atrás de uma escrita já invalidada: usado sem guardar
+            return carregado;
+        }
+        // A escrita avança a geração antes de consultar o cache, e a consulta espera este compute terminar
+        indices.asMap().compute(usuarioId, (id, atual) -> {
+            if (atual != null) {
+                return atual;
+            }
+            return geracoes.get(faixa) == geracao ? carregado : null;
+        });
+        return carregado;
+    }
+
+    @TransactionalEventListener
+    public void onContatoAlterado(ContatoAlteradoEvent event) {
+        geracoes.incrementAndGet(faixa(event.usuarioId()));
+        indices.asMap().computeIfPresent(event.usuarioId(), (id, indice) -> {
+            ContatoResponse contato = event.contato();
+            if (event.tipo() == ContatoAlteradoEvent.Tipo.EXCLUIDO) {
+                indice.remover(event.ids());
+            } else if (contato.getLatitude() != null && contato.getLongitude() != null) {
+                indice.atualizar(contato.getId(), contato.getLatitude(), contato.getLongitude(), contato.getVersao());
+            }
+            return indice;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        invalidarUsuario(event.usuarioId(), event.email(), event.excluido());
+    }
+
+    @Override
+    public void invalidarContatos(Long usuarioId, Collection<Long> ids) {
+        invalidar(usuarioId);
+    }
+
+    @Override
+    public void invalidarUsuario(Long usuarioId, String email, boolean excluido) {
+        if (excluido) {
+            invalidar(usuarioId);
+        }
+    }
+
+    @Override
+    public void invalidarTudo() {
+        for (int i = 0; i < FAIXAS; i++) {
+            geracoes.incrementAndGet(i);
+        }
+        indices.invalidateAll();
+    }
+
+    private void invalidar(Long usuarioId) {
+        geracoes.incrementAndGet(faixa(usuarioId));
+        indices.invalidate(usuarioId);
+    }
+
+    private static int faixa(Long usuarioId) {
+        return Long.hashCode(usuarioId) & (FAIXAS - 1);
+    }
+}
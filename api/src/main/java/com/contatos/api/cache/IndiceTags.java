@@ -0,0 +1,179 @@
+package com.contatos.api.cache;
+
+import com.contatos.api.model.ContatoTags;
+import com.contatos.api.util.BitmapCompacto;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag index of one user's contacts: one compressed bitmap per tag
+ *
+ * - Each contact gets a dense ordinal on its first appearance; bitmaps hold ordinals, which stay
+ *   small and clustered where contact IDs (global across users) would be sparse
+ * - A bitmap of all live ordinals backs the NOT filters
+ * - Creates, tag changes and deletes update only the bitmaps of the tags involved; ordinals of
+ *   deleted contacts are not reused until the index is rebuilt
+ * - Updates carry the contact version and older versions are ignored, so events applied out of
+ *   order can't bring old tags back
+ */
+public class IndiceTags {
+
+    private final Map<Long, Integer> ordinais = new HashMap<>();
+    private long[] ids = new long[16];
+    private long[] versoes = new long[16];
+    private List<String>[] tagsPorOrdinal = novoArray(16);
+    private final Map<String, BitmapCompacto> porTag = new HashMap<>();
+    private final BitmapCompacto todos = new BitmapCompacto();
+    private int proximoOrdinal;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public IndiceTags(Collection<ContatoTags> contatos) {
+        contatos.forEach(c -> aplicar(c.id(), c.tags(), c.versao()));
+    }
+
+    /**
+     * Number of contacts indexed, used to weigh the index in the cache
+     */
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return ordinais.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void atualizar(long id, List<String> tags, long versao) {
+        lock.writeLock().lock();
+        try {
+            aplicar(id, tags, versao);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Collection<Long> removidos) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : removidos) {
+                Integer ordinal = ordinais.remove(id);
+                if (ordinal != null) {
+                    trocarTags(ordinal, tagsPorOrdinal[ordinal], List.of());
+                    tagsPorOrdinal[ordinal] = null;
+                    todos.remover(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs of the contacts matching the tag filters, in ascending order
+     *
+     * @param todas contacts must have all these tags (none given: no restriction)
+     * @param algumas contacts must have at least one of these (none given: no restriction)
+     * @param nenhuma contacts must have none of these
+     */
+    public long[] filtrar(Collection<String> todas, Collection<String> algumas, Collection<String> nenhuma) {
+        lock.readLock().lock();
+        try {
+            BitmapCompacto resultado = todos;
+            for (String tag : todas) {
+                resultado = resultado.e(bitmap(tag));
+            }
+            if (!algumas.isEmpty()) {
+                BitmapCompacto alguma = new BitmapCompacto();
+                for (String tag : algumas) {
+                    alguma = alguma.ou(bitmap(tag));
+                }
+                resultado = resultado.e(alguma);
+            }
+            for (String tag : nenhuma) {
+                resultado = resultado.menos(bitmap(tag));
+            }
+
+            long[] encontrados = new long[resultado.cardinalidade()];
+            int[] n = {0};
+            resultado.paraCada(ordinal -> encontrados[n[0]++] = ids[ordinal]);
+            Arrays.sort(encontrados);
+            return encontrados;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of contacts per tag, in tag order
+     */
+    public Map<String, Integer> contagens() {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> contagens = new TreeMap<>();
+            porTag.forEach((tag, bitmap) -> contagens.put(tag, bitmap.cardinalidade()));
+            return contagens;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitmapCompacto bitmap(String tag) {
+        BitmapCompacto bitmap = porTag.get(tag);
+        return bitmap != null ? bitmap : new BitmapCompacto();
+    }
+
+    private void aplicar(long id, List<String> tags, long versao) {
+        Integer ordinal = ordinais.get(id);
+        if (ordinal == null) {
+            ordinal = novoOrdinal(id);
+        } else if (versoes[ordinal] > versao) {
+            return;
+        }
+        versoes[ordinal] = versao;
+        trocarTags(ordinal, tagsPorOrdinal[ordinal], tags);
+        tagsPorOrdinal[ordinal] = List.copyOf(tags);
+    }
+
+    private int novoOrdinal(long id) {
+        int ordinal = proximoOrdinal++;
+        if (ordinal == ids.length) {
+            ids = Arrays.copyOf(ids, ordinal * 2);
+            versoes = Arrays.copyOf(versoes, ordinal * 2);
+            tagsPorOrdinal = Arrays.copyOf(tagsPorOrdinal, ordinal * 2);
+        }
+        ids[ordinal] = id;
+        tagsPorOrdinal[ordinal] = List.of();
+        ordinais.put(id, ordinal);
+        todos.adicionar(ordinal);
+        return ordinal;
+    }
+
+    private void trocarTags(int ordinal, List<String> anteriores, List<String> novas) {
+        for (String tag : anteriores) {
+            if (!novas.contains(tag)) {
+                BitmapCompacto bitmap = porTag.get(tag);
+                bitmap.remover(ordinal);
+                if (bitmap.vazio()) {
+                    porTag.remove(tag);
+                }
+            }
+        }
+        for (String tag : novas) {
+            if (!anteriores.contains(tag)) {
+                porTag.computeIfAbsent(tag, t -> new BitmapCompacto()).adicionar(ordinal);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String>[] novoArray(int tamanho) {
+        return new List[tamanho];
+    }
+}
@@ -0,0 +1,29 @@
+package com.contatos.api.cache;
+
+import java.util.Collection;
+
+/**
+ * A node-local cache of users or contacts that must drop entries written by other nodes
+ *
+ * Implementations are called by the cluster invalidation bus ({@link InvalidacaoCacheOuvinte}) for
+ * writes made on other API replicas; writes made on this node are handled by each cache itself.
+ */
+public interface InvalidacaoCache {
+
+    /**
+     * Contacts of the user were created, changed or deleted
+     */
+    void invalidarContatos(Long usuarioId, Collection<Long> ids);
+
+    /**
+     * The user row changed; when {@code excluido}, the user and all of their contacts are gone
+     * (the contact IDs arrive through {@link #invalidarContatos}) and {@code email} may be registered
+     * again. {@code email} is null for plain changes, since it never changes
+     */
+    void invalidarUsuario(Long usuarioId, String email, boolean excluido);
+
+    /**
+     * Invalidations may have been lost (e.g. the bus connection dropped): drop everything
+     */
+    void invalidarTudo();
+}
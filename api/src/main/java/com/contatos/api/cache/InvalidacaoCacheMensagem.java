@@ -0,0 +1,121 @@
+package com.contatos.api.cache;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact text encoding of a batch of invalidations, sent as a PostgreSQL NOTIFY payload
+ *
+ * Format: {@code <node>|<sentAtMillis>|<entry>;<entry>...} where each entry is
+ * {@code c<usuarioId>:<id>,<id>...} (contacts), {@code u<usuarioId>} (user changed) or
+ * {@code x<usuarioId>:<email>} (user purged, with the URL-encoded email whose natural ID resolution
+ * must go). Batches larger than the NOTIFY payload limit are split.
+ *
+ * @param no ID of the node that made the writes
+ * @param enviadoEm send time, used for the propagation lag metric
+ * @param contatos contact IDs by owner
+ * @param usuarios changed users
+ * @param usuariosExcluidos purged users and their emails (null if unknown)
+ */
+public record InvalidacaoCacheMensagem(String no, long enviadoEm, Map<Long, Set<Long>> contatos,
+                                       Set<Long> usuarios, Map<Long, String> usuariosExcluidos) {
+
+    // PostgreSQL rejects NOTIFY payloads of 8000 bytes or more; keep a margin
+    static final int TAMANHO_MAXIMO = 7500;
+
+    /**
+     * Encodes the batch into as many payloads as needed to stay under the NOTIFY limit
+     */
+    public List<String> codificar() {
+        List<String> entradas = new ArrayList<>();
+        usuariosExcluidos.forEach((id, email) -> entradas.add("x" + id
+                + (email != null ? ":" + URLEncoder.encode(email, StandardCharsets.UTF_8) : "")));
+        usuarios.forEach(id -> entradas.add("u" + id));
+        contatos.forEach((usuarioId, ids) -> dividirContatos(usuarioId, ids, entradas));
+
+        String cabecalho = no + "|" + enviadoEm + "|";
+        List<String> payloads = new ArrayList<>();
+        StringBuilder atual = new StringBuilder(cabecalho);
+        for (String entrada : entradas) {
+            if (atual.length() > cabecalho.length()
+                    && atual.length() + 1 + entrada.length() > TAMANHO_MAXIMO) {
+                payloads.add(atual.toString());
+                atual = new StringBuilder(cabecalho);
+            }
+            if (atual.length() > cabecalho.length()) {
+                atual.append(';');
+            }
+            atual.append(entrada);
+        }
+        if (atual.length() > cabecalho.length()) {
+            payloads.add(atual.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    public static InvalidacaoCacheMensagem decodificar(String payload) {
+        String[] partes = payload.split("\\|", 3);
+        if (partes.length != 3) {
+            throw new IllegalArgumentException("Mensagem de invalidação inválida: " + payload);
+        }
+
+        Map<Long, Set<Long>> contatos = new LinkedHashMap<>();
+        Set<Long> usuarios = new LinkedHashSet<>();
+        Map<Long, String> excluidos = new LinkedHashMap<>();
+        for (String entrada : partes[2].split(";")) {
+            if (entrada.isEmpty()) {
+                continue;
+            }
+            String valor = entrada.substring(1);
+            switch (entrada.charAt(0)) {
+                case 'x' -> {
+                    int separador = valor.indexOf(':');
+                    if (separador < 0) {
+                        excluidos.put(Long.parseLong(valor), null);
+                    } else {
+                        excluidos.put(Long.parseLong(valor.substring(0, separador)),
+                                URLDecoder.decode(valor.substring(separador + 1), StandardCharsets.UTF_8));
+                    }
+                }
+                case 'u' -> usuarios.add(Long.parseLong(valor));
+                case 'c' -> {
+                    int separador = valor.indexOf(':');
+                    Set<Long> ids = contatos.computeIfAbsent(Long.parseLong(valor.substring(0, separador)),
+                            id -> new LinkedHashSet<>());
+                    for (String id : valor.substring(separador + 1).split(",")) {
+                        ids.add(Long.parseLong(id));
+                    }
+                }
+                default -> throw new IllegalArgumentException("Entrada de invalidação inválida: " + entrada);
+            }
+        }
+        return new InvalidacaoCacheMensagem(partes[0], Long.parseLong(partes[1]), contatos, usuarios, excluidos);
+    }
+
+    private static void dividirContatos(Long usuarioId, Set<Long> ids, List<String> entradas) {
+        String prefixo = "c" + usuarioId + ":";
+        StringBuilder atual = new StringBuilder(prefixo);
+        for (Long id : ids) {
+            String valor = id.toString();
+            if (atual.length() > prefixo.length() && atual.length() + 1 + valor.length() > TAMANHO_MAXIMO / 2) {
+                entradas.add(atual.toString());
+                atual = new StringBuilder(prefixo);
+            }
+            if (atual.length() > prefixo.length()) {
+                atual.append(',');
+            }
+            atual.append(valor);
+        }
+        entradas.add(atual.toString());
+    }
+}
@@ -0,0 +1,163 @@
+package com.contatos.api.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * LISTENs for invalidations published by the other replicas and evicts the local caches
+ * 
+ * Business Rules:
+ * - Uses a dedicated connection outside the pool, held for the lifetime of the node
+ * - Messages sent by this node are ignored (its own caches are already up to date)
+ * - If the connection drops, notifications sent meanwhile are lost: after reconnecting, every
+ *   local cache is flushed before listening again
+ * - The send-to-receive lag is recorded as a metric (assumes roughly synchronized clocks)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "contatos.cache.invalidacao.enabled", havingValue = "true")
+public class InvalidacaoCacheOuvinte {
+
+    private static final int ESPERA_MS = 5000;
+    private static final long RECONEXAO_MAXIMA_MS = 30000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final List<InvalidacaoCache> caches;
+    private final String no;
+    private final String canal;
+    private final Timer atraso;
+    private final Counter recebidas;
+    private final Counter reconexoes;
+
+    private volatile boolean ativo;
+    private Thread thread;
+
+    public InvalidacaoCacheOuvinte(DataSourceProperties dataSourceProperties, List<InvalidacaoCache> caches,
+                                   InvalidacaoCachePublicador publicador, MeterRegistry meterRegistry,
+                                   @Value("${contatos.cache.invalidacao.canal:cache_invalidacao}") String canal) {
+        if (!canal.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Canal de invalidação inválido: " + canal);
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.caches = caches;
+        this.no = publicador.getNo();
+        this.canal = canal;
+        this.atraso = Timer.builder("cache.invalidacao.atraso")
+                .description("Tempo entre o envio de uma invalidação por outro nó e o seu processamento aqui")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.recebidas = Counter.builder("cache.invalidacao.recebidas")
+                .description("Mensagens de invalidação de outros nós processadas")
+                .register(meterRegistry);
+        this.reconexoes = Counter.builder("cache.invalidacao.reconexoes")
+                .description("Reconexões do LISTEN, cada uma seguida de limpeza completa dos caches")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        ativo = true;
+        thread = Thread.ofPlatform().daemon().name("cache-invalidacao").start(this::executar);
+    }
+
+    @PreDestroy
+    public void parar() {
+        ativo = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void executar() {
+        boolean conectouAntes = false;
+        long espera = 1000;
+        while (ativo) {
+            try (Connection conexao = conectar()) {
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("LISTEN " + canal);
+                }
+                if (conectouAntes) {
+                    // Anything published while disconnected was missed
+                    reconexoes.increment();
+                    caches.forEach(InvalidacaoCache::invalidarTudo);
+                    log.info("LISTEN {} restabelecido; caches locais esvaziados", canal);
+                }
+                conectouAntes = true;
+                espera = 1000;
+                escutar(conexao);
+            } catch (SQLException | RuntimeException e) {
+                if (!ativo) {
+                    return;
+                }
+                log.warn("Conexão do LISTEN {} perdida; reconectando em {} ms", canal, espera, e);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                espera = Math.min(espera * 2, RECONEXAO_MAXIMA_MS);
+            }
+        }
+    }
+
+    private void escutar(Connection conexao) throws SQLException {
+        PGConnection pg = conexao.unwrap(PGConnection.class);
+        while (ativo) {
+            PGNotification[] notificacoes = pg.getNotifications(ESPERA_MS);
+            if (notificacoes == null || notificacoes.length == 0) {
+                // Round trip so a silently dead connection is noticed
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notificacao : notificacoes) {
+                processar(notificacao.getParameter());
+            }
+        }
+    }
+
+    void processar(String payload) {
+        InvalidacaoCacheMensagem mensagem;
+        try {
+            mensagem = InvalidacaoCacheMensagem.decodificar(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Mensagem de invalidação ignorada: {}", payload);
+            return;
+        }
+        if (no.equals(mensagem.no())) {
+            return;
+        }
+
+        for (InvalidacaoCache cache : caches) {
+            mensagem.usuariosExcluidos().forEach((id, email) -> cache.invalidarUsuario(id, email, true));
+            mensagem.usuarios().forEach(id -> cache.invalidarUsuario(id, null, false));
+            mensagem.contatos().forEach(cache::invalidarContatos);
+        }
+        recebidas.increment();
+        atraso.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - mensagem.enviadoEm())));
+    }
+
+    private Connection conectar() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+}
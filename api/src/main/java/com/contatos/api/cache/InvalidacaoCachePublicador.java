@@ -0,0 +1,116 @@
+package com.contatos.api.cache;
+
+import com.contatos.api.event.ContatoAlteradoEvent;
+import com.contatos.api.event.ContatosExpurgadosEvent;
+import com.contatos.api.event.UsuarioAlteradoEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Publishes this node's committed user/contact writes to the other replicas via PostgreSQL NOTIFY
+ * 
+ * Business Rules:
+ * - Only committed writes are published
+ * - Writes are buffered for a short interval and coalesced (the same contact written ten times is
+ *   sent once), then sent as few payloads as the NOTIFY size limit allows
+ * - Each message carries this node's ID so the node ignores its own messages
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "contatos.cache.invalidacao.enabled", havingValue = "true")
+public class InvalidacaoCachePublicador {
+
+    private final String no = UUID.randomUUID().toString().substring(0, 8);
+    private final JdbcTemplate jdbcTemplate;
+    private final String canal;
+    private final Counter enviadas;
+
+    private Map<Long, Set<Long>> contatos = new LinkedHashMap<>();
+    private Set<Long> usuarios = new LinkedHashSet<>();
+    private Map<Long, String> usuariosExcluidos = new LinkedHashMap<>();
+
+    public InvalidacaoCachePublicador(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                      @Value("${contatos.cache.invalidacao.canal:cache_invalidacao}") String canal) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.canal = canal;
+        this.enviadas = Counter.builder("cache.invalidacao.enviadas")
+                .description("Mensagens NOTIFY de invalidação enviadas por este nó")
+                .register(meterRegistry);
+    }
+
+    public String getNo() {
+        return no;
+    }
+
+    @TransactionalEventListener
+    public synchronized void onContatoAlterado(ContatoAlteradoEvent event) {
+        contatos.computeIfAbsent(event.usuarioId(), id -> new LinkedHashSet<>()).addAll(event.ids());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onContatosExpurgados(ContatosExpurgadosEvent event) {
+        contatos.computeIfAbsent(event.usuarioId(), id -> new LinkedHashSet<>()).addAll(event.ids());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        if (event.excluido()) {
+            // The contacts went out chunk by chunk (ContatosExpurgadosEvent), so the other nodes evict only them
+            usuariosExcluidos.put(event.usuarioId(), event.email());
+        } else {
+            usuarios.add(event.usuarioId());
+        }
+    }
+
+    /**
+     * Sends the buffered invalidations; runs every few milliseconds
+     */
+    @Scheduled(fixedDelayString = "${contatos.cache.invalidacao.intervalo-ms:50}")
+    public void enviar() {
+        InvalidacaoCacheMensagem mensagem = drenar();
+        if (mensagem == null) {
+            return;
+        }
+        for (String payload : mensagem.codificar()) {
+            try {
+                // pg_notify instead of NOTIFY so the payload is a bind parameter
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", String.class, canal, payload);
+                enviadas.increment();
+            } catch (RuntimeException e) {
+                // Other nodes keep stale entries until their TTL; nothing to retry against
+                log.warn("Falha ao publicar invalidação de cache", e);
+            }
+        }
+    }
+
+    private synchronized InvalidacaoCacheMensagem drenar() {
+        if (contatos.isEmpty() && usuarios.isEmpty() && usuariosExcluidos.isEmpty()) {
+            return null;
+        }
+        InvalidacaoCacheMensagem mensagem = new InvalidacaoCacheMensagem(no, System.currentTimeMillis(),
+                contatos, usuarios, usuariosExcluidos);
+        contatos = new LinkedHashMap<>();
+        usuarios = new LinkedHashSet<>();
+        usuariosExcluidos = new LinkedHashMap<>();
+        return mensagem;
+    }
+
+    List<String> drenarPayloads() {
+        InvalidacaoCacheMensagem mensagem = drenar();
+        return mensagem == null ? List.of() : mensagem.codificar();
+    }
+}
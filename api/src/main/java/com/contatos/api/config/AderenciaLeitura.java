@@ -0,0 +1,56 @@
+package com.contatos.api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes window of the authenticated users, kept in memory on each node
+ *
+ * Business Rules:
+ * - A commit of a read-write transaction marks the current user for the configured window
+ * - While marked, the user's read-only transactions go to the primary instead of a replica
+ * - Requests without an authenticated user (login, background jobs) are never marked
+ * - The window is node-local: behind a load balancer without session affinity, a request served by
+ *   another node may still read from a replica, so the window must exceed the replicas' maximum lag
+ */
+public class AderenciaLeitura {
+
+    private final Cache<String, Boolean> escritasRecentes;
+
+    public AderenciaLeitura(Duration janela) {
+        this.escritasRecentes = Caffeine.newBuilder()
+                .expireAfterWrite(janela)
+                .build();
+    }
+
+    /**
+     * Marks the current user as having just written
+     */
+    public void registrarEscrita() {
+        String usuario = usuarioAtual();
+        if (usuario != null) {
+            escritasRecentes.put(usuario, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Whether the current user wrote within the window
+     */
+    public boolean escreveuRecentemente() {
+        String usuario = usuarioAtual();
+        return usuario != null && escritasRecentes.getIfPresent(usuario) != null;
+    }
+
+    private static String usuarioAtual() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return auth.getName();
+    }
+}
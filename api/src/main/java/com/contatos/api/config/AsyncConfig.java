@@ -0,0 +1,106 @@
+package com.contatos.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Executores dedicados para tarefas em segundo plano
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Executor do expurgo de contas: uma única thread, para que os lotes de DELETE
+     * de contas diferentes não disputem conexões com as requisições da API
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor contaExclusaoExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("conta-exclusao-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor do aquecimento de cache no login: poucas threads de prioridade mínima e fila limitada;
+     * com a fila cheia o aquecimento é recusado em vez de acumular trabalho
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor contatoAquecimentoExecutor(
+            @Value("${contatos.cache.aquecimento.threads:2}") int threads,
+            @Value("${contatos.cache.aquecimento.fila:200}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("contato-aquecimento-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor das buscas de duplicados de agendas grandes: só agenda a busca, que divide a
+     * comparação no pool fork/join abaixo; fila limitada, com a fila cheia a busca é recusada
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor contatoDuplicidadeExecutor(
+            @Value("${contatos.duplicados.threads:1}") int threads,
+            @Value("${contatos.duplicados.fila:50}") int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("contato-duplicidade-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool fork/join da comparação de duplicados, separado do pool comum para que uma agenda
+     * grande não ocupe as threads usadas por parallel streams e CompletableFutures da aplicação
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool contatoDuplicidadePool(
+            @Value("${contatos.duplicados.paralelismo:0}") int paralelismo) {
+        return new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Executor da gravação do histórico de contatos disparada por lote cheio: uma thread, já que
+     * só um consumidor drena os buffers por vez; a gravação periódica cobre uma tarefa recusada
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor contatoAuditoriaExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("contato-auditoria-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor das escritas nos streams SSE: uma virtual thread por envio, já que cada envio
+     * pode bloquear em I/O de rede de um cliente lento sem prender threads de plataforma
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService contatoStreamExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("contato-stream-", 0).factory());
+    }
+}
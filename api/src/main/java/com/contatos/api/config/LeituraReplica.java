@@ -0,0 +1,97 @@
+package com.contatos.api.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps data read from a replica out of the node-local caches
+ *
+ * A replica may lag behind a write whose invalidation already ran, so whatever it returns can't be
+ * cached as current: it would stay stale until the next write or the cache expiry.
+ *
+ * Business Rules:
+ * - A transaction that takes a replica connection is marked until it completes, and its Hibernate
+ *   sessions switch to CacheMode.GET: they still read the second-level cache but don't put what
+ *   they load; the previous mode is restored when the transaction completes
+ * - Loads for the node-local caches run with the primary pinned: if the transaction has no
+ *   connection yet, it takes one from the primary, and what it loads can be cached
+ * - If the transaction already reads from a replica, the load is used but not cached
+ */
+public final class LeituraReplica {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private LeituraReplica() {
+    }
+
+    /**
+     * Runs a load with the primary pinned for connections taken meanwhile
+     */
+    public static <T> T noPrimario(Supplier<T> carregar) {
+        Boolean anterior = PRIMARIO.get();
+        PRIMARIO.set(Boolean.TRUE);
+        try {
+            return carregar.get();
+        } finally {
+            if (anterior == null) {
+                PRIMARIO.remove();
+            } else {
+                PRIMARIO.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * Whether the current transaction reads from a replica; what it loads must not be cached
+     */
+    public static boolean ativa() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getSynchronizations().stream()
+                        .anyMatch(Marcador.class::isInstance);
+    }
+
+    static boolean primarioFixado() {
+        return PRIMARIO.get() != null;
+    }
+
+    /**
+     * Marks the current transaction as reading from a replica; called when a replica connection is handed out
+     */
+    static void registrar() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || ativa()) {
+            return;
+        }
+        Map<Session, CacheMode> anteriores = new IdentityHashMap<>();
+        for (Object recurso : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (recurso instanceof EntityManagerHolder holder) {
+                Session session = holder.getEntityManager().unwrap(Session.class);
+                anteriores.put(session, session.getCacheMode());
+                session.setCacheMode(CacheMode.GET);
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new Marcador(anteriores));
+    }
+
+    /**
+     * Synchronization that marks the transaction and restores the sessions' cache mode at its end
+     */
+    private record Marcador(Map<Session, CacheMode> anteriores) implements TransactionSynchronization {
+
+        @Override
+        public void afterCompletion(int status) {
+            // Com open-session-in-view a sessão continua aberta para as transações seguintes da requisição
+            anteriores.forEach((session, modo) -> {
+                if (session.isOpen()) {
+                    session.setCacheMode(modo);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.contatos.api.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Primary database connections; a read-write transaction that uses one marks the current user for
+ * read-your-writes once it commits
+ */
+public class PrimarioDataSource extends DelegatingDataSource {
+
+    private final AderenciaLeitura aderencia;
+
+    public PrimarioDataSource(DataSource primario, AderenciaLeitura aderencia) {
+        super(primario);
+        this.aderencia = aderencia;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        registrarEscrita();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        registrarEscrita();
+        return super.getConnection(username, password);
+    }
+
+    private void registrarEscrita() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aderencia.registrarEscrita();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.contatos.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas for read-only transactions
+ *
+ * Business Rules:
+ * - Only active with contatos.replicas.enabled=true; otherwise the single auto-configured pool is used
+ * - Connections are taken lazily, at the first statement, so the transaction's read-only flag is
+ *   known: read-only transactions go to the replicas, everything else (including Flyway and code
+ *   outside transactions) to the primary
+ * - Hibernate releases the connection at the end of each transaction, so a write after a read in
+ *   the same request doesn't reuse the replica connection kept open by open-session-in-view
+ * - Replica reads don't fill the second-level cache or the node-local caches (see {@link LeituraReplica})
+ */
+@Configuration
+@ConditionalOnProperty(name = "contatos.replicas.enabled", havingValue = "true")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public AderenciaLeitura aderenciaLeitura(@Value("${contatos.replicas.aderencia-ms:5000}") long aderenciaMs) {
+        return new AderenciaLeitura(Duration.ofMillis(aderenciaMs));
+    }
+
+    @Bean
+    public ReplicasDataSource replicasDataSource(
+            HikariDataSource primarioDataSource,
+            AderenciaLeitura aderenciaLeitura,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${contatos.replicas.urls}") List<String> urls,
+            @Value("${contatos.replicas.username:}") String username,
+            @Value("${contatos.replicas.password:}") String password,
+            @Value("${contatos.replicas.pool-size:10}") int poolSize,
+            @Value("${contatos.replicas.timeout-conexao-ms:1000}") long timeoutConexaoMs,
+            @Value("${contatos.replicas.atraso-maximo-ms:1000}") long atrasoMaximoMs,
+            @Value("${contatos.replicas.consulta-atraso:}") String consultaAtraso) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String nome = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(nome);
+            replica.setJdbcUrl(url.strip());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username.isBlank() ? properties.determineUsername() : username);
+            replica.setPassword(password.isBlank() ? properties.determinePassword() : password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Réplica fora do ar não deve segurar a requisição nem impedir a inicialização
+            replica.setConnectionTimeout(timeoutConexaoMs);
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.put(nome, replica);
+        }
+        return new ReplicasDataSource(primarioDataSource, replicas, aderenciaLeitura, atrasoMaximoMs,
+                consultaAtraso, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primarioDataSource, ReplicasDataSource replicasDataSource,
+                                 AderenciaLeitura aderenciaLeitura) {
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new PrimarioDataSource(primarioDataSource, aderenciaLeitura));
+        dataSource.setReadOnlyDataSource(replicasDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer liberarConexaoAoFimDaTransacao() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
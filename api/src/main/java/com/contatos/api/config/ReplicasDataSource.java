@@ -0,0 +1,193 @@
+package com.contatos.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections of read-only transactions, balanced across the read replicas
+ *
+ * Business Rules:
+ * - Each connection goes to the healthy replica with the fewest connections in use; ties are
+ *   broken in rotation
+ * - A replica is unhealthy while it refuses connections or its replication lag exceeds the
+ *   maximum; the periodic check puts it back in rotation once it recovers
+ * - A replica that fails to hand out a connection is marked unhealthy and the next one is tried
+ * - Users who wrote within the read-your-writes window, loads of the node-local caches (see
+ *   {@link LeituraReplica}) and every read when no replica is healthy go to the primary
+ * - A transaction served by a replica is marked, so what it loads isn't cached on the node
+ */
+@Slf4j
+public class ReplicasDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final AderenciaLeitura aderencia;
+    private final long atrasoMaximoMs;
+    private final String consultaAtraso;
+    private final AtomicInteger rodizio = new AtomicInteger();
+    private final Counter leiturasPorAderencia;
+    private final Counter leiturasSemReplica;
+    private final Counter leiturasParaCache;
+
+    /**
+     * @param consultaAtraso query returning the replica's lag in seconds; blank skips the lag check
+     */
+    public ReplicasDataSource(DataSource primario, Map<String, HikariDataSource> replicas,
+                              AderenciaLeitura aderencia, long atrasoMaximoMs, String consultaAtraso,
+                              MeterRegistry meterRegistry) {
+        this.primario = primario;
+        this.aderencia = aderencia;
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        this.consultaAtraso = consultaAtraso;
+        this.replicas = new ArrayList<>();
+        replicas.forEach((nome, dataSource) -> this.replicas.add(new Replica(nome, dataSource)));
+        for (Replica replica : this.replicas) {
+            Gauge.builder("contatos.replicas.atraso", replica, r -> r.atrasoMs)
+                    .description("Atraso de replicação da réplica na última verificação")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.nome)
+                    .register(meterRegistry);
+            Gauge.builder("contatos.replicas.saudavel", replica, r -> r.saudavel ? 1 : 0)
+                    .description("1 se a réplica está recebendo leituras")
+                    .tag("replica", replica.nome)
+                    .register(meterRegistry);
+        }
+        this.leiturasPorAderencia = Counter.builder("contatos.replicas.leituras-primario")
+                .description("Transações somente leitura enviadas ao primário")
+                .tag("motivo", "aderencia")
+                .register(meterRegistry);
+        this.leiturasSemReplica = Counter.builder("contatos.replicas.leituras-primario")
+                .description("Transações somente leitura enviadas ao primário")
+                .tag("motivo", "sem-replica")
+                .register(meterRegistry);
+        this.leiturasParaCache = Counter.builder("contatos.replicas.leituras-primario")
+                .description("Transações somente leitura enviadas ao primário")
+                .tag("motivo", "cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (aderencia.escreveuRecentemente()) {
+            leiturasPorAderencia.increment();
+            return primario.getConnection();
+        }
+        if (LeituraReplica.primarioFixado()) {
+            leiturasParaCache.increment();
+            return primario.getConnection();
+        }
+        for (Replica replica : candidatas()) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                LeituraReplica.registrar();
+                return connection;
+            } catch (SQLException e) {
+                marcar(replica, false, e.getMessage());
+            }
+        }
+        leiturasSemReplica.increment();
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Réplicas usam as credenciais configuradas nos pools");
+    }
+
+    /**
+     * Checks each replica's connectivity and replication lag
+     */
+    @Scheduled(fixedDelayString = "${contatos.replicas.verificacao-ms:5000}",
+            initialDelayString = "${contatos.replicas.verificacao-ms:5000}")
+    public void verificar() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                long atrasoMs = atraso(connection);
+                replica.atrasoMs = atrasoMs;
+                marcar(replica, atrasoMs <= atrasoMaximoMs, "atraso de " + atrasoMs + " ms");
+            } catch (SQLException e) {
+                marcar(replica, false, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private List<Replica> candidatas() {
+        List<Candidata> saudaveis = new ArrayList<>(replicas.size());
+        int inicio = Math.floorMod(rodizio.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (replica.saudavel) {
+                saudaveis.add(new Candidata(replica, replica.conexoesEmUso()));
+            }
+        }
+        // Ordenação estável sobre a contagem lida uma vez: empates mantêm a ordem do rodízio
+        saudaveis.sort(Comparator.comparingInt(Candidata::conexoesEmUso));
+        return saudaveis.stream().map(Candidata::replica).toList();
+    }
+
+    private long atraso(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(consultaAtraso)) {
+            return connection.isValid(1) ? 0 : Long.MAX_VALUE;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(consultaAtraso)) {
+            return rs.next() ? Math.round(rs.getDouble(1) * 1000) : 0;
+        }
+    }
+
+    private static void marcar(Replica replica, boolean saudavel, String motivo) {
+        if (replica.saudavel != saudavel) {
+            if (saudavel) {
+                log.info("Réplica {} de volta às leituras ({})", replica.nome, motivo);
+            } else {
+                log.warn("Réplica {} fora das leituras: {}", replica.nome, motivo);
+            }
+        }
+        replica.saudavel = saudavel;
+    }
+
+    private record Candidata(Replica replica, int conexoesEmUso) {
+    }
+
+    private static final class Replica {
+
+        private final String nome;
+        private final HikariDataSource dataSource;
+        private volatile boolean saudavel = true;
+        private volatile long atrasoMs;
+
+        private Replica(String nome, HikariDataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+
+        private int conexoesEmUso() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+    }
+}
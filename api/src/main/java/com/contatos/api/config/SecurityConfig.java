@@ -1,6 +1,7 @@
 package com.contatos.api.config;
 
 import com.contatos.api.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,8 +42,12 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
+                // Despachos assíncronos (ex.: fim de um stream SSE) pertencem a uma requisição já autorizada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Progresso da exclusão de conta: o usuário já está desativado, então o acesso é pelo token da exclusão
                 .requestMatchers(
                     "/api/auth/**", 
+                    "/api/conta/exclusao/**",
                     "/actuator/health",
                     "/swagger-ui/**",
                     "/v3/api-docs/**",
@@ -63,8 +68,9 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(List.of("*"));
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
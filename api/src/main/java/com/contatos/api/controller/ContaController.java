@@ -1,8 +1,11 @@
 package com.contatos.api.controller;
 
 import com.contatos.api.dto.DeletarContaRequest;
+import com.contatos.api.dto.ExclusaoContaResponse;
 import com.contatos.api.service.ContaService;
+import com.contatos.api.service.ExclusaoContaService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -10,9 +13,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/conta")
 @RequiredArgsConstructor
@@ -21,19 +27,37 @@ import org.springframework.web.bind.annotation.*;
 public class ContaController {
 
     private final ContaService contaService;
+    private final ExclusaoContaService exclusaoContaService;
 
     @PostMapping
     @Operation(
         summary = "Deletar conta do usuário",
-        description = "Remove permanentemente a conta do usuário autenticado e todos os seus contatos. Requer confirmação de senha."
+        description = "Desativa imediatamente a conta do usuário autenticado e agenda a remoção permanente de todos os seus contatos em segundo plano. Requer confirmação de senha."
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "204", description = "Conta deletada com sucesso"),
+        @ApiResponse(responseCode = "202", description = "Exclusão aceita; retorna o identificador e o token para acompanhar o progresso"),
         @ApiResponse(responseCode = "400", description = "Senha incorreta", content = @Content),
         @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
     })
-    public ResponseEntity<Void> deletarConta(@Valid @RequestBody DeletarContaRequest request) {
-        contaService.deletarConta(request);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<ExclusaoContaResponse> deletarConta(@Valid @RequestBody DeletarContaRequest request) {
+        ExclusaoContaResponse response = contaService.deletarConta(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/exclusao/{id}")
+    @Operation(
+        summary = "Acompanhar exclusão de conta",
+        description = "Retorna o progresso da remoção dos contatos de uma conta excluída. Não requer autenticação, pois a conta já está desativada, mas exige o token devolvido na solicitação da exclusão"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Progresso da exclusão"),
+        @ApiResponse(responseCode = "404", description = "Exclusão não encontrada ou token inválido", content = @Content)
+    })
+    public ResponseEntity<ExclusaoContaResponse> consultarExclusao(
+            @Parameter(description = "Identificador retornado na solicitação de exclusão")
+            @PathVariable UUID id,
+            @Parameter(description = "Token retornado na solicitação de exclusão")
+            @RequestHeader(value = "X-Exclusao-Token", required = false) String token) {
+        return ResponseEntity.ok(exclusaoContaService.consultar(id, token));
     }
 }
@@ -1,8 +1,25 @@
 package com.contatos.api.controller;
 
+import com.contatos.api.cache.ContatosUsuarioCache;
+import com.contatos.api.dto.AuditoriaResponse;
+import com.contatos.api.dto.ClusterResponse;
+import com.contatos.api.dto.ContatoDistanciaResponse;
+import com.contatos.api.dto.ContatoFiltro;
 import com.contatos.api.dto.ContatoRequest;
 import com.contatos.api.dto.ContatoResponse;
+import com.contatos.api.dto.ContatosAlteracoesResponse;
+import com.contatos.api.dto.DeletarContatosPorFiltroRequest;
+import com.contatos.api.dto.DeletarContatosRequest;
+import com.contatos.api.dto.DeletarContatosResponse;
+import com.contatos.api.dto.DuplicadosResponse;
+import com.contatos.api.dto.EstatisticasResponse;
+import com.contatos.api.dto.FacetaResponse;
+import com.contatos.api.dto.MesclarContatosRequest;
 import com.contatos.api.service.ContatoService;
+import com.contatos.api.util.ETags;
+import com.contatos.api.util.MarcadoresColunares;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,15 +27,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/contatos")
@@ -28,34 +55,326 @@ import org.springframework.web.bind.annotation.*;
 public class ContatoController {
 
     private final ContatoService contatoService;
+    private final ContatosUsuarioCache contatosUsuarioCache;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     @Operation(
         summary = "Listar contatos",
-        description = "Lista todos os contatos do usuário autenticado com paginação e busca opcional por nome ou CPF"
+        description = "Lista os contatos do usuário autenticado com paginação, busca opcional por nome ou CPF e filtros "
+                + "por estado, cidade, bairro, prefixo de CEP, datas de criação/alteração e etiquetas. Com facets=true, retorna "
+                + "também as contagens por estado e por cidade de todos os contatos filtrados"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de contatos retornada com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Nenhum contato mudou desde o ETag informado em If-None-Match", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Filtro inválido", content = @Content),
         @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
     })
-    public ResponseEntity<Page<ContatoResponse>> listContatos(
+    public ResponseEntity<?> listContatos(
             @Parameter(description = "Buscar por nome ou CPF") 
             @RequestParam(required = false) String search,
+            @Parameter(description = "Sigla do estado (UF)")
+            @RequestParam(required = false) String estado,
+            @Parameter(description = "Cidade, como retornada nas facetas")
+            @RequestParam(required = false) String cidade,
+            @Parameter(description = "Bairro")
+            @RequestParam(required = false) String bairro,
+            @Parameter(description = "Primeiros dígitos do CEP")
+            @RequestParam(required = false) String cep,
+            @Parameter(description = "Criados a partir de (ISO 8601, ex: 2024-01-31T00:00:00)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Criados até (ISO 8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Alterados a partir de (ISO 8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+            @Parameter(description = "Alterados até (ISO 8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+            @Parameter(description = "Etiquetas que o contato deve ter todas (separadas por vírgula)")
+            @RequestParam(required = false) List<String> tags,
+            @Parameter(description = "Etiquetas das quais o contato deve ter ao menos uma")
+            @RequestParam(required = false) List<String> anyTags,
+            @Parameter(description = "Etiquetas que o contato não pode ter")
+            @RequestParam(required = false) List<String> excludeTags,
+            @Parameter(description = "Incluir contagens por estado e cidade (a resposta passa a ter contatos, estados e cidades)")
+            @RequestParam(defaultValue = "false") boolean facets,
             @Parameter(description = "Número da página (inicia em 0)")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Quantidade de itens por página")
             @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Campo e direção de ordenação (ex: nome,asc)")
-            @RequestParam(defaultValue = "nome,asc") String sort) {
+            @RequestParam(defaultValue = "nome,asc") String sort,
+            WebRequest webRequest) {
 
         String[] sortParams = sort.split(",");
         String sortField = sortParams[0];
         Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc")
                 ? Sort.Direction.DESC : Sort.Direction.ASC;
+        ContatoFiltro filtro = ContatoFiltro.builder()
+                .search(search)
+                .estado(estado)
+                .cidade(cidade)
+                .bairro(bairro)
+                .cepPrefixo(cep)
+                .criadoDesde(createdFrom)
+                .criadoAte(createdTo)
+                .atualizadoDesde(updatedFrom)
+                .atualizadoAte(updatedTo)
+                .tags(tags)
+                .algumasTags(anyTags)
+                .semTags(excludeTags)
+                .build();
+
+        // Primeira página sem busca: JSON já serializado do cache, ETag incluído, sem ir ao banco
+        if (!facets && !filtro.temFiltrosEstruturados() && contatosUsuarioCache.aceita(search, page, size)) {
+            ContatosUsuarioCache.Pagina primeira = contatoService.getPrimeiraPagina(Sort.by(direction, sortField), size);
+            if (webRequest.checkNotModified(primeira.etag())) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .eTag(primeira.etag())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(primeira.json());
+        }
+
+        // Qualquer escrita nos contatos do usuário muda a versão da coleção, então ela valida toda página/busca
+        String etag = contatoService.getColecaoETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortField));
-        Page<ContatoResponse> contatos = contatoService.listContatos(search, pageable);
-        return ResponseEntity.ok(contatos);
+        if (facets) {
+            return ResponseEntity.ok().eTag(etag).body(contatoService.listContatosComFacetas(filtro, pageable));
+        }
+        Page<ContatoResponse> contatos = contatoService.listContatosFiltrados(filtro, pageable);
+        return ResponseEntity.ok().eTag(etag).body(contatos);
+    }
+
+    @GetMapping("/stats")
+    @Operation(
+        summary = "Estatísticas dos contatos",
+        description = "Total de contatos do usuário por estado e por cidade e o crescimento mês a mês (criados, "
+                + "excluídos e total acumulado), lidos de contadores mantidos a cada escrita"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Nenhum contato mudou desde o ETag informado em If-None-Match", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<EstatisticasResponse> getEstatisticas(WebRequest webRequest) {
+        // Os contadores só mudam com escritas, que também mudam a versão da coleção
+        String etag = contatoService.getColecaoETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(contatoService.getEstatisticas());
+    }
+
+    @GetMapping("/tags")
+    @Operation(
+        summary = "Listar etiquetas",
+        description = "Etiquetas em uso nos contatos do usuário, com o número de contatos de cada uma, em ordem alfabética"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Etiquetas retornadas com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Nenhum contato mudou desde o ETag informado em If-None-Match", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<List<FacetaResponse>> listTags(WebRequest webRequest) {
+        String etag = contatoService.getColecaoETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(contatoService.listTags());
+    }
+
+    @GetMapping("/changes")
+    @Operation(
+        summary = "Sincronizar alterações",
+        description = "Retorna os contatos criados ou alterados e os IDs excluídos desde o watermark informado, "
+                + "junto com o novo watermark. Sem watermark, retorna todos os contatos (carga inicial). "
+                + "Cada resposta traz no máximo size alterações; com temMais, repetir a chamada com o watermark retornado"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Alterações retornadas com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Watermark ou tamanho inválido", content = @Content),
+        @ApiResponse(responseCode = "410", description = "Watermark expirado; é preciso recarregar todos os contatos", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<ContatosAlteracoesResponse> listAlteracoes(
+            @Parameter(description = "Watermark retornado pela sincronização anterior")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Máximo de alterações por resposta (até 1000)")
+            @RequestParam(defaultValue = "1000") int size) {
+        return ResponseEntity.ok(contatoService.listAlteracoes(since, size));
+    }
+
+    @GetMapping("/near")
+    @Operation(
+        summary = "Contatos próximos",
+        description = "Lista os contatos do usuário autenticado dentro do raio informado, do mais próximo ao mais distante, "
+                + "com a distância de cada um"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contatos retornados com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Coordenadas ou raio inválidos", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<Page<ContatoDistanciaResponse>> listProximos(
+            @Parameter(description = "Latitude do centro") @RequestParam double lat,
+            @Parameter(description = "Longitude do centro") @RequestParam double lng,
+            @Parameter(description = "Raio em km (máximo 1000)") @RequestParam double radiusKm,
+            @Parameter(description = "Número da página (inicia em 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Quantidade de itens por página (máximo 100, até os 1000 mais próximos)")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(contatoService.listProximos(lat, lng, radiusKm, PageRequest.of(page, size)));
+    }
+
+    @GetMapping("/nearest")
+    @Operation(
+        summary = "Contatos mais próximos",
+        description = "Lista os k contatos do usuário autenticado mais próximos do ponto informado, sem limite de raio, "
+                + "do mais próximo ao mais distante, com a distância de cada um"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contatos retornados com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Coordenadas ou k inválidos", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<List<ContatoDistanciaResponse>> listMaisProximos(
+            @Parameter(description = "Latitude do ponto") @RequestParam double lat,
+            @Parameter(description = "Longitude do ponto") @RequestParam double lng,
+            @Parameter(description = "Quantidade de contatos (máximo 100)")
+            @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(contatoService.listMaisProximos(lat, lng, k));
+    }
+
+    @GetMapping("/by-phone/{number}")
+    @Operation(
+        summary = "Buscar por telefone",
+        description = "Contatos do usuário autenticado com o telefone informado, em qualquer formato. Números com DDD "
+                + "são comparados na forma E.164; números locais, sem DDD, encontram os telefones que terminam com eles"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contatos retornados com sucesso (lista vazia se nenhum)"),
+        @ApiResponse(responseCode = "400", description = "Telefone com menos de 8 ou mais de 15 dígitos", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<List<ContatoResponse>> listPorTelefone(
+            @Parameter(description = "Telefone, com ou sem DDD/DDI e formatação") @PathVariable String number) {
+        return ResponseEntity.ok(contatoService.listPorTelefone(number));
+    }
+
+    @GetMapping("/bbox")
+    @Operation(
+        summary = "Contatos na área",
+        description = "Lista os contatos do usuário autenticado dentro do retângulo informado (área visível do mapa), do centro para as bordas"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contatos retornados com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Área inválida", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<Page<ContatoResponse>> listNaArea(
+            @Parameter(description = "Latitude mínima (sul)") @RequestParam double minLat,
+            @Parameter(description = "Longitude mínima (oeste)") @RequestParam double minLng,
+            @Parameter(description = "Latitude máxima (norte)") @RequestParam double maxLat,
+            @Parameter(description = "Longitude máxima (leste)") @RequestParam double maxLng,
+            @Parameter(description = "Número da página (inicia em 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Quantidade de itens por página (máximo 100, até os 1000 mais próximos)")
+            @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(contatoService.listNaArea(minLat, minLng, maxLat, maxLng, PageRequest.of(page, size)));
+    }
+
+    @GetMapping("/clusters")
+    @Operation(
+        summary = "Clusters do mapa",
+        description = "Agrupa os contatos do usuário autenticado visíveis no mapa em clusters (centroide, total e alguns IDs), "
+                + "calculados no servidor para o nível de zoom informado"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Clusters retornados com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Área ou zoom inválidos", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<List<ClusterResponse>> listClusters(
+            @Parameter(description = "Área visível: minLng,minLat,maxLng,maxLat (oeste, sul, leste, norte)")
+            @RequestParam String bbox,
+            @Parameter(description = "Nível de zoom do mapa (0 a 22)")
+            @RequestParam int zoom) {
+        return ResponseEntity.ok(contatoService.listClusters(bbox, zoom));
+    }
+
+    @GetMapping(value = "/markers", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(
+        summary = "Marcadores do mapa",
+        description = "Retorna id, nome e coordenadas de todos os contatos do usuário autenticado em colunas paralelas, "
+                + "com ids e coordenadas (inteiros com 5 casas decimais) codificados como diferença para o anterior. "
+                + "Com Accept: application/octet-stream, o mesmo conteúdo em formato binário com varints"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Marcadores retornados com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Nenhum contato mudou desde o ETag informado em If-None-Match", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public void listMarcadores(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                               WebRequest webRequest, HttpServletResponse response) throws IOException {
+        boolean binario = accept != null && accept.contains(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        String etag = contatoService.getColecaoETag();
+        if (binario) {
+            etag = ETags.variante(etag, "bin");
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (webRequest.checkNotModified(etag)) {
+            return;
+        }
+
+        MarcadoresColunares marcadores = contatoService.listMarcadores();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (binario) {
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            marcadores.escreverBinario(response.getOutputStream());
+        } else {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            marcadores.escreverJson(objectMapper.getFactory(), response.getOutputStream());
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream de alterações",
+        description = "Server-Sent Events com as criações, atualizações e exclusões de contatos do usuário autenticado. "
+                + "O id de cada evento é o watermark da sincronização delta; ao reconectar, use /changes para recuperar o que foi perdido"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream aberto"),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public SseEmitter streamContatos() {
+        return contatoService.assinarAlteracoes();
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(
+        summary = "Histórico do contato",
+        description = "Alterações do contato (criação, atualizações e exclusão), da mais recente para a mais antiga, "
+                + "com os dados gravados em cada uma; disponível também para contatos excluídos. As alterações "
+                + "são gravadas em segundo plano e as últimas podem levar alguns instantes para aparecer"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Histórico retornado com sucesso"),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<Page<AuditoriaResponse>> getHistorico(
+            @Parameter(description = "ID do contato") @PathVariable Long id,
+            @Parameter(description = "Número da página (inicia em 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Quantidade de itens por página")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(contatoService.getHistorico(id, PageRequest.of(page, size)));
     }
 
     @GetMapping("/{id}")
@@ -65,14 +384,23 @@ public class ContatoController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Contato encontrado"),
+        @ApiResponse(responseCode = "304", description = "Contato não mudou desde o ETag informado em If-None-Match", content = @Content),
         @ApiResponse(responseCode = "404", description = "Contato não encontrado", content = @Content),
         @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
     })
     public ResponseEntity<ContatoResponse> getContato(
             @Parameter(description = "ID do contato") 
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        // Revalidação consulta apenas a versão, sem carregar o contato
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Long versao = contatoService.getContatoVersao(id).orElse(null);
+            if (versao != null && webRequest.checkNotModified(ETags.contato(id, versao))) {
+                return null;
+            }
+        }
         ContatoResponse contato = contatoService.getContato(id);
-        return ResponseEntity.ok(contato);
+        return ResponseEntity.ok().eTag(ETags.contato(contato.getId(), contato.getVersao())).body(contato);
     }
 
     @PostMapping
@@ -87,7 +415,9 @@ public class ContatoController {
     })
     public ResponseEntity<ContatoResponse> createContato(@Valid @RequestBody ContatoRequest request) {
         ContatoResponse contato = contatoService.createContato(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(contato);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETags.contato(contato.getId(), contato.getVersao()))
+                .body(contato);
     }
 
     @PutMapping("/{id}")
@@ -99,14 +429,40 @@ public class ContatoController {
         @ApiResponse(responseCode = "200", description = "Contato atualizado com sucesso"),
         @ApiResponse(responseCode = "404", description = "Contato não encontrado", content = @Content),
         @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
+        @ApiResponse(responseCode = "412", description = "O contato mudou desde o ETag informado em If-Match", content = @Content),
         @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
     })
     public ResponseEntity<ContatoResponse> updateContato(
             @Parameter(description = "ID do contato")
             @PathVariable Long id,
+            @Parameter(description = "ETag do contato; a atualização só ocorre se ele ainda for o atual")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ContatoRequest request) {
-        ContatoResponse contato = contatoService.updateContato(id, request);
-        return ResponseEntity.ok(contato);
+        ContatoResponse contato = contatoService.updateContato(id, request, ETags.versaoEsperada(ifMatch, id));
+        return ResponseEntity.ok().eTag(ETags.contato(contato.getId(), contato.getVersao())).body(contato);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+        summary = "Atualizar contato parcialmente",
+        description = "Aplica um JSON Merge Patch (RFC 7396): apenas os campos enviados são validados e alterados. "
+                + "O CPF só é verificado se mudar e as coordenadas só são recalculadas se o endereço mudar"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contato atualizado com sucesso"),
+        @ApiResponse(responseCode = "404", description = "Contato não encontrado", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Patch inválido", content = @Content),
+        @ApiResponse(responseCode = "412", description = "O contato mudou desde o ETag informado em If-Match", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<ContatoResponse> patchContato(
+            @Parameter(description = "ID do contato")
+            @PathVariable Long id,
+            @Parameter(description = "ETag do contato; a atualização só ocorre se ele ainda for o atual")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        ContatoResponse contato = contatoService.patchContato(id, patch, ETags.versaoEsperada(ifMatch, id));
+        return ResponseEntity.ok().eTag(ETags.contato(contato.getId(), contato.getVersao())).body(contato);
     }
 
     @DeleteMapping("/{id}")
@@ -117,15 +473,87 @@ public class ContatoController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Contato deletado com sucesso"),
         @ApiResponse(responseCode = "404", description = "Contato não encontrado", content = @Content),
+        @ApiResponse(responseCode = "412", description = "O contato mudou desde o ETag informado em If-Match", content = @Content),
         @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
     })
     public ResponseEntity<Void> deleteContato(
             @Parameter(description = "ID do contato")
-            @PathVariable Long id) {
-        contatoService.deleteContato(id);
+            @PathVariable Long id,
+            @Parameter(description = "ETag do contato; a exclusão só ocorre se ele ainda for o atual")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        contatoService.deleteContato(id, ETags.versaoEsperada(ifMatch, id));
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/delete-batch")
+    @Operation(
+        summary = "Deletar contatos em lote",
+        description = "Remove em uma única operação os contatos informados. IDs inexistentes ou de outros usuários são ignorados"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contatos deletados; retorna os IDs efetivamente removidos"),
+        @ApiResponse(responseCode = "400", description = "Lista de IDs inválida", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<DeletarContatosResponse> deleteContatos(@Valid @RequestBody DeletarContatosRequest request) {
+        DeletarContatosResponse response = contatoService.deleteContatos(request.getIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/duplicates")
+    @Operation(
+        summary = "Contatos duplicados",
+        description = "Lista grupos de prováveis duplicados (telefone, nome parecido, mesmo endereço ou CPF quase igual), "
+                + "da maior para a menor pontuação. Agendas grandes são analisadas em segundo plano: enquanto isso a "
+                + "resposta é 202 com status EM_ANDAMENTO, e a mesma consulta deve ser repetida"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Grupos de duplicados retornados com sucesso"),
+        @ApiResponse(responseCode = "202", description = "Análise em andamento; consulte novamente em instantes"),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<DuplicadosResponse> listDuplicados(
+            @Parameter(description = "Número da página de grupos (inicia em 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Quantidade de grupos por página")
+            @RequestParam(defaultValue = "20") int size) {
+        DuplicadosResponse response = contatoService.listDuplicados(PageRequest.of(page, size));
+        HttpStatus status = "EM_ANDAMENTO".equals(response.getStatus()) ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/duplicates/merge")
+    @Operation(
+        summary = "Mesclar duplicados",
+        description = "Mantém o contato principal, completando o complemento vazio com o dos duplicados, e remove os duplicados"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contatos mesclados; retorna o contato principal"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Contato não encontrado", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<ContatoResponse> mesclarContatos(@Valid @RequestBody MesclarContatosRequest request) {
+        ContatoResponse contato = contatoService.mesclarContatos(request);
+        return ResponseEntity.ok().eTag(ETags.contato(contato.getId(), contato.getVersao())).body(contato);
+    }
+
+    @PostMapping("/delete-by-filter")
+    @Operation(
+        summary = "Deletar contatos por filtro",
+        description = "Remove todos os contatos que correspondem ao filtro de busca (nome ou CPF)"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Contatos deletados; retorna os IDs efetivamente removidos"),
+        @ApiResponse(responseCode = "400", description = "Filtro inválido", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Usuário não autenticado", content = @Content)
+    })
+    public ResponseEntity<DeletarContatosResponse> deleteContatosPorFiltro(
+            @Valid @RequestBody DeletarContatosPorFiltroRequest request) {
+        DeletarContatosResponse response = contatoService.deleteContatosBySearch(request.getSearch());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/verificar-cpf")
     @Operation(
         summary = "Verificar CPF",
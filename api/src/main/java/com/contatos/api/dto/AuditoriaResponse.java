@@ -0,0 +1,24 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditoriaResponse {
+
+    // CRIADO, ATUALIZADO ou EXCLUIDO
+    private String tipo;
+    private Long versao;
+    private Long sincronizacao;
+    private LocalDateTime ocorridoEm;
+
+    // Contato como gravado; nulo nas exclusões
+    private ContatoResponse contato;
+}
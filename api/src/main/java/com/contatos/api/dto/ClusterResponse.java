@@ -0,0 +1,20 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterResponse {
+
+    private Double latitude;
+    private Double longitude;
+    private Integer total;
+    private List<Long> amostra;
+}
@@ -0,0 +1,16 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContatoDistanciaResponse {
+
+    private ContatoResponse contato;
+    private Double distanciaKm;
+}
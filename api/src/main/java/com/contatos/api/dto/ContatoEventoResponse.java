@@ -0,0 +1,24 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContatoEventoResponse {
+
+    private String tipo;
+    private List<Long> ids;
+
+    // Presente em criações e atualizações
+    private ContatoResponse contato;
+
+    // Watermark da sincronização delta após esta alteração
+    private String watermark;
+}
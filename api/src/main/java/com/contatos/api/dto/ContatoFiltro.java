@@ -0,0 +1,56 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters of the contact listing; null fields don't filter
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContatoFiltro {
+
+    // Parte do nome ou do CPF, como na busca simples
+    private String search;
+
+    private String estado;
+    private String cidade;
+    private String bairro;
+
+    // Primeiros dígitos do CEP
+    private String cepPrefixo;
+
+    private LocalDateTime criadoDesde;
+    private LocalDateTime criadoAte;
+    private LocalDateTime atualizadoDesde;
+    private LocalDateTime atualizadoAte;
+
+    // Etiquetas normalizadas: todas, ao menos uma, nenhuma
+    private List<String> tags;
+    private List<String> algumasTags;
+    private List<String> semTags;
+
+    /**
+     * Whether any filter besides the text search is set
+     */
+    public boolean temFiltrosEstruturados() {
+        return estado != null || cidade != null || bairro != null || cepPrefixo != null
+                || criadoDesde != null || criadoAte != null || atualizadoDesde != null || atualizadoAte != null
+                || temFiltrosTags();
+    }
+
+    /**
+     * Whether any tag filter is set
+     */
+    public boolean temFiltrosTags() {
+        return tags != null && !tags.isEmpty() || algumasTags != null && !algumasTags.isEmpty()
+                || semTags != null && !semTags.isEmpty();
+    }
+}
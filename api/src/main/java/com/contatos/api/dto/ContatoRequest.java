@@ -1,5 +1,6 @@
 package com.contatos.api.dto;
 
+import com.contatos.api.util.Tags;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -9,6 +10,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -63,4 +66,10 @@ public class ContatoRequest {
 
     @Schema(description = "Longitude (preenchida automaticamente se não fornecida)", example = "-46.656071")
     private Double longitude;
+
+    @Size(max = Tags.MAXIMO, message = "No máximo " + Tags.MAXIMO + " etiquetas")
+    @Schema(description = "Etiquetas do contato (opcional; ausente mantém as atuais na atualização)",
+            example = "[\"cliente\", \"fornecedor\"]")
+    private List<@Pattern(regexp = Tags.FORMATO, message = "Etiqueta deve ter de 1 a 30 letras, números, espaços ou hífens")
+            String> tags;
 }
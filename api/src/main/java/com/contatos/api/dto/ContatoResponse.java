@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -26,6 +27,8 @@ public class ContatoResponse {
     private String estado;
     private Double latitude;
     private Double longitude;
+    private List<String> tags;
+    private Long versao;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,27 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContatosAlteracoesResponse {
+
+    // Contatos criados ou alterados desde o watermark (todos, na carga inicial, uma página por vez)
+    private List<ContatoResponse> alterados;
+
+    // IDs dos contatos excluídos desde o watermark
+    private List<Long> excluidos;
+
+    // Watermark opaco a ser enviado na próxima sincronização
+    private String watermark;
+
+    // Há mais alterações além desta página: repetir a chamada com o watermark retornado
+    private boolean temMais;
+}
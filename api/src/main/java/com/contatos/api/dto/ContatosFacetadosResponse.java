@@ -0,0 +1,22 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContatosFacetadosResponse {
+
+    private Page<ContatoResponse> contatos;
+
+    // Contagens de todos os contatos que atendem aos filtros (não só os da página), da maior para a menor
+    private List<FacetaResponse> estados;
+    private List<FacetaResponse> cidades;
+}
@@ -0,0 +1,22 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrescimentoMensalResponse {
+
+    private YearMonth mes;
+    private Long criados;
+    private Long excluidos;
+
+    // Total acumulado no fim do mês (criados menos excluídos até ele)
+    private Long total;
+}
@@ -0,0 +1,20 @@
+package com.contatos.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filtro dos contatos a serem deletados em lote")
+public class DeletarContatosPorFiltroRequest {
+
+    @NotBlank(message = "Filtro é obrigatório")
+    @Schema(description = "Mesmo filtro da listagem: parte do nome ou do CPF", example = "Silva")
+    private String search;
+}
@@ -0,0 +1,25 @@
+package com.contatos.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "IDs dos contatos a serem deletados em lote")
+public class DeletarContatosRequest {
+
+    @NotEmpty(message = "Informe ao menos um ID")
+    @Size(max = 1000, message = "Máximo de 1000 IDs por requisição")
+    @Schema(description = "IDs dos contatos", example = "[1, 2, 3]")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,26 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicadosResponse {
+
+    // CONCLUIDA ou EM_ANDAMENTO (agenda grande ainda sendo analisada em segundo plano)
+    private String status;
+
+    // Contatos analisados e grupos encontrados no total; os grupos abaixo são só os da página
+    private Integer totalContatos;
+    private Integer totalGrupos;
+    private List<GrupoDuplicadosResponse> grupos;
+
+    private LocalDateTime calculadaEm;
+}
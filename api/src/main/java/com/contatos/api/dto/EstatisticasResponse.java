@@ -0,0 +1,23 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasResponse {
+
+    private Long total;
+
+    // Mesmo formato das facetas da listagem, para todos os contatos do usuário
+    private List<FacetaResponse> estados;
+    private List<FacetaResponse> cidades;
+
+    private List<CrescimentoMensalResponse> crescimento;
+}
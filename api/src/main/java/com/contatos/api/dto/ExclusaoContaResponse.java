@@ -0,0 +1,28 @@
+package com.contatos.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExclusaoContaResponse {
+
+    private UUID id;
+    private String status;
+    private Long totalContatos;
+    private Long contatosRemovidos;
+    private LocalDateTime criadaEm;
+    private LocalDateTime concluidaEm;
+
+    // Só na resposta da solicitação: necessário para acompanhar o progresso
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String token;
+}
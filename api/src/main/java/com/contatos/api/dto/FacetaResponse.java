@@ -0,0 +1,20 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetaResponse {
+
+    private String valor;
+
+    // Estado da cidade, nas facetas de cidade (o mesmo nome existe em estados diferentes)
+    private String estado;
+
+    private Long total;
+}
@@ -0,0 +1,23 @@
+package com.contatos.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GrupoDuplicadosResponse {
+
+    // Maior pontuação entre os pares do grupo, de 0 a 1
+    private Double pontuacao;
+
+    // Campos que coincidiram: TELEFONE, NOME, ENDERECO, CPF
+    private List<String> motivos;
+
+    private List<ContatoResponse> contatos;
+}
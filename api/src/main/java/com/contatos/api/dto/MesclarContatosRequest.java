@@ -0,0 +1,29 @@
+package com.contatos.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Contato mantido e duplicados absorvidos por ele")
+public class MesclarContatosRequest {
+
+    @NotNull(message = "Informe o contato principal")
+    @Schema(description = "ID do contato que permanece", example = "1")
+    private Long principalId;
+
+    @NotEmpty(message = "Informe ao menos um duplicado")
+    @Size(max = 100, message = "Máximo de 100 duplicados por mesclagem")
+    @Schema(description = "IDs dos duplicados, excluídos após a mesclagem", example = "[2, 3]")
+    private List<@NotNull Long> duplicadosIds;
+}
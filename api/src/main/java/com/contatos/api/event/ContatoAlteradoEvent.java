@@ -0,0 +1,35 @@
+package com.contatos.api.event;
+
+import com.contatos.api.dto.ContatoResponse;
+
+import java.util.List;
+
+/**
+ * Published by ContatoService on every contact write, inside the writing transaction
+ *
+ * Listeners that push the change outside the database should use
+ * {@code @TransactionalEventListener} so nothing is sent for a rolled back write.
+ *
+ * @param usuarioId owner of the contacts
+ * @param tipo what happened
+ * @param ids affected contact IDs (one for create/update, possibly many for deletes)
+ * @param contato the contact as written, or null for deletes
+ * @param sincronizacao collection version produced by the write (the delta sync watermark)
+ */
+public record ContatoAlteradoEvent(Long usuarioId, Tipo tipo, List<Long> ids, ContatoResponse contato,
+                                   long sincronizacao) {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        EXCLUIDO
+    }
+
+    public static ContatoAlteradoEvent salvo(Long usuarioId, Tipo tipo, ContatoResponse contato, long sincronizacao) {
+        return new ContatoAlteradoEvent(usuarioId, tipo, List.of(contato.getId()), contato, sincronizacao);
+    }
+
+    public static ContatoAlteradoEvent excluidos(Long usuarioId, List<Long> ids, long sincronizacao) {
+        return new ContatoAlteradoEvent(usuarioId, Tipo.EXCLUIDO, List.copyOf(ids), null, sincronizacao);
+    }
+}
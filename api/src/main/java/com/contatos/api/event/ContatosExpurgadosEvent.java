@@ -0,0 +1,15 @@
+package com.contatos.api.event;
+
+import java.util.List;
+
+/**
+ * Published by the account purge for each chunk of contacts it deletes, inside the chunk's transaction
+ *
+ * Only the caches listen to it: unlike {@link ContatoAlteradoEvent}, the purge writes no history,
+ * tombstones or stream events, since the whole account goes away.
+ *
+ * @param usuarioId owner of the contacts
+ * @param ids deleted contact IDs
+ */
+public record ContatosExpurgadosEvent(Long usuarioId, List<Long> ids) {
+}
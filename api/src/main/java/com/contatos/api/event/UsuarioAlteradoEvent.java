@@ -0,0 +1,11 @@
+package com.contatos.api.event;
+
+/**
+ * Published when a user row changes after registration, inside the writing transaction
+ *
+ * @param usuarioId the user
+ * @param email the user's email (immutable; the natural ID other nodes cache)
+ * @param excluido true when the user and all of their contacts were purged
+ */
+public record UsuarioAlteradoEvent(Long usuarioId, String email, boolean excluido) {
+}
@@ -0,0 +1,8 @@
+package com.contatos.api.exception;
+
+public class SincronizacaoExpiradaException extends RuntimeException {
+    
+    public SincronizacaoExpiradaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease of a cluster-wide background job, so only one node runs it at a time
+ *
+ * One row per job, created on first use. A node runs the job only while it holds the lease
+ * (executor + arrendadoAte), claimed with a conditional UPDATE that succeeds only if the lease is
+ * free, expired or already its own; it is renewed at every chunk and expires if the node dies.
+ */
+@Entity
+@Table(name = "arrendamentos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Arrendamento {
+
+    @Id
+    @Column(length = 64)
+    private String nome;
+
+    // Nó que detém o arrendamento
+    @Column(length = 36)
+    private String executor;
+
+    private LocalDateTime arrendadoAte;
+}
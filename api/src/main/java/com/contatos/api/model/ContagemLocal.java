@@ -0,0 +1,7 @@
+package com.contatos.api.model;
+
+/**
+ * Number of contacts in one city, as counted by the facet query
+ */
+public record ContagemLocal(String estado, String cidade, long total) {
+}
@@ -6,14 +6,34 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contatos")
 @Table(name = "contatos", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"cpf", "usuario_id"})
+    @UniqueConstraint(name = "uk_contatos_cpf_usuario", columnNames = {"cpf", "usuario_id"})
+}, indexes = {
+    @Index(name = "idx_contatos_usuario_nome", columnList = "usuario_id, nome"),
+    @Index(name = "idx_contatos_usuario_sincronizacao", columnList = "usuario_id, sincronizacao, id"),
+    @Index(name = "idx_contatos_usuario_geohash", columnList = "usuario_id, geohash"),
+    @Index(name = "idx_contatos_usuario_local", columnList = "usuario_id, estado, cidade, bairro"),
+    @Index(name = "idx_contatos_usuario_cidade", columnList = "usuario_id, cidade, bairro"),
+    @Index(name = "idx_contatos_usuario_bairro", columnList = "usuario_id, bairro"),
+    @Index(name = "idx_contatos_usuario_cep", columnList = "usuario_id, cep"),
+    @Index(name = "idx_contatos_usuario_criacao", columnList = "usuario_id, created_at"),
+    @Index(name = "idx_contatos_usuario_atualizacao", columnList = "usuario_id, updated_at"),
+    @Index(name = "idx_contatos_usuario_telefone", columnList = "usuario_id, telefone_normalizado"),
+    @Index(name = "idx_contatos_usuario_telefone_reverso", columnList = "usuario_id, telefone_reverso")
 })
 @Getter
 @Setter
@@ -30,15 +50,22 @@ public class Contato {
     @Column(nullable = false)
     private String nome;
 
-    @NotBlank(message = "CPF é obrigatório")
-    @Pattern(regexp = "\\d{11}", message = "CPF deve conter 11 dígitos")
-    @Column(nullable = false, length = 11)
-    private String cpf;
+    @NotNull(message = "CPF é obrigatório")
+    @Convert(converter = CpfConverter.class)
+    @Column(nullable = false)
+    private Cpf cpf;
 
     @NotBlank(message = "Telefone é obrigatório")
     @Column(nullable = false)
     private String telefone;
 
+    // Telefone em dígitos E.164 e seus dígitos invertidos (ver Telefones); mantidos pelo ContatoService a cada escrita
+    @Column(length = 15)
+    private String telefoneNormalizado;
+
+    @Column(length = 15)
+    private String telefoneReverso;
+
     @NotBlank(message = "CEP é obrigatório")
     @Pattern(regexp = "\\d{8}", message = "CEP deve conter 8 dígitos")
     @Column(nullable = false, length = 8)
@@ -68,6 +95,12 @@ public class Contato {
     @Column(nullable = false, length = 2)
     private String estado;
 
+    // Etiquetas normalizadas (minúsculas, sem repetição, em ordem); o filtro por etiqueta usa o IndiceTags em memória
+    @Convert(converter = TagsConverter.class)
+    @Column(length = 1000)
+    @Builder.Default
+    private List<String> tags = List.of();
+
     @NotNull(message = "Latitude é obrigatória")
     @Column(nullable = false)
     private Double latitude;
@@ -76,10 +109,35 @@ public class Contato {
     @Column(nullable = false)
     private Double longitude;
 
+    // Geohash inteiro de latitude/longitude (ver GeoHash); mantido pelo ContatoService a cada escrita
+    @Column(nullable = false)
+    private Long geohash;
+
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "usuario_id", nullable = false)
+    @JoinColumn(name = "usuario_id", nullable = false, foreignKey = @ForeignKey(name = "fk_contatos_usuario"))
     private Usuario usuario;
 
+    // Chave da partição por hash (ver V8): o Hibernate a inclui no WHERE de UPDATE e DELETE por id,
+    // que assim alcançam uma única partição. Somente leitura; gravada pela associação acima
+    @PartitionKey
+    @Column(name = "usuario_id", insertable = false, updatable = false)
+    private Long usuarioId;
+
+    // Endereço compartilhado com as coordenadas geocodificadas; os campos acima continuam no contato
+    // porque os filtros e índices por usuário dependem deles. Nulo até a vinculação dos contatos antigos
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "endereco_id", foreignKey = @ForeignKey(name = "fk_contatos_endereco"))
+    private Endereco endereco;
+
+    // Controle de concorrência otimista; também compõe o ETag do contato
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
+    // Versão da coleção do usuário (ContatosVersao) gerada pela última escrita; base da sincronização delta
+    @Column(nullable = false)
+    private Long sincronizacao;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -87,4 +145,9 @@ public class Contato {
     @UpdateTimestamp
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    void definirUsuarioId() {
+        usuarioId = usuario.getId();
+    }
 }
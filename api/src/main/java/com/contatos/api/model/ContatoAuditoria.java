@@ -0,0 +1,53 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only history of contact changes, written behind the contact writes by AuditoriaService
+ *
+ * One row per contact and change, with the contact as written (JSON) for creates and updates.
+ * Rows outlive the contact: the history of a deleted contact stays readable until the account is purged.
+ */
+@Entity
+@Table(name = "contatos_auditoria", indexes = {
+    @Index(name = "idx_contatos_auditoria_usuario_contato", columnList = "usuario_id, contato_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContatoAuditoria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "contato_id", nullable = false)
+    private Long contatoId;
+
+    // CRIADO, ATUALIZADO ou EXCLUIDO (ContatoAlteradoEvent.Tipo)
+    @Column(nullable = false, length = 10)
+    private String tipo;
+
+    // Versão do contato após a escrita; nula nas exclusões
+    private Long versao;
+
+    @Column(nullable = false)
+    private Long sincronizacao;
+
+    @Column(nullable = false)
+    private LocalDateTime ocorridoEm;
+
+    @Column(nullable = false)
+    private LocalDateTime gravadoEm;
+
+    @Column(length = 4000)
+    private String dados;
+}
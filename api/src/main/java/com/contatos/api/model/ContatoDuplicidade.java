@@ -0,0 +1,7 @@
+package com.contatos.api.model;
+
+/**
+ * Fields of a contact compared by the duplicate finder, with the CPF as its packed digits
+ */
+public record ContatoDuplicidade(Long id, String nome, Long cpf, String telefone, String cep, String numero) {
+}
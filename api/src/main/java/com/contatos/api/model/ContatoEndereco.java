@@ -0,0 +1,10 @@
+package com.contatos.api.model;
+
+/**
+ * Address fields of a contact, read by the backfill that links contacts to their {@link Endereco}
+ *
+ * Carries the owner and version read, so the link only touches the row if it didn't change since.
+ */
+public record ContatoEndereco(Long id, Long usuarioId, Long versao, String cep, String logradouro, String numero,
+                              String bairro, String cidade, String estado) {
+}
@@ -0,0 +1,48 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Number of contacts of a user in one city, kept up to date by every contact write
+ *
+ * Each write applies its delta (+1, -1, or a move between cities) in the same transaction, after
+ * the collection version increment that serializes the user's writers, so the statistics are
+ * read without counting the contacts. A periodic reconciliation recounts and fixes any drift.
+ * Rows whose total dropped to zero are left until the next reconciliation and never returned.
+ */
+@Entity
+@Table(name = "contatos_estatisticas")
+@IdClass(ContatoEstatistica.Chave.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContatoEstatistica {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Id
+    @Column(length = 2)
+    private String estado;
+
+    @Id
+    private String cidade;
+
+    @Column(nullable = false)
+    private Long total;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private Long usuarioId;
+        private String estado;
+        private String cidade;
+    }
+}
@@ -0,0 +1,47 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Contacts created and deleted by a user in one month, the growth series of the statistics
+ *
+ * Counters of events, not of current rows: a deletion increments the month it happened in and
+ * the creation month keeps its count, so the running sum of created minus deleted is the
+ * total over time. Maintained by the same write transactions as {@link ContatoEstatistica}.
+ */
+@Entity
+@Table(name = "contatos_estatisticas_mensais")
+@IdClass(ContatoEstatisticaMensal.Chave.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContatoEstatisticaMensal {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    // Primeiro dia do mês
+    @Id
+    private LocalDate mes;
+
+    @Column(nullable = false)
+    private Long criados;
+
+    @Column(nullable = false)
+    private Long excluidos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private Long usuarioId;
+        private LocalDate mes;
+    }
+}
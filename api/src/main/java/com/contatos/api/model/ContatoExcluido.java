@@ -0,0 +1,38 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a deleted contact, read by the delta sync endpoint
+ *
+ * Keyed by the contact ID (IDs are never reused) and stamped with the collection version of the
+ * delete, so clients holding an older watermark learn which contacts to drop from their replica.
+ * Old tombstones are pruned; see ContatosVersao#versaoMinima.
+ */
+@Entity
+@Table(name = "contatos_excluidos", indexes = {
+    @Index(name = "idx_contatos_excluidos_usuario_sincronizacao", columnList = "usuario_id, sincronizacao")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContatoExcluido {
+
+    @Id
+    @Column(name = "contato_id")
+    private Long contatoId;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private Long sincronizacao;
+
+    @Column(nullable = false)
+    private LocalDateTime excluidoEm;
+}
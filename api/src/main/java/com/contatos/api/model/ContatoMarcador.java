@@ -0,0 +1,7 @@
+package com.contatos.api.model;
+
+/**
+ * What the map needs of a contact, read straight from the contatos table
+ */
+public record ContatoMarcador(Long id, String nome, Double latitude, Double longitude) {
+}
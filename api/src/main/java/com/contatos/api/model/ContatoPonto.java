@@ -0,0 +1,7 @@
+package com.contatos.api.model;
+
+/**
+ * Coordinates of a contact, as loaded into the in-memory spatial index
+ */
+public record ContatoPonto(Long id, Double latitude, Double longitude, Long versao) {
+}
@@ -0,0 +1,9 @@
+package com.contatos.api.model;
+
+import java.util.List;
+
+/**
+ * Tags of a contact with its version, read to build the in-memory tag index
+ */
+public record ContatoTags(Long id, List<String> tags, Long versao) {
+}
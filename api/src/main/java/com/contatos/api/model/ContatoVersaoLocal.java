@@ -0,0 +1,7 @@
+package com.contatos.api.model;
+
+/**
+ * Version and city of a contact, read with a row lock by the single-contact delete
+ */
+public record ContatoVersaoLocal(Long versao, String estado, String cidade) {
+}
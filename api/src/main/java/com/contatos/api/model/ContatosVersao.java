@@ -0,0 +1,35 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-user version of the contact collection
+ *
+ * Incremented on every contact write of the user, it is the ETag source for the contact list:
+ * a conditional GET compares against this single row instead of re-running the list queries.
+ * Kept in its own table so that the frequent increments don't touch the usuarios row.
+ *
+ * It is also the delta sync watermark: every write is stamped with the version it produced, and the
+ * UPDATE that increments it serializes the user's writers, so versions commit in increasing order.
+ */
+@Entity
+@Table(name = "contatos_versoes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContatosVersao {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private Long versao;
+
+    // Watermarks abaixo deste valor podem ter perdido tombstones já expurgados e exigem recarga completa
+    @Column(nullable = false)
+    private Long versaoMinima;
+}
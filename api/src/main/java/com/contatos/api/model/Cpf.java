@@ -0,0 +1,140 @@
+package com.contatos.api.model;
+
+import java.io.Serializable;
+
+/**
+ * CPF value type stored as its 11 digits packed into a single {@code long}
+ *
+ * The packed form is what goes to the database (BIGINT column via {@link CpfConverter}),
+ * which keeps the (cpf, usuario_id) unique index narrow and makes equality a single
+ * numeric comparison. The 11-digit string is only materialized when rendering to the API.
+ *
+ * Parsing and validation ({@link #pack(CharSequence)}) run in a single pass over the
+ * characters with no regex and no allocation.
+ */
+public final class Cpf implements Comparable<Cpf>, Serializable {
+
+    /**
+     * Sentinel returned by {@link #pack(CharSequence)} for invalid input
+     */
+    public static final long INVALIDO = -1L;
+
+    private static final int DIGITOS = 11;
+    private static final long MAXIMO = 99_999_999_999L;
+
+    private final long valor;
+
+    private Cpf(long valor) {
+        this.valor = valor;
+    }
+
+    /**
+     * Parses and validates a CPF (numbers only)
+     *
+     * @param texto the 11-digit CPF
+     * @return the CPF, or {@code null} if the input is not a valid CPF
+     */
+    public static Cpf parse(CharSequence texto) {
+        long valor = pack(texto);
+        return valor == INVALIDO ? null : new Cpf(valor);
+    }
+
+    /**
+     * Rebuilds a CPF from its packed representation (as read from the database)
+     *
+     * @param valor the packed digits
+     * @return the CPF
+     * @throws IllegalArgumentException if the value does not fit in 11 digits
+     */
+    public static Cpf of(long valor) {
+        if (valor < 0 || valor > MAXIMO) {
+            throw new IllegalArgumentException("CPF fora do intervalo: " + valor);
+        }
+        return new Cpf(valor);
+    }
+
+    /**
+     * Validates a CPF using the official Brazilian check-digit algorithm and packs its digits
+     *
+     * @param texto the CPF to validate (numbers only)
+     * @return the packed digits, or {@link #INVALIDO} if the CPF is invalid
+     */
+    public static long pack(CharSequence texto) {
+        if (texto == null || texto.length() != DIGITOS) {
+            return INVALIDO;
+        }
+
+        long valor = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        boolean todosIguais = true;
+        char primeiro = texto.charAt(0);
+
+        for (int i = 0; i < DIGITOS; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALIDO;
+            }
+            int digito = c - '0';
+            valor = valor * 10 + digito;
+            todosIguais &= c == primeiro;
+
+            if (i < 9) {
+                soma1 += digito * (10 - i);
+            }
+            if (i < 10) {
+                soma2 += digito * (11 - i);
+            }
+        }
+
+        // Sequências com todos os dígitos iguais passam no cálculo mas não são CPFs válidos
+        if (todosIguais) {
+            return INVALIDO;
+        }
+
+        int primeiroDigito = digitoVerificador(soma1);
+        int segundoDigito = digitoVerificador(soma2);
+
+        int informado1 = texto.charAt(9) - '0';
+        int informado2 = texto.charAt(10) - '0';
+        return informado1 == primeiroDigito && informado2 == segundoDigito ? valor : INVALIDO;
+    }
+
+    private static int digitoVerificador(int soma) {
+        int digito = 11 - (soma % 11);
+        return digito >= 10 ? 0 : digito;
+    }
+
+    public long toLong() {
+        return valor;
+    }
+
+    /**
+     * @return the CPF as 11 digits, left-padded with zeros
+     */
+    @Override
+    public String toString() {
+        char[] digitos = new char[DIGITOS];
+        long restante = valor;
+        for (int i = DIGITOS - 1; i >= 0; i--) {
+            digitos[i] = (char) ('0' + (restante % 10));
+            restante /= 10;
+        }
+        return new String(digitos);
+    }
+
+    @Override
+    public int compareTo(Cpf outro) {
+        return Long.compare(valor, outro.valor);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Cpf outro && valor == outro.valor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(valor);
+    }
+}
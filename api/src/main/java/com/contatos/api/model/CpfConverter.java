@@ -0,0 +1,21 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link Cpf} to a BIGINT column holding the packed digits
+ */
+@Converter(autoApply = true)
+public class CpfConverter implements AttributeConverter<Cpf, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Cpf cpf) {
+        return cpf == null ? null : cpf.toLong();
+    }
+
+    @Override
+    public Cpf convertToEntityAttribute(Long valor) {
+        return valor == null ? null : Cpf.of(valor);
+    }
+}
@@ -0,0 +1,60 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A distinct postal address, shared by every contact (of any user) located at it
+ *
+ * Identified by a fingerprint of the normalized address (see EnderecoService#chave), so
+ * spellings that differ only in case, accents or punctuation are the same row. The geocoded
+ * coordinates are stored here once and reused, so each address is sent to the geocoder only
+ * once. Coordinates typed by users stay on their contacts and are never copied here.
+ */
+@Entity
+@Table(name = "enderecos", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_enderecos_chave", columnNames = "chave")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Endereco {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // SHA-256 (hex) do endereço normalizado
+    @Column(nullable = false, length = 64)
+    private String chave;
+
+    // Grafia do primeiro contato que usou o endereço; é a que vai para o geocodificador
+    @Column(nullable = false, length = 8)
+    private String cep;
+
+    @Column(nullable = false)
+    private String logradouro;
+
+    @Column(nullable = false)
+    private String numero;
+
+    @Column(nullable = false)
+    private String bairro;
+
+    @Column(nullable = false)
+    private String cidade;
+
+    @Column(nullable = false, length = 2)
+    private String estado;
+
+    // Nulas até a primeira geocodificação
+    private Double latitude;
+
+    private Double longitude;
+
+    private LocalDateTime geocodificadoEm;
+}
@@ -0,0 +1,80 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress record of an account deletion
+ *
+ * The user is disabled immediately and its contacts are purged in chunks in the background.
+ * Each chunk updates this record in the same transaction as the DELETE, so the purge can be
+ * resumed from the database after a crash. The record outlives the user row on purpose
+ * (no foreign key) so the final status stays visible.
+ *
+ * A node runs the purge only while it holds the lease (executor + arrendadaAte), claimed with a
+ * conditional UPDATE and renewed at each chunk, so several nodes never purge the same account; a
+ * lease left by a crashed node expires and the purge is resumed by another one.
+ *
+ * The progress is public, since the user can no longer log in, but only to whoever holds the
+ * random token returned when the deletion was requested; only its SHA-256 is stored.
+ */
+@Entity
+@Table(name = "exclusoes_conta", indexes = {
+    @Index(name = "idx_exclusoes_conta_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExclusaoConta {
+
+    public enum Status {
+        PENDENTE,
+        EM_ANDAMENTO,
+        CONCLUIDA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private Long usuarioId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private Long totalContatos;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long contatosRemovidos = 0L;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime criadaEm;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime atualizadaEm;
+
+    @Column
+    private LocalDateTime concluidaEm;
+
+    @Column(length = 36)
+    private String executor;
+
+    @Column
+    private LocalDateTime arrendadaAte;
+
+    @Column(length = 64)
+    private String tokenHash;
+}
@@ -0,0 +1,32 @@
+package com.contatos.api.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps the tags of a contact to one text column, delimited on both ends (",cliente,lead,")
+ *
+ * The outer delimiters let a database predicate match a whole tag with LIKE '%,tag,%'. An empty
+ * list is stored as NULL.
+ */
+@Converter
+public class TagsConverter implements AttributeConverter<List<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<String> tags) {
+        return tags == null || tags.isEmpty() ? null : "," + String.join(",", tags) + ",";
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String valor) {
+        if (valor == null || valor.length() < 2) {
+            return List.of();
+        }
+        return Arrays.stream(valor.substring(1, valor.length() - 1).split(","))
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+    }
+}
@@ -5,7 +5,11 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,6 +17,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
+@NaturalIdCache(region = "usuarios-email")
 @Table(name = "usuarios")
 @Getter
 @Setter
@@ -31,6 +38,7 @@ public class Usuario {
 
     @NotBlank(message = "Email é obrigatório")
     @Email(message = "Email inválido")
+    @NaturalId
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -39,6 +47,10 @@ public class Usuario {
     @Column(nullable = false)
     private String senha;
 
+    // Preenchido quando a exclusão da conta é solicitada; o usuário fica bloqueado até o expurgo terminar
+    @Column
+    private LocalDateTime desativadoEm;
+
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Contato> contatos = new ArrayList<>();
@@ -0,0 +1,30 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.Arrendamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ArrendamentoRepository extends JpaRepository<Arrendamento, String> {
+
+    // Nós que sobem juntos criam a mesma linha: o segundo INSERT não faz nada
+    @Modifying
+    @Query("INSERT INTO Arrendamento (nome) VALUES (:nome) ON CONFLICT (nome) DO NOTHING")
+    int inserirSeAusente(@Param("nome") String nome);
+
+    // 0 linhas alteradas = outro nó está com o arrendamento
+    @Modifying
+    @Query("UPDATE Arrendamento a SET a.executor = :executor, a.arrendadoAte = :ate WHERE a.nome = :nome "
+            + "AND (a.arrendadoAte IS NULL OR a.arrendadoAte < :agora OR a.executor = :executor)")
+    int arrendar(@Param("nome") String nome, @Param("executor") String executor,
+                 @Param("agora") LocalDateTime agora, @Param("ate") LocalDateTime ate);
+
+    @Modifying
+    @Query("UPDATE Arrendamento a SET a.arrendadoAte = NULL WHERE a.nome = :nome AND a.executor = :executor")
+    int liberar(@Param("nome") String nome, @Param("executor") String executor);
+}
@@ -0,0 +1,21 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.ContatoAuditoria;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContatoAuditoriaRepository extends JpaRepository<ContatoAuditoria, Long> {
+
+    // Histórico de um contato, do mais recente ao mais antigo, pelo índice (usuario_id, contato_id, id)
+    Page<ContatoAuditoria> findByUsuarioIdAndContatoIdOrderByIdDesc(Long usuarioId, Long contatoId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ContatoAuditoria a WHERE a.usuarioId = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
+}
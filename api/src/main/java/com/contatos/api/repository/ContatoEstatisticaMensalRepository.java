@@ -0,0 +1,34 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.ContatoEstatisticaMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ContatoEstatisticaMensalRepository
+        extends JpaRepository<ContatoEstatisticaMensal, ContatoEstatisticaMensal.Chave> {
+
+    List<ContatoEstatisticaMensal> findByUsuarioIdOrderByMes(Long usuarioId);
+
+    @Modifying
+    @Query("UPDATE ContatoEstatisticaMensal m SET m.criados = m.criados + :criados, "
+            + "m.excluidos = m.excluidos + :excluidos WHERE m.usuarioId = :usuarioId AND m.mes = :mes")
+    int somar(@Param("usuarioId") Long usuarioId, @Param("mes") LocalDate mes,
+              @Param("criados") long criados, @Param("excluidos") long excluidos);
+
+    @Modifying
+    @Query("INSERT INTO ContatoEstatisticaMensal (usuarioId, mes, criados, excluidos) "
+            + "VALUES (:usuarioId, :mes, :criados, :excluidos)")
+    int inserir(@Param("usuarioId") Long usuarioId, @Param("mes") LocalDate mes,
+                @Param("criados") long criados, @Param("excluidos") long excluidos);
+
+    @Modifying
+    @Query("DELETE FROM ContatoEstatisticaMensal m WHERE m.usuarioId = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
+}
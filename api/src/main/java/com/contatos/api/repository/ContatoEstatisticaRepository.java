@@ -0,0 +1,42 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.ContagemLocal;
+import com.contatos.api.model.ContatoEstatistica;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContatoEstatisticaRepository extends JpaRepository<ContatoEstatistica, ContatoEstatistica.Chave> {
+
+    // Projeção, não entidades: os deltas são UPDATEs em massa, que não atualizariam entidades já carregadas
+    @Query("SELECT new com.contatos.api.model.ContagemLocal(e.estado, e.cidade, e.total) "
+            + "FROM ContatoEstatistica e WHERE e.usuarioId = :usuarioId AND e.total > 0")
+    List<ContagemLocal> findContagensByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Deltas: UPDATE e, se a cidade ainda não tem linha, INSERT (escritores do usuário já estão serializados)
+
+    @Modifying
+    @Query("UPDATE ContatoEstatistica e SET e.total = e.total + :delta "
+            + "WHERE e.usuarioId = :usuarioId AND e.estado = :estado AND e.cidade = :cidade")
+    int somar(@Param("usuarioId") Long usuarioId, @Param("estado") String estado, @Param("cidade") String cidade,
+              @Param("delta") long delta);
+
+    @Modifying
+    @Query("INSERT INTO ContatoEstatistica (usuarioId, estado, cidade, total) "
+            + "VALUES (:usuarioId, :estado, :cidade, :total)")
+    int inserir(@Param("usuarioId") Long usuarioId, @Param("estado") String estado, @Param("cidade") String cidade,
+                @Param("total") long total);
+
+    @Modifying
+    @Query("DELETE FROM ContatoEstatistica e WHERE e.usuarioId = :usuarioId AND e.total <= 0")
+    int deleteZerados(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @Query("DELETE FROM ContatoEstatistica e WHERE e.usuarioId = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
+}
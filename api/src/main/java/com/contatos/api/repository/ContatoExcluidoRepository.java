@@ -0,0 +1,47 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.ContatoExcluido;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ContatoExcluidoRepository extends JpaRepository<ContatoExcluido, Long> {
+
+    // Mesma paginação por (sincronizacao, id) de ContatoRepository#findAlteradosDesde
+    @Query("SELECT e FROM ContatoExcluido e WHERE e.usuarioId = :usuarioId AND e.sincronizacao <= :ate "
+            + "AND (e.sincronizacao > :desde OR (e.sincronizacao = :desde AND e.contatoId > :aposId)) "
+            + "ORDER BY e.sincronizacao, e.contatoId")
+    List<ContatoExcluido> findDesde(@Param("usuarioId") Long usuarioId, @Param("desde") Long desde,
+                                    @Param("aposId") Long aposId, @Param("ate") Long ate, Pageable pageable);
+
+    @Modifying
+    @Query("INSERT INTO ContatoExcluido (contatoId, usuarioId, sincronizacao, excluidoEm) "
+            + "VALUES (:contatoId, :usuarioId, :sincronizacao, :agora)")
+    int registrar(@Param("contatoId") Long contatoId, @Param("usuarioId") Long usuarioId,
+                  @Param("sincronizacao") Long sincronizacao, @Param("agora") LocalDateTime agora);
+
+    // Exclusões em lote: tombstones gravados com INSERT ... SELECT antes do DELETE, sem carregar os contatos
+
+    @Modifying
+    @Query("INSERT INTO ContatoExcluido (contatoId, usuarioId, sincronizacao, excluidoEm) "
+            + "SELECT c.id, c.usuario.id, :sincronizacao, :agora FROM Contato c "
+            + "WHERE c.usuario.id = :usuarioId AND c.id IN :ids")
+    int registrarPorIds(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids,
+                        @Param("sincronizacao") Long sincronizacao, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("DELETE FROM ContatoExcluido e WHERE e.usuarioId = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Modifying
+    @Query("DELETE FROM ContatoExcluido e WHERE e.excluidoEm < :limite")
+    int deleteAnterioresA(@Param("limite") LocalDateTime limite);
+}
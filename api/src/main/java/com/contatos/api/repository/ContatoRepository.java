@@ -1,20 +1,126 @@
 package com.contatos.api.repository;
 
 import com.contatos.api.model.Contato;
+import com.contatos.api.model.ContatoDuplicidade;
+import com.contatos.api.model.ContatoEndereco;
+import com.contatos.api.model.ContatoMarcador;
+import com.contatos.api.model.ContatoPonto;
+import com.contatos.api.model.ContatoTags;
+import com.contatos.api.model.ContatoVersaoLocal;
+import com.contatos.api.model.Cpf;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface ContatoRepository extends JpaRepository<Contato, Long> {
+public interface ContatoRepository extends JpaRepository<Contato, Long>, JpaSpecificationExecutor<Contato>,
+        ContatoRepositoryCustom {
+
+    // CPF é armazenado como BIGINT; a busca parcial compara contra os 11 dígitos com zeros à esquerda
+    String FILTRO_BUSCA = "c.usuario.id = :usuarioId AND ("
+            + "LOWER(c.nome) LIKE LOWER(CONCAT('%', :search, '%')) "
+            + "OR PAD(CAST(c.cpf AS String) WITH 11 LEADING '0') LIKE CONCAT('%', :search, '%'))";
 
     Page<Contato> findByUsuarioId(Long usuarioId, Pageable pageable);
 
-    Page<Contato> findByUsuarioIdAndNomeContainingIgnoreCaseOrUsuarioIdAndCpfContaining(
-        Long usuarioId1, String nome, Long usuarioId2, String cpf, Pageable pageable);
+    // Busca por id com a chave de partição, para ler uma única partição quando o contato não está em cache
+    Optional<Contato> findByIdAndUsuarioId(Long id, Long usuarioId);
+
+    // Versão atual do contato para requisições condicionais, sem hidratar a entidade
+    @Query("SELECT c.versao FROM Contato c WHERE c.id = :id AND c.usuario.id = :usuarioId")
+    Optional<Long> findVersaoByIdAndUsuarioId(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
+
+    // Escrita de um contato: trava a linha antes de contatos_versoes, na mesma ordem em toda escrita, e lê só a
+    // versão e a cidade (estatísticas da exclusão), sem hidratar a entidade
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.contatos.api.model.ContatoVersaoLocal(c.versao, c.estado, c.cidade) FROM Contato c "
+            + "WHERE c.id = :id AND c.usuario.id = :usuarioId")
+    Optional<ContatoVersaoLocal> bloquear(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT c FROM Contato c WHERE " + FILTRO_BUSCA)
+    Page<Contato> searchByUsuarioId(@Param("usuarioId") Long usuarioId, @Param("search") String search,
+                                    Pageable pageable);
+
+    // Sincronização delta: percorre o índice (usuario_id, sincronizacao, id) a partir da posição
+    // (desde, aposId) até a versão lida no início, uma página por vez
+    @Query("SELECT c FROM Contato c WHERE c.usuario.id = :usuarioId AND c.sincronizacao <= :ate "
+            + "AND (c.sincronizacao > :desde OR (c.sincronizacao = :desde AND c.id > :aposId)) "
+            + "ORDER BY c.sincronizacao, c.id")
+    List<Contato> findAlteradosDesde(@Param("usuarioId") Long usuarioId, @Param("desde") Long desde,
+                                     @Param("aposId") Long aposId, @Param("ate") Long ate, Pageable pageable);
+
+    boolean existsByUsuarioIdAndCpf(Long usuarioId, Cpf cpf);
+
+    List<Contato> findByUsuarioIdAndIdIn(Long usuarioId, Collection<Long> ids);
+
+    // Identificação de chamadas: igualdade no índice (usuario_id, telefone_normalizado)
+    List<Contato> findByUsuarioIdAndTelefoneNormalizado(Long usuarioId, String telefoneNormalizado, Pageable pageable);
+
+    // Número local: faixa no índice (usuario_id, telefone_reverso), como o prefixo de CEP
+    List<Contato> findByUsuarioIdAndTelefoneReversoBetween(Long usuarioId, String de, String ate, Pageable pageable);
+
+    // Carga do índice espacial em memória: só id, coordenadas e versão
+    @Query("SELECT new com.contatos.api.model.ContatoPonto(c.id, c.latitude, c.longitude, c.versao) "
+            + "FROM Contato c WHERE c.usuario.id = :usuarioId")
+    List<ContatoPonto> findPontosByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Carga do índice de etiquetas em memória: só id, etiquetas e versão
+    @Query("SELECT new com.contatos.api.model.ContatoTags(c.id, c.tags, c.versao) "
+            + "FROM Contato c WHERE c.usuario.id = :usuarioId")
+    List<ContatoTags> findTagsByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Marcadores do mapa: projeção lida como stream, em ordem de geohash para as diferenças de coordenadas serem pequenas
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.contatos.api.model.ContatoMarcador(c.id, c.nome, c.latitude, c.longitude) "
+            + "FROM Contato c WHERE c.usuario.id = :usuarioId ORDER BY c.geohash, c.id")
+    Stream<ContatoMarcador> streamMarcadoresByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Busca de duplicados: só os campos comparados, sem entidades
+    @Query("SELECT new com.contatos.api.model.ContatoDuplicidade(c.id, c.nome, CAST(c.cpf AS Long), c.telefone, "
+            + "c.cep, c.numero) FROM Contato c WHERE c.usuario.id = :usuarioId")
+    List<ContatoDuplicidade> findDuplicidadeByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Aquecimento do cache de CPFs: só a coluna BIGINT, limitada pelo Pageable
+    @Query("SELECT CAST(c.cpf AS Long) FROM Contato c WHERE c.usuario.id = :usuarioId ORDER BY c.cpf")
+    List<Long> findCpfsByUsuarioId(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    boolean existsByUsuarioIdAndCpfAndIdNot(Long usuarioId, Cpf cpf, Long id);
+
+    // Exclusão em lote: projeções de IDs + DELETE único com escopo do usuário (excluirTodos), sem carregar entidades
+
+    // Com lock (FOR UPDATE): estatísticas, tombstones e DELETE usam exatamente as linhas selecionadas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.id FROM Contato c WHERE c.usuario.id = :usuarioId AND c.id IN :ids")
+    List<Long> findIdsByUsuarioIdAndIdIn(@Param("usuarioId") Long usuarioId, @Param("ids") Collection<Long> ids);
+
+    long countByUsuarioId(Long usuarioId);
+
+    // Usado pela exclusão de conta para remover os contatos em lotes de tamanho limitado
+    @Query("SELECT c.id FROM Contato c WHERE c.usuario.id = :usuarioId ORDER BY c.id")
+    List<Long> findIdsByUsuarioId(@Param("usuarioId") Long usuarioId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.id FROM Contato c WHERE " + FILTRO_BUSCA + " ORDER BY c.id")
+    List<Long> findIdsBySearch(@Param("usuarioId") Long usuarioId, @Param("search") String search);
 
-    boolean existsByUsuarioIdAndCpf(Long usuarioId, String cpf);
+    // Vinculação dos contatos antigos à tabela de endereços, em lotes por ordem de ID
 
-    boolean existsByUsuarioIdAndCpfAndIdNot(Long usuarioId, String cpf, Long id);
+    @Query("SELECT new com.contatos.api.model.ContatoEndereco(c.id, c.usuario.id, c.versao, c.cep, c.logradouro, "
+            + "c.numero, c.bairro, c.cidade, c.estado) FROM Contato c WHERE c.endereco IS NULL AND c.id > :depoisDe "
+            + "ORDER BY c.id")
+    List<ContatoEndereco> findSemEndereco(@Param("depoisDe") Long depoisDe, Pageable pageable);
 }
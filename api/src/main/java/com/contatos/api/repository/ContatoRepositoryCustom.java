@@ -0,0 +1,58 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.ContagemLocal;
+import com.contatos.api.model.Contato;
+import com.contatos.api.model.ContatoEndereco;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ContatoRepositoryCustom {
+
+    /**
+     * Contacts of the user inside the box, nearest to its center first; ignores the Pageable sort
+     */
+    Page<Contato> findNaArea(Long usuarioId, double minLat, double minLng, double maxLat, double maxLng,
+                             Pageable pageable);
+
+    /**
+     * Contacts of the user within the radius of the point, nearest first; ignores the Pageable sort
+     */
+    Page<Contato> findProximos(Long usuarioId, double latitude, double longitude, double raioKm, Pageable pageable);
+
+    /**
+     * Number of contacts matching the specification per (estado, cidade), in a single grouped query
+     */
+    List<ContagemLocal> contarPorCidade(Specification<Contato> specification);
+
+    /**
+     * Deletes one contact of the user with a single DELETE on (id, usuario_id)
+     * Evicts only that contact's second-level cache entry, where a bulk HQL DELETE would clear the
+     * whole Contato region
+     *
+     * @return 1 if the contact was deleted, 0 if it doesn't exist or belongs to another user
+     */
+    int excluir(Long id, Long usuarioId);
+
+    /**
+     * Deletes contacts of the user by ID with a single DELETE on (usuario_id, id IN ...)
+     * Evicts only those contacts' second-level cache entries; callers keep the list within the
+     * driver's bind parameter limits
+     *
+     * @return number of contacts deleted
+     */
+    int excluirTodos(Long usuarioId, Collection<Long> ids);
+
+    /**
+     * Links contacts without an address row to the given address, with one batched UPDATE per contact
+     * on (id, usuario_id, versao) that skips contacts changed or linked since they were read
+     * The version is kept, since the link changes nothing visible, and only the linked contacts'
+     * second-level cache entries are evicted, where a bulk HQL UPDATE would clear the whole Contato region
+     *
+     * @return number of contacts linked
+     */
+    int vincularEndereco(Long enderecoId, List<ContatoEndereco> contatos);
+}
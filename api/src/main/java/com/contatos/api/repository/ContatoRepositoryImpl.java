@@ -0,0 +1,250 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.ContagemLocal;
+import com.contatos.api.model.Contato;
+import com.contatos.api.model.ContatoEndereco;
+import com.contatos.api.util.GeoHash;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Area and radius queries over the (usuario_id, geohash) index, the facet counts of the listing, the
+ * contact deletes and the address link
+ *
+ * The box is covered by at most 4 geohash ranges (see {@link GeoHash#cobrir}); a radius search whose
+ * circle crosses the antimeridian is split into one box on each side, so up to 8 ranges. Each range is a
+ * separate query, so every one of them is a single index range scan on any database (an OR of
+ * ranges is not used as an index condition by every planner); the exact latitude/longitude filter
+ * drops the points of the cells outside the box. Each query returns its nearest rows up to the end
+ * of the requested page and the candidates are merged by distance.
+ *
+ * The distance is filtered and ordered by the haversine term sin²(Δlat/2) + cos·cos·sin²(Δlng/2),
+ * which grows with the distance, so no asin/sqrt is evaluated per row.
+ */
+public class ContatoRepositoryImpl implements ContatoRepositoryCustom {
+
+    private static final String DISTANCIA = "(power(sin((radians(c.latitude) - :latRad) / 2), 2) "
+            + "+ :cosLat * cos(radians(c.latitude)) * power(sin((radians(c.longitude) - :lngRad) / 2), 2))";
+
+    private static final String FILTRO = " WHERE c.usuario.id = :usuarioId AND c.geohash BETWEEN :min AND :max"
+            + " AND c.latitude BETWEEN :minLat AND :maxLat AND c.longitude BETWEEN :minLng AND :maxLng";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Contato> findNaArea(Long usuarioId, double minLat, double minLng, double maxLat, double maxLng,
+                                    Pageable pageable) {
+        return buscar(usuarioId, List.of(new Caixa(minLat, minLng, maxLat, maxLng)),
+                (minLat + maxLat) / 2, (minLng + maxLng) / 2, null, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Contato> findProximos(Long usuarioId, double latitude, double longitude, double raioKm,
+                                      Pageable pageable) {
+        // Caixa que contém o círculo; perto dos polos, todas as longitudes
+        double dLat = Math.toDegrees(raioKm / GeoHash.RAIO_TERRA_KM);
+        double minLat = Math.max(-90, latitude - dLat);
+        double maxLat = Math.min(90, latitude + dLat);
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double dLng = minLat == -90 || maxLat == 90 || cosLat < 1e-6 ? 180 : dLat / cosLat;
+        double minLng = longitude - dLng;
+        double maxLng = longitude + dLng;
+
+        // Círculo que cruza o antimeridiano: uma caixa de cada lado
+        List<Caixa> caixas;
+        if (dLng >= 180) {
+            caixas = List.of(new Caixa(minLat, -180, maxLat, 180));
+        } else if (minLng < -180) {
+            caixas = List.of(new Caixa(minLat, minLng + 360, maxLat, 180), new Caixa(minLat, -180, maxLat, maxLng));
+        } else if (maxLng > 180) {
+            caixas = List.of(new Caixa(minLat, minLng, maxLat, 180), new Caixa(minLat, -180, maxLat, maxLng - 360));
+        } else {
+            caixas = List.of(new Caixa(minLat, minLng, maxLat, maxLng));
+        }
+
+        double limite = Math.pow(Math.sin(raioKm / GeoHash.RAIO_TERRA_KM / 2), 2);
+        return buscar(usuarioId, caixas, latitude, longitude, limite, pageable);
+    }
+
+    private Page<Contato> buscar(Long usuarioId, List<Caixa> caixas, double latitude, double longitude,
+                                 Double limite, Pageable pageable) {
+        List<Consulta> consultas = new ArrayList<>();
+        for (Caixa caixa : caixas) {
+            for (GeoHash.Intervalo intervalo : GeoHash.cobrir(caixa.minLat(), caixa.minLng(), caixa.maxLat(), caixa.maxLng())) {
+                consultas.add(new Consulta(caixa, intervalo));
+            }
+        }
+        String filtro = FILTRO + (limite != null ? " AND " + DISTANCIA + " <= :limite" : "");
+
+        List<Contato> candidatos = new ArrayList<>();
+        for (Consulta consulta : consultas) {
+            TypedQuery<Contato> query = entityManager.createQuery(
+                    "SELECT c FROM Contato c" + filtro + " ORDER BY " + DISTANCIA + ", c.id", Contato.class);
+            parametros(query, usuarioId, consulta, latitude, longitude, limite, true);
+            if (pageable.isPaged()) {
+                query.setMaxResults((int) pageable.getOffset() + pageable.getPageSize());
+            }
+            candidatos.addAll(query.getResultList());
+        }
+
+        candidatos.sort(Comparator
+                .comparingDouble((Contato c) -> GeoHash.distanciaKm(latitude, longitude, c.getLatitude(), c.getLongitude()))
+                .thenComparing(Contato::getId));
+        int inicio = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), candidatos.size()) : 0;
+        int fim = pageable.isPaged() ? Math.min(inicio + pageable.getPageSize(), candidatos.size()) : candidatos.size();
+
+        return PageableExecutionUtils.getPage(candidatos.subList(inicio, fim), pageable, () -> {
+            long total = 0;
+            for (Consulta consulta : consultas) {
+                TypedQuery<Long> count = entityManager.createQuery("SELECT count(c) FROM Contato c" + filtro, Long.class);
+                parametros(count, usuarioId, consulta, latitude, longitude, limite, false);
+                total += count.getSingleResult();
+            }
+            return total;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ContagemLocal> contarPorCidade(Specification<Contato> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ContagemLocal> query = cb.createQuery(ContagemLocal.class);
+        Root<Contato> root = query.from(Contato.class);
+        query.select(cb.construct(ContagemLocal.class, root.get("estado"), root.get("cidade"), cb.count(root)))
+                .where(specification.toPredicate(root, query, cb))
+                .groupBy(root.get("estado"), root.get("cidade"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int excluir(Long id, Long usuarioId) {
+        int removidos = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM contatos WHERE id = ? AND usuario_id = ?")) {
+                statement.setLong(1, id);
+                statement.setLong(2, usuarioId);
+                return statement.executeUpdate();
+            }
+        });
+        evictar(List.of(id));
+        return removidos;
+    }
+
+    @Override
+    @Transactional
+    public int excluirTodos(Long usuarioId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> lista = List.copyOf(ids);
+        String marcadores = String.join(", ", Collections.nCopies(lista.size(), "?"));
+        int removidos = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM contatos WHERE usuario_id = ? AND id IN (" + marcadores + ")")) {
+                statement.setLong(1, usuarioId);
+                for (int i = 0; i < lista.size(); i++) {
+                    statement.setLong(i + 2, lista.get(i));
+                }
+                return statement.executeUpdate();
+            }
+        });
+        evictar(lista);
+        return removidos;
+    }
+
+    @Override
+    @Transactional
+    public int vincularEndereco(Long enderecoId, List<ContatoEndereco> contatos) {
+        List<Long> vinculados = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("UPDATE contatos SET endereco_id = ? "
+                    + "WHERE id = ? AND usuario_id = ? AND versao = ? AND endereco_id IS NULL")) {
+                for (ContatoEndereco contato : contatos) {
+                    statement.setLong(1, enderecoId);
+                    statement.setLong(2, contato.id());
+                    statement.setLong(3, contato.usuarioId());
+                    statement.setLong(4, contato.versao());
+                    statement.addBatch();
+                }
+                int[] alterados = statement.executeBatch();
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < alterados.length; i++) {
+                    // SUCCESS_NO_INFO: o driver não informa a contagem; trata como vinculado
+                    if (alterados[i] > 0 || alterados[i] == Statement.SUCCESS_NO_INFO) {
+                        ids.add(contatos.get(i).id());
+                    }
+                }
+                return ids;
+            }
+        });
+        evictar(vinculados);
+        return vinculados.size();
+    }
+
+    private void evictar(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(Contato.class, id));
+        // Uma leitura concorrente ainda vê a linha anterior até o commit e pode devolvê-la ao cache
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(id -> cache.evict(Contato.class, id));
+                }
+            });
+        }
+    }
+
+    private static void parametros(TypedQuery<?> query, Long usuarioId, Consulta consulta,
+                                   double latitude, double longitude, Double limite, boolean ordenado) {
+        query.setParameter("usuarioId", usuarioId);
+        query.setParameter("min", consulta.intervalo().min());
+        query.setParameter("max", consulta.intervalo().max());
+        query.setParameter("minLat", consulta.caixa().minLat());
+        query.setParameter("maxLat", consulta.caixa().maxLat());
+        query.setParameter("minLng", consulta.caixa().minLng());
+        query.setParameter("maxLng", consulta.caixa().maxLng());
+        if (limite != null || ordenado) {
+            query.setParameter("latRad", Math.toRadians(latitude));
+            query.setParameter("lngRad", Math.toRadians(longitude));
+            query.setParameter("cosLat", Math.cos(Math.toRadians(latitude)));
+        }
+        if (limite != null) {
+            query.setParameter("limite", limite);
+        }
+    }
+
+    private record Caixa(double minLat, double minLng, double maxLat, double maxLng) {
+    }
+
+    // Um intervalo de geohash e a caixa cujo filtro exato de latitude/longitude o acompanha
+    private record Consulta(Caixa caixa, GeoHash.Intervalo intervalo) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.dto.ContatoFiltro;
+import com.contatos.api.model.Contato;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Specifications of the filtered contact listing
+ *
+ * Every predicate is an equality or a range on a column that follows usuario_id in a composite
+ * index, so the database reads only the matching index range:
+ * - estado, cidade, bairro: equality on (usuario_id, estado, cidade, bairro) when estado is given;
+ *   otherwise on (usuario_id, cidade, bairro), or (usuario_id, bairro) for bairro alone
+ * - CEP prefix: a range between the prefix padded with 0s and with 9s on (usuario_id, cep),
+ *   which any collation orders correctly, unlike LIKE 'prefix%'
+ * - created/updated: ranges on (usuario_id, created_at) and (usuario_id, updated_at)
+ *
+ * Tag filters are normally resolved to IDs by the in-memory tag index; {@link #comTags} is the
+ * fallback for broad matches and can't use an index (LIKE '%,tag,%' on the delimited column).
+ */
+public final class ContatoSpecifications {
+
+    private static final int DIGITOS_CEP = 8;
+    private static final int DIGITOS_CPF = 11;
+
+    private ContatoSpecifications() {
+        // Utility class
+    }
+
+    public static Specification<Contato> filtradoPor(Long usuarioId, ContatoFiltro filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            predicados.add(cb.equal(root.get("usuario").get("id"), usuarioId));
+
+            if (filtro.getEstado() != null) {
+                predicados.add(cb.equal(root.get("estado"), filtro.getEstado()));
+            }
+            if (filtro.getCidade() != null) {
+                predicados.add(cb.equal(root.get("cidade"), filtro.getCidade()));
+            }
+            if (filtro.getBairro() != null) {
+                predicados.add(cb.equal(root.get("bairro"), filtro.getBairro()));
+            }
+            if (filtro.getCepPrefixo() != null) {
+                String prefixo = filtro.getCepPrefixo();
+                predicados.add(cb.between(root.get("cep"),
+                        prefixo + "0".repeat(DIGITOS_CEP - prefixo.length()),
+                        prefixo + "9".repeat(DIGITOS_CEP - prefixo.length())));
+            }
+            if (filtro.getCriadoDesde() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filtro.getCriadoDesde()));
+            }
+            if (filtro.getCriadoAte() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("createdAt"), filtro.getCriadoAte()));
+            }
+            if (filtro.getAtualizadoDesde() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), filtro.getAtualizadoDesde()));
+            }
+            if (filtro.getAtualizadoAte() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("updatedAt"), filtro.getAtualizadoAte()));
+            }
+
+            if (filtro.getSearch() != null && !filtro.getSearch().isBlank()) {
+                // Mesmo critério de ContatoRepository.FILTRO_BUSCA: nome sem caixa ou os 11 dígitos do CPF
+                HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+                String padrao = "%" + filtro.getSearch() + "%";
+                predicados.add(cb.or(
+                        cb.like(cb.lower(root.get("nome")), padrao.toLowerCase()),
+                        cb.like(hcb.pad(CriteriaBuilder.Trimspec.LEADING, root.get("cpf").as(String.class),
+                                DIGITOS_CPF, '0'), padrao)));
+            }
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Contacts with all of {@code todas}, at least one of {@code algumas} and none of {@code nenhuma}
+     */
+    public static Specification<Contato> comTags(Collection<String> todas, Collection<String> algumas,
+                                                 Collection<String> nenhuma) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            todas.forEach(tag -> predicados.add(cb.like(root.get("tags").as(String.class), padraoTag(tag))));
+            if (!algumas.isEmpty()) {
+                predicados.add(cb.or(algumas.stream()
+                        .map(tag -> cb.like(root.get("tags").as(String.class), padraoTag(tag)))
+                        .toArray(Predicate[]::new)));
+            }
+            // Sem etiquetas a coluna é NULL, que também não tem nenhuma das excluídas
+            nenhuma.forEach(tag -> predicados.add(cb.or(cb.isNull(root.get("tags")),
+                    cb.notLike(root.get("tags").as(String.class), padraoTag(tag)))));
+            return cb.and(predicados.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Contato> comIds(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    private static String padraoTag(String tag) {
+        // Etiquetas validadas não contêm vírgula, % nem _
+        return "%," + tag + ",%";
+    }
+}
@@ -0,0 +1,50 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.ContatosVersao;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ContatosVersaoRepository extends JpaRepository<ContatosVersao, Long> {
+
+    @Query("SELECT v.versao FROM ContatosVersao v WHERE v.usuarioId = :usuarioId")
+    Optional<Long> findVersaoByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT v.versaoMinima FROM ContatosVersao v WHERE v.usuarioId = :usuarioId")
+    Optional<Long> findVersaoMinimaByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Trava a linha como o incremento de um escritor, sem mudar a versão
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ContatosVersao v WHERE v.usuarioId = :usuarioId")
+    Optional<ContatosVersao> bloquear(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT v.usuarioId FROM ContatosVersao v WHERE v.usuarioId > :depoisDe ORDER BY v.usuarioId")
+    List<Long> findUsuarioIdsApos(@Param("depoisDe") Long depoisDe, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ContatosVersao v SET v.versao = v.versao + 1 WHERE v.usuarioId = :usuarioId")
+    int incrementar(@Param("usuarioId") Long usuarioId);
+
+    // Primeira escrita concorrente do mesmo usuário: o segundo INSERT não faz nada e ambos incrementam a linha
+    @Modifying
+    @Query("INSERT INTO ContatosVersao (usuarioId, versao, versaoMinima) VALUES (:usuarioId, 0, 0) "
+            + "ON CONFLICT (usuarioId) DO NOTHING")
+    int inserirSeAusente(@Param("usuarioId") Long usuarioId);
+
+    // Antes de expurgar tombstones, registra até qual versão o histórico de exclusões deixa de estar completo
+    @Modifying
+    @Query("UPDATE ContatosVersao v SET v.versaoMinima = (SELECT MAX(e.sincronizacao) FROM ContatoExcluido e "
+            + "WHERE e.usuarioId = v.usuarioId AND e.excluidoEm < :limite) "
+            + "WHERE EXISTS (SELECT 1 FROM ContatoExcluido e WHERE e.usuarioId = v.usuarioId AND e.excluidoEm < :limite)")
+    int avancarVersaoMinima(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,33 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.Endereco;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
+
+    Optional<Endereco> findByChave(String chave);
+
+    // Dois contatos novos no mesmo endereço ao mesmo tempo: o segundo INSERT não faz nada e ambos relêem pela chave
+    @Modifying
+    @Query("INSERT INTO Endereco (chave, cep, logradouro, numero, bairro, cidade, estado) "
+            + "VALUES (:chave, :cep, :logradouro, :numero, :bairro, :cidade, :estado) "
+            + "ON CONFLICT (chave) DO NOTHING")
+    int inserirSeAusente(@Param("chave") String chave, @Param("cep") String cep,
+                         @Param("logradouro") String logradouro, @Param("numero") String numero,
+                         @Param("bairro") String bairro, @Param("cidade") String cidade,
+                         @Param("estado") String estado);
+
+    @Modifying
+    @Query("UPDATE Endereco e SET e.latitude = :latitude, e.longitude = :longitude, e.geocodificadoEm = :agora "
+            + "WHERE e.id = :id")
+    int registrarCoordenadas(@Param("id") Long id, @Param("latitude") Double latitude,
+                             @Param("longitude") Double longitude, @Param("agora") LocalDateTime agora);
+}
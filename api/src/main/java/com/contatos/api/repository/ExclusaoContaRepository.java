@@ -0,0 +1,44 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.ExclusaoConta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ExclusaoContaRepository extends JpaRepository<ExclusaoConta, UUID> {
+
+    @Query("SELECT e.id FROM ExclusaoConta e WHERE e.status <> :status")
+    List<UUID> findIdsByStatusNot(@Param("status") ExclusaoConta.Status status);
+
+    // Arrendamento: só um nó por vez executa cada expurgo; 0 linhas alteradas = outro nó está com ele
+
+    @Modifying
+    @Query("UPDATE ExclusaoConta e SET e.executor = :executor, e.arrendadaAte = :ate "
+            + "WHERE e.id = :id AND e.status <> :concluida "
+            + "AND (e.arrendadaAte IS NULL OR e.arrendadaAte < :agora OR e.executor = :executor)")
+    int arrendar(@Param("id") UUID id, @Param("executor") String executor, @Param("agora") LocalDateTime agora,
+                 @Param("ate") LocalDateTime ate, @Param("concluida") ExclusaoConta.Status concluida);
+
+    @Modifying
+    @Query("UPDATE ExclusaoConta e SET e.arrendadaAte = NULL WHERE e.id = :id AND e.executor = :executor")
+    int liberar(@Param("id") UUID id, @Param("executor") String executor);
+
+    @Modifying
+    @Query("UPDATE ExclusaoConta e SET e.contatosRemovidos = e.contatosRemovidos + :removidos, "
+            + "e.status = :status, e.atualizadaEm = :agora WHERE e.id = :id")
+    int registrarProgresso(@Param("id") UUID id, @Param("removidos") long removidos,
+                           @Param("status") ExclusaoConta.Status status, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE ExclusaoConta e SET e.status = :status, e.atualizadaEm = :agora, e.concluidaEm = :agora "
+            + "WHERE e.id = :id")
+    int concluir(@Param("id") UUID id, @Param("status") ExclusaoConta.Status status,
+                 @Param("agora") LocalDateTime agora);
+}
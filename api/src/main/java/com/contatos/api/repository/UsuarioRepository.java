@@ -2,14 +2,18 @@ package com.contatos.api.repository;
 
 import com.contatos.api.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
-
-    Optional<Usuario> findByEmail(String email);
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryCustom {
 
     boolean existsByEmail(String email);
+
+    // DELETE direto, sem carregar a coleção de contatos (cascade) no contexto de persistência
+    @Modifying
+    @Query("DELETE FROM Usuario u WHERE u.id = :id")
+    int purgeById(@Param("id") Long id);
 }
@@ -0,0 +1,14 @@
+package com.contatos.api.repository;
+
+import com.contatos.api.model.Usuario;
+
+import java.util.Optional;
+
+public interface UsuarioRepositoryCustom {
+
+    /**
+     * Loads a user by email through the natural-id API, so both the email resolution and the
+     * entity come from the second-level cache when present
+     */
+    Optional<Usuario> findByEmail(String email);
+}
@@ -3,7 +3,6 @@ package com.contatos.api.security;
 import com.contatos.api.model.Usuario;
 import com.contatos.api.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -22,6 +21,9 @@ public class CustomUserDetailsService implements UserDetailsService {
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
 
-        return new User(usuario.getEmail(), usuario.getSenha(), new ArrayList<>());
+        // Contas com exclusão em andamento ficam desabilitadas até o expurgo terminar
+        boolean habilitado = usuario.getDesativadoEm() == null;
+        return new UsuarioPrincipal(usuario.getId(), usuario.getEmail(), usuario.getSenha(), habilitado,
+                new ArrayList<>());
     }
 }
@@ -0,0 +1,23 @@
+package com.contatos.api.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated principal carrying the user ID, so services can scope queries by
+ * usuario_id without looking the user up by email on every request
+ */
+@Getter
+public class UsuarioPrincipal extends User {
+
+    private final Long id;
+
+    public UsuarioPrincipal(Long id, String email, String senha, boolean habilitado,
+                            Collection<? extends GrantedAuthority> authorities) {
+        super(email, senha, habilitado, true, true, true, authorities);
+        this.id = id;
+    }
+}
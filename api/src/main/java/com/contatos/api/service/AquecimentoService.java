@@ -0,0 +1,98 @@
+package com.contatos.api.service;
+
+import com.contatos.api.cache.ContatosUsuarioCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service that warms a user's working set in the background right after login
+ * 
+ * Business Rules:
+ * - The first contact page and the CPF list are loaded into {@link ContatosUsuarioCache}, so the
+ *   first requests after login don't pay for cold reads
+ * - Runs on a dedicated low-priority executor with a bounded queue; when the queue is full the
+ *   warm-up is dropped, never the login delayed
+ * - Skipped when the cache is under memory pressure, and when the same user is already being warmed
+ * - Failures are only logged: the cache is an optimization and the requests fall back to the database
+ */
+@Slf4j
+@Service
+public class AquecimentoService {
+
+    private final ContatoService contatoService;
+    private final ContatosUsuarioCache contatosUsuarioCache;
+    private final ThreadPoolTaskExecutor executor;
+    private final boolean habilitado;
+    private final int maxCpfs;
+    private final Counter ignorados;
+    private final Counter recusados;
+
+    // Usuários com aquecimento na fila ou em execução neste nó
+    private final Set<Long> emAndamento = ConcurrentHashMap.newKeySet();
+
+    public AquecimentoService(ContatoService contatoService,
+                              ContatosUsuarioCache contatosUsuarioCache,
+                              @Qualifier("contatoAquecimentoExecutor") ThreadPoolTaskExecutor executor,
+                              MeterRegistry meterRegistry,
+                              @Value("${contatos.cache.aquecimento.enabled:false}") boolean habilitado,
+                              @Value("${contatos.cache.aquecimento.max-cpfs:100000}") int maxCpfs) {
+        this.contatoService = contatoService;
+        this.contatosUsuarioCache = contatosUsuarioCache;
+        this.executor = executor;
+        this.habilitado = habilitado;
+        this.maxCpfs = maxCpfs;
+        this.ignorados = Counter.builder("cache.aquecimento.ignorados")
+                .description("Aquecimentos ignorados por pressão de memória no cache")
+                .register(meterRegistry);
+        this.recusados = Counter.builder("cache.aquecimento.recusados")
+                .description("Aquecimentos recusados com a fila do executor cheia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the warm-up of the user's working set; returns immediately
+     * 
+     * @param usuarioId the user who just logged in
+     */
+    public void agendar(Long usuarioId) {
+        if (!habilitado) {
+            return;
+        }
+        if (contatosUsuarioCache.sobPressao()) {
+            ignorados.increment();
+            return;
+        }
+        if (!emAndamento.add(usuarioId)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> aquecer(usuarioId));
+        } catch (TaskRejectedException e) {
+            emAndamento.remove(usuarioId);
+            recusados.increment();
+        }
+    }
+
+    private void aquecer(Long usuarioId) {
+        try {
+            // A pressão pode ter surgido enquanto a tarefa esperava na fila
+            if (!contatosUsuarioCache.sobPressao()) {
+                contatoService.aquecer(usuarioId, maxCpfs);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao aquecer o cache do usuário {}", usuarioId, e);
+        } finally {
+            emAndamento.remove(usuarioId);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.contatos.api.service;
+
+import com.contatos.api.dto.AuditoriaResponse;
+import com.contatos.api.dto.ContatoResponse;
+import com.contatos.api.event.ContatoAlteradoEvent;
+import com.contatos.api.model.ContatoAuditoria;
+import com.contatos.api.repository.ContatoAuditoriaRepository;
+import com.contatos.api.util.BufferCircular;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service that records the history of contact changes in {@link ContatoAuditoria}
+ *
+ * Business Rules:
+ * - Asynchronous durability (default): committed changes go into lock-free ring buffers and a
+ *   background writer inserts them in JDBC batches, one transaction per batch, when a batch fills
+ *   up or every interval; a crash loses at most the changes still buffered
+ * - Transactional durability: the history row is inserted in the writing transaction itself,
+ *   so it commits or rolls back with the change, at the cost of one more INSERT per write
+ * - Memory is bounded by the buffer capacity; when it is full the request thread waits for room
+ *   (or doesn't wait, per policy) up to a limit for the whole event, not per contact of the event,
+ *   and then drops what still doesn't fit, counting it
+ * - A batch taken from the buffers is queued for writing before the insert, so no failure of any
+ *   kind loses it; it is retried before anything else is drained, and a database outage
+ *   (connection or transient errors) fills the buffers instead of losing what was taken from them
+ * - A batch failing with any other error is split in halves after a number of attempts, so the
+ *   changes around a bad one are written; a single change that still fails is dead-lettered: logged
+ *   with its data and counted as rejected, so it doesn't block the history behind it
+ *
+ * The buffers are striped by thread ID, not owned by one writer each: request threads come from a
+ * pool and aren't pinned to a stripe, so several of them can share one and contend on its tail
+ * with a CAS (many producers, see {@link BufferCircular}). Striping only spreads that contention;
+ * the single consumer is the background writer, serialized by a lock.
+ */
+@Slf4j
+@Service
+public class AuditoriaService {
+
+    public enum Durabilidade {
+        ASSINCRONA,
+        TRANSACIONAL
+    }
+
+    public enum PoliticaCheio {
+        ESPERAR,
+        DESCARTAR
+    }
+
+    /**
+     * One change as buffered; the contact is serialized only by the background writer
+     */
+    record Registro(long usuarioId, long contatoId, ContatoAlteradoEvent.Tipo tipo, Long versao,
+                    long sincronizacao, long instante, ContatoResponse contato) {
+    }
+
+    private static final String INSERT = "INSERT INTO contatos_auditoria "
+            + "(usuario_id, contato_id, tipo, versao, sincronizacao, ocorrido_em, gravado_em, dados) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long ESPERA_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Batch queued for writing and how many times it failed with a non-transient error
+     */
+    record Lote(List<Registro> registros, int tentativas) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContatoAuditoriaRepository auditoriaRepository;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor executor;
+    private final Durabilidade durabilidade;
+    private final PoliticaCheio politicaCheio;
+    private final long esperaMaximaNanos;
+    private final int tamanhoLote;
+    private final int tentativasMaximas;
+    private final BufferCircular<Registro>[] faixas;
+
+    // Um consumidor por vez nos buffers: a gravação agendada e a disparada pelo tamanho do lote
+    private final ReentrantLock consumidor = new ReentrantLock();
+    private final AtomicBoolean gravacaoAgendada = new AtomicBoolean();
+    // Lotes drenados e ainda não gravados, em ordem; protegida por consumidor
+    private final Deque<Lote> aGravar = new ArrayDeque<>();
+
+    private final Counter gravados;
+    private final Counter descartados;
+    private final Counter rejeitados;
+    private final Timer atraso;
+
+    @SuppressWarnings("unchecked")
+    public AuditoriaService(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ContatoAuditoriaRepository auditoriaRepository,
+                            ObjectMapper objectMapper,
+                            @Qualifier("contatoAuditoriaExecutor") ThreadPoolTaskExecutor executor,
+                            MeterRegistry meterRegistry,
+                            @Value("${contatos.auditoria.durabilidade:assincrona}") String durabilidade,
+                            @Value("${contatos.auditoria.politica-cheio:esperar}") String politicaCheio,
+                            @Value("${contatos.auditoria.espera-maxima-ms:50}") long esperaMaximaMs,
+                            @Value("${contatos.auditoria.faixas:8}") int faixas,
+                            @Value("${contatos.auditoria.capacidade:65536}") int capacidade,
+                            @Value("${contatos.auditoria.tamanho-lote:500}") int tamanhoLote,
+                            @Value("${contatos.auditoria.tentativas-maximas:5}") int tentativasMaximas) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditoriaRepository = auditoriaRepository;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.durabilidade = Durabilidade.valueOf(durabilidade.toUpperCase(Locale.ROOT));
+        this.politicaCheio = PoliticaCheio.valueOf(politicaCheio.toUpperCase(Locale.ROOT));
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        this.tamanhoLote = tamanhoLote;
+        this.tentativasMaximas = Math.max(1, tentativasMaximas);
+        // Número de faixas arredondado para potência de dois; a capacidade total é dividida entre elas
+        int numeroFaixas = Integer.highestOneBit(Math.max(1, faixas));
+        this.faixas = new BufferCircular[numeroFaixas];
+        for (int i = 0; i < numeroFaixas; i++) {
+            this.faixas[i] = new BufferCircular<>(Math.max(2, capacidade / numeroFaixas));
+        }
+
+        this.gravados = Counter.builder("contatos.auditoria.gravados")
+                .description("Alterações de contatos gravadas no histórico")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("contatos.auditoria.descartados")
+                .description("Alterações de contatos descartadas com o buffer do histórico cheio")
+                .register(meterRegistry);
+        this.rejeitados = Counter.builder("contatos.auditoria.rejeitados")
+                .description("Alterações de contatos que o banco recusou gravar no histórico após as tentativas")
+                .register(meterRegistry);
+        this.atraso = Timer.builder("contatos.auditoria.atraso")
+                .description("Tempo entre o commit de uma alteração e a gravação no histórico")
+                .register(meterRegistry);
+        Gauge.builder("contatos.auditoria.pendentes", this, AuditoriaService::pendentes)
+                .description("Alterações no buffer do histórico aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onContatoAlteradoAntesDoCommit(ContatoAlteradoEvent event) {
+        if (durabilidade == Durabilidade.TRANSACIONAL) {
+            // Uma falha aqui desfaz a escrita do contato junto
+            List<Registro> registros = registros(event);
+            inserir(registros);
+            gravados.increment(registros.size());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onContatoAlterado(ContatoAlteradoEvent event) {
+        if (durabilidade == Durabilidade.ASSINCRONA) {
+            // Uma espera para o evento inteiro: uma exclusão em lote não segura a requisição por contato
+            long limite = System.nanoTime() + esperaMaximaNanos;
+            registros(event).forEach(registro -> enfileirar(registro, limite));
+        }
+    }
+
+    /**
+     * Number of changes buffered and not yet written
+     */
+    public int pendentes() {
+        int pendentes = 0;
+        for (BufferCircular<Registro> faixa : faixas) {
+            pendentes += faixa.tamanho();
+        }
+        return pendentes;
+    }
+
+    /**
+     * Writes every buffered change, in batches; runs every interval and when a batch fills up
+     */
+    @Scheduled(fixedDelayString = "${contatos.auditoria.intervalo-ms:200}")
+    public void gravarPendentes() {
+        consumidor.lock();
+        try {
+            if (!gravarLotes()) {
+                return;
+            }
+            List<Registro> lote = new ArrayList<>(tamanhoLote);
+            boolean cheio;
+            do {
+                for (BufferCircular<Registro> faixa : faixas) {
+                    faixa.drenar(lote::add, tamanhoLote - lote.size());
+                }
+                if (lote.isEmpty()) {
+                    return;
+                }
+                cheio = lote.size() == tamanhoLote;
+                // Na fila antes do INSERT: nenhuma falha, de tipo algum, perde o que já saiu dos buffers
+                aGravar.addLast(new Lote(List.copyOf(lote), 0));
+                lote.clear();
+            } while (gravarLotes() && cheio);
+        } finally {
+            consumidor.unlock();
+        }
+    }
+
+    /**
+     * Writes the queued batches in order
+     *
+     * @return false if a batch failed and stays queued for the next run
+     */
+    private boolean gravarLotes() {
+        while (!aGravar.isEmpty()) {
+            Lote lote = aGravar.peekFirst();
+            RuntimeException erro = gravar(lote.registros());
+            if (erro == null) {
+                aGravar.pollFirst();
+                continue;
+            }
+            if (transitoria(erro)) {
+                return false;
+            }
+            int tentativas = lote.tentativas() + 1;
+            if (tentativas < tentativasMaximas) {
+                aGravar.pollFirst();
+                aGravar.addFirst(new Lote(lote.registros(), tentativas));
+                return false;
+            }
+            aGravar.pollFirst();
+            List<Registro> registros = lote.registros();
+            if (registros.size() == 1) {
+                rejeitar(registros.get(0), tentativas, erro);
+                continue;
+            }
+            // Divide ao meio: as alterações boas são gravadas e a problemática acaba sozinha num lote
+            int meio = registros.size() / 2;
+            aGravar.addFirst(new Lote(registros.subList(meio, registros.size()), 0));
+            aGravar.addFirst(new Lote(registros.subList(0, meio), 0));
+        }
+        return true;
+    }
+
+    // Banco fora do ar ou erro transitório: repete sem limite, o lote não tem culpa
+    private static boolean transitoria(RuntimeException erro) {
+        return erro instanceof TransientDataAccessException
+                || erro instanceof RecoverableDataAccessException
+                || erro instanceof DataAccessResourceFailureException
+                || erro instanceof CannotCreateTransactionException;
+    }
+
+    private void rejeitar(Registro registro, int tentativas, RuntimeException erro) {
+        rejeitados.increment();
+        String dados;
+        try {
+            dados = registro.contato() == null ? null : escreverContato(registro.contato());
+        } catch (RuntimeException e) {
+            dados = String.valueOf(registro.contato());
+        }
+        log.error("Alteração descartada do histórico de contatos após {} tentativas: usuário {}, contato {}, {}, "
+                        + "versão {}, sincronização {}, dados {}", tentativas, registro.usuarioId(),
+                registro.contatoId(), registro.tipo(), registro.versao(), registro.sincronizacao(), dados, erro);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravarPendentes();
+    }
+
+    /**
+     * Reads the history of one of the user's contacts, most recent first
+     *
+     * Changes still buffered are not listed yet.
+     */
+    @Transactional(readOnly = true)
+    public Page<AuditoriaResponse> listar(Long usuarioId, Long contatoId, Pageable pageable) {
+        return auditoriaRepository.findByUsuarioIdAndContatoIdOrderByIdDesc(usuarioId, contatoId, pageable)
+                .map(auditoria -> AuditoriaResponse.builder()
+                        .tipo(auditoria.getTipo())
+                        .versao(auditoria.getVersao())
+                        .sincronizacao(auditoria.getSincronizacao())
+                        .ocorridoEm(auditoria.getOcorridoEm())
+                        .contato(auditoria.getDados() == null ? null : lerContato(auditoria.getDados()))
+                        .build());
+    }
+
+    private void enfileirar(Registro registro, long limite) {
+        // Faixa pela thread: requisições simultâneas tendem a disputar buffers diferentes
+        BufferCircular<Registro> faixa = faixas[(int) Thread.currentThread().threadId() & (faixas.length - 1)];
+        if (faixa.oferecer(registro)) {
+            if (faixa.tamanho() >= tamanhoLote) {
+                agendarGravacao();
+            }
+            return;
+        }
+
+        if (politicaCheio == PoliticaCheio.ESPERAR) {
+            while (System.nanoTime() < limite) {
+                agendarGravacao();
+                LockSupport.parkNanos(ESPERA_NANOS);
+                if (faixa.oferecer(registro)) {
+                    return;
+                }
+            }
+        }
+        descartados.increment();
+    }
+
+    private void agendarGravacao() {
+        if (!gravacaoAgendada.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    gravarPendentes();
+                } finally {
+                    gravacaoAgendada.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // A gravação periódica drena o buffer de qualquer forma
+            gravacaoAgendada.set(false);
+        }
+    }
+
+    /**
+     * Inserts a batch in a transaction of its own, so it is written whole or not at all
+     *
+     * @return null if written, otherwise the error
+     */
+    private RuntimeException gravar(List<Registro> lote) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> inserir(lote));
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar {} alterações no histórico de contatos", lote.size(), e);
+            return e;
+        }
+        gravados.increment(lote.size());
+        long gravadoEm = System.currentTimeMillis();
+        lote.forEach(registro -> atraso.record(gravadoEm - registro.instante(), TimeUnit.MILLISECONDS));
+        return null;
+    }
+
+    private void inserir(List<Registro> lote) {
+        LocalDateTime agora = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT, lote, lote.size(), (ps, registro) -> {
+            ps.setLong(1, registro.usuarioId());
+            ps.setLong(2, registro.contatoId());
+            ps.setString(3, registro.tipo().name());
+            if (registro.versao() != null) {
+                ps.setLong(4, registro.versao());
+            } else {
+                ps.setNull(4, Types.BIGINT);
+            }
+            ps.setLong(5, registro.sincronizacao());
+            ps.setTimestamp(6, Timestamp.valueOf(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(registro.instante()), ZoneId.systemDefault())));
+            ps.setTimestamp(7, Timestamp.valueOf(agora));
+            ps.setString(8, registro.contato() == null ? null : escreverContato(registro.contato()));
+        });
+    }
+
+    private static List<Registro> registros(ContatoAlteradoEvent event) {
+        long agora = System.currentTimeMillis();
+        ContatoResponse contato = event.contato();
+        return event.ids().stream()
+                .map(id -> new Registro(event.usuarioId(), id, event.tipo(),
+                        contato != null ? contato.getVersao() : null, event.sincronizacao(), agora, contato))
+                .toList();
+    }
+
+    private String escreverContato(ContatoResponse contato) {
+        try {
+            return objectMapper.writeValueAsString(contato);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Contato não serializável", e);
+        }
+    }
+
+    private ContatoResponse lerContato(String dados) {
+        try {
+            return objectMapper.readValue(dados, ContatoResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Histórico de contato ilegível", e);
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.contatos.api.service;
 
 import com.contatos.api.dto.*;
 import com.contatos.api.exception.BusinessException;
+import com.contatos.api.model.ContatosVersao;
 import com.contatos.api.model.Usuario;
+import com.contatos.api.repository.ContatosVersaoRepository;
 import com.contatos.api.repository.UsuarioRepository;
 import com.contatos.api.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
@@ -20,9 +22,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
     private final UsuarioRepository usuarioRepository;
+    private final ContatosVersaoRepository contatosVersaoRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final AquecimentoService aquecimentoService;
 
     /**
      * Registers a new user in the system
@@ -43,6 +47,11 @@ public class AuthService {
                 .build();
 
         usuario = usuarioRepository.save(usuario);
+        contatosVersaoRepository.save(ContatosVersao.builder()
+                .usuarioId(usuario.getId())
+                .versao(0L)
+                .versaoMinima(0L)
+                .build());
 
         return UsuarioResponse.builder()
                 .id(usuario.getId())
@@ -67,6 +76,8 @@ public class AuthService {
                 .orElseThrow(() -> new BusinessException("Usuário não encontrado"));
 
         String token = jwtUtil.generateToken(usuario.getEmail());
+        // As primeiras requisições após o login já encontram a página inicial e os CPFs em cache
+        aquecimentoService.agendar(usuario.getId());
 
         UsuarioResponse usuarioResponse = UsuarioResponse.builder()
                 .id(usuario.getId())
@@ -1,6 +1,7 @@
 package com.contatos.api.service;
 
 import com.contatos.api.dto.DeletarContaRequest;
+import com.contatos.api.dto.ExclusaoContaResponse;
 import com.contatos.api.exception.BusinessException;
 import com.contatos.api.model.Usuario;
 import com.contatos.api.repository.UsuarioRepository;
@@ -16,9 +17,20 @@ public class ContaService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ExclusaoContaService exclusaoContaService;
 
+    /**
+     * Requests deletion of the authenticated user's account
+     * 
+     * The user is disabled immediately; contacts and the user row are purged in the background
+     * in bounded-size chunks (see {@link ExclusaoContaService}).
+     * 
+     * @param request password confirmation
+     * @return the purge progress record
+     * @throws BusinessException if the password doesn't match
+     */
     @Transactional
-    public void deletarConta(DeletarContaRequest request) {
+    public ExclusaoContaResponse deletarConta(DeletarContaRequest request) {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new BusinessException("Usuário não encontrado"));
@@ -27,6 +39,6 @@ public class ContaService {
             throw new BusinessException("Senha inválida");
         }
 
-        usuarioRepository.delete(usuario);
+        return exclusaoContaService.iniciar(usuario);
     }
 }
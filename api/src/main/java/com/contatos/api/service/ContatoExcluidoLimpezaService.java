@@ -0,0 +1,49 @@
+package com.contatos.api.service;
+
+import com.contatos.api.repository.ContatoExcluidoRepository;
+import com.contatos.api.repository.ContatosVersaoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Prunes old delta sync tombstones so the deletion log doesn't grow forever
+ * 
+ * Business Rules:
+ * - Tombstones older than the retention period are removed
+ * - Before removing, each affected user's minimum watermark is raised to the newest pruned
+ *   tombstone, so clients that last synced before it get a full-reload answer instead of
+ *   silently missing deletions
+ */
+@Service
+@Slf4j
+public class ContatoExcluidoLimpezaService {
+
+    private final ContatoExcluidoRepository contatoExcluidoRepository;
+    private final ContatosVersaoRepository contatosVersaoRepository;
+    private final int retencaoDias;
+
+    public ContatoExcluidoLimpezaService(ContatoExcluidoRepository contatoExcluidoRepository,
+                                         ContatosVersaoRepository contatosVersaoRepository,
+                                         @Value("${contatos.sincronizacao.retencao-dias:30}") int retencaoDias) {
+        this.contatoExcluidoRepository = contatoExcluidoRepository;
+        this.contatosVersaoRepository = contatosVersaoRepository;
+        this.retencaoDias = retencaoDias;
+    }
+
+    @Scheduled(initialDelayString = "${contatos.sincronizacao.limpeza-ms:3600000}",
+               fixedDelayString = "${contatos.sincronizacao.limpeza-ms:3600000}")
+    @Transactional
+    public void expurgar() {
+        LocalDateTime limite = LocalDateTime.now().minusDays(retencaoDias);
+        contatosVersaoRepository.avancarVersaoMinima(limite);
+        int removidos = contatoExcluidoRepository.deleteAnterioresA(limite);
+        if (removidos > 0) {
+            log.info("{} registros de exclusão anteriores a {} expurgados", removidos, limite);
+        }
+    }
+}
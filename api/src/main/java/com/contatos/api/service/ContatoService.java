@@ -1,21 +1,84 @@
 package com.contatos.api.service;
 
+import com.contatos.api.cache.ContatosUsuarioCache;
+import com.contatos.api.cache.IndiceEspacial;
+import com.contatos.api.cache.IndiceEspacialCache;
+import com.contatos.api.cache.IndiceTagsCache;
+import com.contatos.api.dto.AuditoriaResponse;
+import com.contatos.api.dto.ClusterResponse;
+import com.contatos.api.dto.ContatoDistanciaResponse;
+import com.contatos.api.dto.ContatoFiltro;
 import com.contatos.api.dto.ContatoRequest;
 import com.contatos.api.dto.ContatoResponse;
+import com.contatos.api.dto.ContatosAlteracoesResponse;
+import com.contatos.api.dto.ContatosFacetadosResponse;
+import com.contatos.api.dto.DeletarContatosResponse;
+import com.contatos.api.dto.DuplicadosResponse;
+import com.contatos.api.dto.EstatisticasResponse;
+import com.contatos.api.dto.FacetaResponse;
 import com.contatos.api.dto.GoogleGeocodingResponse;
+import com.contatos.api.dto.GrupoDuplicadosResponse;
+import com.contatos.api.dto.MesclarContatosRequest;
+import com.contatos.api.event.ContatoAlteradoEvent;
 import com.contatos.api.exception.BusinessException;
+import com.contatos.api.exception.PreconditionFailedException;
 import com.contatos.api.exception.ResourceNotFoundException;
+import com.contatos.api.exception.SincronizacaoExpiradaException;
+import com.contatos.api.model.ContagemLocal;
 import com.contatos.api.model.Contato;
+import com.contatos.api.model.ContatoExcluido;
+import com.contatos.api.model.ContatoMarcador;
+import com.contatos.api.model.ContatoVersaoLocal;
+import com.contatos.api.model.Cpf;
+import com.contatos.api.model.Endereco;
 import com.contatos.api.model.Usuario;
+import com.contatos.api.repository.ContatoExcluidoRepository;
 import com.contatos.api.repository.ContatoRepository;
+import com.contatos.api.repository.ContatoSpecifications;
+import com.contatos.api.repository.ContatosVersaoRepository;
 import com.contatos.api.repository.UsuarioRepository;
-import com.contatos.api.util.CpfValidator;
+import com.contatos.api.security.UsuarioPrincipal;
+import com.contatos.api.util.ArvoreKd;
+import com.contatos.api.util.DetectorDuplicados;
+import com.contatos.api.util.ETags;
+import com.contatos.api.util.GeoHash;
+import com.contatos.api.util.MarcadoresColunares;
+import com.contatos.api.util.Tags;
+import com.contatos.api.util.Telefones;
+import com.contatos.api.util.Watermarks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service responsible for managing contacts (CRUD operations)
@@ -23,21 +86,69 @@ import org.springframework.transaction.annotation.Transactional;
  * This service implements the core business rules for contacts:
  * - CPF validation using the official Brazilian algorithm
  * - CPF uniqueness per user (same CPF cannot be registered twice by the same user)
- * - Automatic geocoding via Google Maps API when coordinates are not provided
- * - Access control ensuring users can only manage their own contacts
+ * - Automatic geocoding via Google Maps API when coordinates are not provided, once per distinct
+ *   address (see {@link EnderecoService})
+ * - Access control ensuring users can only manage their own contacts: every query is scoped by usuario_id,
+ *   so other users' rows are never loaded
  * - Pagination and search functionality
  * 
  * @see ContatoRepository
- * @see GoogleMapsService
- * @see CpfValidator
+ * @see EnderecoService
+ * @see Cpf
  */
 @Service
 @RequiredArgsConstructor
 public class ContatoService {
 
+    private static final Set<String> CAMPOS_PATCH = Set.of(
+            "nome", "cpf", "telefone", "cep", "logradouro", "numero", "complemento",
+            "bairro", "cidade", "estado", "latitude", "longitude", "tags");
+
+    private static final Set<String> CAMPOS_ENDERECO = Set.of(
+            "cep", "logradouro", "numero", "bairro", "cidade", "estado");
+
+    // Página inicial pedida pela tela de contatos: GET /api/contatos?page=0&size=10&sort=nome,asc
+    private static final Sort ORDEM_PADRAO = Sort.by(Sort.Direction.ASC, "nome");
+    private static final int TAMANHO_PAGINA_PADRAO = 10;
+
+    private static final double RAIO_MAXIMO_KM = 1000;
+
+    private static final int VIZINHOS_MAXIMO = 100;
+
+    // Cada intervalo de geohash lê até offset + size linhas: página e profundidade limitadas
+    private static final int GEO_PAGINA_MAXIMA = 100;
+    private static final int GEO_RESULTADOS_MAXIMO = 1000;
+
+    private static final int ZOOM_MAXIMO = 22;
+
+    private static final int AMOSTRAS_CLUSTER = 3;
+
+    // Acima disso o filtro por etiquetas vai ao banco como LIKE em vez de uma lista de IDs
+    private static final int MAXIMO_IDS_TAGS = 5000;
+
+    private static final int TELEFONE_RESULTADOS_MAXIMO = 20;
+
+    private static final int SINCRONIZACAO_PAGINA_MAXIMA = 1000;
+    // IDs por comando nas exclusões em lote (IN com parâmetros limitados pelo driver)
+    private static final int EXCLUSAO_LOTE = 1000;
+
     private final ContatoRepository contatoRepository;
     private final UsuarioRepository usuarioRepository;
-    private final GoogleMapsService googleMapsService;
+    private final ContatosVersaoRepository contatosVersaoRepository;
+    private final ContatoExcluidoRepository contatoExcluidoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ContatoStreamService contatoStreamService;
+    private final ContatosUsuarioCache contatosUsuarioCache;
+    private final IndiceEspacialCache indiceEspacialCache;
+    private final IndiceTagsCache indiceTagsCache;
+    private final DuplicidadeService duplicidadeService;
+    private final EstatisticasService estatisticasService;
+    private final EnderecoService enderecoService;
+    private final AuditoriaService auditoriaService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Retrieves the currently authenticated user from Spring Security context
@@ -51,6 +162,46 @@ public class ContatoService {
                 .orElseThrow(() -> new BusinessException("Usuário não encontrado"));
     }
 
+    /**
+     * Retrieves the ID of the currently authenticated user
+     * 
+     * Requests authenticated through the JWT filter carry the ID in the principal, so no query is needed;
+     * other authentication types fall back to the lookup by email.
+     * 
+     * @return the authenticated user's ID, used to scope every contact query
+     */
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof UsuarioPrincipal principal) {
+            return principal.getId();
+        }
+        return getCurrentUser().getId();
+    }
+
+    /**
+     * Loads a contact owned by the current user with a lookup on (id, usuario_id)
+     * 
+     * The owner-scoped query is the source of truth: contacts of other users are never loaded from
+     * the database and are indistinguishable from missing ones. When the contact is already in the
+     * second-level cache it is taken from there instead, without SQL, and the owner is checked on
+     * the cached foreign key.
+     */
+    private Optional<Contato> findOwned(Long id, Long usuarioId) {
+        if (entityManagerFactory.getCache().contains(Contato.class, id)) {
+            return contatoRepository.findById(id)
+                    .filter(contato -> contato.getUsuario().getId().equals(usuarioId));
+        }
+        return contatoRepository.findByIdAndUsuarioId(id, usuarioId);
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the contact doesn't exist or belongs to another user
+     */
+    private Contato findOwnedContato(Long id, Long usuarioId) {
+        return findOwned(id, usuarioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Contato não encontrado"));
+    }
+
     /**
      * Lists all contacts for the current authenticated user with optional search and pagination
      * 
@@ -65,43 +216,205 @@ public class ContatoService {
      */
     @Transactional(readOnly = true)
     public Page<ContatoResponse> listContatos(String search, Pageable pageable) {
-        Usuario usuario = getCurrentUser();
+        Long usuarioId = getCurrentUserId();
         Page<Contato> contatos;
 
         if (search != null && !search.isBlank()) {
             // Search in both nome and CPF fields
-            contatos = contatoRepository.findByUsuarioIdAndNomeContainingIgnoreCaseOrUsuarioIdAndCpfContaining(
-                    usuario.getId(), search, usuario.getId(), search, pageable);
+            contatos = contatoRepository.searchByUsuarioId(usuarioId, search, pageable);
         } else {
-            contatos = contatoRepository.findByUsuarioId(usuario.getId(), pageable);
+            contatos = contatoRepository.findByUsuarioId(usuarioId, pageable);
         }
 
         return contatos.map(this::toResponse);
     }
 
+    /**
+     * Lists the current user's contacts matching structured filters
+     * 
+     * Business Rules:
+     * - Filters: estado, cidade and bairro (exact values, as returned by the facets), CEP prefix,
+     *   creation and update date ranges, plus the same name/CPF search of the simple listing
+     * - Every filter is an equality or range on a composite index led by usuario_id
+     * - Tag filters (all of, any of, none of) are resolved by the user's in-memory tag index; the
+     *   matching IDs restrict the query, or a LIKE predicate does when they are too many
+     * - Without structured filters, behaves exactly like {@link #listContatos(String, Pageable)}
+     * 
+     * @param filtro filters; null fields don't filter
+     * @param pageable pagination and sorting parameters
+     * @return paginated list of contacts matching all filters
+     * @throws BusinessException if a filter is malformed
+     */
+    @Transactional(readOnly = true)
+    public Page<ContatoResponse> listContatosFiltrados(ContatoFiltro filtro, Pageable pageable) {
+        if (!filtro.temFiltrosEstruturados()) {
+            return listContatos(filtro.getSearch(), pageable);
+        }
+        Specification<Contato> specification = especificacao(getCurrentUserId(), filtro);
+        return contatoRepository.findAll(specification, pageable).map(this::toResponse);
+    }
+
+    /**
+     * Lists the current user's filtered contacts together with the facet counts of the sidebar
+     * 
+     * Business Rules:
+     * - Counts per estado and per cidade cover every contact matching the filters, not only the page
+     * - Both facets come from one query grouped by (estado, cidade); the estado counts are their sums
+     * - Facets are ordered by count, highest first, then by name
+     * 
+     * @param filtro filters; null fields don't filter
+     * @param pageable pagination and sorting parameters
+     * @return the page of contacts and the facet counts
+     * @throws BusinessException if a filter is malformed
+     */
+    @Transactional(readOnly = true)
+    public ContatosFacetadosResponse listContatosComFacetas(ContatoFiltro filtro, Pageable pageable) {
+        Specification<Contato> specification = especificacao(getCurrentUserId(), filtro);
+        Page<ContatoResponse> contatos = contatoRepository.findAll(specification, pageable).map(this::toResponse);
+        List<ContagemLocal> contagens = contatoRepository.contarPorCidade(specification);
+
+        Map<String, Long> porEstado = contagens.stream()
+                .collect(Collectors.groupingBy(ContagemLocal::estado, Collectors.summingLong(ContagemLocal::total)));
+        Comparator<FacetaResponse> ordem = Comparator.comparing(FacetaResponse::getTotal, Comparator.reverseOrder())
+                .thenComparing(FacetaResponse::getValor);
+        return ContatosFacetadosResponse.builder()
+                .contatos(contatos)
+                .estados(porEstado.entrySet().stream()
+                        .map(e -> FacetaResponse.builder().valor(e.getKey()).total(e.getValue()).build())
+                        .sorted(ordem)
+                        .toList())
+                .cidades(contagens.stream()
+                        .map(c -> FacetaResponse.builder().valor(c.cidade()).estado(c.estado()).total(c.total()).build())
+                        .sorted(ordem.thenComparing(FacetaResponse::getEstado))
+                        .toList())
+                .build();
+    }
+
+    private Specification<Contato> especificacao(Long usuarioId, ContatoFiltro filtro) {
+        ContatoFiltro normalizado = normalizar(filtro);
+        Specification<Contato> specification = ContatoSpecifications.filtradoPor(usuarioId, normalizado);
+        if (!normalizado.temFiltrosTags()) {
+            return specification;
+        }
+
+        long[] ids = indiceTagsCache.obter(usuarioId, () -> contatoRepository.findTagsByUsuarioId(usuarioId))
+                .filtrar(normalizado.getTags(), normalizado.getAlgumasTags(), normalizado.getSemTags());
+        if (ids.length <= MAXIMO_IDS_TAGS) {
+            return specification.and(ContatoSpecifications.comIds(Arrays.stream(ids).boxed().toList()));
+        }
+        return specification.and(ContatoSpecifications.comTags(
+                normalizado.getTags(), normalizado.getAlgumasTags(), normalizado.getSemTags()));
+    }
+
+    private ContatoFiltro normalizar(ContatoFiltro filtro) {
+        ContatoFiltro normalizado = ContatoFiltro.builder()
+                .search(filtro.getSearch())
+                .estado(vazioComoNulo(filtro.getEstado()))
+                .cidade(vazioComoNulo(filtro.getCidade()))
+                .bairro(vazioComoNulo(filtro.getBairro()))
+                .cepPrefixo(vazioComoNulo(filtro.getCepPrefixo()))
+                .criadoDesde(filtro.getCriadoDesde())
+                .criadoAte(filtro.getCriadoAte())
+                .atualizadoDesde(filtro.getAtualizadoDesde())
+                .atualizadoAte(filtro.getAtualizadoAte())
+                .tags(normalizarTags(filtro.getTags()))
+                .algumasTags(normalizarTags(filtro.getAlgumasTags()))
+                .semTags(normalizarTags(filtro.getSemTags()))
+                .build();
+        if (normalizado.getEstado() != null) {
+            normalizado.setEstado(normalizado.getEstado().toUpperCase(Locale.ROOT));
+        }
+        if (normalizado.getCepPrefixo() != null) {
+            normalizado.setCepPrefixo(normalizado.getCepPrefixo().replace("-", ""));
+            if (!normalizado.getCepPrefixo().matches("\\d{1,8}")) {
+                throw new BusinessException("Prefixo de CEP deve ter de 1 a 8 dígitos");
+            }
+        }
+        if (intervaloInvertido(normalizado.getCriadoDesde(), normalizado.getCriadoAte())
+                || intervaloInvertido(normalizado.getAtualizadoDesde(), normalizado.getAtualizadoAte())) {
+            throw new BusinessException("Intervalo de datas inválido: o início deve ser anterior ao fim");
+        }
+        return normalizado;
+    }
+
+    private static List<String> normalizarTags(List<String> tags) {
+        List<String> normalizadas = Tags.normalizar(tags);
+        for (String tag : normalizadas) {
+            if (!tag.matches(Tags.FORMATO)) {
+                throw new BusinessException("Etiqueta inválida: " + tag);
+            }
+        }
+        return normalizadas;
+    }
+
+    private static String vazioComoNulo(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private static boolean intervaloInvertido(LocalDateTime desde, LocalDateTime ate) {
+        return desde != null && ate != null && desde.isAfter(ate);
+    }
+
+    /**
+     * Lists the tags in use in the current user's contacts with the number of contacts of each
+     * 
+     * @return tags in alphabetical order, read from the in-memory tag index
+     */
+    @Transactional(readOnly = true)
+    public List<FacetaResponse> listTags() {
+        Long usuarioId = getCurrentUserId();
+        return indiceTagsCache.obter(usuarioId, () -> contatoRepository.findTagsByUsuarioId(usuarioId))
+                .contagens().entrySet().stream()
+                .map(e -> FacetaResponse.builder().valor(e.getKey()).total(e.getValue().longValue()).build())
+                .toList();
+    }
+
+    /**
+     * Returns the current user's contact statistics: totals per estado and cidade, and monthly growth
+     * 
+     * Business Rules:
+     * - Read from counters maintained by the contact writes, never by counting the contacts, so the
+     *   cost doesn't depend on the size of the book
+     * - Covers all the user's contacts; for counts under filters see {@link #listContatosComFacetas}
+     * 
+     * @return the statistics of the authenticated user
+     */
+    @Transactional(readOnly = true)
+    public EstatisticasResponse getEstatisticas() {
+        return estatisticasService.obter(getCurrentUserId());
+    }
+
+    /**
+     * Lists the change history of one of the current user's contacts, most recent first
+     * 
+     * Business Rules:
+     * - Also available after the contact was deleted
+     * - Written behind the changes (see {@link AuditoriaService}): the latest changes may take a
+     *   moment to appear
+     * 
+     * @param id the contact ID
+     * @param pageable pagination parameters
+     * @return the history entries of the contact, possibly none
+     */
+    @Transactional(readOnly = true)
+    public Page<AuditoriaResponse> getHistorico(Long id, Pageable pageable) {
+        return auditoriaService.listar(getCurrentUserId(), id, pageable);
+    }
+
     /**
      * Retrieves a specific contact by ID
      * 
      * Business Rules:
-     * - User can only access their own contacts (ownership validation)
+     * - User can only access their own contacts (the lookup is scoped by usuario_id)
      * - Throws exception if contact doesn't exist or belongs to another user
      * 
      * @param id the contact ID
      * @return the contact data
-     * @throws ResourceNotFoundException if contact doesn't exist
-     * @throws BusinessException if user doesn't own the contact
+     * @throws ResourceNotFoundException if contact doesn't exist or belongs to another user
      */
     @Transactional(readOnly = true)
     public ContatoResponse getContato(Long id) {
-        Usuario usuario = getCurrentUser();
-        Contato contato = contatoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Contato não encontrado"));
-
-        // Access control: verify ownership
-        if (!contato.getUsuario().getId().equals(usuario.getId())) {
-            throw new BusinessException("Acesso negado");
-        }
-
+        Contato contato = findOwnedContato(id, getCurrentUserId());
         return toResponse(contato);
     }
 
@@ -113,50 +426,46 @@ public class ContatoService {
      * - CPF must be unique per user (duplicate check)
      * - If latitude/longitude not provided or zero, automatically fetches from Google Maps API
      * - All address fields are required for geocoding
+     * - Geocoding runs before the write transaction opens, so no connection is held during the HTTP call
      * 
      * @param request contact creation data
      * @return created contact with generated ID and coordinates
      * @throws BusinessException if CPF is invalid, already registered, or geocoding fails
      */
-    @Transactional
     public ContatoResponse createContato(ContatoRequest request) {
-        Usuario usuario = getCurrentUser();
-
         // Validate CPF using official Brazilian algorithm
-        if (!CpfValidator.isValid(request.getCpf())) {
-            throw new BusinessException("CPF inválido");
+        Cpf cpf = parseCpf(request.getCpf());
+        if (semCoordenadas(request.getLatitude(), request.getLongitude())) {
+            geocodificarAntes(request);
         }
+        return transactionTemplate.execute(status -> criar(request, cpf));
+    }
+
+    private ContatoResponse criar(ContatoRequest request, Cpf cpf) {
+        Long usuarioId = getCurrentUserId();
 
         // Check CPF uniqueness per user
-        if (contatoRepository.existsByUsuarioIdAndCpf(usuario.getId(), request.getCpf())) {
+        if (contatoRepository.existsByUsuarioIdAndCpf(usuarioId, cpf)) {
             throw new BusinessException("CPF já cadastrado");
         }
 
-        // Automatic geocoding: fetch coordinates from Google Maps if not provided
+        // Automatic geocoding: coordinates of the shared address, already stored by geocodificarAntes
+        Endereco endereco = resolverEndereco(request);
         Double latitude = request.getLatitude();
         Double longitude = request.getLongitude();
         
-        if ((latitude == null || latitude == 0.0) || (longitude == null || longitude == 0.0)) {
-            try {
-                var location = googleMapsService.getCoordinates(
-                    request.getLogradouro(), 
-                    request.getNumero(),
-                    request.getBairro(), 
-                    request.getCidade(), 
-                    request.getEstado(), 
-                    request.getCep()
-                );
-                latitude = location.getLat();
-                longitude = location.getLng();
-            } catch (Exception e) {
-                throw new BusinessException("Não foi possível obter coordenadas para o endereço fornecido. Configure a chave da API do Google Maps ou forneça as coordenadas manualmente.");
-            }
+        if (semCoordenadas(latitude, longitude)) {
+            var location = geocode(endereco);
+            latitude = location.getLat();
+            longitude = location.getLng();
         }
 
         Contato contato = Contato.builder()
                 .nome(request.getNome())
-                .cpf(request.getCpf())
+                .cpf(cpf)
                 .telefone(request.getTelefone())
+                .telefoneNormalizado(Telefones.normalizar(request.getTelefone()))
+                .telefoneReverso(Telefones.reverso(request.getTelefone()))
                 .cep(request.getCep())
                 .logradouro(request.getLogradouro())
                 .numero(request.getNumero())
@@ -166,11 +475,25 @@ public class ContatoService {
                 .estado(request.getEstado())
                 .latitude(latitude)
                 .longitude(longitude)
-                .usuario(usuario)
+                .geohash(GeoHash.encode(latitude, longitude))
+                .tags(Tags.normalizar(request.getTags()))
+                .endereco(endereco)
+                .usuario(usuarioRepository.getReferenceById(usuarioId))
+                .sincronizacao(registrarAlteracao(usuarioId))
                 .build();
 
         contato = contatoRepository.save(contato);
-        return toResponse(contato);
+        estatisticasService.registrarCriacao(usuarioId, contato.getEstado(), contato.getCidade());
+        return publicarSalvo(usuarioId, ContatoAlteradoEvent.Tipo.CRIADO, contato);
+    }
+
+    /**
+     * Updates an existing contact without a version precondition
+     * 
+     * @see #updateContato(Long, ContatoRequest, Long)
+     */
+    public ContatoResponse updateContato(Long id, ContatoRequest request) {
+        return updateContato(id, request, null);
     }
 
     /**
@@ -181,69 +504,263 @@ public class ContatoService {
      * - CPF must remain valid
      * - CPF must remain unique per user (excluding the contact being updated)
      * - If address fields changed, automatically recalculates coordinates via Google Maps
+     * - If an expected version is given (If-Match), the update only happens if it is still current
+     * - Geocoding runs before the write transaction opens, against a snapshot of the contact; the
+     *   write re-reads the contact and re-checks the version
      * 
      * @param id contact ID to update
      * @param request new contact data
+     * @param versaoEsperada expected contact version, or null for an unconditional update
      * @return updated contact
-     * @throws ResourceNotFoundException if contact doesn't exist
-     * @throws BusinessException if validation fails or user doesn't own the contact
+     * @throws ResourceNotFoundException if contact doesn't exist or belongs to another user
+     * @throws PreconditionFailedException if the contact changed since the expected version
+     * @throws BusinessException if validation fails
      */
-    @Transactional
-    public ContatoResponse updateContato(Long id, ContatoRequest request) {
-        Usuario usuario = getCurrentUser();
-        Contato contato = contatoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Contato não encontrado"));
+    public ContatoResponse updateContato(Long id, ContatoRequest request, Long versaoEsperada) {
+        Long usuarioId = getCurrentUserId();
+        // Validate CPF
+        Cpf cpf = parseCpf(request.getCpf());
 
-        // Access control: verify ownership
-        if (!contato.getUsuario().getId().equals(usuario.getId())) {
-            throw new BusinessException("Acesso negado");
+        Optional<Contato> atual = findOwned(id, usuarioId);
+        if (atual.isPresent()) {
+            checkVersao(atual.get().getVersao(), versaoEsperada);
+            if (enderecoMudou(atual.get(), request) || semCoordenadas(request.getLatitude(), request.getLongitude())) {
+                geocodificarAntes(request);
+            }
         }
+        return transactionTemplate.execute(status -> atualizar(id, usuarioId, request, cpf, versaoEsperada));
+    }
 
-        // Validate CPF
-        if (!CpfValidator.isValid(request.getCpf())) {
-            throw new BusinessException("CPF inválido");
-        }
+    private ContatoResponse atualizar(Long id, Long usuarioId, ContatoRequest request, Cpf cpf,
+                                      Long versaoEsperada) {
+        Contato contato = findOwnedContato(id, usuarioId);
+        checkVersao(contato.getVersao(), versaoEsperada);
 
         // Check CPF uniqueness (excluding current contact)
-        if (contatoRepository.existsByUsuarioIdAndCpfAndIdNot(usuario.getId(), request.getCpf(), id)) {
+        if (contatoRepository.existsByUsuarioIdAndCpfAndIdNot(usuarioId, cpf, id)) {
             throw new BusinessException("CPF já cadastrado");
         }
 
         // Check if address changed to recalculate coordinates
-        boolean enderecoMudou = !contato.getLogradouro().equals(request.getLogradouro()) ||
-                                !contato.getNumero().equals(request.getNumero()) ||
-                                !contato.getBairro().equals(request.getBairro()) ||
-                                !contato.getCidade().equals(request.getCidade()) ||
-                                !contato.getEstado().equals(request.getEstado()) ||
-                                !contato.getCep().equals(request.getCep());
+        boolean enderecoMudou = enderecoMudou(contato, request);
 
         // Recalculate coordinates if address changed or coordinates not provided
+        Endereco endereco = enderecoMudou || contato.getEndereco() == null
+                ? resolverEndereco(request) : contato.getEndereco();
         Double latitude = request.getLatitude();
         Double longitude = request.getLongitude();
         
         // Fetch new coordinates if: address changed OR coordinates not provided/zero
-        boolean needsCoordinates = (latitude == null || latitude == 0.0) || (longitude == null || longitude == 0.0);
-        
-        if (enderecoMudou || needsCoordinates) {
-            try {
-                var location = googleMapsService.getCoordinates(
-                    request.getLogradouro(), 
-                    request.getNumero(),
-                    request.getBairro(), 
-                    request.getCidade(), 
-                    request.getEstado(), 
-                    request.getCep()
-                );
-                latitude = location.getLat();
-                longitude = location.getLng();
-            } catch (Exception e) {
-                throw new BusinessException("Não foi possível obter coordenadas para o endereço fornecido. Configure a chave da API do Google Maps ou forneça as coordenadas manualmente.");
+        if (enderecoMudou || semCoordenadas(latitude, longitude)) {
+            var location = geocode(endereco);
+            latitude = location.getLat();
+            longitude = location.getLng();
+        }
+
+        // Linha travada antes de contatos_versoes, como na exclusão; com o contato ainda sem alterações, a
+        // consulta não dispara flush
+        bloquear(id, usuarioId);
+        String estadoAnterior = contato.getEstado();
+        String cidadeAnterior = contato.getCidade();
+        applyRequest(contato, request, cpf, latitude, longitude);
+        contato.setEndereco(endereco);
+        contato.setSincronizacao(registrarAlteracao(usuarioId));
+        estatisticasService.registrarMudanca(usuarioId, estadoAnterior, cidadeAnterior,
+                contato.getEstado(), contato.getCidade());
+
+        // Flush so the response (and its ETag) carries the incremented version
+        contato = contatoRepository.saveAndFlush(contato);
+        return publicarSalvo(usuarioId, ContatoAlteradoEvent.Tipo.ATUALIZADO, contato);
+    }
+
+    /**
+     * Partially updates a contact without a version precondition
+     * 
+     * @see #patchContato(Long, JsonNode, Long)
+     */
+    public ContatoResponse patchContato(Long id, JsonNode patch) {
+        return patchContato(id, patch, null);
+    }
+
+    /**
+     * Partially updates a contact using JSON Merge Patch semantics (RFC 7396)
+     * 
+     * Business Rules:
+     * - Only fields present in the patch are changed; a null value clears the field
+     * - Only the touched fields are validated, with the same constraints as {@link ContatoRequest}
+     * - CPF validity and uniqueness are checked only when the CPF actually changes
+     * - Coordinates are recalculated only when an address field changes (or coordinates are cleared)
+     *   and the patch doesn't provide new coordinates itself
+     * - Combined with dynamic updates on Contato, only the changed columns are written
+     * - Geocoding runs before the write transaction opens, against a snapshot of the contact; the
+     *   write re-reads the contact, merges the patch again and re-checks the version
+     * 
+     * @param id contact ID to update
+     * @param patch JSON object with the fields to change
+     * @param versaoEsperada expected contact version, or null for an unconditional update
+     * @return updated contact
+     * @throws ResourceNotFoundException if contact doesn't exist or belongs to another user
+     * @throws PreconditionFailedException if the contact changed since the expected version
+     * @throws BusinessException if the patch is malformed or a touched field is invalid
+     */
+    public ContatoResponse patchContato(Long id, JsonNode patch, Long versaoEsperada) {
+        if (patch == null || !patch.isObject()) {
+            throw new BusinessException("O patch deve ser um objeto JSON");
+        }
+        Set<String> campos = new LinkedHashSet<>();
+        patch.fieldNames().forEachRemaining(campos::add);
+        for (String campo : campos) {
+            if (!CAMPOS_PATCH.contains(campo)) {
+                throw new BusinessException("Campo desconhecido: " + campo);
+            }
+        }
+
+        Long usuarioId = getCurrentUserId();
+        Optional<Contato> atual = findOwned(id, usuarioId);
+        if (atual.isPresent()) {
+            checkVersao(atual.get().getVersao(), versaoEsperada);
+            ContatoRequest request = mesclar(atual.get(), patch, campos);
+            if (geocodificaPatch(atual.get(), request, campos)) {
+                geocodificarAntes(request);
+            }
+        }
+        return transactionTemplate.execute(status -> aplicarPatch(id, usuarioId, patch, campos, versaoEsperada));
+    }
+
+    private ContatoResponse aplicarPatch(Long id, Long usuarioId, JsonNode patch, Set<String> campos,
+                                         Long versaoEsperada) {
+        Contato contato = findOwnedContato(id, usuarioId);
+        checkVersao(contato.getVersao(), versaoEsperada);
+        ContatoRequest request = mesclar(contato, patch, campos);
+
+        Cpf cpf = contato.getCpf();
+        if (campos.contains("cpf") && !request.getCpf().equals(cpf.toString())) {
+            cpf = parseCpf(request.getCpf());
+            if (contatoRepository.existsByUsuarioIdAndCpfAndIdNot(usuarioId, cpf, id)) {
+                throw new BusinessException("CPF já cadastrado");
             }
         }
 
+        boolean enderecoMudou = CAMPOS_ENDERECO.stream().anyMatch(campos::contains) && enderecoMudou(contato, request);
+        Endereco endereco = enderecoMudou || contato.getEndereco() == null
+                ? resolverEndereco(request) : contato.getEndereco();
+
+        Double latitude = request.getLatitude();
+        Double longitude = request.getLongitude();
+
+        if (geocodificaPatch(contato, request, campos)) {
+            var location = geocode(endereco);
+            latitude = location.getLat();
+            longitude = location.getLng();
+        }
+
+        // Linha travada antes de contatos_versoes, como na exclusão; com o contato ainda sem alterações, a
+        // consulta não dispara flush
+        bloquear(id, usuarioId);
+        String estadoAnterior = contato.getEstado();
+        String cidadeAnterior = contato.getCidade();
+        applyRequest(contato, request, cpf, latitude, longitude);
+        contato.setEndereco(endereco);
+        contato.setSincronizacao(registrarAlteracao(usuarioId));
+        estatisticasService.registrarMudanca(usuarioId, estadoAnterior, cidadeAnterior,
+                contato.getEstado(), contato.getCidade());
+
+        contato = contatoRepository.saveAndFlush(contato);
+        return publicarSalvo(usuarioId, ContatoAlteradoEvent.Tipo.ATUALIZADO, contato);
+    }
+
+    /**
+     * Request with the contact's current data and the patch merged over it, validated on the touched fields
+     * 
+     * @throws BusinessException if the patch is malformed or a touched field is invalid
+     */
+    private ContatoRequest mesclar(Contato contato, JsonNode patch, Set<String> campos) {
+        ContatoRequest request = toRequest(contato);
+        try {
+            objectMapper.readerForUpdating(request).readValue(patch);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Patch inválido: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new BusinessException("Patch inválido");
+        }
+        if (campos.contains("tags") && request.getTags() == null) {
+            // "tags": null no merge patch remove todas as etiquetas
+            request.setTags(List.of());
+        }
+
+        // Validate only the fields touched by the patch
+        String erros = campos.stream()
+                .flatMap(campo -> validator.validateProperty(request, campo).stream())
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+        if (!erros.isEmpty()) {
+            throw new BusinessException(erros);
+        }
+        return request;
+    }
+
+    // Endereço alterado sem coordenadas novas no patch, ou coordenadas ausentes depois do merge
+    private static boolean geocodificaPatch(Contato contato, ContatoRequest request, Set<String> campos) {
+        boolean enderecoMudou = CAMPOS_ENDERECO.stream().anyMatch(campos::contains) && enderecoMudou(contato, request);
+        boolean coordenadasInformadas = campos.contains("latitude") || campos.contains("longitude");
+        return (enderecoMudou && !coordenadasInformadas) || semCoordenadas(request.getLatitude(), request.getLongitude());
+    }
+
+    private static boolean enderecoMudou(Contato contato, ContatoRequest request) {
+        return !contato.getLogradouro().equals(request.getLogradouro()) ||
+               !contato.getNumero().equals(request.getNumero()) ||
+               !contato.getBairro().equals(request.getBairro()) ||
+               !contato.getCidade().equals(request.getCidade()) ||
+               !contato.getEstado().equals(request.getEstado()) ||
+               !contato.getCep().equals(request.getCep());
+    }
+
+    private static boolean semCoordenadas(Double latitude, Double longitude) {
+        return latitude == null || latitude == 0.0 || longitude == null || longitude == 0.0;
+    }
+
+    /**
+     * Geocodes the request address before the write transaction opens, so no connection is held during
+     * the HTTP call; the write then finds the coordinates stored on the shared address
+     * 
+     * @throws BusinessException if geocoding fails or the API key is not configured
+     */
+    private void geocodificarAntes(ContatoRequest request) {
+        geocode(resolverEndereco(request));
+    }
+
+    /**
+     * Returns the shared address row of the request address, creating it on first use
+     */
+    private Endereco resolverEndereco(ContatoRequest request) {
+        return enderecoService.resolver(request.getCep(), request.getLogradouro(), request.getNumero(),
+                request.getBairro(), request.getCidade(), request.getEstado());
+    }
+
+    /**
+     * Coordinates of an address: stored ones if it was geocoded before, otherwise from Google Maps
+     * 
+     * @throws BusinessException if geocoding fails or the API key is not configured
+     */
+    private GoogleGeocodingResponse.Location geocode(Endereco endereco) {
+        try {
+            return enderecoService.coordenadas(endereco);
+        } catch (Exception e) {
+            throw new BusinessException("Não foi possível obter coordenadas para o endereço fornecido. Configure a chave da API do Google Maps ou forneça as coordenadas manualmente.");
+        }
+    }
+
+    /**
+     * Copies request data into the entity; unchanged values don't mark columns as dirty
+     * 
+     * Tags are only replaced when the request carries them, so clients unaware of tags keep them on PUT.
+     */
+    private void applyRequest(Contato contato, ContatoRequest request, Cpf cpf, Double latitude, Double longitude) {
         contato.setNome(request.getNome());
-        contato.setCpf(request.getCpf());
+        contato.setCpf(cpf);
         contato.setTelefone(request.getTelefone());
+        contato.setTelefoneNormalizado(Telefones.normalizar(request.getTelefone()));
+        contato.setTelefoneReverso(Telefones.reverso(request.getTelefone()));
         contato.setCep(request.getCep());
         contato.setLogradouro(request.getLogradouro());
         contato.setNumero(request.getNumero());
@@ -253,34 +770,745 @@ public class ContatoService {
         contato.setEstado(request.getEstado());
         contato.setLatitude(latitude);
         contato.setLongitude(longitude);
+        contato.setGeohash(GeoHash.encode(latitude, longitude));
+        if (request.getTags() != null) {
+            List<String> tags = Tags.normalizar(request.getTags());
+            if (!tags.equals(contato.getTags())) {
+                contato.setTags(tags);
+            }
+        }
+    }
 
-        contato = contatoRepository.save(contato);
-        return toResponse(contato);
+    /**
+     * Converts a Contato entity back to a request, used as the base document for merge patches
+     */
+    private ContatoRequest toRequest(Contato contato) {
+        return ContatoRequest.builder()
+                .nome(contato.getNome())
+                .cpf(contato.getCpf().toString())
+                .telefone(contato.getTelefone())
+                .cep(contato.getCep())
+                .logradouro(contato.getLogradouro())
+                .numero(contato.getNumero())
+                .complemento(contato.getComplemento())
+                .bairro(contato.getBairro())
+                .cidade(contato.getCidade())
+                .estado(contato.getEstado())
+                .latitude(contato.getLatitude())
+                .longitude(contato.getLongitude())
+                .tags(contato.getTags())
+                .build();
     }
 
     /**
      * Deletes a contact permanently
      * 
      * Business Rules:
-     * - User can only delete their own contacts
+     * - User can only delete their own contacts (ownership is part of the lock and DELETE predicates)
      * - Deletion is permanent (no soft delete)
      * 
      * @param id contact ID to delete
-     * @throws ResourceNotFoundException if contact doesn't exist
-     * @throws BusinessException if user doesn't own the contact
+     * @throws ResourceNotFoundException if contact doesn't exist or belongs to another user
      */
     @Transactional
     public void deleteContato(Long id) {
-        Usuario usuario = getCurrentUser();
-        Contato contato = contatoRepository.findById(id)
+        deleteContato(id, null);
+    }
+
+    /**
+     * Deletes a contact permanently, optionally only if it is still at the expected version (If-Match)
+     * 
+     * @param id contact ID to delete
+     * @param versaoEsperada expected contact version, or null for an unconditional delete
+     * @throws ResourceNotFoundException if contact doesn't exist or belongs to another user
+     * @throws PreconditionFailedException if the contact changed since the expected version
+     */
+    @Transactional
+    public void deleteContato(Long id, Long versaoEsperada) {
+        Long usuarioId = getCurrentUserId();
+        // Linha travada e lida sem hidratar o contato; o DELETE seguinte tem o mesmo escopo do dono
+        ContatoVersaoLocal contato = contatoRepository.bloquear(id, usuarioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Contato não encontrado"));
+        checkVersao(contato.versao(), versaoEsperada);
+        contatoRepository.excluir(id, usuarioId);
+
+        long sincronizacao = registrarAlteracao(usuarioId);
+        estatisticasService.registrarExclusoes(usuarioId,
+                List.of(new ContagemLocal(contato.estado(), contato.cidade(), 1)));
+        contatoExcluidoRepository.registrar(id, usuarioId, sincronizacao, LocalDateTime.now());
+        eventPublisher.publishEvent(ContatoAlteradoEvent.excluidos(usuarioId, List.of(id), sincronizacao));
+    }
 
-        // Access control: verify ownership
-        if (!contato.getUsuario().getId().equals(usuario.getId())) {
-            throw new BusinessException("Acesso negado");
+    /**
+     * Deletes several contacts at once with a single ownership-scoped DELETE
+     * 
+     * Business Rules:
+     * - Only contacts owned by the authenticated user are deleted
+     * - IDs that don't exist or belong to another user are silently ignored
+     * - No entity is loaded: ownership is part of the DELETE predicate
+     * 
+     * @param ids contact IDs to delete
+     * @return IDs actually deleted
+     */
+    @Transactional
+    public DeletarContatosResponse deleteContatos(List<Long> ids) {
+        Long usuarioId = getCurrentUserId();
+        List<Long> removidos = new ArrayList<>();
+        for (List<Long> lote : lotes(new ArrayList<>(new LinkedHashSet<>(ids)))) {
+            removidos.addAll(contatoRepository.findIdsByUsuarioIdAndIdIn(usuarioId, lote));
+        }
+        excluirPorIds(usuarioId, removidos);
+        return toDeleteResponse(removidos);
+    }
+
+    /**
+     * Deletes every contact matching the listing search filter (name or CPF)
+     * 
+     * The search runs once and locks the matching rows; tombstones, statistics and the DELETE all
+     * use that ID list, so a contact inserted concurrently is never deleted without being reported.
+     * 
+     * @param search the same search term accepted by {@link #listContatos}
+     * @return IDs actually deleted
+     */
+    @Transactional
+    public DeletarContatosResponse deleteContatosBySearch(String search) {
+        Long usuarioId = getCurrentUserId();
+        List<Long> removidos = contatoRepository.findIdsBySearch(usuarioId, search);
+        excluirPorIds(usuarioId, removidos);
+        return toDeleteResponse(removidos);
+    }
+
+    /**
+     * Deletes contacts of the user already selected (and locked) by ID: statistics, tombstones and
+     * DELETE work on the same list, in chunks that keep each IN list within the driver's limits
+     */
+    private void excluirPorIds(Long usuarioId, List<Long> removidos) {
+        if (removidos.isEmpty()) {
+            return;
+        }
+        long sincronizacao = registrarAlteracao(usuarioId);
+        LocalDateTime agora = LocalDateTime.now();
+        for (List<Long> lote : lotes(removidos)) {
+            estatisticasService.registrarExclusoes(usuarioId, contatoRepository.contarPorCidade(
+                    ContatoSpecifications.filtradoPor(usuarioId, new ContatoFiltro())
+                            .and(ContatoSpecifications.comIds(lote))));
+            contatoExcluidoRepository.registrarPorIds(usuarioId, lote, sincronizacao, agora);
+            contatoRepository.excluirTodos(usuarioId, lote);
+        }
+        eventPublisher.publishEvent(ContatoAlteradoEvent.excluidos(usuarioId, removidos, sincronizacao));
+    }
+
+    private static List<List<Long>> lotes(List<Long> ids) {
+        List<List<Long>> lotes = new ArrayList<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += EXCLUSAO_LOTE) {
+            lotes.add(ids.subList(inicio, Math.min(ids.size(), inicio + EXCLUSAO_LOTE)));
+        }
+        return lotes;
+    }
+
+    /**
+     * Lists groups of probable duplicates among the current user's contacts
+     * 
+     * Business Rules:
+     * - Contacts are compared only when they share a blocking key: normalized phone, phonetic
+     *   name or CEP + number; never every pair
+     * - Small books are analysed in the request; large ones in the background, answered with
+     *   status EM_ANDAMENTO until the result is ready
+     * - The result is recomputed after any write to the user's contacts
+     * - Groups are paged, highest score first; only the contacts of the page are loaded
+     * 
+     * @param pageable page of groups
+     * @return the groups of the page, or the in-progress status
+     */
+    @Transactional(readOnly = true)
+    public DuplicadosResponse listDuplicados(Pageable pageable) {
+        Long usuarioId = getCurrentUserId();
+        DuplicidadeService.Resultado resultado = duplicidadeService.obter(usuarioId);
+        if (resultado == null) {
+            return DuplicadosResponse.builder()
+                    .status("EM_ANDAMENTO")
+                    .grupos(List.of())
+                    .build();
+        }
+
+        List<DetectorDuplicados.Grupo> todos = resultado.grupos();
+        int inicio = (int) Math.min(pageable.getOffset(), todos.size());
+        List<DetectorDuplicados.Grupo> pagina = todos.subList(inicio,
+                Math.min(todos.size(), inicio + pageable.getPageSize()));
+        Map<Long, Contato> contatos = contatoRepository.findByUsuarioIdAndIdIn(usuarioId,
+                        pagina.stream().flatMap(grupo -> grupo.ids().stream()).toList()).stream()
+                .collect(Collectors.toMap(Contato::getId, Function.identity()));
+
+        List<GrupoDuplicadosResponse> grupos = pagina.stream()
+                .map(grupo -> GrupoDuplicadosResponse.builder()
+                        .pontuacao(grupo.pontuacao())
+                        .motivos(grupo.motivos().stream().map(Enum::name).sorted().toList())
+                        .contatos(grupo.ids().stream()
+                                .filter(contatos::containsKey)
+                                .map(id -> toResponse(contatos.get(id)))
+                                .toList())
+                        .build())
+                .toList();
+        return DuplicadosResponse.builder()
+                .status("CONCLUIDA")
+                .totalContatos(resultado.totalContatos())
+                .totalGrupos(todos.size())
+                .grupos(grupos)
+                .calculadaEm(resultado.calculadoEm())
+                .build();
+    }
+
+    /**
+     * Merges duplicates into one contact of the current user
+     * 
+     * Business Rules:
+     * - The main contact keeps its own data; an empty complement is filled from the first
+     *   duplicate that has one, and the duplicates' tags are added to its own (up to the maximum)
+     * - The duplicates are deleted, with tombstones for delta sync, in the same transaction
+     * - All contacts must belong to the authenticated user
+     * 
+     * @param request main contact and duplicates
+     * @return the main contact after the merge
+     * @throws ResourceNotFoundException if any contact doesn't exist or belongs to another user
+     * @throws BusinessException if the main contact is also listed as a duplicate
+     */
+    @Transactional
+    public ContatoResponse mesclarContatos(MesclarContatosRequest request) {
+        Long usuarioId = getCurrentUserId();
+        Set<Long> duplicadosIds = new LinkedHashSet<>(request.getDuplicadosIds());
+        if (duplicadosIds.contains(request.getPrincipalId())) {
+            throw new BusinessException("O contato principal não pode estar entre os duplicados");
+        }
+        Contato principal = findOwnedContato(request.getPrincipalId(), usuarioId);
+        Map<Long, Contato> duplicados = contatoRepository.findByUsuarioIdAndIdIn(usuarioId, duplicadosIds).stream()
+                .collect(Collectors.toMap(Contato::getId, Function.identity()));
+        if (duplicados.size() != duplicadosIds.size()) {
+            throw new ResourceNotFoundException("Contato não encontrado");
+        }
+
+        // Linhas travadas antes de contatos_versoes, na mesma ordem das demais escritas
+        List<Long> todos = new ArrayList<>(duplicadosIds);
+        todos.add(principal.getId());
+        if (contatoRepository.findIdsByUsuarioIdAndIdIn(usuarioId, todos).size() != todos.size()) {
+            throw new ResourceNotFoundException("Contato não encontrado");
+        }
+
+        long sincronizacao = registrarAlteracao(usuarioId);
+        ContatoResponse response;
+        String complemento = duplicadosIds.stream()
+                .map(id -> duplicados.get(id).getComplemento())
+                .filter(c -> c != null && !c.isBlank())
+                .findFirst()
+                .orElse(null);
+        boolean alterado = false;
+        if (complemento != null && (principal.getComplemento() == null || principal.getComplemento().isBlank())) {
+            principal.setComplemento(complemento);
+            alterado = true;
+        }
+        // Etiquetas dos duplicados passam ao principal, as dele primeiro quando excedem o máximo
+        List<String> tags = Tags.normalizar(Stream.concat(principal.getTags().stream(),
+                        duplicadosIds.stream().flatMap(id -> duplicados.get(id).getTags().stream()))
+                .distinct()
+                .limit(Tags.MAXIMO)
+                .toList());
+        if (!tags.equals(principal.getTags())) {
+            principal.setTags(tags);
+            alterado = true;
+        }
+        if (alterado) {
+            principal.setSincronizacao(sincronizacao);
+            principal = contatoRepository.saveAndFlush(principal);
+            response = publicarSalvo(usuarioId, ContatoAlteradoEvent.Tipo.ATUALIZADO, principal);
+        } else {
+            response = toResponse(principal);
+        }
+
+        List<Long> removidos = List.copyOf(duplicadosIds);
+        estatisticasService.registrarExclusoes(usuarioId, contatoRepository.contarPorCidade(
+                ContatoSpecifications.filtradoPor(usuarioId, new ContatoFiltro())
+                        .and(ContatoSpecifications.comIds(removidos))));
+        contatoExcluidoRepository.registrarPorIds(usuarioId, removidos, sincronizacao, LocalDateTime.now());
+        contatoRepository.excluirTodos(usuarioId, removidos);
+        eventPublisher.publishEvent(ContatoAlteradoEvent.excluidos(usuarioId, removidos, sincronizacao));
+        return response;
+    }
+
+    /**
+     * Lists the current user's contacts within a radius of a point, nearest first
+     * 
+     * Business Rules:
+     * - Uses the (usuario_id, geohash) index: only the geohash cells around the circle are scanned
+     * - Distance is the great-circle (haversine) distance, returned with each contact
+     * - Radius limited to {@value #RAIO_MAXIMO_KM} km
+     * - Circles crossing the antimeridian are searched on both sides of it
+     * - Pages of at most {@value #GEO_PAGINA_MAXIMA} contacts, within the first {@value #GEO_RESULTADOS_MAXIMO}
+     * 
+     * @param latitude latitude of the center
+     * @param longitude longitude of the center
+     * @param raioKm radius in kilometers
+     * @param pageable pagination; the sort is always by distance
+     * @return page of contacts with their distance to the center
+     * @throws BusinessException if the coordinates, the radius or the page are out of range
+     */
+    @Transactional(readOnly = true)
+    public Page<ContatoDistanciaResponse> listProximos(double latitude, double longitude, double raioKm,
+                                                        Pageable pageable) {
+        validarCoordenadas(latitude, longitude);
+        if (!(raioKm > 0 && raioKm <= RAIO_MAXIMO_KM)) {
+            throw new BusinessException("Raio deve estar entre 0 e " + (int) RAIO_MAXIMO_KM + " km");
+        }
+        validarPaginaGeo(pageable);
+
+        return contatoRepository.findProximos(getCurrentUserId(), latitude, longitude, raioKm, pageable)
+                .map(contato -> ContatoDistanciaResponse.builder()
+                        .contato(toResponse(contato))
+                        .distanciaKm(GeoHash.distanciaKm(latitude, longitude,
+                                contato.getLatitude(), contato.getLongitude()))
+                        .build());
+    }
+
+    /**
+     * Finds the current user's contacts with a phone number (caller ID)
+     * 
+     * Business Rules:
+     * - Numbers with area code are normalized to E.164 digits and matched exactly, in one probe
+     *   of the (usuario_id, telefone_normalizado) index; formatting doesn't matter
+     * - Local numbers (no area code) match the contacts whose phone ends with them, through a
+     *   prefix range on the reversed digits index, so "98877-6655" finds "+55 41 98877-6655"
+     * - At most {@value #TELEFONE_RESULTADOS_MAXIMO} contacts, by name
+     * 
+     * @param numero phone number in any format
+     * @return matching contacts, possibly none
+     * @throws BusinessException if the number has too few or too many digits
+     */
+    @Transactional(readOnly = true)
+    public List<ContatoResponse> listPorTelefone(String numero) {
+        String digitos = Telefones.digitos(numero);
+        if (digitos.length() < Telefones.DIGITOS_MINIMOS || digitos.length() > Telefones.DIGITOS_MAXIMOS) {
+            throw new BusinessException("Telefone deve ter de " + Telefones.DIGITOS_MINIMOS + " a "
+                    + Telefones.DIGITOS_MAXIMOS + " dígitos");
+        }
+
+        Long usuarioId = getCurrentUserId();
+        Pageable limite = PageRequest.of(0, TELEFONE_RESULTADOS_MAXIMO, ORDEM_PADRAO);
+        String normalizado = Telefones.normalizar(numero);
+        List<Contato> contatos;
+        if (normalizado != null) {
+            contatos = contatoRepository.findByUsuarioIdAndTelefoneNormalizado(usuarioId, normalizado, limite);
+        } else {
+            String sufixo = new StringBuilder(digitos).reverse().toString();
+            contatos = contatoRepository.findByUsuarioIdAndTelefoneReversoBetween(usuarioId, sufixo,
+                    sufixo + "9".repeat(Telefones.DIGITOS_MAXIMOS - sufixo.length()), limite);
+        }
+        return contatos.stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Lists the k contacts of the current user nearest to a point, nearest first
+     * 
+     * Business Rules:
+     * - Served from the user's in-memory spatial index (KD-tree), with no radius limit
+     * - Only the k contacts found are read from the database
+     * - Distance is the great-circle distance, returned with each contact
+     * - k limited to {@value #VIZINHOS_MAXIMO}
+     * 
+     * @param latitude latitude of the point
+     * @param longitude longitude of the point
+     * @param k how many contacts to return
+     * @return up to k contacts with their distance to the point
+     * @throws BusinessException if the coordinates or k are out of range
+     */
+    @Transactional(readOnly = true)
+    public List<ContatoDistanciaResponse> listMaisProximos(double latitude, double longitude, int k) {
+        validarCoordenadas(latitude, longitude);
+        if (k < 1 || k > VIZINHOS_MAXIMO) {
+            throw new BusinessException("k deve estar entre 1 e " + VIZINHOS_MAXIMO);
+        }
+
+        Long usuarioId = getCurrentUserId();
+        List<ArvoreKd.Vizinho> vizinhos = indiceEspacialCache
+                .obter(usuarioId, () -> contatoRepository.findPontosByUsuarioId(usuarioId))
+                .vizinhos(latitude, longitude, k);
+        if (vizinhos.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Contato> contatos = contatoRepository.findByUsuarioIdAndIdIn(usuarioId,
+                        vizinhos.stream().map(ArvoreKd.Vizinho::id).toList()).stream()
+                .collect(Collectors.toMap(Contato::getId, Function.identity()));
+        // Mantém a ordem do índice; um contato excluído entre a busca e a leitura é omitido
+        return vizinhos.stream()
+                .filter(vizinho -> contatos.containsKey(vizinho.id()))
+                .map(vizinho -> ContatoDistanciaResponse.builder()
+                        .contato(toResponse(contatos.get(vizinho.id())))
+                        .distanciaKm(vizinho.distanciaKm())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Lists the current user's contacts inside a bounding box, nearest to its center first
+     * 
+     * Business Rules:
+     * - Uses the (usuario_id, geohash) index: only the geohash cells covering the box are scanned
+     * - Boxes crossing the antimeridian (minLng greater than maxLng) are not supported
+     * - Pages of at most {@value #GEO_PAGINA_MAXIMA} contacts, within the first {@value #GEO_RESULTADOS_MAXIMO}
+     * 
+     * @param pageable pagination; the sort is always by distance to the center of the box
+     * @return page of contacts inside the box
+     * @throws BusinessException if the box is invalid
+     */
+    @Transactional(readOnly = true)
+    public Page<ContatoResponse> listNaArea(double minLat, double minLng, double maxLat, double maxLng,
+                                            Pageable pageable) {
+        validarCoordenadas(minLat, minLng);
+        validarCoordenadas(maxLat, maxLng);
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new BusinessException("Área inválida: o mínimo deve ser menor que o máximo");
+        }
+        validarPaginaGeo(pageable);
+
+        return contatoRepository.findNaArea(getCurrentUserId(), minLat, minLng, maxLat, maxLng, pageable)
+                .map(this::toResponse);
+    }
+
+    /**
+     * Groups the current user's contacts visible in a map viewport into grid clusters
+     * 
+     * Business Rules:
+     * - Served from the user's in-memory spatial index, built on first use and kept up to date by writes
+     * - Each map zoom level uses a grid whose cells are 1/8 of a map tile wide, so the number of
+     *   clusters depends on the viewport, not on how many contacts the user has
+     * - Each cluster carries its centroid, its size and up to {@value #AMOSTRAS_CLUSTER} contact IDs
+     * 
+     * @param bbox viewport as "minLng,minLat,maxLng,maxLat" (west, south, east, north)
+     * @param zoom map zoom level, 0 to {@value #ZOOM_MAXIMO}
+     * @return clusters in the viewport
+     * @throws BusinessException if the viewport or the zoom are invalid
+     */
+    public List<ClusterResponse> listClusters(String bbox, int zoom) {
+        double[] area = parseBbox(bbox);
+        if (zoom < 0 || zoom > ZOOM_MAXIMO) {
+            throw new BusinessException("Zoom deve estar entre 0 e " + ZOOM_MAXIMO);
+        }
+
+        Long usuarioId = getCurrentUserId();
+        IndiceEspacial indice = indiceEspacialCache.obter(usuarioId,
+                () -> contatoRepository.findPontosByUsuarioId(usuarioId));
+        int nivel = Math.min(zoom + 3, GeoHash.BITS);
+        return indice.clusters(area[1], area[0], area[3], area[2], nivel, AMOSTRAS_CLUSTER).stream()
+                .map(cluster -> ClusterResponse.builder()
+                        .latitude(cluster.latitude())
+                        .longitude(cluster.longitude())
+                        .total(cluster.total())
+                        .amostra(cluster.amostra())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Collects the current user's map markers (id, name, coordinates) in columnar form
+     * 
+     * Business Rules:
+     * - Reads a projection as a stream: no entities, no ContatoResponse objects
+     * - Rows come in geohash order, so consecutive coordinates are close and their differences small
+     * 
+     * @return the markers, ready to be written as JSON or binary
+     */
+    @Transactional(readOnly = true)
+    public MarcadoresColunares listMarcadores() {
+        MarcadoresColunares marcadores = new MarcadoresColunares();
+        try (Stream<ContatoMarcador> stream = contatoRepository.streamMarcadoresByUsuarioId(getCurrentUserId())) {
+            stream.forEach(marcadores::adicionar);
+        }
+        return marcadores;
+    }
+
+    private double[] parseBbox(String bbox) {
+        String[] partes = bbox == null ? new String[0] : bbox.split(",");
+        if (partes.length != 4) {
+            throw new BusinessException("bbox deve ter o formato minLng,minLat,maxLng,maxLat");
+        }
+        double[] area = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                area[i] = Double.parseDouble(partes[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new BusinessException("bbox deve ter o formato minLng,minLat,maxLng,maxLat");
+        }
+        validarCoordenadas(area[1], area[0]);
+        validarCoordenadas(area[3], area[2]);
+        if (area[1] > area[3] || area[0] > area[2]) {
+            throw new BusinessException("Área inválida: o mínimo deve ser menor que o máximo");
+        }
+        return area;
+    }
+
+    private void validarPaginaGeo(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getPageSize() > GEO_PAGINA_MAXIMA) {
+            throw new BusinessException("Tamanho da página deve ser no máximo " + GEO_PAGINA_MAXIMA);
+        }
+        if (pageable.getOffset() + pageable.getPageSize() > GEO_RESULTADOS_MAXIMO) {
+            throw new BusinessException("Paginação limitada aos " + GEO_RESULTADOS_MAXIMO + " contatos mais próximos");
+        }
+    }
+
+    private void validarCoordenadas(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new BusinessException("Coordenadas inválidas");
         }
+    }
 
-        contatoRepository.delete(contato);
+    /**
+     * Returns the first page of the current user's contacts (no search) as ready-to-send JSON
+     * 
+     * Business Rules:
+     * - Served from the node-local working set cache when present, without database access or serialization
+     * - On a miss, the collection version is read before the page in the same read-only transaction,
+     *   so the ETag stored with the page is never newer than its content
+     * - The body is the same JSON {@link #listContatos} produces for the same page
+     * 
+     * @param sort sorting of the page
+     * @param size page size
+     * @return the page body and its ETag
+     */
+    @Transactional(readOnly = true)
+    public ContatosUsuarioCache.Pagina getPrimeiraPagina(Sort sort, int size) {
+        Long usuarioId = getCurrentUserId();
+        return contatosUsuarioCache.obter(usuarioId, sort.toString(), size,
+                () -> carregarPrimeiraPagina(usuarioId, sort, size));
+    }
+
+    /**
+     * Prefetches a user's working set (default first page and CPF list) into the node-local cache
+     * Called in the background after login; see {@link AquecimentoService}
+     * 
+     * Business Rules:
+     * - Parts already cached are not loaded again
+     * - The CPF list is skipped for users with more contacts than the configured limit
+     * - Stops early when the cache comes under memory pressure
+     * 
+     * @param usuarioId the user who just logged in
+     * @param maxCpfs largest CPF list worth caching
+     */
+    @Transactional(readOnly = true)
+    public void aquecer(Long usuarioId, int maxCpfs) {
+        String ordem = ORDEM_PADRAO.toString();
+        if (!contatosUsuarioCache.contem(usuarioId, ordem, TAMANHO_PAGINA_PADRAO)) {
+            contatosUsuarioCache.obter(usuarioId, ordem, TAMANHO_PAGINA_PADRAO,
+                    () -> carregarPrimeiraPagina(usuarioId, ORDEM_PADRAO, TAMANHO_PAGINA_PADRAO));
+        }
+
+        if (contatosUsuarioCache.getCpfs(usuarioId) != null || contatosUsuarioCache.sobPressao()) {
+            return;
+        }
+        contatosUsuarioCache.carregarCpfs(usuarioId, () -> {
+            List<Long> cpfs = contatoRepository.findCpfsByUsuarioId(usuarioId, PageRequest.of(0, maxCpfs + 1));
+            if (cpfs.size() > maxCpfs) {
+                return null;
+            }
+            return cpfs.stream().mapToLong(Long::longValue).sorted().toArray();
+        });
+    }
+
+    private ContatosUsuarioCache.Pagina carregarPrimeiraPagina(Long usuarioId, Sort sort, int size) {
+        long versao = contatosVersaoRepository.findVersaoByUsuarioId(usuarioId).orElse(0L);
+        Page<ContatoResponse> pagina = contatoRepository
+                .findByUsuarioId(usuarioId, PageRequest.of(0, size, sort))
+                .map(this::toResponse);
+        try {
+            return new ContatosUsuarioCache.Pagina(objectMapper.writeValueAsBytes(pagina),
+                    ETags.colecao(usuarioId, versao));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a página de contatos", e);
+        }
+    }
+
+    /**
+     * Returns the current version of a contact without loading the entity
+     * Used to answer conditional GETs (If-None-Match) with 304
+     * 
+     * @param id the contact ID
+     * @return the version, or empty if the contact doesn't exist or belongs to another user
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getContatoVersao(Long id) {
+        return contatoRepository.findVersaoByIdAndUsuarioId(id, getCurrentUserId());
+    }
+
+    /**
+     * Returns the ETag of the current user's contact collection
+     * It changes on every create, update or delete of the user's contacts
+     * 
+     * @return strong ETag derived from the per-user collection version
+     */
+    @Transactional(readOnly = true)
+    public String getColecaoETag() {
+        Long usuarioId = getCurrentUserId();
+        long versao = contatosVersaoRepository.findVersaoByUsuarioId(usuarioId).orElse(0L);
+        return ETags.colecao(usuarioId, versao);
+    }
+
+    /**
+     * Lists what changed in the current user's contacts since a sync watermark
+     * 
+     * Business Rules:
+     * - Without a watermark, returns every contact (initial load of the client replica)
+     * - With a watermark, returns contacts created or updated after it plus the IDs deleted after it
+     * - At most {@value #SINCRONIZACAO_PAGINA_MAXIMA} changes per call, in version order; when more
+     *   remain, the watermark points right after the last change sent and temMais is set, so the
+     *   client calls again until temMais is false (the initial load continues as a delta)
+     * - Changes are read up to the version read at the start, so a write committed in between is
+     *   sent on the next sync instead of being skipped; applying a change twice is harmless
+     * - Watermarks older than the pruned tombstone history require a full reload
+     * 
+     * @param watermark token from a previous sync, or null for the initial load
+     * @param tamanho maximum number of changes (contacts plus deleted IDs) in the response
+     * @return changes and the watermark for the next sync
+     * @throws BusinessException if the watermark is malformed or from the future, or the size is out of range
+     * @throws SincronizacaoExpiradaException if deletions since the watermark are no longer known
+     */
+    @Transactional(readOnly = true)
+    public ContatosAlteracoesResponse listAlteracoes(String watermark, int tamanho) {
+        if (tamanho < 1 || tamanho > SINCRONIZACAO_PAGINA_MAXIMA) {
+            throw new BusinessException("Tamanho deve estar entre 1 e " + SINCRONIZACAO_PAGINA_MAXIMA);
+        }
+        Long usuarioId = getCurrentUserId();
+        long atual = contatosVersaoRepository.findVersaoByUsuarioId(usuarioId).orElse(0L);
+
+        // Um a mais que a página em cada fonte para saber se sobra alteração depois dela
+        Pageable pagina = PageRequest.of(0, tamanho + 1);
+        Watermarks.Posicao desde;
+        List<ContatoExcluido> tombstones;
+        if (watermark == null) {
+            // Antes de toda posição gravada: contatos anteriores à V3 têm sincronizacao 0 e entram na carga inicial
+            desde = new Watermarks.Posicao(0, 0);
+            tombstones = List.of();
+        } else {
+            desde = Watermarks.decode(watermark);
+            if (desde.versao() > atual) {
+                throw new BusinessException("Watermark inválido");
+            }
+            if (desde.versao() < contatosVersaoRepository.findVersaoMinimaByUsuarioId(usuarioId).orElse(0L)) {
+                throw new SincronizacaoExpiradaException("Watermark expirado; recarregue todos os contatos");
+            }
+            tombstones = contatoExcluidoRepository.findDesde(
+                    usuarioId, desde.versao(), desde.aposId(), atual, pagina);
+        }
+        List<Contato> contatos = contatoRepository.findAlteradosDesde(usuarioId, desde.versao(), desde.aposId(), atual, pagina);
+
+        // Intercala as duas fontes por (versão, id) e corta na página
+        List<ContatoResponse> alterados = new ArrayList<>();
+        List<Long> excluidos = new ArrayList<>();
+        Watermarks.Posicao ultima = null;
+        int c = 0;
+        int e = 0;
+        while (alterados.size() + excluidos.size() < tamanho && (c < contatos.size() || e < tombstones.size())) {
+            boolean contatoPrimeiro = e == tombstones.size() || (c < contatos.size()
+                    && compararPosicao(contatos.get(c).getSincronizacao(), contatos.get(c).getId(),
+                            tombstones.get(e).getSincronizacao(), tombstones.get(e).getContatoId()) < 0);
+            if (contatoPrimeiro) {
+                Contato contato = contatos.get(c++);
+                alterados.add(toResponse(contato));
+                ultima = new Watermarks.Posicao(contato.getSincronizacao(), contato.getId());
+            } else {
+                ContatoExcluido tombstone = tombstones.get(e++);
+                excluidos.add(tombstone.getContatoId());
+                ultima = new Watermarks.Posicao(tombstone.getSincronizacao(), tombstone.getContatoId());
+            }
+        }
+        boolean temMais = c < contatos.size() || e < tombstones.size();
+
+        return ContatosAlteracoesResponse.builder()
+                .alterados(alterados)
+                .excluidos(excluidos)
+                .watermark(temMais ? Watermarks.encode(ultima) : Watermarks.encode(atual))
+                .temMais(temMais)
+                .build();
+    }
+
+    private static int compararPosicao(long versao, long id, long outraVersao, long outroId) {
+        int comparacao = Long.compare(versao, outraVersao);
+        return comparacao != 0 ? comparacao : Long.compare(id, outroId);
+    }
+
+    /**
+     * Opens a Server-Sent Events stream with the current user's contact changes
+     * 
+     * @return emitter registered for the authenticated user
+     */
+    public SseEmitter assinarAlteracoes() {
+        return contatoStreamService.assinar(getCurrentUserId());
+    }
+
+    /**
+     * Locks the contact row for a write that already holds the entity
+     *
+     * @throws ResourceNotFoundException if the contact was deleted since it was read
+     */
+    private void bloquear(Long id, Long usuarioId) {
+        if (contatoRepository.bloquear(id, usuarioId).isEmpty()) {
+            throw new ResourceNotFoundException("Contato não encontrado");
+        }
+    }
+
+    /**
+     * Bumps the user's collection version; must be called by every contact write
+     * Writes to existing contacts lock their rows first: deletes, updates and merges take the row locks and then
+     * this one, so two writes never wait on each other in opposite order
+     * Users registered before collection versions existed get their row on the first write; the
+     * row is inserted if absent and then incremented like any other, so two concurrent first writes
+     * don't collide on the primary key
+     * 
+     * @return the new version, stamped on the written contact or tombstones for delta sync
+     */
+    private long registrarAlteracao(Long usuarioId) {
+        if (contatosVersaoRepository.incrementar(usuarioId) == 0) {
+            contatosVersaoRepository.inserirSeAusente(usuarioId);
+            contatosVersaoRepository.incrementar(usuarioId);
+        }
+        return contatosVersaoRepository.findVersaoByUsuarioId(usuarioId).orElseThrow();
+    }
+
+    /**
+     * Builds the response of a created or updated contact and announces the change
+     */
+    private ContatoResponse publicarSalvo(Long usuarioId, ContatoAlteradoEvent.Tipo tipo, Contato contato) {
+        ContatoResponse response = toResponse(contato);
+        eventPublisher.publishEvent(ContatoAlteradoEvent.salvo(usuarioId, tipo, response, contato.getSincronizacao()));
+        return response;
+    }
+
+    /**
+     * @throws PreconditionFailedException if an expected version is given and it is not the current one
+     */
+    private void checkVersao(Long versaoAtual, Long versaoEsperada) {
+        if (versaoEsperada != null && !versaoEsperada.equals(versaoAtual)) {
+            throw new PreconditionFailedException("O contato foi alterado por outra requisição");
+        }
+    }
+
+    private DeletarContatosResponse toDeleteResponse(List<Long> removidos) {
+        return DeletarContatosResponse.builder()
+                .ids(removidos)
+                .total(removidos.size())
+                .build();
+    }
+
+    /**
+     * Parses and validates a CPF received from the API
+     *
+     * @param cpf the CPF (numbers only)
+     * @return the packed CPF
+     * @throws BusinessException if the CPF is invalid
+     */
+    private Cpf parseCpf(String cpf) {
+        Cpf parsed = Cpf.parse(cpf);
+        if (parsed == null) {
+            throw new BusinessException("CPF inválido");
+        }
+        return parsed;
     }
 
     /**
@@ -294,7 +1522,7 @@ public class ContatoService {
         return ContatoResponse.builder()
                 .id(contato.getId())
                 .nome(contato.getNome())
-                .cpf(contato.getCpf())
+                .cpf(contato.getCpf().toString())
                 .telefone(contato.getTelefone())
                 .cep(contato.getCep())
                 .logradouro(contato.getLogradouro())
@@ -305,6 +1533,8 @@ public class ContatoService {
                 .estado(contato.getEstado())
                 .latitude(contato.getLatitude())
                 .longitude(contato.getLongitude())
+                .tags(contato.getTags())
+                .versao(contato.getVersao())
                 .createdAt(contato.getCreatedAt())
                 .updatedAt(contato.getUpdatedAt())
                 .build();
@@ -317,6 +1547,7 @@ public class ContatoService {
      * - Validates CPF format using official algorithm
      * - Checks uniqueness within the authenticated user's contacts
      * - Returns false if CPF is invalid or not registered
+     * - Answered from the CPF list prefetched at login when it is cached, without database access
      * 
      * @param cpf the CPF to check (numbers only)
      * @return true if CPF exists and is valid, false otherwise
@@ -324,11 +1555,16 @@ public class ContatoService {
     @Transactional(readOnly = true)
     public boolean cpfExists(String cpf) {
         // Validate CPF format first
-        if (!CpfValidator.isValid(cpf)) {
+        Cpf parsed = Cpf.parse(cpf);
+        if (parsed == null) {
             return false;
         }
-        
-        Usuario usuario = getCurrentUser();
-        return contatoRepository.existsByUsuarioIdAndCpf(usuario.getId(), cpf);
+
+        Long usuarioId = getCurrentUserId();
+        long[] cpfs = contatosUsuarioCache.getCpfs(usuarioId);
+        if (cpfs != null) {
+            return Arrays.binarySearch(cpfs, parsed.toLong()) >= 0;
+        }
+        return contatoRepository.existsByUsuarioIdAndCpf(usuarioId, parsed);
     }
 }
@@ -0,0 +1,188 @@
+package com.contatos.api.service;
+
+import com.contatos.api.dto.ContatoEventoResponse;
+import com.contatos.api.event.ContatoAlteradoEvent;
+import com.contatos.api.util.Watermarks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process registry of Server-Sent Events subscribers, keyed by user
+ * 
+ * Business Rules:
+ * - A user only receives events about their own contacts
+ * - Events are pushed only after the writing transaction commits
+ * - Each subscriber has a bounded buffer; a subscriber that falls behind is disconnected instead of
+ *   slowing the others down or growing memory, and resumes through the delta sync endpoint
+ * - Idle connections hold no thread (async servlet); writes run on a virtual-thread executor
+ */
+@Service
+@Slf4j
+public class ContatoStreamService {
+
+    private final Map<Long, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final int tamanhoBuffer;
+    private final long timeoutMs;
+
+    public ContatoStreamService(ObjectMapper objectMapper,
+                                @Qualifier("contatoStreamExecutor") Executor executor,
+                                @Value("${contatos.stream.buffer:64}") int tamanhoBuffer,
+                                @Value("${contatos.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.tamanhoBuffer = tamanhoBuffer;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Opens a stream for the user; the client reconnects when it times out
+     * 
+     * @param usuarioId the authenticated user
+     * @return emitter to be returned by the controller
+     */
+    public SseEmitter assinar(Long usuarioId) {
+        return assinar(usuarioId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter assinar(Long usuarioId, SseEmitter emitter) {
+        Assinante assinante = new Assinante(usuarioId, emitter);
+        assinantes.computeIfAbsent(usuarioId, id -> ConcurrentHashMap.newKeySet()).add(assinante);
+
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(e -> remover(assinante));
+        return emitter;
+    }
+
+    /**
+     * Fans a committed contact change out to the owner's open streams
+     */
+    @TransactionalEventListener
+    public void onContatoAlterado(ContatoAlteradoEvent event) {
+        Set<Assinante> doUsuario = assinantes.get(event.usuarioId());
+        if (doUsuario == null || doUsuario.isEmpty()) {
+            return;
+        }
+
+        // Serialized once per event, not once per subscriber
+        String watermark = Watermarks.encode(event.sincronizacao());
+        String dados;
+        try {
+            dados = objectMapper.writeValueAsString(ContatoEventoResponse.builder()
+                    .tipo(event.tipo().name())
+                    .ids(event.ids())
+                    .contato(event.contato())
+                    .watermark(watermark)
+                    .build());
+        } catch (JsonProcessingException e) {
+            log.warn("Falha ao serializar evento de contato do usuário {}", event.usuarioId(), e);
+            return;
+        }
+
+        // Built once: SseEventBuilder.build() is not reusable, the resulting frame is
+        Set<DataWithMediaType> evento = SseEmitter.event()
+                .id(watermark)
+                .name(event.tipo().name().toLowerCase(Locale.ROOT))
+                .data(dados, MediaType.APPLICATION_JSON)
+                .build();
+        doUsuario.forEach(assinante -> assinante.enfileirar(evento));
+    }
+
+    /**
+     * Comment-only heartbeat: keeps proxies from closing idle streams and detects dead clients
+     */
+    @Scheduled(fixedDelayString = "${contatos.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        assinantes.values().forEach(doUsuario -> doUsuario.forEach(assinante -> assinante.enfileirar(ping)));
+    }
+
+    int contarAssinantes(Long usuarioId) {
+        Set<Assinante> doUsuario = assinantes.get(usuarioId);
+        return doUsuario == null ? 0 : doUsuario.size();
+    }
+
+    private void remover(Assinante assinante) {
+        assinantes.computeIfPresent(assinante.usuarioId, (id, doUsuario) -> {
+            doUsuario.remove(assinante);
+            return doUsuario.isEmpty() ? null : doUsuario;
+        });
+    }
+
+    /**
+     * One open stream: a bounded queue drained by at most one task at a time
+     */
+    private final class Assinante {
+
+        private final Long usuarioId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> fila = new ArrayBlockingQueue<>(tamanhoBuffer);
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        private Assinante(Long usuarioId, SseEmitter emitter) {
+            this.usuarioId = usuarioId;
+            this.emitter = emitter;
+        }
+
+        void enfileirar(Set<DataWithMediaType> evento) {
+            if (!fila.offer(evento)) {
+                log.debug("Assinante lento do usuário {} desconectado", usuarioId);
+                desconectar();
+                return;
+            }
+            drenar();
+        }
+
+        private void drenar() {
+            if (enviando.compareAndSet(false, true)) {
+                executor.execute(this::enviarPendentes);
+            }
+        }
+
+        private void enviarPendentes() {
+            try {
+                Set<DataWithMediaType> evento;
+                while ((evento = fila.poll()) != null) {
+                    emitter.send(evento);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client gone or emitter already completed
+                desconectar();
+                return;
+            } finally {
+                enviando.set(false);
+            }
+            // An event may have been queued after the last poll but before the flag was cleared
+            if (!fila.isEmpty()) {
+                drenar();
+            }
+        }
+
+        private void desconectar() {
+            remover(this);
+            fila.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.contatos.api.service;
+
+import com.contatos.api.repository.ContatoRepository;
+import com.contatos.api.repository.ContatosVersaoRepository;
+import com.contatos.api.util.DetectorDuplicados;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Service that finds probable duplicate contacts and keeps the latest result per user
+ *
+ * Business Rules:
+ * - Detection compares contacts only within blocking keys (see {@link DetectorDuplicados}) and
+ *   scores the blocks in parallel on a dedicated fork/join pool
+ * - Books up to the synchronous limit are analysed in the request; larger ones in the background,
+ *   while the request answers that the analysis is in progress
+ * - A result is tagged with the collection version read before the contacts were loaded, and is
+ *   only served while that is still the current version; any write makes it stale
+ * - Results are node-local and bounded in number of users; a node without one recomputes it
+ */
+@Slf4j
+@Service
+public class DuplicidadeService {
+
+    /**
+     * Duplicate groups of a user at a collection version
+     */
+    public record Resultado(long versao, int totalContatos, List<DetectorDuplicados.Grupo> grupos,
+                            LocalDateTime calculadoEm) {
+    }
+
+    private final ContatoRepository contatoRepository;
+    private final ContatosVersaoRepository contatosVersaoRepository;
+    private final ThreadPoolTaskExecutor executor;
+    private final ForkJoinPool pool;
+    private final DetectorDuplicados detector;
+    private final int limiteSincrono;
+    private final Cache<Long, Resultado> resultados;
+    private final Timer duracao;
+
+    // Usuários com análise na fila ou em execução neste nó
+    private final Set<Long> emAndamento = ConcurrentHashMap.newKeySet();
+
+    public DuplicidadeService(ContatoRepository contatoRepository,
+                              ContatosVersaoRepository contatosVersaoRepository,
+                              @Qualifier("contatoDuplicidadeExecutor") ThreadPoolTaskExecutor executor,
+                              @Qualifier("contatoDuplicidadePool") ForkJoinPool pool,
+                              MeterRegistry meterRegistry,
+                              @Value("${contatos.duplicados.limiar:0.6}") double limiar,
+                              @Value("${contatos.duplicados.max-bloco:500}") int maxBloco,
+                              @Value("${contatos.duplicados.limite-sincrono:2000}") int limiteSincrono,
+                              @Value("${contatos.duplicados.max-resultados:1000}") long maxResultados) {
+        this.contatoRepository = contatoRepository;
+        this.contatosVersaoRepository = contatosVersaoRepository;
+        this.executor = executor;
+        this.pool = pool;
+        this.detector = new DetectorDuplicados(limiar, maxBloco);
+        this.limiteSincrono = limiteSincrono;
+        this.resultados = Caffeine.newBuilder()
+                .maximumSize(maxResultados)
+                .expireAfterAccess(Duration.ofHours(1))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, resultados, "contatos.duplicados");
+        this.duracao = Timer.builder("contatos.duplicados.calculo")
+                .description("Tempo de uma busca de duplicados na agenda de um usuário")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the user's current duplicate groups, computing them now for small books
+     *
+     * @param usuarioId owner of the contacts
+     * @return the result at the current collection version, or null while a background analysis runs
+     */
+    public Resultado obter(Long usuarioId) {
+        long versao = versaoAtual(usuarioId);
+        Resultado resultado = resultados.getIfPresent(usuarioId);
+        if (resultado != null && resultado.versao() == versao) {
+            return resultado;
+        }
+
+        if (contatoRepository.countByUsuarioId(usuarioId) <= limiteSincrono) {
+            return calcular(usuarioId);
+        }
+        agendar(usuarioId);
+        return null;
+    }
+
+    private void agendar(Long usuarioId) {
+        if (!emAndamento.add(usuarioId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    calcular(usuarioId);
+                } catch (RuntimeException e) {
+                    // Sem resultado guardado, a próxima consulta agenda de novo
+                    log.error("Falha na busca de duplicados do usuário {}", usuarioId, e);
+                } finally {
+                    emAndamento.remove(usuarioId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            emAndamento.remove(usuarioId);
+            log.warn("Busca de duplicados do usuário {} recusada: fila cheia", usuarioId);
+        }
+    }
+
+    private Resultado calcular(Long usuarioId) {
+        return duracao.record(() -> {
+            // Versão lida antes dos contatos: uma escrita no meio deixa o resultado já desatualizado
+            long versao = versaoAtual(usuarioId);
+            var contatos = contatoRepository.findDuplicidadeByUsuarioId(usuarioId);
+            Resultado resultado = new Resultado(versao, contatos.size(), detector.detectar(contatos, pool),
+                    LocalDateTime.now());
+            // Entre cálculos concorrentes do mesmo usuário fica o da versão mais nova
+            resultados.asMap().merge(usuarioId, resultado,
+                    (atual, novo) -> novo.versao() >= atual.versao() ? novo : atual);
+            return resultado;
+        });
+    }
+
+    private long versaoAtual(Long usuarioId) {
+        return contatosVersaoRepository.findVersaoByUsuarioId(usuarioId).orElse(0L);
+    }
+}
@@ -0,0 +1,218 @@
+package com.contatos.api.service;
+
+import com.contatos.api.dto.GoogleGeocodingResponse;
+import com.contatos.api.model.ContatoEndereco;
+import com.contatos.api.model.Endereco;
+import com.contatos.api.repository.ArrendamentoRepository;
+import com.contatos.api.repository.ContatoRepository;
+import com.contatos.api.repository.EnderecoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Service that maps contact addresses to the shared {@link Endereco} rows and geocodes each one once
+ *
+ * Business Rules:
+ * - Addresses are identified by a fingerprint of cep, logradouro, numero, bairro, cidade and
+ *   estado after normalization (upper case, no accents or punctuation, single spaces, CEP digits)
+ * - An address is created on first use by any user; concurrent first uses end in the same row
+ * - Coordinates come from the geocoder the first time they are needed and are reused afterwards;
+ *   the geocoder is called outside any transaction and the result stored in a short one of its own
+ * - Contacts created before the table existed are linked by a background job in chunks, one
+ *   short transaction per chunk; it resumes where it stopped and does nothing once all are linked
+ * - That job is the dedup of existing data: it is not a SQL migration because the fingerprint is
+ *   this class's normalization, which PostgreSQL can't reproduce without the unaccent extension
+ * - Contacts keep their own copy of the address fields, which the per-user filters and indexes read
+ * - Only one node runs the job at a time: it holds a lease in the arrendamentos table, renewed in
+ *   every chunk transaction, and a chunk whose renewal fails is rolled back
+ * - A contact is linked only if its version and owner are still those read, and its version is kept
+ */
+@Slf4j
+@Service
+public class EnderecoService {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAO_ALFANUMERICOS = Pattern.compile("[^A-Z0-9]+");
+    private static final Pattern NAO_DIGITOS = Pattern.compile("\\D+");
+    static final String ARRENDAMENTO_VINCULACAO = "enderecos.vinculacao";
+
+    private final EnderecoRepository enderecoRepository;
+    private final ContatoRepository contatoRepository;
+    private final ArrendamentoRepository arrendamentoRepository;
+    private final GoogleMapsService googleMapsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration arrendamento;
+    // Identifica este nó no arrendamento da vinculação
+    private final String executorId = UUID.randomUUID().toString();
+
+    public EnderecoService(EnderecoRepository enderecoRepository,
+                           ContatoRepository contatoRepository,
+                           ArrendamentoRepository arrendamentoRepository,
+                           GoogleMapsService googleMapsService,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${contatos.enderecos.vinculacao.tamanho-lote:1000}") int tamanhoLote,
+                           @Value("${contatos.enderecos.vinculacao.arrendamento-ms:300000}") long arrendamentoMs) {
+        this.enderecoRepository = enderecoRepository;
+        this.contatoRepository = contatoRepository;
+        this.arrendamentoRepository = arrendamentoRepository;
+        this.googleMapsService = googleMapsService;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.arrendamento = Duration.ofMillis(arrendamentoMs);
+    }
+
+    /**
+     * Returns the shared row of an address, creating it on first use
+     */
+    @Transactional
+    public Endereco resolver(String cep, String logradouro, String numero, String bairro, String cidade,
+                             String estado) {
+        String chave = chave(cep, logradouro, numero, bairro, cidade, estado);
+        return enderecoRepository.findByChave(chave).orElseGet(() -> {
+            enderecoRepository.inserirSeAusente(chave, cep, logradouro, numero, bairro, cidade, estado);
+            return enderecoRepository.findByChave(chave).orElseThrow();
+        });
+    }
+
+    /**
+     * Coordinates of an address, calling the geocoder only if it was never geocoded
+     *
+     * Must be called outside a transaction, so no connection is held during the HTTP call; the
+     * coordinates are then stored in a transaction of their own and set on the given instance.
+     *
+     * @throws com.contatos.api.exception.BusinessException if geocoding fails or the API key is not configured
+     */
+    public GoogleGeocodingResponse.Location coordenadas(Endereco endereco) {
+        if (endereco.getLatitude() != null && endereco.getLongitude() != null) {
+            return new GoogleGeocodingResponse.Location(endereco.getLatitude(), endereco.getLongitude());
+        }
+        GoogleGeocodingResponse.Location location = googleMapsService.getCoordinates(
+                endereco.getLogradouro(),
+                endereco.getNumero(),
+                endereco.getBairro(),
+                endereco.getCidade(),
+                endereco.getEstado(),
+                endereco.getCep());
+        // Geocodificações concorrentes do mesmo endereço gravam o mesmo resultado
+        LocalDateTime agora = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> enderecoRepository.registrarCoordenadas(
+                endereco.getId(), location.getLat(), location.getLng(), agora));
+        endereco.setLatitude(location.getLat());
+        endereco.setLongitude(location.getLng());
+        endereco.setGeocodificadoEm(agora);
+        return location;
+    }
+
+    /**
+     * Links contacts without an address row to theirs, chunk by chunk
+     */
+    @Scheduled(initialDelayString = "${contatos.enderecos.vinculacao-ms:60000}",
+               fixedDelayString = "${contatos.enderecos.vinculacao-ms:60000}")
+    public void vincularPendentes() {
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!arrendamentoRepository.existsById(ARRENDAMENTO_VINCULACAO)) {
+                arrendamentoRepository.inserirSeAusente(ARRENDAMENTO_VINCULACAO);
+            }
+            return arrendar();
+        }))) {
+            log.debug("Vinculação de endereços em execução em outro nó");
+            return;
+        }
+        long ultimo = 0;
+        long vinculados = 0;
+        try {
+            List<ContatoEndereco> lote;
+            do {
+                long depoisDe = ultimo;
+                lote = contatoRepository.findSemEndereco(depoisDe, PageRequest.of(0, tamanhoLote));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                List<ContatoEndereco> contatos = lote;
+                vinculados += transactionTemplate.execute(status -> {
+                    if (!arrendar()) {
+                        throw new IllegalStateException("Arrendamento da vinculação de endereços perdido");
+                    }
+                    return vincular(contatos);
+                });
+                ultimo = lote.get(lote.size() - 1).id();
+            } while (lote.size() == tamanhoLote);
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    arrendamentoRepository.liberar(ARRENDAMENTO_VINCULACAO, executorId));
+        }
+        if (vinculados > 0) {
+            log.info("{} contatos vinculados à tabela de endereços", vinculados);
+        }
+    }
+
+    private boolean arrendar() {
+        LocalDateTime agora = LocalDateTime.now();
+        return arrendamentoRepository.arrendar(ARRENDAMENTO_VINCULACAO, executorId, agora,
+                agora.plus(arrendamento)) > 0;
+    }
+
+    int vincular(List<ContatoEndereco> contatos) {
+        // Contatos do lote no mesmo endereço: uma busca por endereço e um lote JDBC com seus contatos
+        Map<String, List<ContatoEndereco>> porChave = contatos.stream()
+                .collect(Collectors.groupingBy(c -> chave(c.cep(), c.logradouro(), c.numero(), c.bairro(),
+                        c.cidade(), c.estado())));
+        int vinculados = 0;
+        for (List<ContatoEndereco> mesmoEndereco : porChave.values()) {
+            ContatoEndereco primeiro = mesmoEndereco.get(0);
+            Endereco endereco = resolver(primeiro.cep(), primeiro.logradouro(), primeiro.numero(),
+                    primeiro.bairro(), primeiro.cidade(), primeiro.estado());
+            vinculados += contatoRepository.vincularEndereco(endereco.getId(), mesmoEndereco);
+        }
+        return vinculados;
+    }
+
+    /**
+     * Fingerprint of an address: SHA-256 (hex) of its normalized fields
+     */
+    public static String chave(String cep, String logradouro, String numero, String bairro, String cidade,
+                               String estado) {
+        String normalizado = String.join("|",
+                cep == null ? "" : NAO_DIGITOS.matcher(cep).replaceAll(""),
+                normalizar(logradouro),
+                normalizar(numero),
+                normalizar(bairro),
+                normalizar(cidade),
+                normalizar(estado));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(normalizado.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static String normalizar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(valor.toUpperCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("");
+        return NAO_ALFANUMERICOS.matcher(semAcentos).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,223 @@
+package com.contatos.api.service;
+
+import com.contatos.api.dto.ContatoFiltro;
+import com.contatos.api.dto.CrescimentoMensalResponse;
+import com.contatos.api.dto.EstatisticasResponse;
+import com.contatos.api.dto.FacetaResponse;
+import com.contatos.api.model.ContagemLocal;
+import com.contatos.api.model.ContatoEstatisticaMensal;
+import com.contatos.api.repository.ContatoEstatisticaMensalRepository;
+import com.contatos.api.repository.ContatoEstatisticaRepository;
+import com.contatos.api.repository.ContatoRepository;
+import com.contatos.api.repository.ContatoSpecifications;
+import com.contatos.api.repository.ContatosVersaoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service that maintains and serves the per-user contact statistics
+ *
+ * Business Rules:
+ * - Contact writes apply deltas to the statistics in their own transaction (see
+ *   {@link com.contatos.api.model.ContatoEstatistica}); nothing is recounted on the write or read path
+ * - Must be called after the write bumped the collection version: that UPDATE serializes the
+ *   user's writers, so the read-modify-write of a counter row never races
+ * - The reconciliation recounts the contacts of each user, under the same lock, and replaces the
+ *   per-city counters that drifted (manual SQL, a bug in a write path); the monthly counters
+ *   record events and can't be recounted once contacts are gone, so they are kept as they are
+ */
+@Slf4j
+@Service
+public class EstatisticasService {
+
+    private final ContatoEstatisticaRepository estatisticaRepository;
+    private final ContatoEstatisticaMensalRepository mensalRepository;
+    private final ContatoRepository contatoRepository;
+    private final ContatosVersaoRepository contatosVersaoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Counter divergencias;
+
+    public EstatisticasService(ContatoEstatisticaRepository estatisticaRepository,
+                               ContatoEstatisticaMensalRepository mensalRepository,
+                               ContatoRepository contatoRepository,
+                               ContatosVersaoRepository contatosVersaoRepository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${contatos.estatisticas.reconciliacao.tamanho-lote:500}") int tamanhoLote) {
+        this.estatisticaRepository = estatisticaRepository;
+        this.mensalRepository = mensalRepository;
+        this.contatoRepository = contatoRepository;
+        this.contatosVersaoRepository = contatosVersaoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.divergencias = Counter.builder("contatos.estatisticas.divergencias")
+                .description("Usuários com estatísticas corrigidas pela reconciliação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a new contact in its city and in the current month
+     */
+    @Transactional
+    public void registrarCriacao(Long usuarioId, String estado, String cidade) {
+        somarLocal(usuarioId, estado, cidade, 1);
+        somarMes(usuarioId, 1, 0);
+    }
+
+    /**
+     * Moves a contact between cities when an update changed its estado or cidade
+     */
+    @Transactional
+    public void registrarMudanca(Long usuarioId, String estadoAnterior, String cidadeAnterior,
+                                 String estado, String cidade) {
+        if (Objects.equals(estadoAnterior, estado) && Objects.equals(cidadeAnterior, cidade)) {
+            return;
+        }
+        somarLocal(usuarioId, estadoAnterior, cidadeAnterior, -1);
+        somarLocal(usuarioId, estado, cidade, 1);
+    }
+
+    /**
+     * Discounts deleted contacts from their cities and counts them in the current month
+     *
+     * @param removidos deleted contacts per city, counted before the delete
+     */
+    @Transactional
+    public void registrarExclusoes(Long usuarioId, List<ContagemLocal> removidos) {
+        long total = 0;
+        for (ContagemLocal contagem : removidos) {
+            somarLocal(usuarioId, contagem.estado(), contagem.cidade(), -contagem.total());
+            total += contagem.total();
+        }
+        if (total > 0) {
+            somarMes(usuarioId, 0, total);
+        }
+    }
+
+    /**
+     * Removes every statistic of a user, when the account is purged
+     */
+    @Transactional
+    public void remover(Long usuarioId) {
+        estatisticaRepository.deleteByUsuarioId(usuarioId);
+        mensalRepository.deleteByUsuarioId(usuarioId);
+    }
+
+    /**
+     * Reads the statistics of a user: totals per estado and cidade, and the monthly growth
+     *
+     * @param usuarioId owner of the contacts
+     * @return the statistics, read from the counter rows only
+     */
+    @Transactional(readOnly = true)
+    public EstatisticasResponse obter(Long usuarioId) {
+        List<ContagemLocal> cidades = estatisticaRepository.findContagensByUsuarioId(usuarioId);
+        Map<String, Long> porEstado = cidades.stream()
+                .collect(Collectors.groupingBy(ContagemLocal::estado, Collectors.summingLong(ContagemLocal::total)));
+        Comparator<FacetaResponse> ordem = Comparator.comparing(FacetaResponse::getTotal, Comparator.reverseOrder())
+                .thenComparing(FacetaResponse::getValor);
+
+        List<CrescimentoMensalResponse> crescimento = new ArrayList<>();
+        long acumulado = 0;
+        for (ContatoEstatisticaMensal mes : mensalRepository.findByUsuarioIdOrderByMes(usuarioId)) {
+            acumulado += mes.getCriados() - mes.getExcluidos();
+            crescimento.add(CrescimentoMensalResponse.builder()
+                    .mes(YearMonth.from(mes.getMes()))
+                    .criados(mes.getCriados())
+                    .excluidos(mes.getExcluidos())
+                    .total(acumulado)
+                    .build());
+        }
+
+        return EstatisticasResponse.builder()
+                .total(porEstado.values().stream().mapToLong(Long::longValue).sum())
+                .estados(porEstado.entrySet().stream()
+                        .map(e -> FacetaResponse.builder().valor(e.getKey()).total(e.getValue()).build())
+                        .sorted(ordem)
+                        .toList())
+                .cidades(cidades.stream()
+                        .map(c -> FacetaResponse.builder().valor(c.cidade()).estado(c.estado()).total(c.total()).build())
+                        .sorted(ordem.thenComparing(FacetaResponse::getEstado))
+                        .toList())
+                .crescimento(crescimento)
+                .build();
+    }
+
+    /**
+     * Recounts every user's contacts and fixes the per-city counters that drifted
+     *
+     * One short transaction per user, so writers wait at most for one user's recount.
+     */
+    @Scheduled(initialDelayString = "${contatos.estatisticas.reconciliacao-ms:86400000}",
+               fixedDelayString = "${contatos.estatisticas.reconciliacao-ms:86400000}")
+    public void reconciliar() {
+        int corrigidos = 0;
+        long ultimo = 0;
+        List<Long> usuarios;
+        do {
+            usuarios = contatosVersaoRepository.findUsuarioIdsApos(ultimo, PageRequest.of(0, tamanhoLote));
+            for (Long usuarioId : usuarios) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> reconciliar(usuarioId)))) {
+                    corrigidos++;
+                }
+                ultimo = usuarioId;
+            }
+        } while (usuarios.size() == tamanhoLote);
+        if (corrigidos > 0) {
+            log.warn("Estatísticas de contatos corrigidas para {} usuários", corrigidos);
+        }
+    }
+
+    /**
+     * @return true if the user's counters had drifted and were replaced
+     */
+    boolean reconciliar(Long usuarioId) {
+        // Com a linha de versão travada nenhuma escrita do usuário acontece entre a contagem e a troca
+        if (contatosVersaoRepository.bloquear(usuarioId).isEmpty()) {
+            return false;
+        }
+        estatisticaRepository.deleteZerados(usuarioId);
+        Set<ContagemLocal> atuais = Set.copyOf(estatisticaRepository.findContagensByUsuarioId(usuarioId));
+        List<ContagemLocal> contagens = contatoRepository.contarPorCidade(
+                ContatoSpecifications.filtradoPor(usuarioId, new ContatoFiltro()));
+        if (atuais.equals(Set.copyOf(contagens))) {
+            return false;
+        }
+
+        estatisticaRepository.deleteByUsuarioId(usuarioId);
+        contagens.forEach(c -> estatisticaRepository.inserir(usuarioId, c.estado(), c.cidade(), c.total()));
+        divergencias.increment();
+        return true;
+    }
+
+    private void somarLocal(Long usuarioId, String estado, String cidade, long delta) {
+        if (estatisticaRepository.somar(usuarioId, estado, cidade, delta) == 0) {
+            estatisticaRepository.inserir(usuarioId, estado, cidade, delta);
+        }
+    }
+
+    private void somarMes(Long usuarioId, long criados, long excluidos) {
+        LocalDate mes = LocalDate.now().withDayOfMonth(1);
+        if (mensalRepository.somar(usuarioId, mes, criados, excluidos) == 0) {
+            mensalRepository.inserir(usuarioId, mes, criados, excluidos);
+        }
+    }
+}
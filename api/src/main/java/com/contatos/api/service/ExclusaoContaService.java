@@ -0,0 +1,289 @@
+package com.contatos.api.service;
+
+import com.contatos.api.dto.ExclusaoContaResponse;
+import com.contatos.api.event.ContatosExpurgadosEvent;
+import com.contatos.api.event.UsuarioAlteradoEvent;
+import com.contatos.api.exception.ResourceNotFoundException;
+import com.contatos.api.model.ExclusaoConta;
+import com.contatos.api.model.Usuario;
+import com.contatos.api.repository.ContatoAuditoriaRepository;
+import com.contatos.api.repository.ContatoExcluidoRepository;
+import com.contatos.api.repository.ContatoRepository;
+import com.contatos.api.repository.ContatosVersaoRepository;
+import com.contatos.api.repository.ExclusaoContaRepository;
+import com.contatos.api.repository.UsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service responsible for purging deleted accounts in the background
+ * 
+ * Deleting an account used to remove the user through JPA cascade, loading every contact into
+ * the persistence context and issuing one DELETE per row in a single long transaction.
+ * The purge now works as follows:
+ * - The user is disabled at once and an {@link ExclusaoConta} progress record is created
+ * - After commit, contacts are deleted in bounded-size chunks, one short transaction per chunk
+ * - Each chunk updates the progress record in the same transaction, so work is never counted twice
+ * - When no contacts are left, the user row is deleted with a single statement
+ * - Unfinished purges are picked up again periodically, which makes the process resumable after a crash
+ * - A node purges an account only while it holds the record's lease in the database, so two nodes
+ *   never run the same purge; the lease is renewed with each chunk and expires if the node dies
+ * - The progress can be read without authentication, but only with the random token returned
+ *   when the deletion was requested; a wrong or missing token looks like an unknown purge
+ * 
+ * @see ContaService
+ */
+@Slf4j
+@Service
+public class ExclusaoContaService {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    private final ExclusaoContaRepository exclusaoContaRepository;
+    private final ContatoRepository contatoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ContatosVersaoRepository contatosVersaoRepository;
+    private final ContatoExcluidoRepository contatoExcluidoRepository;
+    private final ContatoAuditoriaRepository contatoAuditoriaRepository;
+    private final EstatisticasService estatisticasService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor executor;
+    private final int tamanhoLote;
+    private final Duration arrendamento;
+    // Identifica este nó no arrendamento dos expurgos
+    private final String executorId = UUID.randomUUID().toString();
+
+    // Purges queued or running on this node, so the periodic resume doesn't queue the same one twice;
+    // across nodes the lease in the database is what prevents concurrent runs
+    private final Set<UUID> emExecucao = ConcurrentHashMap.newKeySet();
+
+    public ExclusaoContaService(ExclusaoContaRepository exclusaoContaRepository,
+                                ContatoRepository contatoRepository,
+                                UsuarioRepository usuarioRepository,
+                                ContatosVersaoRepository contatosVersaoRepository,
+                                ContatoExcluidoRepository contatoExcluidoRepository,
+                                ContatoAuditoriaRepository contatoAuditoriaRepository,
+                                EstatisticasService estatisticasService,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Qualifier("contaExclusaoExecutor") ThreadPoolTaskExecutor executor,
+                                @Value("${conta.exclusao.tamanho-lote:1000}") int tamanhoLote,
+                                @Value("${conta.exclusao.arrendamento-ms:300000}") long arrendamentoMs) {
+        this.exclusaoContaRepository = exclusaoContaRepository;
+        this.contatoRepository = contatoRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.contatosVersaoRepository = contatosVersaoRepository;
+        this.contatoExcluidoRepository = contatoExcluidoRepository;
+        this.contatoAuditoriaRepository = contatoAuditoriaRepository;
+        this.estatisticasService = estatisticasService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.tamanhoLote = tamanhoLote;
+        this.arrendamento = Duration.ofMillis(arrendamentoMs);
+    }
+
+    /**
+     * Disables the user and registers the purge; must run inside the caller's transaction
+     * 
+     * The background purge is scheduled only after the transaction commits.
+     * 
+     * @param usuario the user whose account is being deleted
+     * @return the progress record, with the token needed to follow it
+     */
+    @Transactional
+    public ExclusaoContaResponse iniciar(Usuario usuario) {
+        usuario.setDesativadoEm(LocalDateTime.now());
+        usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuario.getId(), usuario.getEmail(), false));
+
+        String token = novoToken();
+        ExclusaoConta exclusao = ExclusaoConta.builder()
+                .usuarioId(usuario.getId())
+                .status(ExclusaoConta.Status.PENDENTE)
+                .totalContatos(contatoRepository.countByUsuarioId(usuario.getId()))
+                .tokenHash(hash(token))
+                .build();
+        exclusao = exclusaoContaRepository.save(exclusao);
+
+        UUID id = exclusao.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                agendar(id);
+            }
+        });
+
+        ExclusaoContaResponse response = toResponse(exclusao);
+        response.setToken(token);
+        return response;
+    }
+
+    /**
+     * Returns the progress of an account deletion
+     * 
+     * @param id the purge ID returned when the deletion was requested
+     * @param token the token returned with it
+     * @return current progress
+     * @throws ResourceNotFoundException if no purge exists with this ID and token
+     */
+    @Transactional(readOnly = true)
+    public ExclusaoContaResponse consultar(UUID id, String token) {
+        return exclusaoContaRepository.findById(id)
+                .filter(exclusao -> token != null && exclusao.getTokenHash() != null
+                        && MessageDigest.isEqual(exclusao.getTokenHash().getBytes(StandardCharsets.US_ASCII),
+                                hash(token).getBytes(StandardCharsets.US_ASCII)))
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Exclusão de conta não encontrada"));
+    }
+
+    /**
+     * Resumes purges left unfinished, e.g. by a restart in the middle of a purge
+     */
+    @Scheduled(initialDelayString = "${conta.exclusao.retomada-ms:60000}",
+               fixedDelayString = "${conta.exclusao.retomada-ms:60000}")
+    public void retomarPendentes() {
+        List<UUID> pendentes = exclusaoContaRepository.findIdsByStatusNot(ExclusaoConta.Status.CONCLUIDA);
+        pendentes.forEach(this::agendar);
+    }
+
+    private void agendar(UUID id) {
+        if (!emExecucao.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    processar(id);
+                } catch (Exception e) {
+                    // The record stays unfinished and will be resumed by retomarPendentes
+                    log.error("Falha no expurgo da exclusão de conta {}", id, e);
+                } finally {
+                    emExecucao.remove(id);
+                }
+            });
+        } catch (RuntimeException e) {
+            emExecucao.remove(id);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the purge until completion: chunked contact deletes, then the user row
+     * 
+     * Does nothing if another node holds the lease; the lease is renewed in each chunk's
+     * transaction, and a chunk whose renewal fails is rolled back.
+     * 
+     * @param id the purge ID
+     */
+    void processar(UUID id) {
+        ExclusaoConta exclusao = exclusaoContaRepository.findById(id).orElse(null);
+        if (exclusao == null || exclusao.getStatus() == ExclusaoConta.Status.CONCLUIDA) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> arrendar(id)))) {
+            log.debug("Exclusão de conta {} em execução em outro nó", id);
+            return;
+        }
+        Long usuarioId = exclusao.getUsuarioId();
+
+        try {
+            int removidos;
+            do {
+                removidos = transactionTemplate.execute(status -> {
+                    renovar(id);
+                    return removerLote(id, usuarioId);
+                });
+            } while (removidos > 0);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                renovar(id);
+                contatoExcluidoRepository.deleteByUsuarioId(usuarioId);
+                contatoAuditoriaRepository.deleteByUsuarioId(usuarioId);
+                estatisticasService.remover(usuarioId);
+                contatosVersaoRepository.deleteById(usuarioId);
+                String email = usuarioRepository.findById(usuarioId).map(Usuario::getEmail).orElse(null);
+                usuarioRepository.purgeById(usuarioId);
+                eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuarioId, email, true));
+                exclusaoContaRepository.concluir(id, ExclusaoConta.Status.CONCLUIDA, LocalDateTime.now());
+            });
+            log.info("Exclusão de conta {} concluída (usuário {})", id, usuarioId);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> exclusaoContaRepository.liberar(id, executorId));
+        }
+    }
+
+    private boolean arrendar(UUID id) {
+        LocalDateTime agora = LocalDateTime.now();
+        return exclusaoContaRepository.arrendar(id, executorId, agora, agora.plus(arrendamento),
+                ExclusaoConta.Status.CONCLUIDA) > 0;
+    }
+
+    private void renovar(UUID id) {
+        if (!arrendar(id)) {
+            throw new IllegalStateException("Arrendamento da exclusão de conta " + id + " perdido");
+        }
+    }
+
+    private int removerLote(UUID id, Long usuarioId) {
+        List<Long> ids = contatoRepository.findIdsByUsuarioId(usuarioId, PageRequest.of(0, tamanhoLote));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int removidos = contatoRepository.excluirTodos(usuarioId, ids);
+        eventPublisher.publishEvent(new ContatosExpurgadosEvent(usuarioId, ids));
+        exclusaoContaRepository.registrarProgresso(id, removidos, ExclusaoConta.Status.EM_ANDAMENTO,
+                LocalDateTime.now());
+        return ids.size();
+    }
+
+    private static String novoToken() {
+        byte[] bytes = new byte[32];
+        ALEATORIO.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private ExclusaoContaResponse toResponse(ExclusaoConta exclusao) {
+        return ExclusaoContaResponse.builder()
+                .id(exclusao.getId())
+                .status(exclusao.getStatus().name())
+                .totalContatos(exclusao.getTotalContatos())
+                .contatosRemovidos(exclusao.getContatosRemovidos())
+                .criadaEm(exclusao.getCriadaEm())
+                .concluidaEm(exclusao.getConcluidaEm())
+                .build();
+    }
+}
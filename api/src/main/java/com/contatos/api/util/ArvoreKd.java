@@ -0,0 +1,262 @@
+package com.contatos.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Static KD-tree over contact coordinates for k-nearest-neighbour queries
+ *
+ * - Points are stored as 3D unit vectors, so the straight-line (chord) distance grows with the
+ *   great-circle distance: the nearest in 3D are the nearest on the globe, across the antimeridian
+ *   and near the poles too
+ * - The tree is implicit: the arrays are reordered so each subrange has its median at the middle,
+ *   split on the axis where the subrange is widest; no node objects are allocated
+ * - Immutable after construction; callers rebuild it to apply changes
+ */
+public class ArvoreKd {
+
+    /**
+     * A neighbour found by {@link #vizinhos}: its ID and great-circle distance in kilometers
+     */
+    public record Vizinho(long id, double distanciaKm) {
+    }
+
+    private final long[] ids;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    // Eixo de divisão do nó na posição do meio de cada subintervalo (0 = x, 1 = y, 2 = z)
+    private final byte[] eixos;
+
+    public ArvoreKd(long[] ids, double[] latitudes, double[] longitudes) {
+        int n = ids.length;
+        this.ids = ids.clone();
+        this.x = new double[n];
+        this.y = new double[n];
+        this.z = new double[n];
+        this.eixos = new byte[n];
+        for (int i = 0; i < n; i++) {
+            double lat = Math.toRadians(latitudes[i]);
+            double lng = Math.toRadians(longitudes[i]);
+            x[i] = Math.cos(lat) * Math.cos(lng);
+            y[i] = Math.cos(lat) * Math.sin(lng);
+            z[i] = Math.sin(lat);
+        }
+        construir(0, n);
+    }
+
+    public int tamanho() {
+        return ids.length;
+    }
+
+    /**
+     * The k points nearest to the given coordinates, nearest first
+     *
+     * @param ignorar IDs to skip, e.g. points that moved since the tree was built
+     */
+    public List<Vizinho> vizinhos(double latitude, double longitude, int k, LongPredicate ignorar) {
+        if (k <= 0 || ids.length == 0) {
+            return List.of();
+        }
+        double lat = Math.toRadians(latitude);
+        double lng = Math.toRadians(longitude);
+        Busca busca = new Busca(Math.cos(lat) * Math.cos(lng), Math.cos(lat) * Math.sin(lng), Math.sin(lat),
+                k, ignorar);
+        buscar(busca, 0, ids.length);
+        return busca.resultado();
+    }
+
+    /**
+     * Great-circle distance in kilometers for a squared chord distance between unit vectors
+     */
+    public static double distanciaKm(double corda2) {
+        return 2 * GeoHash.RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(corda2) / 2));
+    }
+
+    private void construir(int inicio, int fim) {
+        while (fim - inicio > 1) {
+            int meio = (inicio + fim) >>> 1;
+            byte eixo = eixoMaisLargo(inicio, fim);
+            selecionar(inicio, fim - 1, meio, coordenadas(eixo));
+            eixos[meio] = eixo;
+            construir(meio + 1, fim);
+            fim = meio;
+        }
+    }
+
+    private byte eixoMaisLargo(int inicio, int fim) {
+        double larguraX = largura(x, inicio, fim);
+        double larguraY = largura(y, inicio, fim);
+        double larguraZ = largura(z, inicio, fim);
+        if (larguraX >= larguraY && larguraX >= larguraZ) {
+            return 0;
+        }
+        return larguraY >= larguraZ ? (byte) 1 : (byte) 2;
+    }
+
+    private static double largura(double[] valores, int inicio, int fim) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = inicio; i < fim; i++) {
+            min = Math.min(min, valores[i]);
+            max = Math.max(max, valores[i]);
+        }
+        return max - min;
+    }
+
+    // Quickselect: deixa em k o elemento de ordem k no eixo, menores à esquerda e maiores à direita
+    private void selecionar(int esquerda, int direita, int k, double[] eixo) {
+        while (esquerda < direita) {
+            double pivo = eixo[(esquerda + direita) >>> 1];
+            int i = esquerda;
+            int j = direita;
+            while (i <= j) {
+                while (eixo[i] < pivo) {
+                    i++;
+                }
+                while (eixo[j] > pivo) {
+                    j--;
+                }
+                if (i <= j) {
+                    trocar(i++, j--);
+                }
+            }
+            if (k <= j) {
+                direita = j;
+            } else if (k >= i) {
+                esquerda = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void trocar(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double v = x[a];
+        x[a] = x[b];
+        x[b] = v;
+        v = y[a];
+        y[a] = y[b];
+        y[b] = v;
+        v = z[a];
+        z[a] = z[b];
+        z[b] = v;
+    }
+
+    private double[] coordenadas(int eixo) {
+        return eixo == 0 ? x : eixo == 1 ? y : z;
+    }
+
+    private void buscar(Busca busca, int inicio, int fim) {
+        if (inicio >= fim) {
+            return;
+        }
+        int meio = (inicio + fim) >>> 1;
+        if (!busca.ignorar.test(ids[meio])) {
+            double dx = x[meio] - busca.x;
+            double dy = y[meio] - busca.y;
+            double dz = z[meio] - busca.z;
+            busca.oferecer(ids[meio], dx * dx + dy * dy + dz * dz);
+        }
+        if (fim - inicio == 1) {
+            return;
+        }
+
+        int eixo = eixos[meio];
+        double diferenca = busca.coordenada(eixo) - coordenadas(eixo)[meio];
+        // Desce primeiro no lado do ponto e só visita o outro se o plano estiver mais perto que o pior candidato
+        if (diferenca < 0) {
+            buscar(busca, inicio, meio);
+            if (diferenca * diferenca < busca.limite()) {
+                buscar(busca, meio + 1, fim);
+            }
+        } else {
+            buscar(busca, meio + 1, fim);
+            if (diferenca * diferenca < busca.limite()) {
+                buscar(busca, inicio, meio);
+            }
+        }
+    }
+
+    /**
+     * State of one query: the point and a max-heap of the k best candidates by squared chord distance
+     */
+    private static final class Busca {
+        final double x;
+        final double y;
+        final double z;
+        final LongPredicate ignorar;
+        final long[] heapIds;
+        final double[] heapDistancias;
+        int tamanho;
+
+        Busca(double x, double y, double z, int k, LongPredicate ignorar) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.ignorar = ignorar;
+            this.heapIds = new long[k];
+            this.heapDistancias = new double[k];
+        }
+
+        double coordenada(int eixo) {
+            return eixo == 0 ? x : eixo == 1 ? y : z;
+        }
+
+        double limite() {
+            return tamanho < heapIds.length ? Double.POSITIVE_INFINITY : heapDistancias[0];
+        }
+
+        void oferecer(long id, double distancia) {
+            if (tamanho < heapIds.length) {
+                int i = tamanho++;
+                while (i > 0 && heapDistancias[(i - 1) / 2] < distancia) {
+                    heapIds[i] = heapIds[(i - 1) / 2];
+                    heapDistancias[i] = heapDistancias[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                heapIds[i] = id;
+                heapDistancias[i] = distancia;
+            } else if (distancia < heapDistancias[0]) {
+                int i = 0;
+                while (true) {
+                    int filho = 2 * i + 1;
+                    if (filho >= tamanho) {
+                        break;
+                    }
+                    if (filho + 1 < tamanho && heapDistancias[filho + 1] > heapDistancias[filho]) {
+                        filho++;
+                    }
+                    if (heapDistancias[filho] <= distancia) {
+                        break;
+                    }
+                    heapIds[i] = heapIds[filho];
+                    heapDistancias[i] = heapDistancias[filho];
+                    i = filho;
+                }
+                heapIds[i] = id;
+                heapDistancias[i] = distancia;
+            }
+        }
+
+        List<Vizinho> resultado() {
+            Integer[] ordem = new Integer[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                ordem[i] = i;
+            }
+            Arrays.sort(ordem, (a, b) -> heapDistancias[a] != heapDistancias[b]
+                    ? Double.compare(heapDistancias[a], heapDistancias[b])
+                    : Long.compare(heapIds[a], heapIds[b]));
+            List<Vizinho> vizinhos = new ArrayList<>(tamanho);
+            for (int i : ordem) {
+                vizinhos.add(new Vizinho(heapIds[i], distanciaKm(heapDistancias[i])));
+            }
+            return vizinhos;
+        }
+    }
+}
@@ -0,0 +1,468 @@
+package com.contatos.api.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed bitmap of non-negative ints, in the layout of Roaring bitmaps
+ *
+ * - Values are split by their high 16 bits into chunks of 65536; each non-empty chunk keeps its
+ *   low 16 bits in a container
+ * - Sparse chunks (up to {@value #LIMITE_ARRAY} values) use a sorted char array, 2 bytes per value;
+ *   dense ones a 65536-bit bitmap of 8 KB, and they convert into each other as they grow or shrink
+ * - AND, OR and AND NOT work chunk by chunk, merging arrays, probing bitmaps with array values or
+ *   combining bitmap words, and return new bitmaps
+ *
+ * Not thread-safe; the owner synchronizes.
+ */
+public class BitmapCompacto {
+
+    private static final int LIMITE_ARRAY = 4096;
+    private static final int PALAVRAS = 1024;
+
+    // Chaves (16 bits altos) em ordem crescente e o contêiner de cada uma
+    private char[] chaves = new char[4];
+    private Conteiner[] conteineres = new Conteiner[4];
+    private int tamanho;
+
+    public static BitmapCompacto de(int... valores) {
+        BitmapCompacto bitmap = new BitmapCompacto();
+        for (int valor : valores) {
+            bitmap.adicionar(valor);
+        }
+        return bitmap;
+    }
+
+    public void adicionar(int valor) {
+        char chave = (char) (valor >>> 16);
+        int i = busca(chave);
+        if (i < 0) {
+            i = -i - 1;
+            inserir(i, chave, new ConteinerArray());
+        }
+        conteineres[i] = conteineres[i].adicionar((char) valor);
+    }
+
+    public void remover(int valor) {
+        int i = busca((char) (valor >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Conteiner conteiner = conteineres[i].remover((char) valor);
+        if (conteiner.cardinalidade() == 0) {
+            System.arraycopy(chaves, i + 1, chaves, i, tamanho - i - 1);
+            System.arraycopy(conteineres, i + 1, conteineres, i, tamanho - i - 1);
+            conteineres[--tamanho] = null;
+        } else {
+            conteineres[i] = conteiner;
+        }
+    }
+
+    public boolean contem(int valor) {
+        int i = busca((char) (valor >>> 16));
+        return i >= 0 && conteineres[i].contem((char) valor);
+    }
+
+    public int cardinalidade() {
+        int total = 0;
+        for (int i = 0; i < tamanho; i++) {
+            total += conteineres[i].cardinalidade();
+        }
+        return total;
+    }
+
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+
+    public BitmapCompacto e(BitmapCompacto outro) {
+        BitmapCompacto resultado = new BitmapCompacto();
+        int i = 0;
+        int j = 0;
+        while (i < tamanho && j < outro.tamanho) {
+            if (chaves[i] < outro.chaves[j]) {
+                i++;
+            } else if (chaves[i] > outro.chaves[j]) {
+                j++;
+            } else {
+                resultado.anexar(chaves[i], conteineres[i].e(outro.conteineres[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    public BitmapCompacto ou(BitmapCompacto outro) {
+        BitmapCompacto resultado = new BitmapCompacto();
+        int i = 0;
+        int j = 0;
+        while (i < tamanho || j < outro.tamanho) {
+            if (j == outro.tamanho || (i < tamanho && chaves[i] < outro.chaves[j])) {
+                resultado.anexar(chaves[i], conteineres[i].copia());
+                i++;
+            } else if (i == tamanho || chaves[i] > outro.chaves[j]) {
+                resultado.anexar(outro.chaves[j], outro.conteineres[j].copia());
+                j++;
+            } else {
+                resultado.anexar(chaves[i], conteineres[i].ou(outro.conteineres[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    public BitmapCompacto menos(BitmapCompacto outro) {
+        BitmapCompacto resultado = new BitmapCompacto();
+        int j = 0;
+        for (int i = 0; i < tamanho; i++) {
+            while (j < outro.tamanho && outro.chaves[j] < chaves[i]) {
+                j++;
+            }
+            boolean comum = j < outro.tamanho && outro.chaves[j] == chaves[i];
+            resultado.anexar(chaves[i], comum ? conteineres[i].menos(outro.conteineres[j]) : conteineres[i].copia());
+        }
+        return resultado;
+    }
+
+    /**
+     * Visits the values in ascending order
+     */
+    public void paraCada(IntConsumer acao) {
+        for (int i = 0; i < tamanho; i++) {
+            conteineres[i].paraCada(chaves[i] << 16, acao);
+        }
+    }
+
+    public int[] paraArray() {
+        int[] valores = new int[cardinalidade()];
+        int[] posicao = {0};
+        paraCada(valor -> valores[posicao[0]++] = valor);
+        return valores;
+    }
+
+    /**
+     * Approximate heap size in bytes, for cache weighing
+     */
+    public long bytes() {
+        long bytes = 16 + chaves.length * 2L + conteineres.length * 8L;
+        for (int i = 0; i < tamanho; i++) {
+            bytes += conteineres[i].bytes();
+        }
+        return bytes;
+    }
+
+    private int busca(char chave) {
+        return Arrays.binarySearch(chaves, 0, tamanho, chave);
+    }
+
+    private void inserir(int i, char chave, Conteiner conteiner) {
+        if (tamanho == chaves.length) {
+            chaves = Arrays.copyOf(chaves, tamanho * 2);
+            conteineres = Arrays.copyOf(conteineres, tamanho * 2);
+        }
+        System.arraycopy(chaves, i, chaves, i + 1, tamanho - i);
+        System.arraycopy(conteineres, i, conteineres, i + 1, tamanho - i);
+        chaves[i] = chave;
+        conteineres[i] = conteiner;
+        tamanho++;
+    }
+
+    // Chaves chegam em ordem crescente; contêineres vazios são descartados
+    private void anexar(char chave, Conteiner conteiner) {
+        if (conteiner.cardinalidade() > 0) {
+            inserir(tamanho, chave, conteiner);
+        }
+    }
+
+    private sealed interface Conteiner permits ConteinerArray, ConteinerBitmap {
+        int cardinalidade();
+
+        boolean contem(char valor);
+
+        // Podem devolver outro tipo de contêiner quando a cardinalidade cruza o limite
+        Conteiner adicionar(char valor);
+
+        Conteiner remover(char valor);
+
+        Conteiner e(Conteiner outro);
+
+        Conteiner ou(Conteiner outro);
+
+        Conteiner menos(Conteiner outro);
+
+        Conteiner copia();
+
+        void paraCada(int base, IntConsumer acao);
+
+        long bytes();
+    }
+
+    private static final class ConteinerArray implements Conteiner {
+        char[] valores;
+        int total;
+
+        ConteinerArray() {
+            this(new char[4], 0);
+        }
+
+        ConteinerArray(char[] valores, int total) {
+            this.valores = valores;
+            this.total = total;
+        }
+
+        @Override
+        public int cardinalidade() {
+            return total;
+        }
+
+        @Override
+        public boolean contem(char valor) {
+            return Arrays.binarySearch(valores, 0, total, valor) >= 0;
+        }
+
+        @Override
+        public Conteiner adicionar(char valor) {
+            int i = Arrays.binarySearch(valores, 0, total, valor);
+            if (i >= 0) {
+                return this;
+            }
+            if (total == LIMITE_ARRAY) {
+                return paraBitmap().adicionar(valor);
+            }
+            i = -i - 1;
+            if (total == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(LIMITE_ARRAY, total * 2));
+            }
+            System.arraycopy(valores, i, valores, i + 1, total - i);
+            valores[i] = valor;
+            total++;
+            return this;
+        }
+
+        @Override
+        public Conteiner remover(char valor) {
+            int i = Arrays.binarySearch(valores, 0, total, valor);
+            if (i >= 0) {
+                System.arraycopy(valores, i + 1, valores, i, total - i - 1);
+                total--;
+                // Devolve memória quando sobra menos de um quarto da capacidade
+                if (valores.length > 4 && total <= valores.length / 4) {
+                    valores = Arrays.copyOf(valores, Math.max(4, valores.length / 2));
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public Conteiner e(Conteiner outro) {
+            char[] resultado = new char[total];
+            int n = 0;
+            if (outro instanceof ConteinerArray array) {
+                int i = 0;
+                int j = 0;
+                while (i < total && j < array.total) {
+                    if (valores[i] < array.valores[j]) {
+                        i++;
+                    } else if (valores[i] > array.valores[j]) {
+                        j++;
+                    } else {
+                        resultado[n++] = valores[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < total; i++) {
+                    if (outro.contem(valores[i])) {
+                        resultado[n++] = valores[i];
+                    }
+                }
+            }
+            return new ConteinerArray(resultado, n);
+        }
+
+        @Override
+        public Conteiner ou(Conteiner outro) {
+            if (outro instanceof ConteinerBitmap bitmap) {
+                return bitmap.ou(this);
+            }
+            ConteinerArray array = (ConteinerArray) outro;
+            char[] resultado = new char[total + array.total];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < total || j < array.total) {
+                if (j == array.total || (i < total && valores[i] < array.valores[j])) {
+                    resultado[n++] = valores[i++];
+                } else if (i == total || valores[i] > array.valores[j]) {
+                    resultado[n++] = array.valores[j++];
+                } else {
+                    resultado[n++] = valores[i];
+                    i++;
+                    j++;
+                }
+            }
+            ConteinerArray uniao = new ConteinerArray(resultado, n);
+            return n > LIMITE_ARRAY ? uniao.paraBitmap() : uniao;
+        }
+
+        @Override
+        public Conteiner menos(Conteiner outro) {
+            char[] resultado = new char[total];
+            int n = 0;
+            for (int i = 0; i < total; i++) {
+                if (!outro.contem(valores[i])) {
+                    resultado[n++] = valores[i];
+                }
+            }
+            return new ConteinerArray(resultado, n);
+        }
+
+        @Override
+        public Conteiner copia() {
+            return new ConteinerArray(Arrays.copyOf(valores, Math.max(4, total)), total);
+        }
+
+        @Override
+        public void paraCada(int base, IntConsumer acao) {
+            for (int i = 0; i < total; i++) {
+                acao.accept(base | valores[i]);
+            }
+        }
+
+        @Override
+        public long bytes() {
+            return 24 + valores.length * 2L;
+        }
+
+        ConteinerBitmap paraBitmap() {
+            ConteinerBitmap bitmap = new ConteinerBitmap(new long[PALAVRAS], total);
+            for (int i = 0; i < total; i++) {
+                bitmap.palavras[valores[i] >>> 6] |= 1L << valores[i];
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class ConteinerBitmap implements Conteiner {
+        final long[] palavras;
+        int total;
+
+        ConteinerBitmap(long[] palavras, int total) {
+            this.palavras = palavras;
+            this.total = total;
+        }
+
+        @Override
+        public int cardinalidade() {
+            return total;
+        }
+
+        @Override
+        public boolean contem(char valor) {
+            return (palavras[valor >>> 6] & (1L << valor)) != 0;
+        }
+
+        @Override
+        public Conteiner adicionar(char valor) {
+            if (!contem(valor)) {
+                palavras[valor >>> 6] |= 1L << valor;
+                total++;
+            }
+            return this;
+        }
+
+        @Override
+        public Conteiner remover(char valor) {
+            if (contem(valor)) {
+                palavras[valor >>> 6] &= ~(1L << valor);
+                total--;
+            }
+            return total <= LIMITE_ARRAY ? paraArray() : this;
+        }
+
+        @Override
+        public Conteiner e(Conteiner outro) {
+            if (outro instanceof ConteinerArray array) {
+                return array.e(this);
+            }
+            long[] outras = ((ConteinerBitmap) outro).palavras;
+            long[] resultado = new long[PALAVRAS];
+            for (int i = 0; i < PALAVRAS; i++) {
+                resultado[i] = palavras[i] & outras[i];
+            }
+            return normalizar(resultado);
+        }
+
+        @Override
+        public Conteiner ou(Conteiner outro) {
+            long[] resultado = palavras.clone();
+            if (outro instanceof ConteinerArray array) {
+                for (int i = 0; i < array.total; i++) {
+                    resultado[array.valores[i] >>> 6] |= 1L << array.valores[i];
+                }
+            } else {
+                long[] outras = ((ConteinerBitmap) outro).palavras;
+                for (int i = 0; i < PALAVRAS; i++) {
+                    resultado[i] |= outras[i];
+                }
+            }
+            return normalizar(resultado);
+        }
+
+        @Override
+        public Conteiner menos(Conteiner outro) {
+            long[] resultado = palavras.clone();
+            if (outro instanceof ConteinerArray array) {
+                for (int i = 0; i < array.total; i++) {
+                    resultado[array.valores[i] >>> 6] &= ~(1L << array.valores[i]);
+                }
+            } else {
+                long[] outras = ((ConteinerBitmap) outro).palavras;
+                for (int i = 0; i < PALAVRAS; i++) {
+                    resultado[i] &= ~outras[i];
+                }
+            }
+            return normalizar(resultado);
+        }
+
+        @Override
+        public Conteiner copia() {
+            return new ConteinerBitmap(palavras.clone(), total);
+        }
+
+        @Override
+        public void paraCada(int base, IntConsumer acao) {
+            for (int i = 0; i < PALAVRAS; i++) {
+                long palavra = palavras[i];
+                while (palavra != 0) {
+                    acao.accept(base | (i << 6) | Long.numberOfTrailingZeros(palavra));
+                    palavra &= palavra - 1;
+                }
+            }
+        }
+
+        @Override
+        public long bytes() {
+            return 24 + PALAVRAS * 8L;
+        }
+
+        ConteinerArray paraArray() {
+            char[] valores = new char[Math.max(4, total)];
+            int[] n = {0};
+            paraCada(0, valor -> valores[n[0]++] = (char) valor);
+            return new ConteinerArray(valores, total);
+        }
+
+        private static Conteiner normalizar(long[] resultado) {
+            int total = 0;
+            for (long palavra : resultado) {
+                total += Long.bitCount(palavra);
+            }
+            ConteinerBitmap bitmap = new ConteinerBitmap(resultado, total);
+            return total <= LIMITE_ARRAY ? bitmap.paraArray() : bitmap;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.contatos.api.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and one consumer
+ *
+ * - Capacity is a power of two; each slot has a sequence number telling whether it is free for
+ *   the producer of a given lap or holds an element for the consumer
+ * - Producers claim a slot with one CAS on the tail and publish the element by advancing the slot
+ *   sequence; a full buffer rejects the element instead of waiting
+ * - The consumer side needs no atomic operation, but only one thread may consume at a time
+ *
+ * @param <E> element type
+ */
+public class BufferCircular<E> {
+
+    private final Object[] elementos;
+    private final AtomicLongArray sequencias;
+    private final int mascara;
+    private final AtomicLong cauda = new AtomicLong();
+    // Escrita só pelo consumidor; volatile para o tamanho aproximado lido por outras threads
+    private volatile long cabeca;
+
+    public BufferCircular(int capacidadeMinima) {
+        int capacidade = Integer.highestOneBit(Math.max(2, capacidadeMinima - 1)) << 1;
+        this.elementos = new Object[capacidade];
+        this.sequencias = new AtomicLongArray(capacidade);
+        this.mascara = capacidade - 1;
+        for (int i = 0; i < capacidade; i++) {
+            sequencias.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room
+     *
+     * @return false if the buffer is full
+     */
+    public boolean oferecer(E elemento) {
+        while (true) {
+            long posicao = cauda.get();
+            int indice = (int) posicao & mascara;
+            long diferenca = sequencias.get(indice) - posicao;
+            if (diferenca == 0) {
+                if (cauda.compareAndSet(posicao, posicao + 1)) {
+                    elementos[indice] = elemento;
+                    sequencias.lazySet(indice, posicao + 1);
+                    return true;
+                }
+            } else if (diferenca < 0) {
+                // Slot ainda ocupado pela volta anterior: buffer cheio
+                return false;
+            }
+            // diferenca > 0: outro produtor levou o slot; tenta a posição seguinte
+        }
+    }
+
+    /**
+     * Removes up to {@code maximo} elements in insertion order; single consumer only
+     *
+     * @return how many elements were passed to the consumer
+     */
+    @SuppressWarnings("unchecked")
+    public int drenar(Consumer<? super E> consumidor, int maximo) {
+        long posicao = cabeca;
+        int drenados = 0;
+        while (drenados < maximo) {
+            int indice = (int) posicao & mascara;
+            if (sequencias.get(indice) != posicao + 1) {
+                // Vazio, ou o produtor que reservou o slot ainda não publicou o elemento
+                break;
+            }
+            E elemento = (E) elementos[indice];
+            elementos[indice] = null;
+            sequencias.lazySet(indice, posicao + elementos.length);
+            posicao++;
+            cabeca = posicao;
+            drenados++;
+            consumidor.accept(elemento);
+        }
+        return drenados;
+    }
+
+    /**
+     * Approximate number of elements, including slots claimed but not yet published
+     */
+    public int tamanho() {
+        return (int) Math.max(0, cauda.get() - cabeca);
+    }
+
+    public int capacidade() {
+        return elementos.length;
+    }
+}
@@ -0,0 +1,115 @@
+package com.contatos.api.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Blocking keys of the duplicate-contact finder: contacts are only compared with contacts that
+ * share at least one key
+ *
+ * - Phone: digits only, without the country code and the trunk zero, reduced to the area code
+ *   plus the last 8 digits, so numbers with and without the ninth mobile digit match
+ * - Name: a phonetic key of the first and last names, after removing accents, following the
+ *   usual Portuguese spellings of the same sound (PH/F, CH/X, Ç/SS/S, QU/K, Y/I...)
+ * - Address: CEP plus the house number
+ *
+ * Each method returns null when the field is too incomplete to block on.
+ */
+public class ChavesDuplicidade {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAO_LETRAS = Pattern.compile("[^a-z ]+");
+    private static final Pattern NAO_DIGITOS = Pattern.compile("\\D+");
+
+    private ChavesDuplicidade() {
+        // Utility class
+    }
+
+    public static String telefone(String telefone) {
+        if (telefone == null) {
+            return null;
+        }
+        String digitos = NAO_DIGITOS.matcher(telefone).replaceAll("");
+        if (digitos.length() >= 12 && digitos.startsWith("55")) {
+            digitos = digitos.substring(2);
+        }
+        if (digitos.startsWith("0")) {
+            digitos = digitos.substring(1);
+        }
+        if (digitos.length() < 8) {
+            return null;
+        }
+        String numero = digitos.substring(digitos.length() - 8);
+        return digitos.length() >= 10 ? digitos.substring(0, 2) + numero : numero;
+    }
+
+    public static String nomeFonetico(String nome) {
+        // Ç soa como S; sem isso a remoção de acentos o transformaria em C
+        String[] partes = normalizarNome(nome == null ? null : nome.replace('ç', 's').replace('Ç', 'S')).split(" ");
+        if (partes[0].isEmpty()) {
+            return null;
+        }
+        String primeiro = fonetica(partes[0]);
+        return partes.length == 1 ? primeiro : primeiro + " " + fonetica(partes[partes.length - 1]);
+    }
+
+    public static String endereco(String cep, String numero) {
+        if (cep == null || numero == null) {
+            return null;
+        }
+        String numeroNormalizado = numero.trim().toUpperCase(Locale.ROOT).replaceAll("\\s+", "");
+        // Sem número ("S/N") o CEP sozinho agruparia uma rua inteira
+        if (numeroNormalizado.isEmpty() || !Character.isDigit(numeroNormalizado.charAt(0))) {
+            return null;
+        }
+        return cep + "/" + numeroNormalizado;
+    }
+
+    /**
+     * Lower case, without accents or punctuation, single spaces; the form compared by the name score
+     */
+    public static String normalizarNome(String nome) {
+        if (nome == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(nome.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("");
+        return NAO_LETRAS.matcher(semAcentos).replaceAll(" ").trim().replaceAll(" +", " ");
+    }
+
+    // Chave fonética de uma palavra já normalizada: consoantes equivalentes unificadas, vogais
+    // depois da primeira letra removidas e letras repetidas colapsadas
+    private static String fonetica(String palavra) {
+        String p = palavra
+                .replace("ph", "f")
+                .replace("lh", "l")
+                .replace("nh", "n")
+                .replace("ch", "x")
+                .replace("sh", "x")
+                .replace("qu", "k")
+                .replace("gu", "g")
+                .replaceAll("c([ei])", "s$1")
+                .replace('c', 'k')
+                .replace('q', 'k')
+                .replace('z', 's')
+                .replace('w', 'v')
+                .replace('y', 'i')
+                .replaceAll("ge|gi", "j")
+                .replace("h", "");
+        if (p.isEmpty()) {
+            return palavra;
+        }
+
+        StringBuilder chave = new StringBuilder().append(Character.toUpperCase(p.charAt(0)));
+        char anterior = p.charAt(0);
+        for (int i = 1; i < p.length(); i++) {
+            char c = p.charAt(i);
+            if (c != anterior && "aeiou".indexOf(c) < 0) {
+                chave.append(Character.toUpperCase(c));
+            }
+            anterior = c;
+        }
+        return chave.toString();
+    }
+}
@@ -1,5 +1,7 @@
 package com.contatos.api.util;
 
+import com.contatos.api.model.Cpf;
+
 public class CpfValidator {
 
     private CpfValidator() {
@@ -7,37 +9,7 @@ public class CpfValidator {
     }
 
     public static boolean isValid(String cpf) {
-        if (cpf == null || !cpf.matches("\\d{11}")) {
-            return false;
-        }
-
-        // Verifica se todos os dígitos são iguais
-        if (cpf.matches("(\\d)\\1{10}")) {
-            return false;
-        }
-
-        // Calcula o primeiro dígito verificador
-        int sum = 0;
-        for (int i = 0; i < 9; i++) {
-            sum += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
-        }
-        int firstDigit = 11 - (sum % 11);
-        if (firstDigit >= 10) {
-            firstDigit = 0;
-        }
-
-        // Calcula o segundo dígito verificador
-        sum = 0;
-        for (int i = 0; i < 10; i++) {
-            sum += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
-        }
-        int secondDigit = 11 - (sum % 11);
-        if (secondDigit >= 10) {
-            secondDigit = 0;
-        }
-
-        // Verifica se os dígitos calculados são iguais aos dígitos informados
-        return Character.getNumericValue(cpf.charAt(9)) == firstDigit &&
-               Character.getNumericValue(cpf.charAt(10)) == secondDigit;
+        // Validação em uma única passada, sem regex e sem alocação (ver Cpf.pack)
+        return Cpf.pack(cpf) != Cpf.INVALIDO;
     }
 }
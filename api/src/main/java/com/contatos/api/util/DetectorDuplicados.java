@@ -0,0 +1,323 @@
+package com.contatos.api.util;
+
+import com.contatos.api.model.ContatoDuplicidade;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds groups of probable duplicates among one user's contacts
+ *
+ * - Contacts are grouped into blocks by the keys of {@link ChavesDuplicidade}; only pairs inside a
+ *   block are scored, so the work grows with the block sizes instead of with n²
+ * - A pair sharing several keys is scored once, in the block of the smallest key they share
+ * - Blocks larger than the configured limit are skipped: a key shared by that many contacts
+ *   (a company switchboard, a building's CEP and number) says nothing about duplicates
+ * - Blocks are split among fork/join tasks by number of comparisons, not by number of blocks
+ * - Pairs scoring at least the threshold are joined transitively into groups
+ *
+ * Pair score (capped at 1): same phone 0.35, name similarity up to 0.4 (Jaro-Winkler on the
+ * normalized names, at least 0.9 when the phonetic keys match), same address 0.15, CPFs
+ * differing in at most 2 digits 0.25.
+ */
+public class DetectorDuplicados {
+
+    public enum Motivo {
+        TELEFONE,
+        NOME,
+        ENDERECO,
+        CPF
+    }
+
+    /**
+     * Probable duplicates: their IDs in ascending order, the best pair score and what matched
+     */
+    public record Grupo(List<Long> ids, double pontuacao, Set<Motivo> motivos) {
+    }
+
+    private record Par(int a, int b, double pontuacao, Set<Motivo> motivos) {
+    }
+
+    private record Candidato(long id, String nome, String chaveNome, long cpf, String telefone, String endereco,
+                             String[] chaves) {
+    }
+
+    private static final double PESO_TELEFONE = 0.35;
+    private static final double PESO_NOME = 0.4;
+    private static final double PESO_ENDERECO = 0.15;
+    private static final double PESO_CPF = 0.25;
+    private static final double NOME_PARECIDO = 0.85;
+
+    // Comparações por tarefa abaixo das quais a divisão para
+    private static final long COMPARACOES_POR_TAREFA = 20_000;
+
+    private final double limiar;
+    private final int maxBloco;
+
+    public DetectorDuplicados(double limiar, int maxBloco) {
+        this.limiar = limiar;
+        this.maxBloco = maxBloco;
+    }
+
+    /**
+     * @return groups ordered by score, highest first
+     */
+    public List<Grupo> detectar(List<ContatoDuplicidade> contatos, ForkJoinPool pool) {
+        Candidato[] todos = new Candidato[contatos.size()];
+        Map<String, List<Integer>> blocos = new HashMap<>();
+        for (int i = 0; i < todos.length; i++) {
+            todos[i] = preparar(contatos.get(i));
+            for (String chave : todos[i].chaves()) {
+                blocos.computeIfAbsent(chave, c -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<String> chaves = new ArrayList<>();
+        List<int[]> membros = new ArrayList<>();
+        blocos.forEach((chave, indices) -> {
+            if (indices.size() > 1 && indices.size() <= maxBloco) {
+                chaves.add(chave);
+                membros.add(indices.stream().mapToInt(Integer::intValue).toArray());
+            }
+        });
+        if (membros.isEmpty()) {
+            return List.of();
+        }
+
+        // Comparações acumuladas por bloco, para dividir o trabalho em partes equivalentes
+        long[] acumulado = new long[membros.size() + 1];
+        for (int i = 0; i < membros.size(); i++) {
+            long n = membros.get(i).length;
+            acumulado[i + 1] = acumulado[i] + n * (n - 1) / 2;
+        }
+        List<Par> pares = pool.invoke(new Comparacao(todos, chaves, membros, acumulado, 0, membros.size()));
+        return agrupar(todos, pares);
+    }
+
+    private static Candidato preparar(ContatoDuplicidade contato) {
+        String telefone = ChavesDuplicidade.telefone(contato.telefone());
+        String nome = ChavesDuplicidade.nomeFonetico(contato.nome());
+        String endereco = ChavesDuplicidade.endereco(contato.cep(), contato.numero());
+        List<String> chaves = new ArrayList<>(3);
+        if (telefone != null) {
+            chaves.add("T:" + telefone);
+        }
+        if (nome != null) {
+            chaves.add("N:" + nome);
+        }
+        if (endereco != null) {
+            chaves.add("E:" + endereco);
+        }
+        String[] ordenadas = chaves.toArray(String[]::new);
+        Arrays.sort(ordenadas);
+        return new Candidato(contato.id(), ChavesDuplicidade.normalizarNome(contato.nome()), nome,
+                contato.cpf() != null ? contato.cpf() : -1, telefone, endereco, ordenadas);
+    }
+
+    private final class Comparacao extends RecursiveTask<List<Par>> {
+
+        private final Candidato[] todos;
+        private final List<String> chaves;
+        private final List<int[]> membros;
+        private final long[] acumulado;
+        private final int inicio;
+        private final int fim;
+
+        Comparacao(Candidato[] todos, List<String> chaves, List<int[]> membros, long[] acumulado, int inicio, int fim) {
+            this.todos = todos;
+            this.chaves = chaves;
+            this.membros = membros;
+            this.acumulado = acumulado;
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected List<Par> compute() {
+            if (fim - inicio > 1 && acumulado[fim] - acumulado[inicio] > COMPARACOES_POR_TAREFA) {
+                // Corta no bloco em que metade das comparações do intervalo foi atingida
+                long metade = (acumulado[inicio] + acumulado[fim]) / 2;
+                int meio = Arrays.binarySearch(acumulado, inicio + 1, fim, metade);
+                meio = Math.max(inicio + 1, Math.min(fim - 1, meio >= 0 ? meio : -meio - 1));
+                Comparacao esquerda = new Comparacao(todos, chaves, membros, acumulado, inicio, meio);
+                esquerda.fork();
+                List<Par> pares = new ArrayList<>(new Comparacao(todos, chaves, membros, acumulado, meio, fim).compute());
+                pares.addAll(esquerda.join());
+                return pares;
+            }
+
+            List<Par> pares = new ArrayList<>();
+            for (int bloco = inicio; bloco < fim; bloco++) {
+                String chave = chaves.get(bloco);
+                int[] indices = membros.get(bloco);
+                for (int i = 0; i < indices.length; i++) {
+                    for (int j = i + 1; j < indices.length; j++) {
+                        Candidato a = todos[indices[i]];
+                        Candidato b = todos[indices[j]];
+                        if (!chave.equals(menorChaveComum(a, b))) {
+                            continue;
+                        }
+                        Par par = pontuar(indices[i], indices[j], a, b);
+                        if (par.pontuacao() >= limiar) {
+                            pares.add(par);
+                        }
+                    }
+                }
+            }
+            return pares;
+        }
+    }
+
+    private static String menorChaveComum(Candidato a, Candidato b) {
+        // Chaves ordenadas: a primeira em comum é a menor
+        for (String chave : a.chaves()) {
+            for (String outra : b.chaves()) {
+                if (chave.equals(outra)) {
+                    return chave;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Par pontuar(int indiceA, int indiceB, Candidato a, Candidato b) {
+        Set<Motivo> motivos = EnumSet.noneOf(Motivo.class);
+        double pontuacao = 0;
+        if (a.telefone() != null && a.telefone().equals(b.telefone())) {
+            pontuacao += PESO_TELEFONE;
+            motivos.add(Motivo.TELEFONE);
+        }
+
+        double nome = jaroWinkler(a.nome(), b.nome());
+        if (a.chaveNome() != null && a.chaveNome().equals(b.chaveNome())) {
+            nome = Math.max(nome, 0.9);
+        }
+        pontuacao += PESO_NOME * nome;
+        if (nome >= NOME_PARECIDO) {
+            motivos.add(Motivo.NOME);
+        }
+
+        if (a.endereco() != null && a.endereco().equals(b.endereco())) {
+            pontuacao += PESO_ENDERECO;
+            motivos.add(Motivo.ENDERECO);
+        }
+        if (a.cpf() >= 0 && b.cpf() >= 0 && digitosDiferentes(a.cpf(), b.cpf()) <= 2) {
+            pontuacao += PESO_CPF;
+            motivos.add(Motivo.CPF);
+        }
+        return new Par(indiceA, indiceB, Math.min(1, pontuacao), motivos);
+    }
+
+    private static List<Grupo> agrupar(Candidato[] todos, List<Par> pares) {
+        // Union-find com compressão de caminho
+        int[] pai = new int[todos.length];
+        for (int i = 0; i < pai.length; i++) {
+            pai[i] = i;
+        }
+        for (Par par : pares) {
+            pai[raiz(pai, par.a())] = raiz(pai, par.b());
+        }
+
+        Map<Integer, List<Long>> ids = new HashMap<>();
+        Map<Integer, Double> pontuacoes = new HashMap<>();
+        Map<Integer, Set<Motivo>> motivos = new HashMap<>();
+        for (Par par : pares) {
+            int raiz = raiz(pai, par.a());
+            pontuacoes.merge(raiz, par.pontuacao(), Math::max);
+            motivos.computeIfAbsent(raiz, r -> EnumSet.noneOf(Motivo.class)).addAll(par.motivos());
+        }
+        for (int i = 0; i < todos.length; i++) {
+            int raiz = raiz(pai, i);
+            if (pontuacoes.containsKey(raiz)) {
+                ids.computeIfAbsent(raiz, r -> new ArrayList<>()).add(todos[i].id());
+            }
+        }
+
+        List<Grupo> grupos = new ArrayList<>(ids.size());
+        ids.forEach((raiz, membros) -> {
+            membros.sort(null);
+            grupos.add(new Grupo(List.copyOf(membros), pontuacoes.get(raiz), Set.copyOf(motivos.get(raiz))));
+        });
+        grupos.sort(Comparator.comparingDouble(Grupo::pontuacao).reversed()
+                .thenComparingLong(grupo -> grupo.ids().get(0)));
+        return grupos;
+    }
+
+    private static int raiz(int[] pai, int i) {
+        while (pai[i] != i) {
+            pai[i] = pai[pai[i]];
+            i = pai[i];
+        }
+        return i;
+    }
+
+    private static int digitosDiferentes(long a, long b) {
+        int diferentes = 0;
+        for (int i = 0; i < 11; i++) {
+            if (a % 10 != b % 10) {
+                diferentes++;
+            }
+            a /= 10;
+            b /= 10;
+        }
+        return diferentes;
+    }
+
+    /**
+     * Jaro-Winkler similarity, from 0 (nothing in common) to 1 (equal)
+     */
+    public static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) {
+            return 1;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int janela = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] usadosA = new boolean[a.length()];
+        boolean[] usadosB = new boolean[b.length()];
+        int iguais = 0;
+        for (int i = 0; i < a.length(); i++) {
+            for (int j = Math.max(0, i - janela); j < Math.min(b.length(), i + janela + 1); j++) {
+                if (!usadosB[j] && a.charAt(i) == b.charAt(j)) {
+                    usadosA[i] = true;
+                    usadosB[j] = true;
+                    iguais++;
+                    break;
+                }
+            }
+        }
+        if (iguais == 0) {
+            return 0;
+        }
+
+        int transposicoes = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (usadosA[i]) {
+                while (!usadosB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transposicoes++;
+                }
+                j++;
+            }
+        }
+        double m = iguais;
+        double jaro = (m / a.length() + m / b.length() + (m - transposicoes / 2.0) / m) / 3;
+
+        int prefixo = 0;
+        while (prefixo < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefixo) == b.charAt(prefixo)) {
+            prefixo++;
+        }
+        return jaro + prefixo * 0.1 * (1 - jaro);
+    }
+}
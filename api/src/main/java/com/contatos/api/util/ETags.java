@@ -0,0 +1,55 @@
+package com.contatos.api.util;
+
+import com.contatos.api.exception.PreconditionFailedException;
+
+/**
+ * Strong ETags for contacts
+ *
+ * - Single contact: derived from (id, versao), e.g. "15-3"
+ * - Contact list: derived from the user's collection version, e.g. "u7-42"
+ */
+public class ETags {
+
+    private ETags() {
+        // Utility class
+    }
+
+    public static String contato(Long id, Long versao) {
+        return "\"" + id + "-" + versao + "\"";
+    }
+
+    public static String colecao(Long usuarioId, long versao) {
+        return "\"u" + usuarioId + "-" + versao + "\"";
+    }
+
+    /**
+     * ETag of another representation of the same resource state, e.g. the binary one
+     */
+    public static String variante(String etag, String sufixo) {
+        return etag.substring(0, etag.length() - 1) + "-" + sufixo + "\"";
+    }
+
+    /**
+     * Extracts the expected version from an If-Match header for the given contact
+     *
+     * @param ifMatch the If-Match header value (may be null)
+     * @param id the contact ID the request targets
+     * @return the expected version, or null when there is no precondition ("*" or absent header)
+     * @throws PreconditionFailedException if the header doesn't carry an ETag of this contact
+     */
+    public static Long versaoEsperada(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefixo = "\"" + id + "-";
+        String valor = ifMatch.trim();
+        if (!valor.startsWith(prefixo) || !valor.endsWith("\"") || valor.length() <= prefixo.length() + 1) {
+            throw new PreconditionFailedException("If-Match não corresponde ao contato");
+        }
+        try {
+            return Long.parseLong(valor.substring(prefixo.length(), valor.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match não corresponde ao contato");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.contatos.api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Integer geohash of contact coordinates, stored in the indexed {@code contatos.geohash} column
+ *
+ * - Latitude and longitude are quantized to 26 bits each and interleaved into a 52-bit value,
+ *   longitude first (the usual geohash bit order), so each 2 bits dropped from the right double
+ *   the cell size and every cell is one contiguous range of values
+ * - A bounding box is covered by at most 4 cells of the smallest level at least as large as the
+ *   box, so an area query becomes at most 4 range scans of the (usuario_id, geohash) index followed
+ *   by an exact filter on latitude/longitude
+ * - Must stay identical to the backfill function in V4__contatos_geohash.sql
+ */
+public class GeoHash {
+
+    public static final int BITS = 26;
+
+    public static final double RAIO_TERRA_KM = 6371.0088;
+
+    private static final long CELULAS = 1L << BITS;
+
+    private GeoHash() {
+        // Utility class
+    }
+
+    /**
+     * A range of geohash values [min, max], both inclusive
+     */
+    public record Intervalo(long min, long max) {
+    }
+
+    public static long encode(double latitude, double longitude) {
+        return intercalar(indiceLongitude(longitude), indiceLatitude(latitude));
+    }
+
+    /**
+     * Covers the box with at most 4 contiguous geohash ranges; boxes crossing the antimeridian
+     * must be split by the caller
+     */
+    public static List<Intervalo> cobrir(double minLat, double minLng, double maxLat, double maxLng) {
+        long lat0 = indiceLatitude(minLat);
+        long lat1 = indiceLatitude(maxLat);
+        long lng0 = indiceLongitude(minLng);
+        long lng1 = indiceLongitude(maxLng);
+
+        // Menor nível em que a caixa ocupa no máximo 2 células em cada eixo
+        int nivel = BITS;
+        while (nivel > 0 && ((lat1 >> (BITS - nivel)) - (lat0 >> (BITS - nivel)) > 1
+                || (lng1 >> (BITS - nivel)) - (lng0 >> (BITS - nivel)) > 1)) {
+            nivel--;
+        }
+        int deslocamento = BITS - nivel;
+
+        List<Long> celulas = new ArrayList<>(4);
+        for (long lng = lng0 >> deslocamento; lng <= lng1 >> deslocamento; lng++) {
+            for (long lat = lat0 >> deslocamento; lat <= lat1 >> deslocamento; lat++) {
+                celulas.add(intercalar(lng, lat));
+            }
+        }
+        celulas.sort(null);
+
+        // Células vizinhas na curva viram um único intervalo
+        List<Intervalo> intervalos = new ArrayList<>(4);
+        int bitsCelula = 2 * deslocamento;
+        for (long celula : celulas) {
+            long min = celula << bitsCelula;
+            long max = ((celula + 1) << bitsCelula) - 1;
+            int ultimo = intervalos.size() - 1;
+            if (ultimo >= 0 && intervalos.get(ultimo).max() + 1 == min) {
+                intervalos.set(ultimo, new Intervalo(intervalos.get(ultimo).min(), max));
+            } else {
+                intervalos.add(new Intervalo(min, max));
+            }
+        }
+        return intervalos;
+    }
+
+    /**
+     * Great-circle distance in kilometers (haversine)
+     */
+    public static double distanciaKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * The cell of the given level (bits per axis) that contains the geohash
+     */
+    public static long celula(long geohash, int nivel) {
+        return geohash >>> (2 * (BITS - nivel));
+    }
+
+    /**
+     * The geohash values of a cell of the given level
+     */
+    public static Intervalo intervalo(long celula, int nivel) {
+        int bits = 2 * (BITS - nivel);
+        return new Intervalo(celula << bits, ((celula + 1) << bits) - 1);
+    }
+
+    public static long indiceLatitude(double latitude) {
+        return quantizar((latitude + 90.0) / 180.0);
+    }
+
+    public static long indiceLongitude(double longitude) {
+        return quantizar((longitude + 180.0) / 360.0);
+    }
+
+    private static long quantizar(double fracao) {
+        long indice = (long) Math.floor(fracao * CELULAS);
+        return Math.max(0, Math.min(CELULAS - 1, indice));
+    }
+
+    /**
+     * Geohash (or cell, for indices of a coarser level) of the given longitude and latitude indices
+     */
+    public static long intercalar(long lng, long lat) {
+        return espalhar(lng) << 1 | espalhar(lat);
+    }
+
+    // Espalha os 32 bits baixos nas posições pares (0, 2, 4, ...)
+    private static long espalhar(long v) {
+        v &= 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+}
@@ -0,0 +1,134 @@
+package com.contatos.api.util;
+
+import com.contatos.api.model.ContatoMarcador;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar encoding of map markers (id, nome, latitude, longitude)
+ *
+ * - Coordinates are fixed-point integers with {@value #PRECISAO} decimal places (about 1 m)
+ * - ids, latitudes and longitudes are each sent as the difference to the previous value
+ *   (the first one to zero); with the rows in geohash order the differences are small
+ * - JSON: {"precisao":5,"total":n,"ids":[...],"lat":[...],"lng":[...],"nomes":[...]}
+ * - Binary (big-endian): the ASCII bytes "CTM", format version 1, precision byte, varint n, then
+ *   n zigzag varints per numeric column (ids, lat, lng), then n names as varint length + UTF-8
+ */
+public class MarcadoresColunares {
+
+    public static final int PRECISAO = 5;
+
+    private static final double ESCALA = 100_000;
+    private static final byte[] ASSINATURA = {'C', 'T', 'M', 1};
+
+    private long[] ids = new long[1024];
+    private int[] latitudes = new int[1024];
+    private int[] longitudes = new int[1024];
+    private final List<String> nomes = new ArrayList<>();
+    private int total;
+
+    public void adicionar(ContatoMarcador marcador) {
+        if (total == ids.length) {
+            ids = Arrays.copyOf(ids, total * 2);
+            latitudes = Arrays.copyOf(latitudes, total * 2);
+            longitudes = Arrays.copyOf(longitudes, total * 2);
+        }
+        ids[total] = marcador.id();
+        latitudes[total] = (int) Math.round(marcador.latitude() * ESCALA);
+        longitudes[total] = (int) Math.round(marcador.longitude() * ESCALA);
+        nomes.add(marcador.nome());
+        total++;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void escreverJson(JsonFactory jsonFactory, OutputStream out) throws IOException {
+        try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+            // Quem fecha a resposta é o container
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeNumberField("precisao", PRECISAO);
+            json.writeNumberField("total", total);
+
+            json.writeArrayFieldStart("ids");
+            long anterior = 0;
+            for (int i = 0; i < total; i++) {
+                json.writeNumber(ids[i] - anterior);
+                anterior = ids[i];
+            }
+            json.writeEndArray();
+
+            escreverDiferencasJson(json, "lat", latitudes);
+            escreverDiferencasJson(json, "lng", longitudes);
+
+            json.writeArrayFieldStart("nomes");
+            for (String nome : nomes) {
+                json.writeString(nome);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    public void escreverBinario(OutputStream out) throws IOException {
+        DataOutputStream dados = new DataOutputStream(out);
+        dados.write(ASSINATURA);
+        dados.writeByte(PRECISAO);
+        escreverVarint(dados, total);
+
+        long anterior = 0;
+        for (int i = 0; i < total; i++) {
+            escreverVarint(dados, zigzag(ids[i] - anterior));
+            anterior = ids[i];
+        }
+        escreverDiferencasBinario(dados, latitudes);
+        escreverDiferencasBinario(dados, longitudes);
+
+        for (String nome : nomes) {
+            byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+            escreverVarint(dados, bytes.length);
+            dados.write(bytes);
+        }
+        dados.flush();
+    }
+
+    private void escreverDiferencasJson(JsonGenerator json, String campo, int[] valores) throws IOException {
+        json.writeArrayFieldStart(campo);
+        int anterior = 0;
+        for (int i = 0; i < total; i++) {
+            json.writeNumber(valores[i] - anterior);
+            anterior = valores[i];
+        }
+        json.writeEndArray();
+    }
+
+    private void escreverDiferencasBinario(DataOutputStream dados, int[] valores) throws IOException {
+        int anterior = 0;
+        for (int i = 0; i < total; i++) {
+            escreverVarint(dados, zigzag(valores[i] - anterior));
+            anterior = valores[i];
+        }
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static void escreverVarint(DataOutputStream dados, long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            dados.writeByte((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        dados.writeByte((int) valor);
+    }
+}
@@ -0,0 +1,38 @@
+package com.contatos.api.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Normalization of contact tags: trimmed, lower case, single spaces, no repetition, in order
+ *
+ * Tags never contain commas (the column delimiter) nor the LIKE wildcards % and _.
+ */
+public final class Tags {
+
+    public static final int MAXIMO = 20;
+    public static final String FORMATO = "\\s*[\\p{L}\\p{N}][\\p{L}\\p{N} -]{0,29}\\s*";
+
+    private Tags() {
+        // Utility class
+    }
+
+    public static String normalizar(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    public static List<String> normalizar(Collection<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream()
+                .filter(Objects::nonNull)
+                .map(Tags::normalizar)
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+}
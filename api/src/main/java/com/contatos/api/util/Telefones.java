@@ -0,0 +1,70 @@
+package com.contatos.api.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalization of contact phones for indexed lookup
+ *
+ * - E.164 digits (no "+"): numbers written with "+" keep their country code; national numbers
+ *   lose the trunk zero and, with area code (10 or 11 digits), get Brazil's code 55
+ * - Numbers without area code or in unknown formats have no E.164 form
+ * - Reversed digits (of the E.164 form, or of the plain digits when there is none) turn a suffix
+ *   search into a prefix range, so a local number finds the full one through an index
+ *
+ * The migration V7 applies the same rules to the contacts written before these columns existed.
+ */
+public final class Telefones {
+
+    public static final int DIGITOS_MINIMOS = 8;
+    public static final int DIGITOS_MAXIMOS = 15;
+
+    private static final String DDI_BRASIL = "55";
+    private static final Pattern NAO_DIGITOS = Pattern.compile("\\D+");
+
+    private Telefones() {
+        // Utility class
+    }
+
+    /**
+     * E.164 digits of a phone, or null if it has no area code or an unknown format
+     */
+    public static String normalizar(String telefone) {
+        if (telefone == null) {
+            return null;
+        }
+        String digitos = digitos(telefone);
+        if (telefone.strip().startsWith("+")) {
+            return digitos.length() >= DIGITOS_MINIMOS && digitos.length() <= DIGITOS_MAXIMOS ? digitos : null;
+        }
+        if (digitos.startsWith("0")) {
+            digitos = digitos.substring(1);
+        }
+        if (digitos.length() == 10 || digitos.length() == 11) {
+            return DDI_BRASIL + digitos;
+        }
+        if ((digitos.length() == 12 || digitos.length() == 13) && digitos.startsWith(DDI_BRASIL)) {
+            return digitos;
+        }
+        return null;
+    }
+
+    /**
+     * Reversed digits of the E.164 form, or of the plain digits when there is none; null if the
+     * phone has too few or too many digits to be searched
+     */
+    public static String reverso(String telefone) {
+        if (telefone == null) {
+            return null;
+        }
+        String normalizado = normalizar(telefone);
+        String base = normalizado != null ? normalizado : digitos(telefone);
+        if (base.length() < DIGITOS_MINIMOS || base.length() > DIGITOS_MAXIMOS) {
+            return null;
+        }
+        return new StringBuilder(base).reverse().toString();
+    }
+
+    public static String digitos(String telefone) {
+        return NAO_DIGITOS.matcher(telefone).replaceAll("");
+    }
+}
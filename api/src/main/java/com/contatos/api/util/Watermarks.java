@@ -0,0 +1,68 @@
+package com.contatos.api.util;
+
+import com.contatos.api.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque delta sync watermarks
+ *
+ * The token wraps the user's collection version (ContatosVersao) so clients don't depend on it
+ * being a counter and it can change representation later. A sync page cut in the middle of a
+ * version also carries the last contact ID sent, so the next page resumes right after it.
+ */
+public class Watermarks {
+
+    private static final String PREFIXO = "v1:";
+
+    private Watermarks() {
+        // Utility class
+    }
+
+    /**
+     * Position in the user's change log: every change up to (versao, aposId) was sent
+     *
+     * @param aposId last contact ID sent of that version, or {@link Long#MAX_VALUE} for the whole version
+     */
+    public record Posicao(long versao, long aposId) {
+
+        public boolean versaoCompleta() {
+            return aposId == Long.MAX_VALUE;
+        }
+    }
+
+    public static String encode(long versao) {
+        return codificar(PREFIXO + versao);
+    }
+
+    public static String encode(Posicao posicao) {
+        return posicao.versaoCompleta()
+                ? encode(posicao.versao())
+                : codificar(PREFIXO + posicao.versao() + ":" + posicao.aposId());
+    }
+
+    /**
+     * @throws BusinessException if the token wasn't produced by one of the encode methods
+     */
+    public static Posicao decode(String watermark) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.US_ASCII);
+            if (valor.startsWith(PREFIXO)) {
+                String[] partes = valor.substring(PREFIXO.length()).split(":", -1);
+                long versao = Long.parseLong(partes[0]);
+                long aposId = partes.length == 2 ? Long.parseLong(partes[1]) : Long.MAX_VALUE;
+                if (versao >= 0 && aposId >= 0 && partes.length <= 2) {
+                    return new Posicao(versao, aposId);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 or number malformed; NumberFormatException is an IllegalArgumentException
+        }
+        throw new BusinessException("Watermark inválido");
+    }
+
+    private static String codificar(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,16 @@
+-- O índice (usuario_id, estado, cidade, bairro) só atende filtros que começam por estado. Filtros só por
+-- cidade (com ou sem bairro) e só por bairro ganham índices próprios, também com usuario_id na frente.
+-- Na tabela particionada (V8) o índice criado na tabela pai vale para todas as partições.
+-- Em bancos novos a tabela ainda não existe e é criada pelo Hibernate com os mesmos índices.
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+    ) THEN
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_cidade ON contatos (usuario_id, cidade, bairro);
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_bairro ON contatos (usuario_id, bairro);
+    END IF;
+END $$;
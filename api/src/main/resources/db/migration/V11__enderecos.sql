@@ -0,0 +1,48 @@
+-- Tabela de endereços compartilhados (entidade Endereco), ligação dos contatos a ela e arrendamento
+-- da vinculação dos contatos antigos, para não depender do ddl-auto em produção.
+-- Em bancos novos a V8 já criou contatos com endereco_id; aqui entram a tabela, a chave estrangeira
+-- (mesmo nome da entidade Contato) e o índice parcial que a vinculação percorre por ordem de id.
+CREATE TABLE IF NOT EXISTS enderecos (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    chave            VARCHAR(64)   NOT NULL,
+    cep              VARCHAR(8)    NOT NULL,
+    logradouro       VARCHAR(255)  NOT NULL,
+    numero           VARCHAR(255)  NOT NULL,
+    bairro           VARCHAR(255)  NOT NULL,
+    cidade           VARCHAR(255)  NOT NULL,
+    estado           VARCHAR(2)    NOT NULL,
+    latitude         FLOAT(53),
+    longitude        FLOAT(53),
+    geocodificado_em TIMESTAMP(6),
+    CONSTRAINT uk_enderecos_chave UNIQUE (chave)
+);
+
+CREATE TABLE IF NOT EXISTS arrendamentos (
+    nome          VARCHAR(64) PRIMARY KEY,
+    executor      VARCHAR(36),
+    arrendado_ate TIMESTAMP(6)
+);
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+    ) THEN
+        ALTER TABLE contatos ADD COLUMN IF NOT EXISTS endereco_id BIGINT;
+        IF NOT EXISTS (
+            SELECT 1
+            FROM pg_constraint
+            WHERE conrelid = 'contatos'::regclass
+              AND contype = 'f'
+              AND conname = 'fk_contatos_endereco'
+        ) THEN
+            ALTER TABLE contatos ADD CONSTRAINT fk_contatos_endereco
+                FOREIGN KEY (endereco_id) REFERENCES enderecos (id);
+        END IF;
+        -- Só os contatos ainda sem endereço; o índice encolhe à medida que a vinculação avança
+        CREATE INDEX IF NOT EXISTS idx_contatos_sem_endereco ON contatos (id) WHERE endereco_id IS NULL;
+    END IF;
+END $$;
@@ -0,0 +1,15 @@
+-- Histórico de alterações de contatos (entidade ContatoAuditoria), somente inserção: criado aqui para não depender
+-- do ddl-auto em produção. Sem chave estrangeira para contatos, porque o histórico sobrevive à exclusão do contato.
+CREATE TABLE IF NOT EXISTS contatos_auditoria (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    usuario_id    BIGINT         NOT NULL,
+    contato_id    BIGINT         NOT NULL,
+    tipo          VARCHAR(10)    NOT NULL,
+    versao        BIGINT,
+    sincronizacao BIGINT         NOT NULL,
+    ocorrido_em   TIMESTAMP(6)   NOT NULL,
+    gravado_em    TIMESTAMP(6)   NOT NULL,
+    dados         VARCHAR(4000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_contatos_auditoria_usuario_contato ON contatos_auditoria (usuario_id, contato_id, id);
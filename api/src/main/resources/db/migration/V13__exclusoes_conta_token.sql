@@ -0,0 +1,3 @@
+-- Hash (SHA-256) do token que dá acesso ao progresso da exclusão de conta. Exclusões anteriores ficam sem token
+-- e deixam de ser consultáveis. Em bancos novos a tabela ainda não existe e é criada pelo Hibernate.
+ALTER TABLE IF EXISTS exclusoes_conta ADD COLUMN IF NOT EXISTS token_hash VARCHAR(64);
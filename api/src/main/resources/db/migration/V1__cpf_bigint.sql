@@ -0,0 +1,16 @@
+-- CPF passa a ser armazenado como BIGINT (11 dígitos empacotados, ver Cpf/CpfConverter).
+-- Em bancos novos a tabela ainda não existe e é criada pelo Hibernate já com o tipo correto.
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+          AND column_name = 'cpf'
+          AND data_type <> 'bigint'
+    ) THEN
+        -- A conversão reescreve a tabela e recria o índice único (cpf, usuario_id) com 8 bytes por chave
+        ALTER TABLE contatos ALTER COLUMN cpf TYPE BIGINT USING cpf::BIGINT;
+    END IF;
+END $$;
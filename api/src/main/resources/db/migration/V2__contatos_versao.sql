@@ -0,0 +1,22 @@
+-- Versionamento para ETags/If-Match: versão por contato (@Version) e versão da coleção por usuário.
+-- Em bancos novos as tabelas ainda não existem e são criadas pelo Hibernate.
+ALTER TABLE IF EXISTS contatos ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS contatos_versoes (
+    usuario_id BIGINT PRIMARY KEY,
+    versao     BIGINT NOT NULL
+);
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'usuarios'
+    ) THEN
+        INSERT INTO contatos_versoes (usuario_id, versao)
+        SELECT id, 0 FROM usuarios
+        ON CONFLICT (usuario_id) DO NOTHING;
+    END IF;
+END $$;
@@ -0,0 +1,17 @@
+-- Sincronização delta: cada contato guarda a versão da coleção da sua última escrita.
+-- Contatos existentes ficam com 0 e entram na carga inicial (sem watermark).
+-- Em bancos novos as tabelas ainda não existem e são criadas pelo Hibernate.
+ALTER TABLE IF EXISTS contatos ADD COLUMN IF NOT EXISTS sincronizacao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE IF EXISTS contatos_versoes ADD COLUMN IF NOT EXISTS versao_minima BIGINT NOT NULL DEFAULT 0;
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+    ) THEN
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_sincronizacao ON contatos (usuario_id, sincronizacao, id);
+    END IF;
+END $$;
@@ -0,0 +1,35 @@
+-- Geohash inteiro das coordenadas (26 bits de longitude e 26 de latitude intercalados, ver GeoHash)
+-- para as consultas por raio e por área usarem o índice (usuario_id, geohash).
+-- Em bancos novos a tabela ainda não existe e é criada pelo Hibernate.
+CREATE OR REPLACE FUNCTION contatos_geohash(latitude DOUBLE PRECISION, longitude DOUBLE PRECISION)
+RETURNS BIGINT AS $$
+DECLARE
+    lat_idx BIGINT := LEAST(GREATEST(FLOOR((latitude + 90.0) / 180.0 * 67108864.0), 0), 67108863)::BIGINT;
+    lng_idx BIGINT := LEAST(GREATEST(FLOOR((longitude + 180.0) / 360.0 * 67108864.0), 0), 67108863)::BIGINT;
+    hash BIGINT := 0;
+BEGIN
+    FOR i IN 0..25 LOOP
+        hash := hash
+            | (((lat_idx >> i) & 1) << (2 * i))
+            | (((lng_idx >> i) & 1) << (2 * i + 1));
+    END LOOP;
+    RETURN hash;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+    ) THEN
+        ALTER TABLE contatos ADD COLUMN IF NOT EXISTS geohash BIGINT;
+        UPDATE contatos SET geohash = contatos_geohash(latitude, longitude) WHERE geohash IS NULL;
+        ALTER TABLE contatos ALTER COLUMN geohash SET NOT NULL;
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_geohash ON contatos (usuario_id, geohash);
+    END IF;
+END $$;
+
+DROP FUNCTION contatos_geohash(DOUBLE PRECISION, DOUBLE PRECISION);
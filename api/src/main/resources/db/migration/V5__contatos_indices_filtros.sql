@@ -0,0 +1,17 @@
+-- Índices compostos dos filtros da listagem, sempre com usuario_id na frente:
+-- estado/cidade/bairro (também atendem a contagem agrupada das facetas), faixa de CEP e datas.
+-- Em bancos novos a tabela ainda não existe e é criada pelo Hibernate com os mesmos índices.
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+    ) THEN
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_local ON contatos (usuario_id, estado, cidade, bairro);
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_cep ON contatos (usuario_id, cep);
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_criacao ON contatos (usuario_id, created_at);
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_atualizacao ON contatos (usuario_id, updated_at);
+    END IF;
+END $$;
@@ -0,0 +1,38 @@
+-- Estatísticas por usuário mantidas por deltas a cada escrita: total por estado/cidade e
+-- criados/excluídos por mês. Preenchidas aqui com a contagem dos contatos existentes; os meses
+-- anteriores contam só os contatos que ainda existem (exclusões passadas não foram registradas).
+CREATE TABLE IF NOT EXISTS contatos_estatisticas (
+    usuario_id BIGINT       NOT NULL,
+    estado     VARCHAR(2)   NOT NULL,
+    cidade     VARCHAR(255) NOT NULL,
+    total      BIGINT       NOT NULL,
+    PRIMARY KEY (usuario_id, estado, cidade)
+);
+
+CREATE TABLE IF NOT EXISTS contatos_estatisticas_mensais (
+    usuario_id BIGINT NOT NULL,
+    mes        DATE   NOT NULL,
+    criados    BIGINT NOT NULL,
+    excluidos  BIGINT NOT NULL,
+    PRIMARY KEY (usuario_id, mes)
+);
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+    ) THEN
+        INSERT INTO contatos_estatisticas (usuario_id, estado, cidade, total)
+        SELECT usuario_id, estado, cidade, COUNT(*) FROM contatos
+        GROUP BY usuario_id, estado, cidade
+        ON CONFLICT (usuario_id, estado, cidade) DO NOTHING;
+
+        INSERT INTO contatos_estatisticas_mensais (usuario_id, mes, criados, excluidos)
+        SELECT usuario_id, CAST(date_trunc('month', created_at) AS DATE), COUNT(*), 0 FROM contatos
+        GROUP BY usuario_id, CAST(date_trunc('month', created_at) AS DATE)
+        ON CONFLICT (usuario_id, mes) DO NOTHING;
+    END IF;
+END $$;
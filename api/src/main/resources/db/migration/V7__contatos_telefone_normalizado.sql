@@ -0,0 +1,46 @@
+-- Telefone em dígitos E.164 e dígitos invertidos (para busca por sufixo), com as mesmas regras de Telefones:
+-- com "+" mantém o DDI; sem ele perde o zero de tronco e, com DDD (10 ou 11 dígitos), ganha o 55.
+-- Em bancos novos a tabela ainda não existe e é criada pelo Hibernate.
+CREATE OR REPLACE FUNCTION contatos_telefone_normalizado(telefone TEXT)
+RETURNS TEXT AS $$
+DECLARE
+    digitos TEXT := regexp_replace(telefone, '\D', '', 'g');
+BEGIN
+    IF btrim(telefone) LIKE '+%' THEN
+        RETURN CASE WHEN length(digitos) BETWEEN 8 AND 15 THEN digitos END;
+    END IF;
+    IF digitos LIKE '0%' THEN
+        digitos := substr(digitos, 2);
+    END IF;
+    IF length(digitos) IN (10, 11) THEN
+        RETURN '55' || digitos;
+    END IF;
+    IF length(digitos) IN (12, 13) AND digitos LIKE '55%' THEN
+        RETURN digitos;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+    ) THEN
+        ALTER TABLE contatos ADD COLUMN IF NOT EXISTS telefone_normalizado VARCHAR(15);
+        ALTER TABLE contatos ADD COLUMN IF NOT EXISTS telefone_reverso VARCHAR(15);
+        UPDATE contatos SET telefone_normalizado = contatos_telefone_normalizado(telefone)
+        WHERE telefone_normalizado IS NULL;
+        UPDATE contatos
+        SET telefone_reverso = reverse(COALESCE(telefone_normalizado, regexp_replace(telefone, '\D', '', 'g')))
+        WHERE telefone_reverso IS NULL
+          AND length(COALESCE(telefone_normalizado, regexp_replace(telefone, '\D', '', 'g'))) BETWEEN 8 AND 15;
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_telefone ON contatos (usuario_id, telefone_normalizado);
+        CREATE INDEX IF NOT EXISTS idx_contatos_usuario_telefone_reverso ON contatos (usuario_id, telefone_reverso);
+    END IF;
+END $$;
+
+DROP FUNCTION contatos_telefone_normalizado(TEXT);
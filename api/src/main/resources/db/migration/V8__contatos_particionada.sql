@@ -0,0 +1,191 @@
+-- Tabela contatos particionada por hash de usuario_id em 16 partições: toda consulta da API filtra por
+-- usuario_id e lê uma única partição, e vacuum e inchaço de índices ficam restritos a 1/16 dos dados.
+-- A chave de partição precisa fazer parte da chave primária e das restrições únicas, por isso a chave
+-- primária passa a (id, usuario_id); o id continua único por vir de uma sequência.
+-- Em bancos novos a tabela é criada aqui, já particionada (o Hibernate só acrescenta as chaves estrangeiras).
+-- Em bancos existentes a tabela nova é montada ao lado (contatos_nova), com as mesmas colunas, partições,
+-- restrições e índices; um gatilho espelha nela cada escrita feita na tabela antiga, e as linhas existentes são
+-- copiadas em lotes por ordem de id, cada lote na sua própria transação. Só a troca final de nomes roda sob lock
+-- exclusivo, sem copiar dados. Roda fora de transação (ver .sql.conf) para poder confirmar cada lote; exige
+-- PostgreSQL 11 ou superior. Se for interrompida, a próxima execução descarta a contatos_nova e recomeça a cópia.
+DO $$
+DECLARE
+    tamanho_lote CONSTANT INTEGER := 10000;
+    ultimo_id    BIGINT := 0;
+    proximo_id   BIGINT;
+    sequencia    TEXT;
+    indice       RECORD;
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.tables
+        WHERE table_schema = current_schema()
+          AND table_name = 'contatos'
+    ) THEN
+        CREATE TABLE contatos (
+            id                   BIGINT        NOT NULL,
+            nome                 VARCHAR(255)  NOT NULL,
+            cpf                  BIGINT        NOT NULL,
+            telefone             VARCHAR(255)  NOT NULL,
+            telefone_normalizado VARCHAR(15),
+            telefone_reverso     VARCHAR(15),
+            cep                  VARCHAR(8)    NOT NULL,
+            logradouro           VARCHAR(255)  NOT NULL,
+            numero               VARCHAR(255)  NOT NULL,
+            complemento          VARCHAR(255),
+            bairro               VARCHAR(255)  NOT NULL,
+            cidade               VARCHAR(255)  NOT NULL,
+            estado               VARCHAR(2)    NOT NULL,
+            tags                 VARCHAR(1000),
+            latitude             FLOAT(53)     NOT NULL,
+            longitude            FLOAT(53)     NOT NULL,
+            geohash              BIGINT        NOT NULL,
+            usuario_id           BIGINT        NOT NULL,
+            endereco_id          BIGINT,
+            versao               BIGINT        NOT NULL,
+            sincronizacao        BIGINT        NOT NULL,
+            created_at           TIMESTAMP(6)  NOT NULL,
+            updated_at           TIMESTAMP(6)  NOT NULL
+        ) PARTITION BY HASH (usuario_id);
+
+        CREATE SEQUENCE contatos_id_seq OWNED BY contatos.id;
+        ALTER TABLE contatos ALTER COLUMN id SET DEFAULT nextval('contatos_id_seq');
+
+        FOR resto IN 0..15 LOOP
+            EXECUTE format('CREATE TABLE contatos_p%s PARTITION OF contatos FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                    lpad(resto::TEXT, 2, '0'), resto);
+        END LOOP;
+
+        -- Índices criados na tabela particionada valem para todas as partições (mesmos nomes da entidade Contato)
+        ALTER TABLE contatos ADD CONSTRAINT contatos_pkey PRIMARY KEY (id, usuario_id);
+        ALTER TABLE contatos ADD CONSTRAINT uk_contatos_cpf_usuario UNIQUE (cpf, usuario_id);
+        CREATE INDEX idx_contatos_usuario_nome ON contatos (usuario_id, nome);
+        CREATE INDEX idx_contatos_usuario_sincronizacao ON contatos (usuario_id, sincronizacao, id);
+        CREATE INDEX idx_contatos_usuario_geohash ON contatos (usuario_id, geohash);
+        CREATE INDEX idx_contatos_usuario_local ON contatos (usuario_id, estado, cidade, bairro);
+        CREATE INDEX idx_contatos_usuario_cep ON contatos (usuario_id, cep);
+        CREATE INDEX idx_contatos_usuario_criacao ON contatos (usuario_id, created_at);
+        CREATE INDEX idx_contatos_usuario_atualizacao ON contatos (usuario_id, updated_at);
+        CREATE INDEX idx_contatos_usuario_telefone ON contatos (usuario_id, telefone_normalizado);
+        CREATE INDEX idx_contatos_usuario_telefone_reverso ON contatos (usuario_id, telefone_reverso);
+
+        RETURN;
+    END IF;
+
+    -- Tabela já particionada: nada a converter
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_class c
+        JOIN pg_namespace n ON n.oid = c.relnamespace
+        WHERE n.nspname = current_schema()
+          AND c.relname = 'contatos'
+          AND c.relkind = 'r'
+    ) THEN
+        RETURN;
+    END IF;
+
+    DROP TRIGGER IF EXISTS contatos_espelhar ON contatos;
+    DROP TABLE IF EXISTS contatos_nova;
+
+    -- O default do id aponta para a sequência da tabela antiga; a nova ganha a sua na troca
+    CREATE TABLE contatos_nova (LIKE contatos INCLUDING DEFAULTS) PARTITION BY HASH (usuario_id);
+    ALTER TABLE contatos_nova ALTER COLUMN id DROP DEFAULT;
+
+    FOR resto IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE contatos_nova_p%s PARTITION OF contatos_nova FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                lpad(resto::TEXT, 2, '0'), resto);
+    END LOOP;
+
+    -- Restrições criadas com a tabela vazia validam na hora; os nomes definitivos vêm na troca
+    ALTER TABLE contatos_nova ADD CONSTRAINT contatos_nova_pkey PRIMARY KEY (id, usuario_id);
+    ALTER TABLE contatos_nova ADD CONSTRAINT uk_contatos_cpf_usuario_nova UNIQUE (cpf, usuario_id);
+    IF to_regclass('usuarios') IS NOT NULL THEN
+        ALTER TABLE contatos_nova ADD CONSTRAINT fk_contatos_usuario
+            FOREIGN KEY (usuario_id) REFERENCES usuarios (id);
+    END IF;
+    IF to_regclass('enderecos') IS NOT NULL THEN
+        ALTER TABLE contatos_nova ADD CONSTRAINT fk_contatos_endereco
+            FOREIGN KEY (endereco_id) REFERENCES enderecos (id);
+    END IF;
+
+    -- Os mesmos índices da tabela antiga (os das migrations anteriores e os do ddl-auto), com sufixo _nova
+    FOR indice IN
+        SELECT c.relname AS nome, pg_get_indexdef(i.indexrelid) AS definicao
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE i.indrelid = 'contatos'::regclass
+          AND NOT EXISTS (SELECT 1 FROM pg_constraint k WHERE k.conindid = i.indexrelid)
+    LOOP
+        EXECUTE regexp_replace(
+                replace(indice.definicao, 'INDEX ' || indice.nome || ' ON', 'INDEX ' || indice.nome || '_nova ON'),
+                ' ON (\S+\.)?contatos USING ', ' ON \1contatos_nova USING ');
+    END LOOP;
+
+    CREATE OR REPLACE FUNCTION contatos_espelhar() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $espelhar$
+    BEGIN
+        IF TG_OP IN ('UPDATE', 'DELETE') THEN
+            DELETE FROM contatos_nova WHERE id = OLD.id AND usuario_id = OLD.usuario_id;
+        END IF;
+        IF TG_OP IN ('INSERT', 'UPDATE') THEN
+            INSERT INTO contatos_nova SELECT (NEW).*;
+        END IF;
+        RETURN NULL;
+    END
+    $espelhar$;
+
+    CREATE TRIGGER contatos_espelhar
+        AFTER INSERT OR UPDATE OR DELETE ON contatos
+        FOR EACH ROW EXECUTE FUNCTION contatos_espelhar();
+    COMMIT;
+
+    -- Cópia em lotes: FOR SHARE segura as linhas do lote até o commit, e uma escrita concorrente espera e é espelhada
+    -- depois; linhas que o gatilho já espelhou ficam como estão
+    LOOP
+        WITH lote AS (
+            SELECT * FROM contatos WHERE id > ultimo_id ORDER BY id LIMIT tamanho_lote FOR SHARE
+        ), copia AS (
+            INSERT INTO contatos_nova SELECT * FROM lote ON CONFLICT DO NOTHING
+        )
+        SELECT MAX(id) INTO proximo_id FROM lote;
+        COMMIT;
+        EXIT WHEN proximo_id IS NULL;
+        ultimo_id := proximo_id;
+    END LOOP;
+
+    -- Troca: as duas tabelas já têm as mesmas linhas, então o lock exclusivo dura só a renomeação
+    LOCK TABLE contatos, contatos_nova IN ACCESS EXCLUSIVE MODE;
+    -- Ids de contatos excluídos não voltam a ser usados: a sequência segue de onde a antiga parou
+    SELECT COALESCE(MAX(id), 0) + 1 INTO proximo_id FROM contatos;
+    sequencia := pg_get_serial_sequence('contatos', 'id');
+    IF sequencia IS NOT NULL THEN
+        EXECUTE format('SELECT GREATEST(%s, last_value + 1) FROM %s', proximo_id, sequencia) INTO proximo_id;
+    END IF;
+    -- Remove junto o gatilho e a sequência do id (identity ou serial) da tabela antiga
+    DROP TABLE contatos;
+    DROP FUNCTION contatos_espelhar();
+
+    ALTER TABLE contatos_nova RENAME TO contatos;
+    CREATE SEQUENCE contatos_id_seq OWNED BY contatos.id;
+    PERFORM setval('contatos_id_seq', proximo_id, false);
+    ALTER TABLE contatos ALTER COLUMN id SET DEFAULT nextval('contatos_id_seq');
+
+    FOR resto IN 0..15 LOOP
+        EXECUTE format('ALTER TABLE contatos_nova_p%s RENAME TO contatos_p%s',
+                lpad(resto::TEXT, 2, '0'), lpad(resto::TEXT, 2, '0'));
+    END LOOP;
+    ALTER TABLE contatos RENAME CONSTRAINT contatos_nova_pkey TO contatos_pkey;
+    ALTER TABLE contatos RENAME CONSTRAINT uk_contatos_cpf_usuario_nova TO uk_contatos_cpf_usuario;
+    FOR indice IN
+        SELECT c.relname AS nome
+        FROM pg_index i
+        JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE i.indrelid = 'contatos'::regclass
+          AND c.relname LIKE '%\_nova'
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', indice.nome, left(indice.nome, -5));
+    END LOOP;
+    COMMIT;
+END $$;
+
+ANALYZE contatos;
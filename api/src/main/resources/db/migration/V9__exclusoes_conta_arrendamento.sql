@@ -0,0 +1,4 @@
+-- Arrendamento dos expurgos de conta: o nó que executa o expurgo e até quando o arrendamento vale.
+-- Em bancos novos a tabela ainda não existe e é criada pelo Hibernate.
+ALTER TABLE IF EXISTS exclusoes_conta ADD COLUMN IF NOT EXISTS executor VARCHAR(36);
+ALTER TABLE IF EXISTS exclusoes_conta ADD COLUMN IF NOT EXISTS arrendada_ate TIMESTAMP(6);
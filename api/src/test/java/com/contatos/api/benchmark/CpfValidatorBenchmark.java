@@ -0,0 +1,91 @@
+package com.contatos.api.benchmark;
+
+import com.contatos.api.model.Cpf;
+import com.contatos.api.util.CpfValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison between the previous regex-based CPF validation and the single-pass packed parser
+ *
+ * Run with:
+ * ./mvnw test-compile exec:exec -Djmh.benchmark=com.contatos.api.benchmark.CpfValidatorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CpfValidatorBenchmark {
+
+    private final String[] cpfs = {
+        "11144477735", "12345678909", "52998224725", "84434895028",
+        "12345678901", "11111111111", "1234567890a", "123"
+    };
+
+    @Benchmark
+    public void regexValidator(Blackhole bh) {
+        for (String cpf : cpfs) {
+            bh.consume(legacyIsValid(cpf));
+        }
+    }
+
+    @Benchmark
+    public void packedValidator(Blackhole bh) {
+        for (String cpf : cpfs) {
+            bh.consume(CpfValidator.isValid(cpf));
+        }
+    }
+
+    @Benchmark
+    public void packedParse(Blackhole bh) {
+        for (String cpf : cpfs) {
+            bh.consume(Cpf.pack(cpf));
+        }
+    }
+
+    /**
+     * Previous implementation, kept here only as the benchmark baseline
+     */
+    private static boolean legacyIsValid(String cpf) {
+        if (cpf == null || !cpf.matches("\\d{11}")) {
+            return false;
+        }
+        if (cpf.matches("(\\d)\\1{10}")) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
+        }
+        int firstDigit = 11 - (sum % 11);
+        if (firstDigit >= 10) {
+            firstDigit = 0;
+        }
+        sum = 0;
+        for (int i = 0; i < 10; i++) {
+            sum += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
+        }
+        int secondDigit = 11 - (sum % 11);
+        if (secondDigit >= 10) {
+            secondDigit = 0;
+        }
+        return Character.getNumericValue(cpf.charAt(9)) == firstDigit &&
+               Character.getNumericValue(cpf.charAt(10)) == secondDigit;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CpfValidatorBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,183 @@
+package com.contatos.api.benchmark;
+
+import com.contatos.api.util.GeoHash;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Radius query ("contacts within 5 km, nearest first") over a single large contact book
+ *
+ * - geohash: the queries issued by ContatoRepositoryImpl.findProximos, one range scan of the
+ *   (usuario_id, geohash) index per covering cell (at most 4), merged by distance
+ * - varredura: the same filter without the geohash ranges, i.e. every row of the user is read
+ *   and the haversine term evaluated
+ *
+ * Plain JDBC on an H2 in-memory database with the same columns and indexes as production.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:exec -Djmh.benchmark=com.contatos.api.benchmark.GeoConsultaBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoConsultaBenchmark {
+
+    private static final long USUARIO = 1L;
+    private static final double RAIO_KM = 5;
+    private static final String DISTANCIA = "(POWER(SIN((RADIANS(latitude) - ?) / 2), 2) "
+            + "+ ? * COS(RADIANS(latitude)) * POWER(SIN((RADIANS(longitude) - ?) / 2), 2))";
+
+    @Param({"100000", "1000000"})
+    public int contatos;
+
+    private Connection connection;
+    private double[][] centros;
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:geo-" + contatos + ";DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE contatos (id BIGINT PRIMARY KEY, usuario_id BIGINT NOT NULL, "
+                    + "latitude DOUBLE PRECISION NOT NULL, longitude DOUBLE PRECISION NOT NULL, geohash BIGINT NOT NULL)");
+        }
+
+        // Pontos espalhados pelo território brasileiro
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO contatos VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < contatos; i++) {
+                double lat = -33 + random.nextDouble() * 38;
+                double lng = -73 + random.nextDouble() * 39;
+                insert.setLong(1, i);
+                insert.setLong(2, USUARIO);
+                insert.setDouble(3, lat);
+                insert.setDouble(4, lng);
+                insert.setLong(5, GeoHash.encode(lat, lng));
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_contatos_usuario_geohash ON contatos (usuario_id, geohash)");
+            statement.execute("ANALYZE");
+        }
+
+        centros = new double[1024][];
+        for (int i = 0; i < centros.length; i++) {
+            centros[i] = new double[] {-33 + random.nextDouble() * 38, -73 + random.nextDouble() * 39};
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void geohash(Blackhole bh) throws SQLException {
+        double[] centro = centros[proximo++ & (centros.length - 1)];
+        double lat = centro[0];
+        double lng = centro[1];
+        double dLat = Math.toDegrees(RAIO_KM / GeoHash.RAIO_TERRA_KM);
+        double dLng = dLat / Math.cos(Math.toRadians(lat));
+        String sql = "SELECT id, latitude, longitude FROM contatos WHERE usuario_id = ? AND geohash BETWEEN ? AND ? "
+                + "AND latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ? AND " + DISTANCIA + " <= ? "
+                + "ORDER BY " + DISTANCIA + ", id LIMIT 20";
+
+        // Uma varredura de intervalo do índice por célula; os candidatos são ordenados pela distância
+        List<double[]> candidatos = new ArrayList<>();
+        for (GeoHash.Intervalo intervalo : GeoHash.cobrir(lat - dLat, lng - dLng, lat + dLat, lng + dLng)) {
+            try (PreparedStatement query = connection.prepareStatement(sql)) {
+                query.setLong(1, USUARIO);
+                query.setLong(2, intervalo.min());
+                query.setLong(3, intervalo.max());
+                query.setDouble(4, lat - dLat);
+                query.setDouble(5, lat + dLat);
+                query.setDouble(6, lng - dLng);
+                query.setDouble(7, lng + dLng);
+                int p = distancia(query, 8, lat, lng);
+                query.setDouble(p++, limite());
+                distancia(query, p, lat, lng);
+                try (ResultSet rs = query.executeQuery()) {
+                    while (rs.next()) {
+                        candidatos.add(new double[] {
+                            GeoHash.distanciaKm(lat, lng, rs.getDouble(2), rs.getDouble(3)), rs.getLong(1)});
+                    }
+                }
+            }
+        }
+        candidatos.sort(Comparator.comparingDouble((double[] c) -> c[0]).thenComparingDouble(c -> c[1]));
+        for (int i = 0; i < Math.min(20, candidatos.size()); i++) {
+            bh.consume(candidatos.get(i));
+        }
+    }
+
+    @Benchmark
+    public void varredura(Blackhole bh) throws SQLException {
+        double[] centro = centros[proximo++ & (centros.length - 1)];
+        String sql = "SELECT id FROM contatos WHERE usuario_id = ? AND " + DISTANCIA + " <= ? ORDER BY "
+                + DISTANCIA + ", id LIMIT 20";
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            query.setLong(1, USUARIO);
+            int p = distancia(query, 2, centro[0], centro[1]);
+            query.setDouble(p++, limite());
+            distancia(query, p, centro[0], centro[1]);
+            consumir(query, bh);
+        }
+    }
+
+    private static int distancia(PreparedStatement query, int p, double lat, double lng) throws SQLException {
+        query.setDouble(p++, Math.toRadians(lat));
+        query.setDouble(p++, Math.cos(Math.toRadians(lat)));
+        query.setDouble(p++, Math.toRadians(lng));
+        return p;
+    }
+
+    private static double limite() {
+        return Math.pow(Math.sin(RAIO_KM / GeoHash.RAIO_TERRA_KM / 2), 2);
+    }
+
+    private static void consumir(PreparedStatement query, Blackhole bh) throws SQLException {
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GeoConsultaBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
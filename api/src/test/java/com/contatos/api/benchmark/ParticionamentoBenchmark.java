@@ -0,0 +1,176 @@
+package com.contatos.api.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing and searching one user's contacts in a table partitioned by hash of usuario_id, as
+ * created by the V8 migration, against the same rows in a single table
+ *
+ * Needs a PostgreSQL database in CONTATOS_BENCHMARK_POSTGRES_URL (user and password from
+ * CONTATOS_BENCHMARK_POSTGRES_USERNAME / _PASSWORD, default postgres). The rows are generated once
+ * in the schema particionamento_benchmark and reused by later runs: 50 million contacts of 500
+ * thousand users by default (CONTATOS_BENCHMARK_LINHAS / CONTATOS_BENCHMARK_USUARIOS), which takes
+ * tens of GB of disk and a long first setup. Sample-time mode reports p99 per operation. The
+ * statements are those of the list (first page by name) and search (name or CPF) paths.
+ *
+ * Run with:
+ * CONTATOS_BENCHMARK_POSTGRES_URL=jdbc:postgresql://localhost:5432/contatos \
+ * ./mvnw test-compile exec:exec -Djmh.benchmark=com.contatos.api.benchmark.ParticionamentoBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(8)
+public class ParticionamentoBenchmark {
+
+    private static final String SCHEMA = "particionamento_benchmark";
+    private static final String COLUNAS = """
+            id         BIGINT       NOT NULL,
+            usuario_id BIGINT       NOT NULL,
+            nome       VARCHAR(255) NOT NULL,
+            cpf        BIGINT       NOT NULL,
+            telefone   VARCHAR(255) NOT NULL,
+            logradouro VARCHAR(255) NOT NULL,
+            cidade     VARCHAR(255) NOT NULL,
+            estado     VARCHAR(2)   NOT NULL,
+            created_at TIMESTAMP(6) NOT NULL
+            """;
+
+    @State(Scope.Benchmark)
+    public static class Dados {
+
+        @Param({"contatos_particionada", "contatos_monolitica"})
+        public String tabela;
+
+        long usuarios;
+
+        @Setup(Level.Trial)
+        public void gerar() throws SQLException {
+            long linhas = Long.parseLong(env("CONTATOS_BENCHMARK_LINHAS", "50000000"));
+            usuarios = Long.parseLong(env("CONTATOS_BENCHMARK_USUARIOS", "500000"));
+            try (Connection connection = conectar(); Statement statement = connection.createStatement()) {
+                statement.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+                statement.execute("SET search_path TO " + SCHEMA);
+                try (ResultSet rs = statement.executeQuery(
+                        "SELECT to_regclass('" + tabela + "') IS NOT NULL")) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        return;
+                    }
+                }
+                boolean particionada = tabela.equals("contatos_particionada");
+                statement.execute("CREATE TABLE " + tabela + " (" + COLUNAS + ")"
+                        + (particionada ? " PARTITION BY HASH (usuario_id)" : ""));
+                if (particionada) {
+                    for (int resto = 0; resto < 16; resto++) {
+                        statement.execute("CREATE TABLE %s_p%02d PARTITION OF %s FOR VALUES WITH (MODULUS 16, REMAINDER %d)"
+                                .formatted(tabela, resto, tabela, resto));
+                    }
+                }
+                // Mesmas linhas nas duas tabelas: a posição n define usuário, nome e CPF
+                System.out.printf("%nGerando %d contatos em %s.%s...%n", linhas, SCHEMA, tabela);
+                statement.execute("""
+                        INSERT INTO %s
+                        SELECT n, 1 + (hashint8(n) & 2147483647) %% %d, 'Contato ' || md5(n::TEXT), n,
+                               '41999887766', 'Rua ' || (n %% 1000), 'Curitiba', 'PR',
+                               TIMESTAMP '2020-01-01' + n * INTERVAL '1 second'
+                        FROM generate_series(1, %d) n
+                        """.formatted(tabela, usuarios, linhas));
+                statement.execute("ALTER TABLE " + tabela + " ADD PRIMARY KEY (id, usuario_id)");
+                statement.execute("CREATE INDEX ON " + tabela + " (usuario_id, nome)");
+                statement.execute("VACUUM ANALYZE " + tabela);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Sessao {
+
+        Connection connection;
+        PreparedStatement listar;
+        PreparedStatement buscar;
+
+        @Setup(Level.Trial)
+        public void conectar(Dados dados) throws SQLException {
+            connection = ParticionamentoBenchmark.conectar();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET search_path TO " + SCHEMA);
+            }
+            listar = connection.prepareStatement("SELECT * FROM " + dados.tabela
+                    + " WHERE usuario_id = ? ORDER BY nome LIMIT 10");
+            buscar = connection.prepareStatement("SELECT * FROM " + dados.tabela
+                    + " WHERE usuario_id = ? AND (LOWER(nome) LIKE ? OR LPAD(CAST(cpf AS VARCHAR), 11, '0') LIKE ?)"
+                    + " ORDER BY nome LIMIT 10");
+        }
+
+        @TearDown(Level.Trial)
+        public void fechar() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void listar(Dados dados, Sessao sessao, Blackhole blackhole) throws SQLException {
+        sessao.listar.setLong(1, usuarioAleatorio(dados));
+        consumir(sessao.listar, blackhole);
+    }
+
+    @Benchmark
+    public void buscar(Dados dados, Sessao sessao, Blackhole blackhole) throws SQLException {
+        String termo = "%" + Integer.toHexString(ThreadLocalRandom.current().nextInt(16)) + "a%";
+        sessao.buscar.setLong(1, usuarioAleatorio(dados));
+        sessao.buscar.setString(2, termo);
+        sessao.buscar.setString(3, termo);
+        consumir(sessao.buscar, blackhole);
+    }
+
+    private static long usuarioAleatorio(Dados dados) {
+        return 1 + ThreadLocalRandom.current().nextLong(dados.usuarios);
+    }
+
+    private static void consumir(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    private static Connection conectar() throws SQLException {
+        String url = System.getenv("CONTATOS_BENCHMARK_POSTGRES_URL");
+        if (url == null) {
+            throw new IllegalStateException("Defina CONTATOS_BENCHMARK_POSTGRES_URL com um banco PostgreSQL");
+        }
+        return DriverManager.getConnection(url, env("CONTATOS_BENCHMARK_POSTGRES_USERNAME", "postgres"),
+                env("CONTATOS_BENCHMARK_POSTGRES_PASSWORD", "postgres"));
+    }
+
+    // Variáveis de ambiente, e não propriedades de sistema, porque chegam também ao fork do JMH
+    private static String env(String nome, String padrao) {
+        String valor = System.getenv(nome);
+        return valor != null ? valor : padrao;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ParticionamentoBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.contatos.api.benchmark;
+
+import com.contatos.api.ApiApplication;
+import com.contatos.api.config.TestConfig;
+import com.contatos.api.dto.ContatoRequest;
+import com.contatos.api.dto.ContatoResponse;
+import com.contatos.api.dto.UsuarioRegistroRequest;
+import com.contatos.api.security.CustomUserDetailsService;
+import com.contatos.api.service.AuthService;
+import com.contatos.api.service.ContatoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-heavy request mix with and without the Hibernate second-level cache
+ *
+ * Each operation is what an authenticated GET /api/contatos/{id} does: the JWT filter loads the
+ * user by email and the service loads the contact. Besides the latency, the trial prints the
+ * average number of SQL statements per request, taken from Hibernate statistics.
+ *
+ * Run with:
+ * ./mvnw test-compile exec:exec -Djmh.benchmark=com.contatos.api.benchmark.SegundoNivelCacheBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegundoNivelCacheBenchmark {
+
+    private static final String EMAIL = "benchmark@example.com";
+    private static final String[] CPFS = {
+        "11144477735", "52998224725", "84434895028", "12345678909", "01234567890"
+    };
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext context;
+    private ContatoService contatoService;
+    private CustomUserDetailsService userDetailsService;
+    private Statistics statistics;
+    private final List<Long> ids = new ArrayList<>();
+    private long requisicoes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApiApplication.class, TestConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + cache,
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+        contatoService = context.getBean(ContatoService.class);
+        userDetailsService = context.getBean(CustomUserDetailsService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        context.getBean(AuthService.class).register(UsuarioRegistroRequest.builder()
+                .nome("Benchmark")
+                .email(EMAIL)
+                .senha("password123")
+                .build());
+        autenticar();
+        for (String cpf : CPFS) {
+            ContatoResponse contato = contatoService.createContato(ContatoRequest.builder()
+                    .nome("Contato " + cpf)
+                    .cpf(cpf)
+                    .telefone("41999887766")
+                    .cep("80010000")
+                    .logradouro("Rua José Loureiro")
+                    .numero("100")
+                    .bairro("Centro")
+                    .cidade("Curitiba")
+                    .estado("PR")
+                    .latitude(-25.4284)
+                    .longitude(-49.2733)
+                    .build());
+            ids.add(contato.getId());
+        }
+        statistics.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[cache=%s] consultas SQL por requisição: %.3f (acertos L2: %d, falhas L2: %d)%n",
+                cache, (double) statistics.getPrepareStatementCount() / requisicoes,
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+        context.close();
+    }
+
+    @Benchmark
+    public ContatoResponse requisicaoLeitura() {
+        autenticar();
+        userDetailsService.loadUserByUsername(EMAIL);
+        requisicoes++;
+        return contatoService.getContato(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    private void autenticar() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(EMAIL, null));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SegundoNivelCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
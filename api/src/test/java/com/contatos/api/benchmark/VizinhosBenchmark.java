@@ -0,0 +1,109 @@
+package com.contatos.api.benchmark;
+
+import com.contatos.api.cache.IndiceEspacial;
+import com.contatos.api.model.ContatoPonto;
+import com.contatos.api.util.ArvoreKd;
+import com.contatos.api.util.GeoHash;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k-nearest query ("my 10 contacts closest to here") over a single large contact book in memory
+ *
+ * - arvore: IndiceEspacial.vizinhos, i.e. the KD-tree of the user's spatial index
+ * - forcaBruta: haversine distance to every contact, keeping the k best in a bounded heap
+ * - construcao: building the KD-tree, the cost paid on the first query and on each rebuild
+ *
+ * Run with:
+ * ./mvnw test-compile exec:exec -Djmh.benchmark=com.contatos.api.benchmark.VizinhosBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VizinhosBenchmark {
+
+    private static final int K = 10;
+
+    @Param({"100000"})
+    public int contatos;
+
+    private long[] ids;
+    private double[] latitudes;
+    private double[] longitudes;
+    private IndiceEspacial indice;
+    private double[][] centros;
+    private int proximo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Pontos espalhados pelo território brasileiro
+        Random random = new Random(42);
+        ids = new long[contatos];
+        latitudes = new double[contatos];
+        longitudes = new double[contatos];
+        List<ContatoPonto> pontos = new ArrayList<>(contatos);
+        for (int i = 0; i < contatos; i++) {
+            ids[i] = i;
+            latitudes[i] = -33 + random.nextDouble() * 38;
+            longitudes[i] = -73 + random.nextDouble() * 39;
+            pontos.add(new ContatoPonto((long) i, latitudes[i], longitudes[i], 0L));
+        }
+        indice = new IndiceEspacial(pontos);
+        // Primeira consulta constrói a árvore
+        indice.vizinhos(0, 0, K);
+
+        centros = new double[1024][];
+        for (int i = 0; i < centros.length; i++) {
+            centros[i] = new double[] {-33 + random.nextDouble() * 38, -73 + random.nextDouble() * 39};
+        }
+    }
+
+    @Benchmark
+    public void arvore(Blackhole bh) {
+        double[] centro = centros[proximo++ & (centros.length - 1)];
+        bh.consume(indice.vizinhos(centro[0], centro[1], K));
+    }
+
+    @Benchmark
+    public void forcaBruta(Blackhole bh) {
+        double[] centro = centros[proximo++ & (centros.length - 1)];
+        // Heap de máximo com os k melhores: {distância, id}
+        PriorityQueue<double[]> melhores = new PriorityQueue<>(K + 1, (a, b) -> Double.compare(b[0], a[0]));
+        for (int i = 0; i < ids.length; i++) {
+            double distancia = GeoHash.distanciaKm(centro[0], centro[1], latitudes[i], longitudes[i]);
+            if (melhores.size() < K) {
+                melhores.add(new double[] {distancia, ids[i]});
+            } else if (distancia < melhores.peek()[0]) {
+                melhores.poll();
+                melhores.add(new double[] {distancia, ids[i]});
+            }
+        }
+        bh.consume(melhores);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ArvoreKd construcao() {
+        return new ArvoreKd(ids, latitudes, longitudes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(VizinhosBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,103 @@
+package com.contatos.api.cache;
+
+import com.contatos.api.model.ContatoPonto;
+import com.contatos.api.util.ArvoreKd;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceEspacialTest {
+
+    @Test
+    void shouldClusterAtCoarseAndFineLevels() {
+        IndiceEspacial indice = new IndiceEspacial(List.of(
+                new ContatoPonto(1L, -25.4284, -49.2733, 0L),
+                new ContatoPonto(2L, -25.4400, -49.2700, 0L),
+                new ContatoPonto(3L, -23.5505, -46.6333, 0L)));
+
+        // Brasil inteiro em nível grosso: Curitiba e São Paulo em células diferentes
+        List<IndiceEspacial.Cluster> pais = indice.clusters(-34, -74, 6, -34, 7, 3);
+        assertEquals(2, pais.size());
+        IndiceEspacial.Cluster curitiba = pais.stream().filter(c -> c.total() == 2).findFirst().orElseThrow();
+        assertEquals((-25.4284 - 25.4400) / 2, curitiba.latitude(), 1e-9);
+        assertEquals(List.of(1L, 2L), curitiba.amostra().stream().sorted().toList());
+
+        // Nível fino, calculado sob demanda: os dois pontos de Curitiba se separam
+        List<IndiceEspacial.Cluster> bairro = indice.clusters(-25.45, -49.28, -25.42, -49.26, 20, 3);
+        assertEquals(2, bairro.size());
+        assertTrue(bairro.stream().allMatch(c -> c.total() == 1));
+    }
+
+    @Test
+    void shouldApplyMovesAndDeletesIncrementally() {
+        IndiceEspacial indice = new IndiceEspacial(List.of(
+                new ContatoPonto(1L, -25.4284, -49.2733, 0L),
+                new ContatoPonto(2L, -23.5505, -46.6333, 0L)));
+
+        indice.atualizar(2L, -25.4290, -49.2740, 1L);
+        // Versão antiga chegando depois é ignorada
+        indice.atualizar(2L, -23.5505, -46.6333, 0L);
+        List<IndiceEspacial.Cluster> pais = indice.clusters(-34, -74, 6, -34, 7, 3);
+        assertEquals(1, pais.size());
+        assertEquals(2, pais.get(0).total());
+
+        indice.remover(List.of(1L, 99L));
+        pais = indice.clusters(-34, -74, 6, -34, 7, 3);
+        assertEquals(1, pais.get(0).total());
+        assertEquals(List.of(2L), pais.get(0).amostra());
+        assertEquals(1, indice.tamanho());
+    }
+
+    @Test
+    void shouldMatchBruteForceCounts() {
+        Random random = new Random(7);
+        List<ContatoPonto> pontos = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            pontos.add(new ContatoPonto(id, -33 + random.nextDouble() * 38, -73 + random.nextDouble() * 39, 0L));
+        }
+        IndiceEspacial indice = new IndiceEspacial(pontos);
+
+        for (int nivel : new int[] {3, 8, 12, 15}) {
+            int total = indice.clusters(-90, -180, 90, 180, nivel, 1).stream()
+                    .mapToInt(IndiceEspacial.Cluster::total)
+                    .sum();
+            assertEquals(pontos.size(), total, "nível " + nivel);
+        }
+        IndiceEspacial.Cluster maior = indice.clusters(-90, -180, 90, 180, 1, 3).stream()
+                .max(Comparator.comparingInt(IndiceEspacial.Cluster::total))
+                .orElseThrow();
+        assertEquals(3, maior.amostra().size());
+    }
+
+    @Test
+    void shouldFindNearestAfterMovesDeletesAndRebuilds() {
+        Random random = new Random(3);
+        List<ContatoPonto> pontos = new ArrayList<>();
+        for (long id = 0; id < 1000; id++) {
+            pontos.add(new ContatoPonto(id, -26 + random.nextDouble(), -50 + random.nextDouble(), 0L));
+        }
+        IndiceEspacial indice = new IndiceEspacial(pontos);
+        assertEquals(5, indice.vizinhos(-25.5, -49.5, 5).size());
+
+        // Depois da árvore construída: um ponto movido para o centro da consulta e o mais próximo removido
+        indice.atualizar(500L, -25.5, -49.5, 1L);
+        long maisProximo = indice.vizinhos(-25.5, -49.5, 2).get(1).id();
+        indice.remover(List.of(maisProximo));
+        List<ArvoreKd.Vizinho> vizinhos = indice.vizinhos(-25.5, -49.5, 3);
+        assertEquals(500L, vizinhos.get(0).id());
+        assertEquals(0, vizinhos.get(0).distanciaKm(), 1e-9);
+        assertTrue(vizinhos.stream().noneMatch(v -> v.id() == maisProximo));
+
+        // Alterações suficientes para reconstruir a árvore
+        for (long id = 0; id < 400; id++) {
+            indice.atualizar(id, -30 + id * 0.001, -55, 1L);
+        }
+        List<ArvoreKd.Vizinho> sul = indice.vizinhos(-30, -55, 3);
+        assertEquals(List.of(0L, 1L, 2L), sul.stream().map(ArvoreKd.Vizinho::id).toList());
+    }
+}
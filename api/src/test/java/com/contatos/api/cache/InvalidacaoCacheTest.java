@@ -0,0 +1,131 @@
+package com.contatos.api.cache;
+
+import com.contatos.api.event.ContatoAlteradoEvent;
+import com.contatos.api.event.ContatosExpurgadosEvent;
+import com.contatos.api.event.UsuarioAlteradoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the cluster cache invalidation bus, without PostgreSQL
+ * Tests cover coalescing, payload splitting and dispatch of received messages
+ */
+class InvalidacaoCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Test: Should coalesce repeated writes into one compact message
+     */
+    @Test
+    void shouldCoalesceWritesIntoOneMessage() {
+        InvalidacaoCachePublicador publicador = new InvalidacaoCachePublicador(null, meterRegistry, "cache_invalidacao");
+        publicador.onContatoAlterado(ContatoAlteradoEvent.excluidos(1L, List.of(10L, 11L), 1));
+        publicador.onContatoAlterado(ContatoAlteradoEvent.excluidos(1L, List.of(10L), 2));
+        publicador.onUsuarioAlterado(new UsuarioAlteradoEvent(2L, "u2@example.com", false));
+
+        List<String> payloads = publicador.drenarPayloads();
+
+        assertEquals(1, payloads.size());
+        assertTrue(payloads.get(0).endsWith("|u2;c1:10,11"));
+        assertTrue(publicador.drenarPayloads().isEmpty());
+    }
+
+    /**
+     * Test: Should send a purge as the purged contact IDs plus the user's email, not as a whole-region eviction
+     */
+    @Test
+    void shouldSendPurgedContactIdsAndEmail() {
+        InvalidacaoCachePublicador publicador = new InvalidacaoCachePublicador(null, meterRegistry, "cache_invalidacao");
+        publicador.onContatosExpurgados(new ContatosExpurgadosEvent(5L, List.of(50L, 51L)));
+        publicador.onContatosExpurgados(new ContatosExpurgadosEvent(5L, List.of(52L)));
+        publicador.onUsuarioAlterado(new UsuarioAlteradoEvent(5L, "ana@example.com", true));
+
+        List<String> payloads = publicador.drenarPayloads();
+
+        assertEquals(1, payloads.size());
+        assertTrue(payloads.get(0).endsWith("|x5:ana%40example.com;c5:50,51,52"));
+        InvalidacaoCacheMensagem mensagem = InvalidacaoCacheMensagem.decodificar(payloads.get(0));
+        assertEquals(Map.of(5L, "ana@example.com"), mensagem.usuariosExcluidos());
+        assertEquals(Set.of(50L, 51L, 52L), mensagem.contatos().get(5L));
+    }
+
+    /**
+     * Test: Should split large batches under the NOTIFY payload limit and decode them back
+     */
+    @Test
+    void shouldSplitLargeBatchesUnderPayloadLimit() {
+        Set<Long> ids = LongStream.rangeClosed(1_000_000, 1_003_000).boxed()
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Set<Long>> contatos = new LinkedHashMap<>();
+        contatos.put(7L, ids);
+        InvalidacaoCacheMensagem mensagem = new InvalidacaoCacheMensagem("no1", 123L, contatos, Set.of(),
+                Map.of(9L, "a+b;c|d@example.com"));
+
+        List<String> payloads = mensagem.codificar();
+
+        assertTrue(payloads.size() > 1);
+        Set<Long> decodificados = new LinkedHashSet<>();
+        for (String payload : payloads) {
+            assertTrue(payload.length() < InvalidacaoCacheMensagem.TAMANHO_MAXIMO + 1);
+            InvalidacaoCacheMensagem parte = InvalidacaoCacheMensagem.decodificar(payload);
+            assertEquals("no1", parte.no());
+            decodificados.addAll(parte.contatos().getOrDefault(7L, Set.of()));
+        }
+        assertEquals(ids, decodificados);
+        assertEquals(Map.of(9L, "a+b;c|d@example.com"),
+                InvalidacaoCacheMensagem.decodificar(payloads.get(0)).usuariosExcluidos());
+    }
+
+    /**
+     * Test: Should evict local caches for messages of other nodes and ignore its own
+     */
+    @Test
+    void shouldDispatchMessagesFromOtherNodesOnly() {
+        InvalidacaoCachePublicador publicador = new InvalidacaoCachePublicador(null, meterRegistry, "cache_invalidacao");
+        CacheRegistrado cache = new CacheRegistrado();
+        InvalidacaoCacheOuvinte ouvinte = new InvalidacaoCacheOuvinte(new DataSourceProperties(), List.of(cache),
+                publicador, meterRegistry, "cache_invalidacao");
+
+        ouvinte.processar(publicador.getNo() + "|" + System.currentTimeMillis() + "|c1:10");
+        assertTrue(cache.chamadas.isEmpty());
+
+        ouvinte.processar("outro|" + System.currentTimeMillis() + "|x3:ana%40example.com;u2;c1:10,11");
+        assertEquals(List.of("usuario 3 ana@example.com true", "usuario 2 null false", "contatos 1 [10, 11]"),
+                cache.chamadas);
+        assertEquals(1, meterRegistry.get("cache.invalidacao.atraso").timer().count());
+    }
+
+    private static class CacheRegistrado implements InvalidacaoCache {
+
+        private final List<String> chamadas = new ArrayList<>();
+
+        @Override
+        public void invalidarContatos(Long usuarioId, Collection<Long> ids) {
+            chamadas.add("contatos " + usuarioId + " " + ids);
+        }
+
+        @Override
+        public void invalidarUsuario(Long usuarioId, String email, boolean excluido) {
+            chamadas.add("usuario " + usuarioId + " " + email + " " + excluido);
+        }
+
+        @Override
+        public void invalidarTudo() {
+            chamadas.add("tudo");
+        }
+    }
+}
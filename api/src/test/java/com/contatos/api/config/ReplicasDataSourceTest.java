@@ -0,0 +1,183 @@
+package com.contatos.api.config;
+
+import com.contatos.api.cache.ContatosUsuarioCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicasDataSourceTest {
+
+    private HikariDataSource primario;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+    private ReplicasDataSource replicas;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate leitura;
+    private TransactionTemplate escrita;
+
+    @BeforeEach
+    void setUp() {
+        primario = banco("primario");
+        replica1 = banco("replica1");
+        replica2 = banco("replica2");
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        pools.put("replica-1", replica1);
+        pools.put("replica-2", replica2);
+        AderenciaLeitura aderencia = new AderenciaLeitura(Duration.ofMillis(300));
+        replicas = new ReplicasDataSource(primario, pools, aderencia, 1000, "", new SimpleMeterRegistry());
+
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new PrimarioDataSource(primario, aderencia));
+        dataSource.setReadOnlyDataSource(replicas);
+        dataSource.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        escrita = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        replicas.close();
+        primario.close();
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplicasAndWritesToPrimary() {
+        List<String> origens = List.of(ler(), ler(), ler(), ler());
+        assertEquals(2, origens.stream().filter("replica1"::equals).count());
+        assertEquals(2, origens.stream().filter("replica2"::equals).count());
+
+        assertEquals("primario", escrita.execute(status -> origem()));
+        assertEquals("primario", origem());
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryWithinWindow() throws InterruptedException {
+        autenticar("ana@email.com");
+        escrita.executeWithoutResult(status -> jdbcTemplate.update("UPDATE origem SET escritas = escritas + 1"));
+        assertEquals("primario", ler());
+
+        autenticar("bia@email.com");
+        assertEquals("replica", ler().substring(0, 7));
+
+        autenticar("ana@email.com");
+        Thread.sleep(400);
+        assertEquals("replica", ler().substring(0, 7));
+    }
+
+    @Test
+    void shouldSkipUnavailableReplicasAndFallBackToPrimary() {
+        replica1.close();
+        assertEquals("replica2", ler());
+        assertEquals("replica2", ler());
+
+        replica2.close();
+        assertEquals("primario", ler());
+    }
+
+    @Test
+    void shouldTakeLaggingReplicaOutOfRotation() {
+        ReplicasDataSource atrasada = new ReplicasDataSource(primario, Map.of("replica-1", replica1),
+                new AderenciaLeitura(Duration.ofSeconds(1)), 1000, "SELECT 2", new SimpleMeterRegistry());
+        JdbcTemplate jdbc = new JdbcTemplate(atrasada);
+        assertEquals("replica1", jdbc.queryForObject("SELECT nome FROM origem", String.class));
+
+        // Atraso de 2 s acima do máximo de 1 s: leituras vão ao primário
+        atrasada.verificar();
+        assertEquals("primario", jdbc.queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    @Test
+    void shouldKeepReplicaReadsOutOfNodeLocalCaches() {
+        ContatosUsuarioCache cache = new ContatosUsuarioCache(new SimpleMeterRegistry(), 1 << 20, 30, 100);
+
+        // Carga do cache como primeira leitura da transação: vai ao primário e fica no cache
+        String pagina = leitura.execute(status -> new String(cache.obter(1L, "nome", 10,
+                () -> new ContatosUsuarioCache.Pagina(origem().getBytes(), "\"1\"")).json()));
+        assertEquals("primario", pagina);
+        assertTrue(cache.contem(1L, "nome", 10));
+
+        // Transação que já lê de uma réplica: a carga é usada, mas não guardada
+        pagina = leitura.execute(status -> {
+            assertEquals("replica", origem().substring(0, 7));
+            assertTrue(LeituraReplica.ativa());
+            return new String(cache.obter(2L, "nome", 10,
+                    () -> new ContatosUsuarioCache.Pagina(origem().getBytes(), "\"1\"")).json());
+        });
+        assertEquals("replica", pagina.substring(0, 7));
+        assertFalse(cache.contem(2L, "nome", 10));
+        assertFalse(LeituraReplica.ativa());
+    }
+
+    @Test
+    void shouldStopSecondLevelCachePutsForReplicaSessions() {
+        Session session = mock(Session.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        when(session.isOpen()).thenReturn(true);
+        Object chave = new Object();
+
+        // Sessão aberta antes da transação, como no open-session-in-view
+        TransactionSynchronizationManager.bindResource(chave, new EntityManagerHolder(entityManager));
+        try {
+            leitura.execute(status -> origem());
+        } finally {
+            TransactionSynchronizationManager.unbindResource(chave);
+        }
+        verify(session).setCacheMode(CacheMode.GET);
+        verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    private String ler() {
+        return leitura.execute(status -> origem());
+    }
+
+    private String origem() {
+        return jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class);
+    }
+
+    private static void autenticar(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static HikariDataSource banco(String nome) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + nome + "-" + System.nanoTime());
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setConnectionTimeout(250);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE origem (nome VARCHAR(20), escritas INT)");
+        jdbc.update("INSERT INTO origem VALUES (?, 0)", nome);
+        return dataSource;
+    }
+}
@@ -17,6 +17,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -141,6 +143,155 @@ class ContatoControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("CPF inválido"));
     }
 
+    /**
+     * Test: Should accept JSON Merge Patch documents on PATCH
+     */
+    @Test
+    void shouldPatchContatoWithMergePatch() throws Exception {
+        ContatoRequest request = ContatoRequest.builder()
+                .nome("Patch Contact")
+                .cpf("12345678909")
+                .telefone("41999887766")
+                .cep("80010000")
+                .logradouro("Rua Patch")
+                .numero("10")
+                .bairro("Centro")
+                .cidade("Curitiba")
+                .estado("PR")
+                .latitude(-25.4284)
+                .longitude(-49.2733)
+                .build();
+
+        String body = mockMvc.perform(post("/api/contatos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(patch("/api/contatos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"telefone\": \"41911112222\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.telefone").value("41911112222"))
+                .andExpect(jsonPath("$.nome").value("Patch Contact"));
+    }
+
+    /**
+     * Test: Should answer conditional requests using the contact's ETag
+     * If-None-Match with the current ETag returns 304; If-Match with a stale one returns 412
+     */
+    @Test
+    void shouldHandleConditionalRequestsWithETag() throws Exception {
+        ContatoRequest request = ContatoRequest.builder()
+                .nome("ETag Contact")
+                .cpf("52998224725")
+                .telefone("41999887766")
+                .cep("80010000")
+                .logradouro("Rua ETag")
+                .numero("10")
+                .bairro("Centro")
+                .cidade("Curitiba")
+                .estado("PR")
+                .latitude(-25.4284)
+                .longitude(-49.2733)
+                .build();
+
+        String body = mockMvc.perform(post("/api/contatos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+
+        String etag = mockMvc.perform(get("/api/contatos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/contatos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        String listEtag = mockMvc.perform(get("/api/contatos")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/contatos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+
+        request.setNome("ETag Contact 2");
+        mockMvc.perform(put("/api/contatos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+
+        // The first ETag is now stale
+        mockMvc.perform(delete("/api/contatos/" + id)
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-Match", etag))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/contatos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("If-None-Match", listEtag))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Test: Should return the map markers as columnar JSON or as binary
+     */
+    @Test
+    void shouldReturnMapMarkersInBothFormats() throws Exception {
+        ContatoRequest request = ContatoRequest.builder()
+                .nome("Marker Contact")
+                .cpf("52998224725")
+                .telefone("41999887766")
+                .cep("80010000")
+                .logradouro("Rua Marker")
+                .numero("10")
+                .bairro("Centro")
+                .cidade("Curitiba")
+                .estado("PR")
+                .latitude(-25.4284)
+                .longitude(-49.2733)
+                .build();
+
+        String body = mockMvc.perform(post("/api/contatos")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(get("/api/contatos/markers")
+                        .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.ids[0]").value(id))
+                .andExpect(jsonPath("$.lat[0]").value(-2542840))
+                .andExpect(jsonPath("$.nomes[0]").value("Marker Contact"));
+
+        byte[] binario = mockMvc.perform(get("/api/contatos/markers")
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .accept(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals('C', binario[0]);
+        assertEquals('M', binario[2]);
+    }
+
     /**
      * Test: Should support pagination parameters
      */
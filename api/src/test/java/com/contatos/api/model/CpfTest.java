@@ -0,0 +1,45 @@
+package com.contatos.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CpfTest {
+
+    @Test
+    void shouldPackValidCpf() {
+        assertEquals(11144477735L, Cpf.pack("11144477735"));
+        assertEquals(12345678909L, Cpf.pack("12345678909"));
+    }
+
+    @Test
+    void shouldReturnSentinelForInvalidCpf() {
+        assertEquals(Cpf.INVALIDO, Cpf.pack("11144477736"));
+        assertEquals(Cpf.INVALIDO, Cpf.pack("00000000000"));
+        assertEquals(Cpf.INVALIDO, Cpf.pack("1234567890a"));
+        assertEquals(Cpf.INVALIDO, Cpf.pack(null));
+        assertNull(Cpf.parse("123"));
+    }
+
+    @Test
+    void shouldRenderWithLeadingZeros() {
+        // 01234567890 é um CPF válido que começa com zero
+        Cpf cpf = Cpf.parse("01234567890");
+
+        assertNotNull(cpf);
+        assertEquals(1234567890L, cpf.toLong());
+        assertEquals("01234567890", cpf.toString());
+        assertEquals(cpf, Cpf.of(1234567890L));
+    }
+
+    @Test
+    void shouldConvertToAndFromDatabaseColumn() {
+        CpfConverter converter = new CpfConverter();
+        Cpf cpf = Cpf.parse("52998224725");
+
+        assertEquals(52998224725L, converter.convertToDatabaseColumn(cpf));
+        assertEquals(cpf, converter.convertToEntityAttribute(52998224725L));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
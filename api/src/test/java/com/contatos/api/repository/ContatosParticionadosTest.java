@@ -0,0 +1,200 @@
+package com.contatos.api.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Partitioning of the contatos table by the V8 migration, for new databases and by converting an
+ * existing table, against a real PostgreSQL
+ *
+ * The H2 database of the other tests has no partitioning, so this test only runs when
+ * CONTATOS_TEST_POSTGRES_URL points to a PostgreSQL database (user and password from
+ * CONTATOS_TEST_POSTGRES_USERNAME / CONTATOS_TEST_POSTGRES_PASSWORD, default postgres). Each test
+ * migrates a schema of its own and drops it at the end.
+ */
+@EnabledIfEnvironmentVariable(named = "CONTATOS_TEST_POSTGRES_URL", matches = ".+")
+class ContatosParticionadosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String schema = "particionamento_" + System.nanoTime();
+    private final String modelo = schema + "_modelo";
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(System.getenv("CONTATOS_TEST_POSTGRES_URL"),
+                env("CONTATOS_TEST_POSTGRES_USERNAME"), env("CONTATOS_TEST_POSTGRES_PASSWORD"));
+        executar("CREATE SCHEMA " + schema);
+        executar("SET search_path TO " + schema);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        executar("DROP SCHEMA " + schema + " CASCADE");
+        executar("DROP SCHEMA IF EXISTS " + modelo + " CASCADE");
+        connection.close();
+    }
+
+    @Test
+    void shouldCreatePartitionedTableOnNewDatabase() throws SQLException {
+        migrar(schema, null);
+
+        assertEquals("p", consultar("SELECT relkind FROM pg_class WHERE oid = 'contatos'::regclass"));
+        assertEquals("16", consultar("SELECT COUNT(*) FROM pg_inherits WHERE inhparent = 'contatos'::regclass"));
+        inserirContatos(3, 4);
+        assertEquals("12", consultar("SELECT COUNT(DISTINCT id) FROM contatos"));
+    }
+
+    @Test
+    void shouldConvertExistingTableKeepingRowsAndIds() throws SQLException {
+        // Tabela antiga com as colunas e os índices que as migrations produzem, tirados de um banco novo migrado à parte
+        executar("CREATE SCHEMA " + modelo);
+        migrar(modelo, null);
+        executar("CREATE TABLE contatos (LIKE " + modelo + ".contatos)");
+        executar("ALTER TABLE contatos ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY, ADD PRIMARY KEY (id), "
+                + "ADD CONSTRAINT uk_contatos_cpf_usuario UNIQUE (cpf, usuario_id)");
+        for (String indice : definicoesIndices(modelo)) {
+            executar(indice.replace(" ON ONLY " + modelo + ".contatos ", " ON contatos ")
+                    .replace(" ON " + modelo + ".contatos ", " ON contatos "));
+        }
+        inserirContatos(5, 20);
+        executar("DELETE FROM contatos WHERE id % 10 = 0");
+        migrar(schema, "7");
+
+        assertEquals("p", consultar("SELECT relkind FROM pg_class WHERE oid = 'contatos'::regclass"));
+        assertEquals("90", consultar("SELECT COUNT(*) FROM contatos"));
+        assertEquals("16", consultar("SELECT COUNT(*) FROM pg_inherits WHERE inhparent = 'contatos'::regclass"));
+        // Mesmos nomes de índices e restrições de um banco novo, sem sobras da conversão
+        assertEquals(indices(modelo), indices(schema));
+        assertNull(consultar("SELECT to_regclass('contatos_nova')"));
+        assertEquals("0", consultar("SELECT COUNT(*) FROM pg_proc WHERE proname = 'contatos_espelhar'"));
+        // Novos ids continuam depois dos já usados, inclusive os excluídos
+        inserirContatos(1, 1);
+        assertEquals("101", consultar("SELECT MAX(id) FROM contatos"));
+    }
+
+    @Test
+    void shouldReadOnePartitionForUserScopedStatements() throws Exception {
+        migrar(schema, null);
+        inserirContatos(50, 20);
+        executar("ANALYZE contatos");
+
+        assertUmaParticao("SELECT * FROM contatos WHERE usuario_id = 7 ORDER BY nome LIMIT 10");
+        assertUmaParticao("SELECT * FROM contatos WHERE usuario_id = 7 AND (LOWER(nome) LIKE '%contato 1%' "
+                + "OR LPAD(CAST(cpf AS VARCHAR), 11, '0') LIKE '%contato 1%') ORDER BY nome LIMIT 10");
+        assertUmaParticao("SELECT COUNT(*) FROM contatos WHERE usuario_id = 7");
+        assertUmaParticao("SELECT * FROM contatos WHERE id = 3 AND usuario_id = 7");
+        assertUmaParticao("UPDATE contatos SET nome = 'x', versao = 2 WHERE id = 3 AND versao = 1 AND usuario_id = 7");
+        assertUmaParticao("DELETE FROM contatos WHERE id = 3 AND versao = 1 AND usuario_id = 7");
+
+        // Plano genérico de comando preparado, como o driver JDBC usa após algumas execuções: poda na execução
+        executar("SET plan_cache_mode = force_generic_plan");
+        executar("PREPARE listar(BIGINT) AS SELECT * FROM contatos WHERE usuario_id = $1 ORDER BY nome LIMIT 10");
+        assertUmaParticao("EXECUTE listar(7)");
+    }
+
+    private void assertUmaParticao(String sql) throws Exception {
+        connection.setAutoCommit(false);
+        try {
+            JsonNode plano = objectMapper.readTree(consultar("EXPLAIN (ANALYZE, FORMAT JSON) " + sql));
+            // Em UPDATE e DELETE o nó de modificação cita também a tabela particionada; conta só as partições
+            Set<String> particoes = new TreeSet<>();
+            plano.findValues("Relation Name").stream()
+                    .map(JsonNode::asText)
+                    .filter(nome -> nome.startsWith("contatos_p"))
+                    .forEach(particoes::add);
+            assertEquals(1, particoes.size(), () -> sql + " leu " + particoes);
+        } finally {
+            // EXPLAIN ANALYZE executa o comando: desfaz UPDATE e DELETE
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private Set<String> indices(String esquema) throws SQLException {
+        Set<String> nomes = new TreeSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT indexname FROM pg_indexes WHERE schemaname = '"
+                     + esquema + "' AND tablename = 'contatos'")) {
+            while (rs.next()) {
+                nomes.add(rs.getString(1));
+            }
+        }
+        return nomes;
+    }
+
+    // Índices da tabela fora os das restrições, como as migrations e o ddl-auto os criam
+    private List<String> definicoesIndices(String esquema) throws SQLException {
+        List<String> definicoes = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT indexdef FROM pg_indexes WHERE schemaname = '" + esquema
+                     + "' AND tablename = 'contatos' AND indexname NOT IN ('contatos_pkey', 'uk_contatos_cpf_usuario')")) {
+            while (rs.next()) {
+                definicoes.add(rs.getString(1));
+            }
+        }
+        return definicoes;
+    }
+
+    private void migrar(String esquema, String baseline) {
+        var configuracao = Flyway.configure()
+                .dataSource(System.getenv("CONTATOS_TEST_POSTGRES_URL"),
+                        env("CONTATOS_TEST_POSTGRES_USERNAME"), env("CONTATOS_TEST_POSTGRES_PASSWORD"))
+                .schemas(esquema)
+                .defaultSchema(esquema)
+                .createSchemas(false)
+                .locations("classpath:db/migration");
+        if (baseline != null) {
+            configuracao.baselineOnMigrate(true).baselineVersion(baseline);
+        }
+        configuracao.load().migrate();
+    }
+
+    private void inserirContatos(int usuarios, int porUsuario) throws SQLException {
+        executar("""
+                INSERT INTO contatos (nome, cpf, telefone, cep, logradouro, numero, bairro, cidade, estado,
+                                      latitude, longitude, geohash, usuario_id, versao, sincronizacao,
+                                      created_at, updated_at)
+                SELECT 'Contato ' || n, u * 100000 + n, '41999887766', '80010000', 'Rua', '100', 'Centro',
+                       'Curitiba', 'PR', -25.43, -49.27, 0, u, 1, 1, now(), now()
+                FROM generate_series(1, %d) u, generate_series(1, %d) n
+                """.formatted(usuarios, porUsuario));
+    }
+
+    private void executar(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private String consultar(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static String env(String nome) {
+        String valor = System.getenv(nome);
+        return valor != null ? valor : "postgres";
+    }
+}
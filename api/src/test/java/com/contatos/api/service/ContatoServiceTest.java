@@ -1,13 +1,36 @@
 package com.contatos.api.service;
 
 import com.contatos.api.config.TestConfig;
+import com.contatos.api.dto.AuditoriaResponse;
+import com.contatos.api.dto.ClusterResponse;
+import com.contatos.api.dto.ContatoDistanciaResponse;
+import com.contatos.api.dto.ContatoFiltro;
 import com.contatos.api.dto.ContatoRequest;
 import com.contatos.api.dto.ContatoResponse;
+import com.contatos.api.dto.ContatosAlteracoesResponse;
+import com.contatos.api.dto.ContatosFacetadosResponse;
+import com.contatos.api.dto.CrescimentoMensalResponse;
+import com.contatos.api.dto.DeletarContatosResponse;
+import com.contatos.api.dto.DuplicadosResponse;
+import com.contatos.api.dto.EstatisticasResponse;
+import com.contatos.api.dto.FacetaResponse;
+import com.contatos.api.dto.MesclarContatosRequest;
 import com.contatos.api.dto.UsuarioRegistroRequest;
+import com.contatos.api.event.ContatoAlteradoEvent;
 import com.contatos.api.exception.BusinessException;
+import com.contatos.api.exception.PreconditionFailedException;
 import com.contatos.api.exception.ResourceNotFoundException;
+import com.contatos.api.model.Arrendamento;
 import com.contatos.api.model.Contato;
+import com.contatos.api.repository.ArrendamentoRepository;
+import com.contatos.api.repository.ContatoEstatisticaRepository;
 import com.contatos.api.repository.ContatoRepository;
+import com.contatos.api.repository.ContatosVersaoRepository;
+import com.contatos.api.repository.ContatoSpecifications;
+import com.contatos.api.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +39,21 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 /**
  * Integration tests for ContatoService
@@ -40,6 +73,39 @@ class ContatoServiceTest {
     @Autowired
     private ContatoRepository contatoRepository;
 
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EstatisticasService estatisticasService;
+
+    @Autowired
+    private EnderecoService enderecoService;
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    @Autowired
+    private ContatosVersaoRepository contatosVersaoRepository;
+
+    @Autowired
+    private ContatoEstatisticaRepository contatoEstatisticaRepository;
+
+    @Autowired
+    private GoogleMapsService googleMapsService;
+
+    @Autowired
+    private ArrendamentoRepository arrendamentoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private String userEmail = "test-contato@example.com";
 
     @BeforeEach
@@ -347,6 +413,718 @@ class ContatoServiceTest {
                 () -> contatoService.getContato(contatoId));
     }
 
+    /**
+     * Test: Should patch only the touched fields without geocoding
+     * Business Rule: Changing just the phone doesn't re-validate CPF nor recalculate coordinates
+     */
+    @Test
+    void shouldPatchOnlyTouchedFields() throws Exception {
+        ContatoResponse created = contatoService.createContato(buildRequest("Patch Parcial", generateValidCpf(1)));
+        clearInvocations(googleMapsService);
+
+        ContatoResponse patched = contatoService.patchContato(created.getId(),
+                objectMapper.readTree("{\"telefone\": \"41911112222\", \"complemento\": null}"));
+
+        assertEquals("41911112222", patched.getTelefone());
+        assertNull(patched.getComplemento());
+        assertEquals("Patch Parcial", patched.getNome());
+        assertEquals(generateValidCpf(1), patched.getCpf());
+        assertEquals(-25.4284, patched.getLatitude());
+        verifyNoInteractions(googleMapsService);
+    }
+
+    /**
+     * Test: Should recalculate coordinates when a patched address field changes
+     */
+    @Test
+    void shouldGeocodeWhenPatchChangesAddress() throws Exception {
+        ContatoResponse created = contatoService.createContato(buildRequest("Patch Endereço", generateValidCpf(1)));
+        clearInvocations(googleMapsService);
+
+        contatoService.patchContato(created.getId(), objectMapper.readTree("{\"numero\": \"200\"}"));
+
+        verify(googleMapsService).getCoordinates(
+                "Rua José Loureiro", "200", "Centro", "Curitiba", "PR", "80010000");
+    }
+
+    /**
+     * Test: Should validate only the touched fields and reject invalid values
+     */
+    @Test
+    void shouldRejectInvalidPatch() throws Exception {
+        ContatoResponse created = contatoService.createContato(buildRequest("Patch Inválido", generateValidCpf(1)));
+        Long id = created.getId();
+
+        BusinessException nomeVazio = assertThrows(BusinessException.class,
+                () -> contatoService.patchContato(id, objectMapper.readTree("{\"nome\": null}")));
+        assertEquals("nome: Nome é obrigatório", nomeVazio.getMessage());
+
+        BusinessException cpfInvalido = assertThrows(BusinessException.class,
+                () -> contatoService.patchContato(id, objectMapper.readTree("{\"cpf\": \"12345678901\"}")));
+        assertEquals("CPF inválido", cpfInvalido.getMessage());
+
+        assertThrows(BusinessException.class,
+                () -> contatoService.patchContato(id, objectMapper.readTree("{\"usuario\": 1}")));
+    }
+
+    /**
+     * Test: Should treat another user's contact as not found
+     * Business Rule: Lookups are scoped by owner, so foreign contacts are never read, updated or deleted
+     */
+    @Test
+    void shouldNotExposeContatoOfAnotherUser() {
+        authenticateAs("outro-dono@example.com");
+        ContatoResponse alheio = contatoService.createContato(buildRequest("Contato Alheio", generateValidCpf(1)));
+        Long alheioId = alheio.getId();
+
+        authenticateAs(userEmail);
+        assertThrows(ResourceNotFoundException.class, () -> contatoService.getContato(alheioId));
+        assertThrows(ResourceNotFoundException.class,
+                () -> contatoService.updateContato(alheioId, buildRequest("Invasor", generateValidCpf(2))));
+        assertThrows(ResourceNotFoundException.class, () -> contatoService.deleteContato(alheioId));
+        assertEquals("Contato Alheio", contatoRepository.findById(alheioId).orElseThrow().getNome());
+    }
+
+    /**
+     * Test: Should delete several contacts in one batch
+     * Business Rule: Only the authenticated user's contacts are deleted; foreign and unknown IDs are ignored
+     */
+    @Test
+    void shouldDeleteContatosInBatchIgnoringForeignIds() {
+        ContatoResponse primeiro = contatoService.createContato(buildRequest("Lote Um", generateValidCpf(1)));
+        ContatoResponse segundo = contatoService.createContato(buildRequest("Lote Dois", generateValidCpf(2)));
+
+        // Contact owned by another user
+        authenticateAs("outro-lote@example.com");
+        ContatoResponse alheio = contatoService.createContato(buildRequest("Alheio", generateValidCpf(1)));
+
+        authenticateAs(userEmail);
+        DeletarContatosResponse response = contatoService.deleteContatos(
+                List.of(primeiro.getId(), segundo.getId(), alheio.getId(), 99999L));
+
+        assertEquals(2, response.getTotal());
+        assertTrue(response.getIds().containsAll(List.of(primeiro.getId(), segundo.getId())));
+        assertFalse(contatoRepository.existsById(primeiro.getId()));
+        assertTrue(contatoRepository.existsById(alheio.getId()));
+    }
+
+    /**
+     * Test: Should delete every contact matching the search filter
+     */
+    @Test
+    void shouldDeleteContatosBySearch() {
+        ContatoResponse removido = contatoService.createContato(buildRequest("Remover Silva", generateValidCpf(1)));
+        ContatoResponse mantido = contatoService.createContato(buildRequest("Manter Souza", generateValidCpf(2)));
+
+        DeletarContatosResponse response = contatoService.deleteContatosBySearch("silva");
+
+        assertEquals(List.of(removido.getId()), response.getIds());
+        assertFalse(contatoRepository.existsById(removido.getId()));
+        assertTrue(contatoRepository.existsById(mantido.getId()));
+    }
+
+    /**
+     * Test: Should bump the contact and collection versions on every write
+     * Business Rule: Updates with a stale expected version (If-Match) are rejected
+     */
+    @Test
+    void shouldRejectWritesWithStaleVersion() {
+        String etagInicial = contatoService.getColecaoETag();
+        ContatoResponse created = contatoService.createContato(buildRequest("Versionado", generateValidCpf(1)));
+        String etagAposCriar = contatoService.getColecaoETag();
+        assertNotEquals(etagInicial, etagAposCriar);
+
+        ContatoResponse updated = contatoService.updateContato(created.getId(),
+                buildRequest("Versionado 2", generateValidCpf(1)), created.getVersao());
+        assertEquals(created.getVersao() + 1, updated.getVersao());
+        assertEquals(updated.getVersao(), contatoService.getContatoVersao(created.getId()).orElseThrow());
+        assertNotEquals(etagAposCriar, contatoService.getColecaoETag());
+
+        assertThrows(PreconditionFailedException.class, () -> contatoService.updateContato(created.getId(),
+                buildRequest("Versionado 3", generateValidCpf(1)), created.getVersao()));
+        assertThrows(PreconditionFailedException.class,
+                () -> contatoService.deleteContato(created.getId(), created.getVersao()));
+
+        contatoService.deleteContato(created.getId(), updated.getVersao());
+        assertFalse(contatoRepository.existsById(created.getId()));
+        assertThrows(ResourceNotFoundException.class,
+                () -> contatoService.deleteContato(created.getId(), updated.getVersao()));
+    }
+
+    /**
+     * Test: Should return only what changed since the watermark, with tombstones for deletions
+     * Business Rule: Without a watermark every contact is returned; unknown watermarks are rejected
+     */
+    @Test
+    void shouldSyncChangesSinceWatermark() {
+        ContatoResponse alterado = contatoService.createContato(buildRequest("Sync Alterado", generateValidCpf(1)));
+        ContatoResponse excluido = contatoService.createContato(buildRequest("Sync Excluido", generateValidCpf(2)));
+        ContatoResponse intocado = contatoService.createContato(buildRequest("Sync Intocado", generateValidCpf(3)));
+
+        ContatosAlteracoesResponse inicial = contatoService.listAlteracoes(null, 1000);
+        assertEquals(3, inicial.getAlterados().size());
+        assertTrue(inicial.getExcluidos().isEmpty());
+
+        contatoService.updateContato(alterado.getId(), buildRequest("Sync Alterado 2", generateValidCpf(1)));
+        contatoService.deleteContato(excluido.getId());
+
+        ContatosAlteracoesResponse delta = contatoService.listAlteracoes(inicial.getWatermark(), 1000);
+        assertEquals(List.of(alterado.getId()),
+                delta.getAlterados().stream().map(ContatoResponse::getId).toList());
+        assertEquals("Sync Alterado 2", delta.getAlterados().get(0).getNome());
+        assertEquals(List.of(excluido.getId()), delta.getExcluidos());
+        assertFalse(delta.getAlterados().stream().anyMatch(c -> c.getId().equals(intocado.getId())));
+
+        ContatosAlteracoesResponse vazio = contatoService.listAlteracoes(delta.getWatermark(), 1000);
+        assertTrue(vazio.getAlterados().isEmpty());
+        assertTrue(vazio.getExcluidos().isEmpty());
+        assertEquals(delta.getWatermark(), vazio.getWatermark());
+
+        assertThrows(BusinessException.class, () -> contatoService.listAlteracoes("nao-e-um-watermark", 1000));
+    }
+
+    /**
+     * Test: Should include contacts written before delta sync existed in the initial load
+     * Business Rule: The V3 migration leaves existing contacts with sincronizacao 0
+     */
+    @Test
+    void shouldSyncContactsFromBeforeDeltaSyncInInitialLoad() {
+        ContatoResponse antigo = contatoService.createContato(buildRequest("Sync Antigo", generateValidCpf(1)));
+        jdbcTemplate.update("UPDATE contatos SET sincronizacao = 0 WHERE id = ?", antigo.getId());
+        entityManager.clear();
+
+        ContatosAlteracoesResponse inicial = contatoService.listAlteracoes(null, 1000);
+        assertEquals(List.of(antigo.getId()),
+                inicial.getAlterados().stream().map(ContatoResponse::getId).toList());
+
+        ContatosAlteracoesResponse paginada = contatoService.listAlteracoes(null, 1);
+        assertEquals(List.of(antigo.getId()),
+                paginada.getAlterados().stream().map(ContatoResponse::getId).toList());
+    }
+
+    /**
+     * Test: Should page through changes with continuation watermarks
+     * Business Rule: Each call returns at most size changes, contacts and deletions merged in version order
+     */
+    @Test
+    void shouldPageChangesWithContinuationWatermark() {
+        ContatoResponse primeiro = contatoService.createContato(buildRequest("Pagina 1", generateValidCpf(1)));
+        ContatoResponse segundo = contatoService.createContato(buildRequest("Pagina 2", generateValidCpf(2)));
+        ContatoResponse terceiro = contatoService.createContato(buildRequest("Pagina 3", generateValidCpf(3)));
+
+        ContatosAlteracoesResponse inicio = contatoService.listAlteracoes(null, 2);
+        assertEquals(List.of(primeiro.getId(), segundo.getId()),
+                inicio.getAlterados().stream().map(ContatoResponse::getId).toList());
+        assertTrue(inicio.isTemMais());
+
+        contatoService.deleteContato(primeiro.getId());
+        ContatoResponse quarto = contatoService.createContato(buildRequest("Pagina 4", generateValidCpf(4)));
+
+        ContatosAlteracoesResponse meio = contatoService.listAlteracoes(inicio.getWatermark(), 2);
+        assertEquals(List.of(terceiro.getId()), meio.getAlterados().stream().map(ContatoResponse::getId).toList());
+        assertEquals(List.of(primeiro.getId()), meio.getExcluidos());
+        assertTrue(meio.isTemMais());
+
+        ContatosAlteracoesResponse fim = contatoService.listAlteracoes(meio.getWatermark(), 2);
+        assertEquals(List.of(quarto.getId()), fim.getAlterados().stream().map(ContatoResponse::getId).toList());
+        assertTrue(fim.getExcluidos().isEmpty());
+        assertFalse(fim.isTemMais());
+
+        ContatosAlteracoesResponse vazio = contatoService.listAlteracoes(fim.getWatermark(), 2);
+        assertTrue(vazio.getAlterados().isEmpty());
+        assertEquals(fim.getWatermark(), vazio.getWatermark());
+
+        assertThrows(BusinessException.class, () -> contatoService.listAlteracoes(null, 0));
+        assertThrows(BusinessException.class, () -> contatoService.listAlteracoes(null, 1001));
+    }
+
+    /**
+     * Test: Should create the collection version row on the first write of a user without one
+     * Business Rule: Users registered before collection versions existed start at version 1
+     */
+    @Test
+    void shouldCreateCollectionVersionOnFirstWrite() {
+        Long usuarioId = usuarioRepository.findByEmail(userEmail).orElseThrow().getId();
+        contatosVersaoRepository.deleteById(usuarioId);
+        contatosVersaoRepository.flush();
+
+        contatoService.createContato(buildRequest("Primeira Escrita", generateValidCpf(1)));
+        assertEquals(1L, contatosVersaoRepository.findVersaoByUsuarioId(usuarioId).orElseThrow());
+
+        contatoService.createContato(buildRequest("Segunda Escrita", generateValidCpf(2)));
+        assertEquals(2L, contatosVersaoRepository.findVersaoByUsuarioId(usuarioId).orElseThrow());
+    }
+
+    /**
+     * Test: Should find contacts by radius (nearest first) and by bounding box
+     * Business Rule: The geohash follows coordinate changes made by updates
+     */
+    @Test
+    void shouldFindContatosByRadiusAndBoundingBox() {
+        ContatoResponse centro = contatoService.createContato(buildRequest("Geo Centro", generateValidCpf(1)));
+        ContatoRequest pertoRequest = buildRequest("Geo Perto", generateValidCpf(2));
+        pertoRequest.setLatitude(-25.4400);
+        pertoRequest.setLongitude(-49.2700);
+        ContatoResponse perto = contatoService.createContato(pertoRequest);
+        ContatoRequest longeRequest = buildRequest("Geo Longe", generateValidCpf(3));
+        longeRequest.setLatitude(-23.5505);
+        longeRequest.setLongitude(-46.6333);
+        ContatoResponse longe = contatoService.createContato(longeRequest);
+
+        Page<ContatoDistanciaResponse> proximos = contatoService.listProximos(-25.4284, -49.2733, 10, PageRequest.of(0, 10));
+        assertEquals(List.of(centro.getId(), perto.getId()),
+                proximos.getContent().stream().map(p -> p.getContato().getId()).toList());
+        assertEquals(0.0, proximos.getContent().get(0).getDistanciaKm(), 0.001);
+        assertEquals(1.3, proximos.getContent().get(1).getDistanciaKm(), 0.1);
+
+        Page<ContatoResponse> saoPaulo = contatoService.listNaArea(-24, -47, -23, -46, PageRequest.of(0, 10));
+        assertEquals(List.of(longe.getId()), saoPaulo.getContent().stream().map(ContatoResponse::getId).toList());
+        assertEquals(3, contatoService.listNaArea(-26, -50, -23, -46, PageRequest.of(0, 10)).getTotalElements());
+
+        // Moving the contact moves it in the index too
+        longeRequest.setLatitude(-25.4290);
+        longeRequest.setLongitude(-49.2740);
+        contatoService.updateContato(longe.getId(), longeRequest);
+        assertEquals(3, contatoService.listProximos(-25.4284, -49.2733, 10, PageRequest.of(0, 10)).getTotalElements());
+        assertTrue(contatoService.listNaArea(-24, -47, -23, -46, PageRequest.of(0, 10)).isEmpty());
+
+        assertThrows(BusinessException.class, () -> contatoService.listProximos(-25.4, -49.2, 0, PageRequest.of(0, 10)));
+        assertThrows(BusinessException.class, () -> contatoService.listNaArea(-23, -46, -24, -47, PageRequest.of(0, 10)));
+    }
+
+    /**
+     * Test: Should find contacts on both sides of the antimeridian within the radius
+     * Business Rule: The search box wraps around ±180°; page size and depth are bounded
+     */
+    @Test
+    void shouldFindContatosAcrossAntimeridian() {
+        ContatoRequest lesteRequest = buildRequest("Antimeridiano Leste", generateValidCpf(1));
+        lesteRequest.setLatitude(-17.70);
+        lesteRequest.setLongitude(179.95);
+        ContatoResponse leste = contatoService.createContato(lesteRequest);
+        ContatoRequest oesteRequest = buildRequest("Antimeridiano Oeste", generateValidCpf(2));
+        oesteRequest.setLatitude(-17.70);
+        oesteRequest.setLongitude(-179.90);
+        ContatoResponse oeste = contatoService.createContato(oesteRequest);
+
+        assertEquals(List.of(leste.getId(), oeste.getId()), contatoService
+                .listProximos(-17.70, 179.97, 50, PageRequest.of(0, 10)).getContent().stream()
+                .map(p -> p.getContato().getId()).toList());
+        assertEquals(List.of(oeste.getId(), leste.getId()), contatoService
+                .listProximos(-17.70, -179.95, 50, PageRequest.of(0, 10)).getContent().stream()
+                .map(p -> p.getContato().getId()).toList());
+
+        assertThrows(BusinessException.class, () -> contatoService.listProximos(-17.7, 179.9, 50, PageRequest.of(0, 101)));
+        assertThrows(BusinessException.class, () -> contatoService.listProximos(-17.7, 179.9, 50, PageRequest.of(10, 100)));
+    }
+
+    /**
+     * Test: Should return the k contacts nearest to a point, with no radius limit
+     * Business Rule: Nearest first, each with its great-circle distance; k is bounded
+     */
+    @Test
+    void shouldFindNearestContatos() {
+        ContatoResponse centro = contatoService.createContato(buildRequest("Vizinho Centro", generateValidCpf(1)));
+        ContatoRequest longeRequest = buildRequest("Vizinho Longe", generateValidCpf(2));
+        longeRequest.setLatitude(-23.5505);
+        longeRequest.setLongitude(-46.6333);
+        ContatoResponse longe = contatoService.createContato(longeRequest);
+
+        List<ContatoDistanciaResponse> vizinhos = contatoService.listMaisProximos(-25.43, -49.27, 5);
+        assertEquals(List.of(centro.getId(), longe.getId()),
+                vizinhos.stream().map(v -> v.getContato().getId()).toList());
+        assertTrue(vizinhos.get(1).getDistanciaKm() > 300);
+
+        assertEquals(1, contatoService.listMaisProximos(-23.5, -46.6, 1).size());
+        assertThrows(BusinessException.class, () -> contatoService.listMaisProximos(-25.43, -49.27, 0));
+        assertThrows(BusinessException.class, () -> contatoService.listMaisProximos(95, -49.27, 5));
+    }
+
+    /**
+     * Test: Should group probable duplicates and merge them into the main contact
+     * Business Rule: Same phone and similar name is a duplicate; same address alone is not
+     */
+    @Test
+    void shouldFindAndMergeDuplicates() {
+        ContatoResponse principal = contatoService.createContato(buildRequest("João da Silva", generateValidCpf(1)));
+        ContatoRequest duplicadoRequest = buildRequest("Joao Silva", generateValidCpf(2));
+        duplicadoRequest.setTelefone("(41) 9988-7766");
+        duplicadoRequest.setComplemento("Apto 12");
+        ContatoResponse duplicado = contatoService.createContato(duplicadoRequest);
+        ContatoRequest vizinhaRequest = buildRequest("Maria Souza", generateValidCpf(3));
+        vizinhaRequest.setTelefone("41988776655");
+        contatoService.createContato(vizinhaRequest);
+
+        DuplicadosResponse duplicados = contatoService.listDuplicados(PageRequest.of(0, 20));
+        assertEquals("CONCLUIDA", duplicados.getStatus());
+        assertEquals(3, duplicados.getTotalContatos());
+        assertEquals(1, duplicados.getTotalGrupos());
+        assertEquals(List.of(principal.getId(), duplicado.getId()),
+                duplicados.getGrupos().get(0).getContatos().stream().map(ContatoResponse::getId).toList());
+        assertTrue(duplicados.getGrupos().get(0).getMotivos().contains("TELEFONE"));
+
+        ContatoResponse mesclado = contatoService.mesclarContatos(MesclarContatosRequest.builder()
+                .principalId(principal.getId())
+                .duplicadosIds(List.of(duplicado.getId()))
+                .build());
+        assertEquals("Apto 12", mesclado.getComplemento());
+        assertFalse(contatoRepository.existsById(duplicado.getId()));
+        assertEquals(0, contatoService.listDuplicados(PageRequest.of(0, 20)).getTotalGrupos());
+
+        assertThrows(BusinessException.class, () -> contatoService.mesclarContatos(MesclarContatosRequest.builder()
+                .principalId(principal.getId())
+                .duplicadosIds(List.of(principal.getId()))
+                .build()));
+        assertThrows(ResourceNotFoundException.class, () -> contatoService.mesclarContatos(MesclarContatosRequest.builder()
+                .principalId(principal.getId())
+                .duplicadosIds(List.of(duplicado.getId()))
+                .build()));
+    }
+
+    /**
+     * Test: Should filter contacts by location, CEP prefix and dates, with facet counts
+     * Business Rule: Facets count every contact matching the filters, per estado and per cidade
+     */
+    @Test
+    void shouldFilterContatosWithFacets() {
+        contatoService.createContato(buildRequest("Filtro Curitiba", generateValidCpf(1)));
+        ContatoRequest londrinaRequest = buildRequest("Filtro Londrina", generateValidCpf(2));
+        londrinaRequest.setCep("86010000");
+        londrinaRequest.setCidade("Londrina");
+        contatoService.createContato(londrinaRequest);
+        ContatoRequest saoPauloRequest = buildRequest("Filtro São Paulo", generateValidCpf(3));
+        saoPauloRequest.setCep("01310100");
+        saoPauloRequest.setCidade("São Paulo");
+        saoPauloRequest.setEstado("SP");
+        contatoService.createContato(saoPauloRequest);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("nome"));
+
+        Page<ContatoResponse> parana = contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().estado("pr").build(), pageable);
+        assertEquals(List.of("Filtro Curitiba", "Filtro Londrina"),
+                parana.getContent().stream().map(ContatoResponse::getNome).toList());
+        assertEquals(List.of("Filtro Londrina"), contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().cepPrefixo("86").build(), pageable)
+                .getContent().stream().map(ContatoResponse::getNome).toList());
+        assertEquals(1, contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().estado("PR").cidade("Curitiba").bairro("Centro").build(), pageable)
+                .getTotalElements());
+        assertEquals(0, contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().criadoAte(LocalDateTime.now().minusDays(1)).build(), pageable)
+                .getTotalElements());
+
+        ContatosFacetadosResponse facetas = contatoService.listContatosComFacetas(
+                ContatoFiltro.builder().search("Filtro").build(), PageRequest.of(0, 1, Sort.by("nome")));
+        assertEquals(1, facetas.getContatos().getContent().size());
+        assertEquals(3, facetas.getContatos().getTotalElements());
+        assertEquals(List.of("PR:2", "SP:1"),
+                facetas.getEstados().stream().map(f -> f.getValor() + ":" + f.getTotal()).toList());
+        assertEquals(List.of("Curitiba/PR:1", "Londrina/PR:1", "São Paulo/SP:1"), facetas.getCidades().stream()
+                .map(f -> f.getValor() + "/" + f.getEstado() + ":" + f.getTotal()).toList());
+
+        assertThrows(BusinessException.class, () -> contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().cepPrefixo("80a").build(), pageable));
+        assertThrows(BusinessException.class, () -> contatoService.listContatosFiltrados(
+                ContatoFiltro.builder()
+                        .criadoDesde(LocalDateTime.now())
+                        .criadoAte(LocalDateTime.now().minusDays(1))
+                        .build(), pageable));
+    }
+
+    /**
+     * Test: Should tag contacts and filter them by all, any and none of the tags
+     * Business Rule: Tags are normalized; PUT without tags keeps them and a null patch clears them
+     */
+    @Test
+    void shouldFilterContatosByTags() throws Exception {
+        ContatoRequest clienteRequest = buildRequest("Tag Cliente", generateValidCpf(1));
+        clienteRequest.setTags(List.of(" Cliente ", "VIP", "cliente"));
+        ContatoResponse cliente = contatoService.createContato(clienteRequest);
+        ContatoRequest leadRequest = buildRequest("Tag Lead", generateValidCpf(2));
+        leadRequest.setTags(List.of("lead"));
+        contatoService.createContato(leadRequest);
+        contatoService.createContato(buildRequest("Tag Nenhuma", generateValidCpf(3)));
+        assertEquals(List.of("cliente", "vip"), cliente.getTags());
+
+        clienteRequest.setTags(null);
+        assertEquals(List.of("cliente", "vip"), contatoService.updateContato(cliente.getId(), clienteRequest).getTags());
+        assertEquals(List.of("cliente", "lead"), contatoService.patchContato(cliente.getId(),
+                objectMapper.readTree("{\"tags\": [\"cliente\", \"lead\"]}")).getTags());
+
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("nome"));
+        assertEquals(List.of("Tag Cliente"), nomes(contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().tags(List.of("Lead", "cliente")).build(), pageable)));
+        assertEquals(List.of("Tag Cliente", "Tag Lead"), nomes(contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().algumasTags(List.of("lead", "vip")).build(), pageable)));
+        assertEquals(List.of("Tag Nenhuma"), nomes(contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().semTags(List.of("lead")).build(), pageable)));
+        assertEquals(List.of("cliente:1", "lead:2"), contatoService.listTags().stream()
+                .map(f -> f.getValor() + ":" + f.getTotal()).toList());
+
+        // Fallback do banco para resultados grandes: mesmo resultado com LIKE na coluna delimitada
+        assertEquals(List.of("Tag Nenhuma"), contatoRepository.findAll(
+                        ContatoSpecifications.comTags(List.of(), List.of(), List.of("lead")), Sort.by("nome"))
+                .stream().map(Contato::getNome).filter(nome -> nome.startsWith("Tag")).toList());
+        assertEquals(List.of("Tag Cliente"), contatoRepository.findAll(
+                        ContatoSpecifications.comTags(List.of("lead", "cliente"), List.of(), List.of()), Sort.by("nome"))
+                .stream().map(Contato::getNome).toList());
+
+        assertEquals(List.of(), contatoService.patchContato(cliente.getId(),
+                objectMapper.readTree("{\"tags\": null}")).getTags());
+        assertThrows(BusinessException.class, () -> contatoService.listContatosFiltrados(
+                ContatoFiltro.builder().tags(List.of("a%b")).build(), pageable));
+    }
+
+    /**
+     * Test: Should find contacts by phone in any format, and by the local number without area code
+     * Business Rule: Phones are stored as E.164 digits; local numbers match by suffix
+     */
+    @Test
+    void shouldFindContatosByPhone() {
+        ContatoRequest celularRequest = buildRequest("Telefone Celular", generateValidCpf(1));
+        celularRequest.setTelefone("(41) 99988-7766");
+        ContatoResponse celular = contatoService.createContato(celularRequest);
+        ContatoRequest fixoRequest = buildRequest("Telefone Fixo", generateValidCpf(2));
+        fixoRequest.setTelefone("+55 41 3322-4455");
+        contatoService.createContato(fixoRequest);
+
+        assertEquals(List.of(celular.getId()), contatoService.listPorTelefone("+55 (41) 999887766").stream()
+                .map(ContatoResponse::getId).toList());
+        assertEquals(List.of("Telefone Celular"), contatoService.listPorTelefone("99988-7766").stream()
+                .map(ContatoResponse::getNome).toList());
+        assertEquals(List.of("Telefone Fixo"), contatoService.listPorTelefone("041 3322 4455").stream()
+                .map(ContatoResponse::getNome).toList());
+        assertTrue(contatoService.listPorTelefone("(11) 99988-7766").isEmpty());
+
+        celularRequest.setTelefone("41 3322-4455");
+        contatoService.updateContato(celular.getId(), celularRequest);
+        assertEquals(List.of("Telefone Celular", "Telefone Fixo"), contatoService.listPorTelefone("3322-4455").stream()
+                .map(ContatoResponse::getNome).toList());
+        assertThrows(BusinessException.class, () -> contatoService.listPorTelefone("1234"));
+    }
+
+    /**
+     * Test: Should record creates, updates and deletes in the contact history
+     * Business Rule: Committed changes are buffered and written in batches by the background writer
+     */
+    @Test
+    void shouldRecordContactHistory() {
+        Long usuarioId = usuarioRepository.findByEmail(userEmail).orElseThrow().getId();
+        ContatoRequest request = buildRequest("Histórico", generateValidCpf(1));
+        ContatoResponse criado = contatoService.createContato(request);
+        request.setNome("Histórico Alterado");
+        ContatoResponse atualizado = contatoService.updateContato(criado.getId(), request);
+        contatoService.deleteContato(criado.getId());
+
+        // Eventos publicados após o commit, que não acontece nos testes transacionais
+        auditoriaService.onContatoAlterado(
+                ContatoAlteradoEvent.salvo(usuarioId, ContatoAlteradoEvent.Tipo.CRIADO, criado, 1));
+        auditoriaService.onContatoAlterado(
+                ContatoAlteradoEvent.salvo(usuarioId, ContatoAlteradoEvent.Tipo.ATUALIZADO, atualizado, 2));
+        auditoriaService.onContatoAlterado(ContatoAlteradoEvent.excluidos(usuarioId, List.of(criado.getId()), 3));
+        auditoriaService.gravarPendentes();
+        assertEquals(0, auditoriaService.pendentes());
+
+        List<AuditoriaResponse> historico = contatoService.getHistorico(criado.getId(), PageRequest.of(0, 10))
+                .getContent();
+        assertEquals(List.of("EXCLUIDO", "ATUALIZADO", "CRIADO"),
+                historico.stream().map(AuditoriaResponse::getTipo).toList());
+        assertNull(historico.get(0).getContato());
+        assertEquals("Histórico Alterado", historico.get(1).getContato().getNome());
+        assertEquals(criado.getVersao(), historico.get(2).getVersao());
+    }
+
+    /**
+     * Test: Should reject a change the database refuses, without blocking the history behind it
+     * Business Rule: A failing batch is split after the attempts and a single failing change is dead-lettered
+     */
+    @Test
+    void shouldRejectHistoryEntryRefusedByDatabase() {
+        Long usuarioId = usuarioRepository.findByEmail(userEmail).orElseThrow().getId();
+        ContatoResponse criado = contatoService.createContato(buildRequest("Histórico", generateValidCpf(1)));
+        // Dados acima do tamanho da coluna: o banco recusa a linha em toda tentativa
+        ContatoResponse grande = ContatoResponse.builder().id(criado.getId()).nome("x".repeat(5000)).build();
+
+        auditoriaService.onContatoAlterado(
+                ContatoAlteradoEvent.salvo(usuarioId, ContatoAlteradoEvent.Tipo.ATUALIZADO, grande, 2));
+        for (int i = 0; i < 10; i++) {
+            auditoriaService.gravarPendentes();
+        }
+        auditoriaService.onContatoAlterado(ContatoAlteradoEvent.excluidos(usuarioId, List.of(criado.getId()), 3));
+        auditoriaService.gravarPendentes();
+
+        assertEquals(List.of("EXCLUIDO"), contatoService.getHistorico(criado.getId(), PageRequest.of(0, 10))
+                .getContent().stream().map(AuditoriaResponse::getTipo).toList());
+    }
+
+    private static List<String> nomes(Page<ContatoResponse> contatos) {
+        return contatos.getContent().stream().map(ContatoResponse::getNome).toList();
+    }
+
+    /**
+     * Test: Should keep the statistics up to date through creates, moves and deletes
+     * Business Rule: Writes apply deltas; the reconciliation fixes counters that drifted
+     */
+    @Test
+    void shouldMaintainStatisticsOnWrites() {
+        ContatoResponse curitiba = contatoService.createContato(buildRequest("Stats Curitiba", generateValidCpf(1)));
+        ContatoRequest mudancaRequest = buildRequest("Stats Mudança", generateValidCpf(2));
+        ContatoResponse mudanca = contatoService.createContato(mudancaRequest);
+        contatoService.createContato(buildRequest("Stats Removido", generateValidCpf(3)));
+
+        mudancaRequest.setCidade("São Paulo");
+        mudancaRequest.setEstado("SP");
+        contatoService.updateContato(mudanca.getId(), mudancaRequest);
+        contatoService.deleteContatosBySearch("Removido");
+
+        EstatisticasResponse estatisticas = contatoService.getEstatisticas();
+        assertEquals(2, estatisticas.getTotal());
+        assertEquals(List.of("PR:1", "SP:1"),
+                estatisticas.getEstados().stream().map(f -> f.getValor() + ":" + f.getTotal()).toList());
+        assertEquals(List.of("Curitiba/PR:1", "São Paulo/SP:1"), estatisticas.getCidades().stream()
+                .map(f -> f.getValor() + "/" + f.getEstado() + ":" + f.getTotal()).toList());
+        CrescimentoMensalResponse mes = estatisticas.getCrescimento().get(0);
+        assertEquals(YearMonth.now(), mes.getMes());
+        assertEquals(3, mes.getCriados());
+        assertEquals(1, mes.getExcluidos());
+        assertEquals(2, mes.getTotal());
+
+        // Contador corrompido por fora da aplicação: a reconciliação recompõe a partir dos contatos
+        Long usuarioId = usuarioRepository.findByEmail(userEmail).orElseThrow().getId();
+        contatoEstatisticaRepository.somar(usuarioId, "PR", "Curitiba", 5);
+        assertTrue(estatisticasService.reconciliar(usuarioId));
+        assertFalse(estatisticasService.reconciliar(usuarioId));
+        assertEquals(2, contatoService.getEstatisticas().getTotal());
+
+        contatoService.deleteContato(curitiba.getId());
+        assertEquals(List.of("SP"),
+                contatoService.getEstatisticas().getEstados().stream().map(FacetaResponse::getValor).toList());
+    }
+
+    /**
+     * Test: Should share one address row among contacts at the same address and geocode it once
+     * Business Rule: Spellings differing only in case, accents or punctuation are the same address
+     */
+    @Test
+    void shouldGeocodeEachAddressOnce() {
+        ContatoRequest primeiroRequest = buildRequest("Endereço Primeiro", generateValidCpf(1));
+        primeiroRequest.setLatitude(null);
+        primeiroRequest.setLongitude(null);
+        primeiroRequest.setNumero("321");
+        clearInvocations(googleMapsService);
+        ContatoResponse primeiro = contatoService.createContato(primeiroRequest);
+
+        ContatoRequest segundoRequest = buildRequest("Endereço Segundo", generateValidCpf(2));
+        segundoRequest.setLatitude(null);
+        segundoRequest.setLongitude(null);
+        segundoRequest.setNumero("321");
+        segundoRequest.setLogradouro("RUA JOSE LOUREIRO.");
+        ContatoResponse segundo = contatoService.createContato(segundoRequest);
+
+        verify(googleMapsService, times(1)).getCoordinates(
+                "Rua José Loureiro", "321", "Centro", "Curitiba", "PR", "80010000");
+        assertEquals(primeiro.getLatitude(), segundo.getLatitude());
+        assertEquals(contatoRepository.findById(primeiro.getId()).orElseThrow().getEndereco().getId(),
+                contatoRepository.findById(segundo.getId()).orElseThrow().getEndereco().getId());
+        assertEquals(EnderecoService.chave("80010-000", "Rua José Loureiro", "321", "Centro", "Curitiba", "PR"),
+                EnderecoService.chave("80010000", "rua jose  loureiro", "321", "CENTRO", "curitiba", "pr"));
+
+        // Contato gravado antes da tabela de endereços: a vinculação em lotes liga ao endereço existente
+        Contato antigo = contatoRepository.findById(primeiro.getId()).orElseThrow();
+        antigo.setEndereco(null);
+        contatoRepository.saveAndFlush(antigo);
+        assertEquals(1, contatoRepository.findSemEndereco(0L, PageRequest.of(0, 10)).size());
+        Long versao = contatoService.getContatoVersao(primeiro.getId()).orElseThrow();
+        enderecoService.vincularPendentes();
+        assertTrue(contatoRepository.findSemEndereco(0L, PageRequest.of(0, 10)).isEmpty());
+        // A ligação não muda nada visível do contato: a versão (e o ETag) continua a mesma
+        assertEquals(versao, contatoService.getContatoVersao(primeiro.getId()).orElseThrow());
+    }
+
+    /**
+     * Test: Should leave the address link to the node holding the lease
+     * Business Rule: Only one node runs the background link at a time
+     */
+    @Test
+    void shouldSkipAddressLinkWhileAnotherNodeHoldsTheLease() {
+        ContatoResponse contato = contatoService.createContato(buildRequest("Sem Endereço", generateValidCpf(1)));
+        Contato antigo = contatoRepository.findById(contato.getId()).orElseThrow();
+        antigo.setEndereco(null);
+        contatoRepository.saveAndFlush(antigo);
+        arrendamentoRepository.saveAndFlush(new Arrendamento("enderecos.vinculacao", "outro-no",
+                LocalDateTime.now().plusMinutes(5)));
+
+        enderecoService.vincularPendentes();
+        assertEquals(1, contatoRepository.findSemEndereco(0L, PageRequest.of(0, 10)).size());
+
+        // Arrendamento expirado: este nó assume a vinculação
+        arrendamentoRepository.saveAndFlush(new Arrendamento("enderecos.vinculacao", "outro-no",
+                LocalDateTime.now().minusMinutes(1)));
+        enderecoService.vincularPendentes();
+        assertTrue(contatoRepository.findSemEndereco(0L, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    /**
+     * Test: Should group the contacts of the viewport into clusters for the zoom level
+     * Business Rule: Far apart contacts stay apart; close ones merge at low zoom levels
+     */
+    @Test
+    void shouldClusterContatosByZoomLevel() {
+        contatoService.createContato(buildRequest("Cluster Centro", generateValidCpf(1)));
+        ContatoRequest pertoRequest = buildRequest("Cluster Perto", generateValidCpf(2));
+        pertoRequest.setLatitude(-25.4400);
+        pertoRequest.setLongitude(-49.2700);
+        contatoService.createContato(pertoRequest);
+        ContatoRequest longeRequest = buildRequest("Cluster Longe", generateValidCpf(3));
+        longeRequest.setLatitude(-23.5505);
+        longeRequest.setLongitude(-46.6333);
+        contatoService.createContato(longeRequest);
+
+        List<ClusterResponse> pais = contatoService.listClusters("-74,-34,-34,6", 4);
+        assertEquals(List.of(1, 2), pais.stream().map(ClusterResponse::getTotal).sorted().toList());
+
+        List<ClusterResponse> cidade = contatoService.listClusters("-49.35,-25.5,-49.2,-25.35", 16);
+        assertEquals(2, cidade.size());
+
+        assertThrows(BusinessException.class, () -> contatoService.listClusters("-49.35,-25.5", 4));
+        assertThrows(BusinessException.class, () -> contatoService.listClusters("-74,-34,-34,6", 30));
+    }
+
+    /**
+     * Helper method to register (if needed) and authenticate a user
+     */
+    private void authenticateAs(String email) {
+        if (!authService.emailExists(email)) {
+            authService.register(UsuarioRegistroRequest.builder()
+                    .nome("Outro Usuário")
+                    .email(email)
+                    .senha("password123")
+                    .build());
+        }
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null)
+        );
+    }
+
+    /**
+     * Helper method to build a valid contact request with fixed address data
+     */
+    private ContatoRequest buildRequest(String nome, String cpf) {
+        return ContatoRequest.builder()
+                .nome(nome)
+                .cpf(cpf)
+                .telefone("41999887766")
+                .cep("80010000")
+                .logradouro("Rua José Loureiro")
+                .numero("100")
+                .bairro("Centro")
+                .cidade("Curitiba")
+                .estado("PR")
+                .latitude(-25.4284)
+                .longitude(-49.2733)
+                .build();
+    }
+
     /**
      * Helper method to generate valid CPF for testing
      * Uses pre-calculated valid CPFs that pass the official validation algorithm
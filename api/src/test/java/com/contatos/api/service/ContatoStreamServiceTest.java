@@ -0,0 +1,79 @@
+package com.contatos.api.service;
+
+import com.contatos.api.event.ContatoAlteradoEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SSE subscriber registry
+ * Tests cover per-user fan-out and disconnection of slow consumers
+ */
+class ContatoStreamServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    /**
+     * Test: Should deliver an event only to the streams of the contact owner
+     */
+    @Test
+    void shouldFanOutOnlyToOwner() {
+        ContatoStreamService service = new ContatoStreamService(objectMapper, Runnable::run, 8, 0);
+        EmitterCapturado dono = new EmitterCapturado();
+        EmitterCapturado outraAba = new EmitterCapturado();
+        EmitterCapturado outroUsuario = new EmitterCapturado();
+        service.assinar(1L, dono);
+        service.assinar(1L, outraAba);
+        service.assinar(2L, outroUsuario);
+
+        service.onContatoAlterado(ContatoAlteradoEvent.excluidos(1L, List.of(10L, 11L), 5));
+
+        assertEquals(1, dono.enviados.size());
+        assertTrue(dono.enviados.get(0).contains("event:excluido"));
+        assertTrue(dono.enviados.get(0).contains("[10,11]"));
+        assertEquals(1, outraAba.enviados.size());
+        assertTrue(outroUsuario.enviados.isEmpty());
+    }
+
+    /**
+     * Test: Should disconnect a subscriber whose buffer is full
+     * Business Rule: A slow consumer is dropped instead of buffering without limit
+     */
+    @Test
+    void shouldDropSlowConsumer() {
+        // Tasks are never run, so nothing is drained: the subscriber behaves as a stalled client
+        List<Runnable> pendentes = new ArrayList<>();
+        ContatoStreamService service = new ContatoStreamService(objectMapper, pendentes::add, 2, 0);
+        service.assinar(1L, new EmitterCapturado());
+
+        service.onContatoAlterado(ContatoAlteradoEvent.excluidos(1L, List.of(1L), 1));
+        service.onContatoAlterado(ContatoAlteradoEvent.excluidos(1L, List.of(2L), 2));
+        assertEquals(1, service.contarAssinantes(1L));
+
+        service.onContatoAlterado(ContatoAlteradoEvent.excluidos(1L, List.of(3L), 3));
+        assertEquals(0, service.contarAssinantes(1L));
+    }
+
+    /**
+     * Emitter that records the frames it would write to the response
+     */
+    private static class EmitterCapturado extends SseEmitter {
+
+        private final List<String> enviados = new ArrayList<>();
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            enviados.add(items.stream()
+                    .map(item -> item.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.contatos.api.service;
+
+import com.contatos.api.config.TestConfig;
+import com.contatos.api.dto.ContatoRequest;
+import com.contatos.api.dto.DeletarContaRequest;
+import com.contatos.api.dto.ExclusaoContaResponse;
+import com.contatos.api.dto.UsuarioRegistroRequest;
+import com.contatos.api.exception.BusinessException;
+import com.contatos.api.exception.ResourceNotFoundException;
+import com.contatos.api.model.ExclusaoConta;
+import com.contatos.api.repository.ContatoRepository;
+import com.contatos.api.repository.ExclusaoContaRepository;
+import com.contatos.api.repository.UsuarioRepository;
+import com.contatos.api.security.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the background account purge
+ * Not @Transactional: the purge runs in its own transactions after the request commits
+ */
+@SpringBootTest(properties = "conta.exclusao.tamanho-lote=2")
+@Import(TestConfig.class)
+class ExclusaoContaServiceTest {
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ExclusaoContaService exclusaoContaService;
+
+    @Autowired
+    private ContatoService contatoService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private ExclusaoContaRepository exclusaoContaRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test: Should disable the user at once and purge contacts in chunks in the background
+     * Business Rule: Progress is visible and the user row is removed at the end
+     */
+    @Test
+    void shouldPurgeAccountInChunks() throws InterruptedException {
+        String email = "exclusao-lotes@example.com";
+        authenticate(email);
+        String[] cpfs = {"11144477735", "52998224725", "84434895028", "12345678909", "01234567890"};
+        for (String cpf : cpfs) {
+            contatoService.createContato(buildRequest(cpf));
+        }
+        Long usuarioId = usuarioRepository.findByEmail(email).orElseThrow().getId();
+
+        ExclusaoContaResponse iniciada = contaService.deletarConta(new DeletarContaRequest("password123"));
+
+        assertEquals(5L, iniciada.getTotalContatos());
+        ExclusaoContaResponse concluida = aguardarConclusao(iniciada);
+        assertEquals("CONCLUIDA", concluida.getStatus());
+        assertEquals(5L, concluida.getContatosRemovidos());
+        assertNotNull(concluida.getConcluidaEm());
+        assertEquals(0, contatoRepository.countByUsuarioId(usuarioId));
+        assertFalse(usuarioRepository.existsById(usuarioId));
+    }
+
+    /**
+     * Test: Should leave a purge alone while another node holds its lease
+     * Business Rule: Only the lease holder purges; an expired lease can be taken over
+     */
+    @Test
+    void shouldSkipPurgeLeasedByAnotherNode() {
+        ExclusaoConta exclusao = exclusaoContaRepository.save(ExclusaoConta.builder()
+                .usuarioId(-1L)
+                .status(ExclusaoConta.Status.EM_ANDAMENTO)
+                .totalContatos(0L)
+                .executor("outro-no")
+                .arrendadaAte(LocalDateTime.now().plusMinutes(5))
+                .build());
+
+        exclusaoContaService.processar(exclusao.getId());
+        assertEquals(ExclusaoConta.Status.EM_ANDAMENTO,
+                exclusaoContaRepository.findById(exclusao.getId()).orElseThrow().getStatus());
+
+        exclusao = exclusaoContaRepository.findById(exclusao.getId()).orElseThrow();
+        exclusao.setArrendadaAte(LocalDateTime.now().minusSeconds(1));
+        exclusaoContaRepository.save(exclusao);
+
+        exclusaoContaService.processar(exclusao.getId());
+        assertEquals(ExclusaoConta.Status.CONCLUIDA,
+                exclusaoContaRepository.findById(exclusao.getId()).orElseThrow().getStatus());
+        exclusaoContaRepository.deleteById(exclusao.getId());
+    }
+
+    /**
+     * Test: Should show the purge progress only to the holder of its token
+     * Business Rule: A missing or wrong token answers as if the purge didn't exist
+     */
+    @Test
+    void shouldRequireTokenToReadPurgeProgress() throws InterruptedException {
+        authenticate("exclusao-token@example.com");
+
+        ExclusaoContaResponse iniciada = contaService.deletarConta(new DeletarContaRequest("password123"));
+
+        assertNotNull(iniciada.getToken());
+        assertThrows(ResourceNotFoundException.class, () -> exclusaoContaService.consultar(iniciada.getId(), null));
+        assertThrows(ResourceNotFoundException.class,
+                () -> exclusaoContaService.consultar(iniciada.getId(), iniciada.getToken() + "x"));
+        ExclusaoContaResponse concluida = aguardarConclusao(iniciada);
+        assertEquals("CONCLUIDA", concluida.getStatus());
+        assertNull(concluida.getToken());
+    }
+
+    /**
+     * Test: Should reject the deletion when the password doesn't match
+     */
+    @Test
+    void shouldRejectWrongPassword() {
+        String email = "exclusao-senha@example.com";
+        authenticate(email);
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> contaService.deletarConta(new DeletarContaRequest("errada")));
+        assertEquals("Senha inválida", exception.getMessage());
+        assertTrue(userDetailsService.loadUserByUsername(email).isEnabled());
+
+        usuarioRepository.findByEmail(email).ifPresent(usuarioRepository::delete);
+    }
+
+    private ExclusaoContaResponse aguardarConclusao(ExclusaoContaResponse exclusao) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ExclusaoContaResponse atual = exclusaoContaService.consultar(exclusao.getId(), exclusao.getToken());
+            if ("CONCLUIDA".equals(atual.getStatus())) {
+                return atual;
+            }
+            Thread.sleep(100);
+        }
+        return fail("Expurgo não concluído a tempo");
+    }
+
+    private void authenticate(String email) {
+        authService.register(UsuarioRegistroRequest.builder()
+                .nome("Exclusão Test User")
+                .email(email)
+                .senha("password123")
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null)
+        );
+    }
+
+    private ContatoRequest buildRequest(String cpf) {
+        return ContatoRequest.builder()
+                .nome("Contato " + cpf)
+                .cpf(cpf)
+                .telefone("41999887766")
+                .cep("80010000")
+                .logradouro("Rua José Loureiro")
+                .numero("100")
+                .bairro("Centro")
+                .cidade("Curitiba")
+                .estado("PR")
+                .latitude(-25.4284)
+                .longitude(-49.2733)
+                .build();
+    }
+}
@@ -0,0 +1,255 @@
+package com.contatos.api.service;
+
+import com.contatos.api.cache.ContatosUsuarioCache;
+import com.contatos.api.cache.HibernateInvalidacaoCache;
+import com.contatos.api.config.TestConfig;
+import com.contatos.api.dto.ContatoRequest;
+import com.contatos.api.dto.ContatoResponse;
+import com.contatos.api.dto.UsuarioRegistroRequest;
+import com.contatos.api.exception.ResourceNotFoundException;
+import com.contatos.api.model.Contato;
+import com.contatos.api.security.CustomUserDetailsService;
+import com.contatos.api.security.UsuarioPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the second-level cache of Contato and Usuario
+ * Not @Transactional: entries are written to the cache when each service transaction commits
+ */
+@SpringBootTest
+@Import(TestConfig.class)
+class SegundoNivelCacheTest {
+
+    private static final String EMAIL = "cache-l2@example.com";
+
+    @Autowired
+    private ContatoService contatoService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HibernateInvalidacaoCache hibernateInvalidacaoCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        if (!authService.emailExists(EMAIL)) {
+            authService.register(UsuarioRegistroRequest.builder()
+                    .nome("Cache Test User")
+                    .email(EMAIL)
+                    .senha("password123")
+                    .build());
+        }
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(EMAIL, null)
+        );
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test: Should serve the authenticated user and a contact read without hitting the database
+     * Business Rule: Writes go through the cache, so the next read sees the new values
+     */
+    @Test
+    void shouldServeReadsFromCacheAndSeeWrites() {
+        ContatoResponse created = contatoService.createContato(buildRequest("Cacheado"));
+        Long id = created.getId();
+
+        // Warm-up: the email -> id resolution is cached on its first lookup
+        userDetailsService.loadUserByUsername(EMAIL);
+        contatoService.getContato(id);
+
+        statistics.clear();
+        userDetailsService.loadUserByUsername(EMAIL);
+        assertEquals("Cacheado", contatoService.getContato(id).getNome());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+
+        contatoService.updateContato(id, buildRequest("Atualizado"));
+
+        statistics.clear();
+        assertEquals("Atualizado", contatoService.getContato(id).getNome());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        contatoService.deleteContato(id);
+    }
+
+    /**
+     * Test: Should serve the first page of the list as cached JSON without hitting the database
+     * Business Rule: A committed write drops the user's cached pages, so the next read sees it
+     */
+    @Test
+    void shouldServeFirstPageFromCacheUntilWrite() throws Exception {
+        Sort sort = Sort.by("nome");
+        userDetailsService.loadUserByUsername(EMAIL);
+        contatoService.getPrimeiraPagina(sort, 10);
+
+        statistics.clear();
+        ContatosUsuarioCache.Pagina cacheada = contatoService.getPrimeiraPagina(sort, 10);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertSame(cacheada, contatoService.getPrimeiraPagina(sort, 10));
+
+        ContatoResponse created = contatoService.createContato(buildRequest("Primeira Página"));
+
+        ContatosUsuarioCache.Pagina atualizada = contatoService.getPrimeiraPagina(sort, 10);
+        assertNotEquals(cacheada.etag(), atualizada.etag());
+        assertEquals(objectMapper.writeValueAsString(contatoService.listContatos(null, PageRequest.of(0, 10, sort))),
+                new String(atualizada.json(), UTF_8));
+        assertTrue(new String(atualizada.json(), UTF_8).contains("Primeira Página"));
+
+        contatoService.deleteContato(created.getId());
+        assertFalse(new String(contatoService.getPrimeiraPagina(sort, 10).json(), UTF_8).contains("Primeira Página"));
+    }
+
+    /**
+     * Test: Should answer CPF lookups from the working set warmed at login
+     * Business Rule: A committed write drops the warmed CPFs, so lookups fall back to the database
+     */
+    @Test
+    void shouldAnswerCpfExistsFromWarmedCache() {
+        ContatoResponse created = contatoService.createContato(buildRequest("Aquecido"));
+        Long usuarioId = ((UsuarioPrincipal) userDetailsService.loadUserByUsername(EMAIL)).getId();
+
+        contatoService.aquecer(usuarioId, 1000);
+
+        statistics.clear();
+        assertTrue(contatoService.cpfExists("84434895028"));
+        assertFalse(contatoService.cpfExists("52998224725"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        contatoService.deleteContato(created.getId());
+
+        assertFalse(contatoService.cpfExists("84434895028"));
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+    }
+
+    /**
+     * Test: Should delete one contact with a single statement and keep the other cached entries
+     * Business Rule: The delete is scoped to the owner; only the deleted contact leaves the cache
+     */
+    @Test
+    void shouldDeleteOneContactKeepingOtherCacheEntries() {
+        Long excluido = contatoService.createContato(buildRequest("Excluído", "52998224725")).getId();
+        Long mantido = contatoService.createContato(buildRequest("Mantido", "11144477735")).getId();
+        contatoService.getContato(excluido);
+        contatoService.getContato(mantido);
+        Cache cache = entityManagerFactory.getCache();
+        assertTrue(cache.contains(Contato.class, excluido));
+
+        assertEquals(contatoService.getContato(mantido).getVersao(),
+                contatoService.getContatoVersao(mantido).orElseThrow());
+        contatoService.deleteContato(excluido);
+
+        assertFalse(cache.contains(Contato.class, excluido));
+        assertTrue(cache.contains(Contato.class, mantido));
+        assertThrows(ResourceNotFoundException.class, () -> contatoService.getContato(excluido));
+        assertTrue(contatoService.getContatoVersao(excluido).isEmpty());
+
+        contatoService.deleteContato(mantido);
+    }
+
+    /**
+     * Test: Should bulk delete contacts evicting only their cache entries
+     * Business Rule: The chunked DELETE is scoped to the owner and the selected IDs, so other cached
+     * contacts stay in the region
+     */
+    @Test
+    void shouldBulkDeleteKeepingOtherCacheEntries() {
+        Long primeiro = contatoService.createContato(buildRequest("Lote 1", "52998224725")).getId();
+        Long segundo = contatoService.createContato(buildRequest("Lote 2", "11144477735")).getId();
+        Long mantido = contatoService.createContato(buildRequest("Fora do Lote")).getId();
+        contatoService.getContato(primeiro);
+        contatoService.getContato(segundo);
+        contatoService.getContato(mantido);
+        Cache cache = entityManagerFactory.getCache();
+
+        assertEquals(2, (int) contatoService.deleteContatos(List.of(primeiro, segundo)).getTotal());
+
+        assertFalse(cache.contains(Contato.class, primeiro));
+        assertFalse(cache.contains(Contato.class, segundo));
+        assertTrue(cache.contains(Contato.class, mantido));
+        assertThrows(ResourceNotFoundException.class, () -> contatoService.getContato(primeiro));
+
+        contatoService.deleteContato(mantido);
+    }
+
+    /**
+     * Test: Should drop only the purged user's email resolution when another node purges an account
+     * Business Rule: Emails never change, so the other users' cached email -> id resolutions stay valid
+     */
+    @Test
+    void shouldEvictOnlyPurgedUsersEmailResolution() {
+        Long usuarioId = ((UsuarioPrincipal) userDetailsService.loadUserByUsername(EMAIL)).getId();
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        hibernateInvalidacaoCache.invalidarUsuario(usuarioId + 1000, "outro-l2@example.com", true);
+
+        statistics.clear();
+        userDetailsService.loadUserByUsername(EMAIL);
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        hibernateInvalidacaoCache.invalidarUsuario(usuarioId, EMAIL, true);
+
+        statistics.clear();
+        userDetailsService.loadUserByUsername(EMAIL);
+        assertEquals(0, statistics.getNaturalIdCacheHitCount());
+        assertTrue(statistics.getNaturalIdCacheMissCount() > 0);
+    }
+
+    private ContatoRequest buildRequest(String nome) {
+        return buildRequest(nome, "84434895028");
+    }
+
+    private ContatoRequest buildRequest(String nome, String cpf) {
+        return ContatoRequest.builder()
+                .nome(nome)
+                .cpf(cpf)
+                .telefone("41999887766")
+                .cep("80010000")
+                .logradouro("Rua José Loureiro")
+                .numero("100")
+                .bairro("Centro")
+                .cidade("Curitiba")
+                .estado("PR")
+                .latitude(-25.4284)
+                .longitude(-49.2733)
+                .build();
+    }
+}
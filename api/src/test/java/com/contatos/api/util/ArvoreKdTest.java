@@ -0,0 +1,58 @@
+package com.contatos.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArvoreKdTest {
+
+    @Test
+    void shouldMatchBruteForce() {
+        Random random = new Random(11);
+        int n = 5000;
+        long[] ids = new long[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+            latitudes[i] = -90 + random.nextDouble() * 180;
+            longitudes[i] = -180 + random.nextDouble() * 360;
+        }
+        ArvoreKd arvore = new ArvoreKd(ids, latitudes, longitudes);
+
+        for (int consulta = 0; consulta < 50; consulta++) {
+            double lat = -90 + random.nextDouble() * 180;
+            double lng = -180 + random.nextDouble() * 360;
+            List<Long> esperados = IntStream.range(0, n).boxed()
+                    .sorted(Comparator.comparingDouble(
+                            i -> GeoHash.distanciaKm(lat, lng, latitudes[i], longitudes[i])))
+                    .limit(7)
+                    .map(i -> ids[i])
+                    .toList();
+            List<ArvoreKd.Vizinho> vizinhos = arvore.vizinhos(lat, lng, 7, id -> false);
+            assertEquals(esperados, vizinhos.stream().map(ArvoreKd.Vizinho::id).toList());
+            int primeiro = (int) vizinhos.get(0).id();
+            assertEquals(GeoHash.distanciaKm(lat, lng, latitudes[primeiro], longitudes[primeiro]),
+                    vizinhos.get(0).distanciaKm(), 1e-6);
+        }
+    }
+
+    @Test
+    void shouldFindNeighboursAcrossTheAntimeridianAndSkipIgnored() {
+        ArvoreKd arvore = new ArvoreKd(new long[] {1, 2, 3},
+                new double[] {0, 0, 0}, new double[] {179.9, -179.9, 170});
+
+        List<ArvoreKd.Vizinho> vizinhos = arvore.vizinhos(0, -179.95, 2, id -> false);
+        assertEquals(List.of(2L, 1L), vizinhos.stream().map(ArvoreKd.Vizinho::id).toList());
+        assertEquals(5.56, vizinhos.get(0).distanciaKm(), 0.01);
+
+        assertEquals(List.of(1L, 3L), arvore.vizinhos(0, -179.95, 5, id -> id == 2).stream()
+                .map(ArvoreKd.Vizinho::id).toList());
+        assertTrue(new ArvoreKd(new long[0], new double[0], new double[0]).vizinhos(0, 0, 3, id -> false).isEmpty());
+    }
+}
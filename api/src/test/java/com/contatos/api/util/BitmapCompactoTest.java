@@ -0,0 +1,78 @@
+package com.contatos.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitmapCompactoTest {
+
+    @Test
+    void shouldMatchBitSet() {
+        Random random = new Random(13);
+        BitmapCompacto a = new BitmapCompacto();
+        BitmapCompacto b = new BitmapCompacto();
+        BitSet esperadoA = new BitSet();
+        BitSet esperadoB = new BitSet();
+        // Chunks esparsos (arrays) e densos (bitmaps) nos dois lados das operações
+        for (int i = 0; i < 20000; i++) {
+            int valor = random.nextInt(4 * 65536);
+            if (valor < 65536 || random.nextInt(10) == 0) {
+                a.adicionar(valor);
+                esperadoA.set(valor);
+            }
+            int outro = random.nextInt(4 * 65536);
+            if (outro >= 2 * 65536 || random.nextInt(10) == 0) {
+                b.adicionar(outro);
+                esperadoB.set(outro);
+            }
+        }
+
+        assertEquals(esperadoA, bitSet(a));
+        assertEquals(esperadoA.cardinality(), a.cardinalidade());
+
+        BitSet e = (BitSet) esperadoA.clone();
+        e.and(esperadoB);
+        assertEquals(e, bitSet(a.e(b)));
+        BitSet ou = (BitSet) esperadoA.clone();
+        ou.or(esperadoB);
+        assertEquals(ou, bitSet(a.ou(b)));
+        BitSet menos = (BitSet) esperadoA.clone();
+        menos.andNot(esperadoB);
+        assertEquals(menos, bitSet(a.menos(b)));
+        assertEquals(esperadoA, bitSet(a));
+    }
+
+    @Test
+    void shouldConvertBetweenArrayAndBitmap() {
+        BitmapCompacto bitmap = new BitmapCompacto();
+        for (int i = 0; i < 10000; i += 2) {
+            bitmap.adicionar(i);
+        }
+        long bytesDenso = bitmap.bytes();
+        assertEquals(5000, bitmap.cardinalidade());
+        assertTrue(bitmap.contem(9998));
+        assertFalse(bitmap.contem(9999));
+
+        for (int i = 0; i < 9000; i += 2) {
+            bitmap.remover(i);
+        }
+        assertEquals(500, bitmap.cardinalidade());
+        assertTrue(bitmap.bytes() < bytesDenso);
+        assertArrayEquals(IntStream.range(4500, 5000).map(i -> i * 2).toArray(), bitmap.paraArray());
+
+        for (int i = 9000; i < 10000; i += 2) {
+            bitmap.remover(i);
+        }
+        assertTrue(bitmap.vazio());
+    }
+
+    private static BitSet bitSet(BitmapCompacto bitmap) {
+        BitSet bits = new BitSet();
+        bitmap.paraCada(bits::set);
+        return bits;
+    }
+}
@@ -0,0 +1,69 @@
+package com.contatos.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferCircularTest {
+
+    @Test
+    void shouldRejectWhenFullAndReuseSlotsAfterDraining() {
+        BufferCircular<Integer> buffer = new BufferCircular<>(4);
+        assertEquals(4, buffer.capacidade());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.oferecer(i));
+        }
+        assertFalse(buffer.oferecer(4));
+        assertEquals(4, buffer.tamanho());
+
+        List<Integer> drenados = new ArrayList<>();
+        assertEquals(3, buffer.drenar(drenados::add, 3));
+        assertTrue(buffer.oferecer(4));
+        assertEquals(2, buffer.drenar(drenados::add, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4), drenados);
+        assertEquals(0, buffer.tamanho());
+    }
+
+    @Test
+    void shouldDeliverEveryElementOnceWithConcurrentProducers() throws InterruptedException {
+        BufferCircular<Integer> buffer = new BufferCircular<>(64);
+        int produtores = 4;
+        int porProdutor = 20000;
+        CountDownLatch fim = new CountDownLatch(produtores);
+        for (int p = 0; p < produtores; p++) {
+            int base = p * porProdutor;
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < porProdutor; i++) {
+                    while (!buffer.oferecer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                fim.countDown();
+            });
+        }
+
+        boolean[] vistos = new boolean[produtores * porProdutor];
+        int[] ultimoPorProdutor = new int[produtores];
+        Arrays.fill(ultimoPorProdutor, -1);
+        AtomicInteger total = new AtomicInteger();
+        while (total.get() < vistos.length) {
+            buffer.drenar(valor -> {
+                assertFalse(vistos[valor]);
+                vistos[valor] = true;
+                // A ordem de cada produtor é preservada
+                int produtor = valor / porProdutor;
+                assertTrue(valor > ultimoPorProdutor[produtor]);
+                ultimoPorProdutor[produtor] = valor;
+                total.incrementAndGet();
+            }, 16);
+        }
+        fim.await();
+        assertEquals(0, buffer.tamanho());
+    }
+}
@@ -0,0 +1,91 @@
+package com.contatos.api.util;
+
+import com.contatos.api.model.ContatoDuplicidade;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DetectorDuplicadosTest {
+
+    private final DetectorDuplicados detector = new DetectorDuplicados(0.6, 500);
+
+    @Test
+    void shouldNormalizeBlockingKeys() {
+        assertEquals(ChavesDuplicidade.telefone("(41) 99988-7766"), ChavesDuplicidade.telefone("+55 41 9988-7766"));
+        assertEquals(ChavesDuplicidade.telefone("041 99988 7766"), ChavesDuplicidade.telefone("4199988-7766"));
+        assertNull(ChavesDuplicidade.telefone("123"));
+
+        assertEquals(ChavesDuplicidade.nomeFonetico("José da Silva"), ChavesDuplicidade.nomeFonetico("JOZE SYLVA"));
+        assertEquals(ChavesDuplicidade.nomeFonetico("Conceição Ferraz"), ChavesDuplicidade.nomeFonetico("Consseisão Feraz"));
+        assertEquals(ChavesDuplicidade.nomeFonetico("Raphael Gesse"), ChavesDuplicidade.nomeFonetico("Rafael Jesse"));
+        assertNotEquals(ChavesDuplicidade.nomeFonetico("Maria Souza"), ChavesDuplicidade.nomeFonetico("Mario Souza Lima"));
+
+        assertEquals("80010000/100A", ChavesDuplicidade.endereco("80010000", " 100 a"));
+        assertNull(ChavesDuplicidade.endereco("80010000", "S/N"));
+    }
+
+    @Test
+    void shouldGroupDuplicatesFoundThroughDifferentKeys() {
+        List<ContatoDuplicidade> contatos = List.of(
+                new ContatoDuplicidade(1L, "João da Silva", 52998224725L, "41999887766", "80010000", "100"),
+                // Mesmo telefone sem o nono dígito e nome sem acento
+                new ContatoDuplicidade(2L, "Joao Silva", 11144477735L, "(41) 9988-7766", "81000000", "5"),
+                // CPF com dois dígitos trocados e mesmo nome, telefone e endereço diferentes
+                new ContatoDuplicidade(3L, "João da Silva", 52998224752L, "11912345678", "01001000", "20"),
+                // Mesmo endereço, pessoa diferente
+                new ContatoDuplicidade(4L, "Maria Souza", 98765432100L, "41988776655", "80010000", "100"),
+                new ContatoDuplicidade(5L, "Pedro Alves", 12345678909L, "21977776666", "20000000", "1"));
+
+        List<DetectorDuplicados.Grupo> grupos = detector.detectar(contatos, ForkJoinPool.commonPool());
+
+        assertEquals(1, grupos.size());
+        assertEquals(List.of(1L, 2L, 3L), grupos.get(0).ids());
+        assertTrue(grupos.get(0).motivos().containsAll(Set.of(DetectorDuplicados.Motivo.TELEFONE,
+                DetectorDuplicados.Motivo.NOME, DetectorDuplicados.Motivo.CPF)));
+        assertTrue(grupos.get(0).pontuacao() >= 0.6 && grupos.get(0).pontuacao() <= 1);
+    }
+
+    @Test
+    void shouldFindTheSameGroupsInParallelAndSkipOversizedBlocks() {
+        List<ContatoDuplicidade> contatos = new ArrayList<>();
+        for (long i = 0; i < 3000; i++) {
+            // Pares (2k, 2k+1) com mesmo nome e telefone, blocos de 50 no mesmo CEP e um a cada 3 com o
+            // telefone da central
+            String telefone = i % 3 == 0 ? "4133330000" : "4199" + String.format("%06d", i / 2);
+            contatos.add(new ContatoDuplicidade(i, "Pessoa " + nome(i / 2), 10_000_000_000L + i * 7_919_113L,
+                    telefone, String.format("%08d", i / 50), "1"));
+        }
+
+        List<DetectorDuplicados.Grupo> sequencial = detector.detectar(contatos, new ForkJoinPool(1));
+        List<DetectorDuplicados.Grupo> paralelo = detector.detectar(contatos, new ForkJoinPool(4));
+
+        assertEquals(sequencial, paralelo);
+        assertFalse(paralelo.isEmpty());
+        // O bloco da central tem 1000 contatos: ignorado, então nenhum grupo junta CEPs diferentes
+        assertTrue(paralelo.stream().allMatch(grupo -> grupo.ids().stream().map(id -> id / 50).distinct().count() == 1));
+    }
+
+    @Test
+    void shouldScoreNameSimilarity() {
+        assertEquals(1.0, DetectorDuplicados.jaroWinkler("martha", "martha"));
+        assertEquals(0.961, DetectorDuplicados.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(0.0, DetectorDuplicados.jaroWinkler("abc", ""));
+        assertTrue(DetectorDuplicados.jaroWinkler("joao silva", "maria souza") < 0.7);
+    }
+
+    // Nomes distintos o bastante para não formarem blocos fonéticos entre si
+    private static String nome(long n) {
+        StringBuilder nome = new StringBuilder();
+        String letras = "bdfgjklmnprtv";
+        do {
+            nome.append(letras.charAt((int) (n % letras.length()))).append('a');
+            n /= letras.length();
+        } while (n > 0);
+        return nome.toString();
+    }
+}
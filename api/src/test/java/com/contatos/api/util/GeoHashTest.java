@@ -0,0 +1,52 @@
+package com.contatos.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoHashTest {
+
+    @Test
+    void shouldKeepNearbyPointsInTheSameCellPrefix() {
+        long curitiba = GeoHash.encode(-25.4284, -49.2733);
+        long vizinho = GeoHash.encode(-25.4285, -49.2734);
+        long saoPaulo = GeoHash.encode(-23.5505, -46.6333);
+
+        assertEquals(curitiba >>> 20, vizinho >>> 20);
+        assertNotEquals(curitiba >>> 20, saoPaulo >>> 20);
+        assertEquals(0L, GeoHash.encode(-90, -180));
+        assertEquals((1L << 52) - 1, GeoHash.encode(90, 180));
+    }
+
+    @Test
+    void shouldCoverEveryPointOfTheBoxWithAtMostFourRanges() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            double minLat = random.nextDouble() * 170 - 85;
+            double minLng = random.nextDouble() * 350 - 175;
+            double tamanho = Math.pow(10, random.nextDouble() * 4 - 3);
+            double maxLat = Math.min(90, minLat + tamanho);
+            double maxLng = Math.min(180, minLng + tamanho * 2);
+
+            List<GeoHash.Intervalo> intervalos = GeoHash.cobrir(minLat, minLng, maxLat, maxLng);
+            assertTrue(intervalos.size() <= 4);
+
+            for (int j = 0; j < 20; j++) {
+                double lat = minLat + random.nextDouble() * (maxLat - minLat);
+                double lng = minLng + random.nextDouble() * (maxLng - minLng);
+                long hash = GeoHash.encode(lat, lng);
+                assertTrue(intervalos.stream().anyMatch(r -> hash >= r.min() && hash <= r.max()),
+                        "ponto fora da cobertura: " + lat + "," + lng);
+            }
+        }
+    }
+
+    @Test
+    void shouldComputeGreatCircleDistance() {
+        assertEquals(338, GeoHash.distanciaKm(-25.4284, -49.2733, -23.5505, -46.6333), 2);
+        assertEquals(0, GeoHash.distanciaKm(-25.4284, -49.2733, -25.4284, -49.2733), 1e-9);
+    }
+}
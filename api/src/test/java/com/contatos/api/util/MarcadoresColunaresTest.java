@@ -0,0 +1,87 @@
+package com.contatos.api.util;
+
+import com.contatos.api.model.ContatoMarcador;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarcadoresColunaresTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldWriteDeltaEncodedJsonColumns() throws IOException {
+        MarcadoresColunares marcadores = marcadores();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marcadores.escreverJson(objectMapper.getFactory(), out);
+
+        JsonNode json = objectMapper.readTree(out.toByteArray());
+        assertEquals(5, json.get("precisao").asInt());
+        assertEquals(3, json.get("total").asInt());
+        assertEquals("[10,2,-1]", json.get("ids").toString());
+        assertEquals("[-2542840,-1160,0]", json.get("lat").toString());
+        assertEquals("[-4927330,330,1]", json.get("lng").toString());
+        assertEquals("[\"Ana\",\"José\",\"Zé\"]", json.get("nomes").toString());
+    }
+
+    @Test
+    void shouldRoundTripBinaryFormat() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marcadores().escreverBinario(out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        byte[] assinatura = in.readNBytes(4);
+        assertEquals("CTM", new String(assinatura, 0, 3, StandardCharsets.US_ASCII));
+        assertEquals(1, assinatura[3]);
+        assertEquals(5, in.readByte());
+        int total = (int) lerVarint(in);
+        assertEquals(3, total);
+
+        long[][] colunas = new long[3][total];
+        for (long[] coluna : colunas) {
+            long anterior = 0;
+            for (int i = 0; i < total; i++) {
+                long zigzag = lerVarint(in);
+                anterior += (zigzag >>> 1) ^ -(zigzag & 1);
+                coluna[i] = anterior;
+            }
+        }
+        assertArrayEquals(new long[] {10, 12, 11}, colunas[0]);
+        assertArrayEquals(new long[] {-2542840, -2544000, -2544000}, colunas[1]);
+        assertArrayEquals(new long[] {-4927330, -4927000, -4926999}, colunas[2]);
+
+        byte[] nome = in.readNBytes((int) lerVarint(in));
+        assertEquals("Ana", new String(nome, StandardCharsets.UTF_8));
+        in.readNBytes((int) lerVarint(in));
+        assertEquals("Zé", new String(in.readNBytes((int) lerVarint(in)), StandardCharsets.UTF_8));
+        assertEquals(-1, in.read());
+    }
+
+    private MarcadoresColunares marcadores() {
+        MarcadoresColunares marcadores = new MarcadoresColunares();
+        marcadores.adicionar(new ContatoMarcador(10L, "Ana", -25.4284, -49.2733));
+        marcadores.adicionar(new ContatoMarcador(12L, "José", -25.4400, -49.2700));
+        marcadores.adicionar(new ContatoMarcador(11L, "Zé", -25.4400, -49.26999));
+        return marcadores;
+    }
+
+    private static long lerVarint(DataInputStream in) throws IOException {
+        long valor = 0;
+        int deslocamento = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+}
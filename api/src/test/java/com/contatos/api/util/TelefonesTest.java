@@ -0,0 +1,28 @@
+package com.contatos.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelefonesTest {
+
+    @Test
+    void shouldNormalizeToE164Digits() {
+        assertEquals("5541999887766", Telefones.normalizar("(41) 99988-7766"));
+        assertEquals("5541999887766", Telefones.normalizar("041 99988 7766"));
+        assertEquals("5541999887766", Telefones.normalizar("+55 41 99988-7766"));
+        assertEquals("554133224455", Telefones.normalizar("55 41 3322-4455"));
+        assertEquals("14155552671", Telefones.normalizar("+1 (415) 555-2671"));
+        assertNull(Telefones.normalizar("99988-7766"));
+        assertNull(Telefones.normalizar("ramal 12"));
+    }
+
+    @Test
+    void shouldReverseDigitsForSuffixSearch() {
+        assertEquals("6677889991455", Telefones.reverso("(41) 99988-7766"));
+        // Sem DDD não há forma E.164: inverte os próprios dígitos
+        assertEquals("667788999", Telefones.reverso("99988-7766"));
+        assertTrue(Telefones.reverso("(41) 99988-7766").startsWith(Telefones.reverso("99988-7766")));
+        assertNull(Telefones.reverso("1234"));
+    }
+}